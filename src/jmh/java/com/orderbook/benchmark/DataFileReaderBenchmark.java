@@ -0,0 +1,115 @@
+package com.orderbook.benchmark;
+
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.util.BinaryOrderRecordReader;
+import com.orderbook.util.BinaryOrderRecordWriter;
+import com.orderbook.util.DataFileReader;
+import com.orderbook.util.LineView;
+import com.orderbook.util.MappedDataFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading a whole market data file of {@code lineCount} synthetic records with {@link DataFileReader},
+ * {@link MappedDataFileReader} and, for the same records, {@link BinaryOrderRecordReader}. A score is the time to
+ * read the file once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DataFileReaderBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int lineCount;
+
+    private Path directory;
+    private String csvPath;
+    private String binaryPath;
+    private final OrderRecord orderRecord = new OrderRecord();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Instrument instrument = new Instrument("BENCH", 4, 1);
+        OrderFlowGenerator orderFlowGenerator = new OrderFlowGenerator(instrument, 1000000, 100, 0.3, 0.1, 42);
+        List<OrderRecord> orderRecords = orderFlowGenerator.generate(lineCount);
+
+        directory = Files.createTempDirectory("orderbook-benchmark");
+        csvPath = directory.resolve("MarketDataFile-BENCH.csv").toString();
+        binaryPath = directory.resolve("MarketDataFile-BENCH.bin").toString();
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(csvPath)))) {
+            for (String line : orderFlowGenerator.toCsvLines(orderRecords)) {
+                writer.println(line);
+            }
+        }
+        try (BinaryOrderRecordWriter binaryWriter = new BinaryOrderRecordWriter(binaryPath, 4)) {
+            for (OrderRecord orderRecord : orderRecords) {
+                binaryWriter.write(orderRecord);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(csvPath));
+        Files.deleteIfExists(Paths.get(binaryPath));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long readDataFileReader() throws IOException {
+        DataFileReader dataFileReader = new DataFileReader(csvPath);
+        long length = 0;
+        while (dataFileReader.hasNext()) {
+            length += dataFileReader.nextLine().length();
+        }
+        dataFileReader.close();
+        return length;
+    }
+
+    @Benchmark
+    public long readMappedDataFileReader() throws IOException {
+        long length = 0;
+        try (MappedDataFileReader dataFileReader = new MappedDataFileReader(csvPath)) {
+            while (dataFileReader.hasNext()) {
+                LineView line = dataFileReader.nextLine();
+                length += line.length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long readBinaryOrderRecordReader() throws IOException {
+        long quantity = 0;
+        try (BinaryOrderRecordReader binaryReader = new BinaryOrderRecordReader(binaryPath)) {
+            while (binaryReader.hasNext()) {
+                binaryReader.next(orderRecord);
+                quantity += orderRecord.getQuantity();
+            }
+        }
+        return quantity;
+    }
+}
@@ -0,0 +1,145 @@
+package com.orderbook.benchmark;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.Order;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.PriceLevel;
+import com.orderbook.exception.OrderException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link OrderBook#executeOrder} and {@link OrderBook#removeOrder(String)} on a book with {@code depth}
+ * price levels on each side and {@code ordersPerLevel} orders of quantity 100 in each level. Every benchmark puts
+ * the book back into its original shape, so an operation is the measured action plus the order which restores the
+ * book: a passive add is followed by its cancel, a cross and a sweep by adding the filled orders again, a cancel by
+ * adding the order again at the end of its level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+
+    private static final long MID_PRICE = 10000;
+    private static final long QUANTITY = 100;
+    private static final int SWEEP_LEVELS = 5;
+
+    @Param({"TREE", "LADDER"})
+    public String engine;
+
+    @Param({"10", "100"})
+    public int depth;
+
+    @Param({"1", "10", "1000"})
+    public int ordersPerLevel;
+
+    private OrderBook orderBook;
+    // ids of the orders of the best bid level, in time priority
+    private String[] bestBidOrderIds;
+    private long[] passivePrices;
+    private int passiveIndex;
+    private int cancelIndex;
+    // orders filled by a sweep, added again in the same order
+    private String[] sweptOrderIds;
+    private long[] sweptPrices;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws OrderException {
+        Instrument instrument = engine.equals("LADDER")
+                ? new Instrument("BENCH", 2, 1, 1, 2 * MID_PRICE)
+                : new Instrument("BENCH", 2, 1);
+        orderBook = new OrderBook(instrument);
+        bestBidOrderIds = new String[ordersPerLevel];
+        for (int level = 1; level <= depth; level++) {
+            for (int i = 0; i < ordersPerLevel; i++) {
+                String bidOrderId = "B" + level + "-" + i;
+                add(bidOrderId, MID_PRICE - level, QUANTITY, OrderSide.BID);
+                add("S" + level + "-" + i, MID_PRICE + level, QUANTITY, OrderSide.ASK);
+                if(level == 1) {
+                    bestBidOrderIds[i] = bidOrderId;
+                }
+            }
+        }
+
+        Random random = new Random(42);
+        passivePrices = new long[1024];
+        for (int i = 0; i < passivePrices.length; i++) {
+            passivePrices[i] = MID_PRICE - 1 - random.nextInt(depth);
+        }
+        int sweptOrderCount = Math.min(SWEEP_LEVELS, depth) * ordersPerLevel;
+        sweptOrderIds = new String[sweptOrderCount];
+        sweptPrices = new long[sweptOrderCount];
+        passiveIndex = 0;
+        cancelIndex = 0;
+    }
+
+    @Benchmark
+    public void addNoCross() throws OrderException {
+        long price = passivePrices[passiveIndex++ & (passivePrices.length - 1)];
+        add("N", price, QUANTITY, OrderSide.BID);
+        orderBook.removeOrder("N");
+    }
+
+    @Benchmark
+    public void addSingleLevelCross() throws OrderException {
+        // fills the first order of the best bid, which is added again at the end of its level
+        PriceLevel bestBid = orderBook.getBuyOrders().best();
+        Order firstOrder = bestBid.peek();
+        String orderId = firstOrder.getOrderId();
+        long price = bestBid.getPrice();
+        add("C", price, QUANTITY, OrderSide.ASK);
+        add(orderId, price, QUANTITY, OrderSide.BID);
+    }
+
+    @Benchmark
+    public void addMultiLevelSweep() throws OrderException {
+        int sweptOrderCount = 0;
+        long sweepQuantity = 0;
+        long sweepPrice = 0;
+        PriceLevel level = orderBook.getBuyOrders().best();
+        for (int i = 0; i < SWEEP_LEVELS && level != null; i++) {
+            for (Order order = level.peek(); order != null; order = order.getNext()) {
+                sweptOrderIds[sweptOrderCount] = order.getOrderId();
+                sweptPrices[sweptOrderCount++] = level.getPrice();
+            }
+            sweepQuantity += level.getTotalQuantity();
+            sweepPrice = level.getPrice();
+            level = orderBook.getBuyOrders().nextWorse(level);
+        }
+        add("W", sweepPrice, sweepQuantity, OrderSide.ASK);
+        for (int i = 0; i < sweptOrderCount; i++) {
+            add(sweptOrderIds[i], sweptPrices[i], QUANTITY, OrderSide.BID);
+        }
+    }
+
+    @Benchmark
+    public void removeOrder() throws OrderException {
+        // cancels the orders of the best bid level in turn, the cancelled order goes to the end of the level
+        String orderId = bestBidOrderIds[cancelIndex];
+        cancelIndex = cancelIndex + 1 == ordersPerLevel ? 0 : cancelIndex + 1;
+        orderBook.removeOrder(orderId);
+        add(orderId, MID_PRICE - 1, QUANTITY, OrderSide.BID);
+    }
+
+    private void add(String orderId, long price, long quantity, OrderSide side) throws OrderException {
+        orderBook.executeOrder(orderBook.newOrder(orderId, price, quantity, side), OrderActionType.ADD);
+    }
+}
@@ -0,0 +1,130 @@
+package com.orderbook.benchmark;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.exception.OrderException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a synthetic order flow around a mid price. The flow is replayed on a scratch {@link OrderBook} while it
+ * is generated, so cancels only target resting orders, and it ends with the cancels of every order still resting.
+ * Replaying the whole flow on an empty book therefore leaves the book empty again, which lets a benchmark replay
+ * it in a loop without rejections.
+ */
+public class OrderFlowGenerator {
+
+    private final Instrument instrument;
+    private final long midPrice;
+    private final int depth;
+    private final double cancelRatio;
+    private final double crossRatio;
+    private final Random random;
+
+    /**
+     * <p>Constructs an OrderFlowGenerator</p>
+     * @param instrument instrument of the flow {@link Instrument}
+     * @param midPrice scaled mid price
+     * @param depth number of ticks on each side of the mid price which passive orders rest at
+     * @param cancelRatio share of records which cancel a resting order
+     * @param crossRatio share of added orders which cross the spread
+     * @param seed seed of the flow
+     */
+    public OrderFlowGenerator(Instrument instrument, long midPrice, int depth, double cancelRatio, double crossRatio,
+                              long seed) {
+        this.instrument = instrument;
+        this.midPrice = midPrice;
+        this.depth = depth;
+        this.cancelRatio = cancelRatio;
+        this.crossRatio = crossRatio;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * <p>Generates a flow of at least the given number of records, followed by the cancels of the orders which
+     * still rest</p>
+     * @param recordCount number of records before the final cancels
+     * @return order records of the flow
+     */
+    public List<OrderRecord> generate(int recordCount) {
+        OrderBook scratchBook = new OrderBook(instrument);
+        List<String> restingOrderIds = new ArrayList<>();
+        List<OrderRecord> orderRecords = new ArrayList<>(recordCount * 2);
+        long tickSize = instrument.getTickSize();
+        long nextOrderId = 1;
+
+        for (int i = 0; i < recordCount; i++) {
+            OrderRecord orderRecord = new OrderRecord();
+            if(!restingOrderIds.isEmpty() && random.nextDouble() < cancelRatio) {
+                String orderId = restingOrderIds.remove(random.nextInt(restingOrderIds.size()));
+                if(scratchBook.getOrder(orderId) == null) {
+                    // filled by a crossing order
+                    i--;
+                    continue;
+                }
+                orderRecord.set(OrderActionType.REMOVE, orderId, scratchBook.getOrder(orderId).getSide(), 0, 0);
+            } else {
+                OrderSide side = random.nextBoolean() ? OrderSide.BID : OrderSide.ASK;
+                long ticks = 1 + random.nextInt(depth);
+                boolean cross = random.nextDouble() < crossRatio;
+                // a bid below the mid rests, a bid above it crosses the resting asks
+                long offset = ((side == OrderSide.BID) != cross ? -ticks : ticks) * tickSize;
+                long quantity = 1 + random.nextInt(cross ? 500 : 100);
+                String orderId = String.valueOf(nextOrderId++);
+                orderRecord.set(OrderActionType.ADD, orderId, side, quantity, midPrice + offset);
+                restingOrderIds.add(orderId);
+            }
+            apply(scratchBook, orderRecord);
+            orderRecords.add(orderRecord);
+        }
+
+        // cancel what still rests, the flow leaves the book empty
+        for (String orderId : restingOrderIds) {
+            if(scratchBook.getOrder(orderId) != null) {
+                OrderRecord orderRecord = new OrderRecord();
+                orderRecord.set(OrderActionType.REMOVE, orderId, scratchBook.getOrder(orderId).getSide(), 0, 0);
+                apply(scratchBook, orderRecord);
+                orderRecords.add(orderRecord);
+            }
+        }
+        return orderRecords;
+    }
+
+    /**
+     * <p>Formats the records as market data file lines</p>
+     * @param orderRecords order records of the flow
+     * @return lines {@code <action>,<order id>,<side>,<quantity>,<price>}
+     */
+    public String[] toCsvLines(List<OrderRecord> orderRecords) {
+        String[] lines = new String[orderRecords.size()];
+        for (int i = 0; i < lines.length; i++) {
+            OrderRecord orderRecord = orderRecords.get(i);
+            // a cancel carries the price of the book side, the book only uses its id
+            long price = orderRecord.getActionType() == OrderActionType.ADD ? orderRecord.getPrice() : midPrice;
+            lines[i] = (orderRecord.getActionType() == OrderActionType.ADD ? "A" : "X") + ","
+                    + orderRecord.getOrderId() + ","
+                    + (orderRecord.getSide() == OrderSide.BID ? "B" : "S") + ","
+                    + orderRecord.getQuantity() + ","
+                    + instrument.toDecimalPrice(price).toPlainString();
+        }
+        return lines;
+    }
+
+    private void apply(OrderBook orderBook, OrderRecord orderRecord) {
+        try {
+            if(orderRecord.getActionType() == OrderActionType.REMOVE) {
+                orderBook.removeOrder(orderRecord.getOrderId());
+            } else {
+                orderBook.executeOrder(orderBook.newOrder(orderRecord.getOrderId(), orderRecord.getPrice(),
+                        orderRecord.getQuantity(), orderRecord.getSide()), OrderActionType.ADD);
+            }
+        } catch (OrderException e) {
+            throw new IllegalStateException("Generated flow rejected:" + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.orderbook.benchmark;
+
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link OrderProcessor} end to end from a market data file line, on a synthetic flow of
+ * {@code orderCount} records from an {@link OrderFlowGenerator}. The flow leaves the book empty, so it is replayed
+ * in a loop. {@link #processSplitRecord()} processes the same line split on commas, as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderProcessorBenchmark {
+
+    private static final String SYMBOL = "BENCH";
+    private static final long MID_PRICE = 1000000;
+
+    @Param({"TREE", "LADDER"})
+    public String engine;
+
+    @Param({"10", "100"})
+    public int depth;
+
+    @Param({"100000"})
+    public int orderCount;
+
+    private Instrument instrument;
+    private String[] lines;
+    private OrderProcessor orderProcessor;
+    private int lineIndex;
+
+    @Setup(Level.Trial)
+    public void setUpFlow() {
+        instrument = engine.equals("LADDER")
+                ? new Instrument(SYMBOL, 4, 1, 1, 2 * MID_PRICE)
+                : new Instrument(SYMBOL, 4, 1);
+        OrderFlowGenerator orderFlowGenerator = new OrderFlowGenerator(instrument, MID_PRICE, depth, 0.3, 0.1, 42);
+        lines = orderFlowGenerator.toCsvLines(orderFlowGenerator.generate(orderCount));
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpProcessor() {
+        orderProcessor = new OrderProcessor();
+        orderProcessor.registerInstrument(instrument);
+        lineIndex = 0;
+    }
+
+    @Benchmark
+    public OrderStatus processRecord() throws OrderException {
+        return orderProcessor.processRecord(SYMBOL, nextLine());
+    }
+
+    @Benchmark
+    public void processSplitRecord() throws OrderException {
+        orderProcessor.processOrder(SYMBOL, nextLine().split(","));
+    }
+
+    private String nextLine() {
+        String line = lines[lineIndex];
+        lineIndex = lineIndex + 1 == lines.length ? 0 : lineIndex + 1;
+        return line;
+    }
+}
@@ -0,0 +1,67 @@
+package com.orderbook.app;
+
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.util.BinaryOrderRecordFormat;
+import com.orderbook.util.BinaryOrderRecordWriter;
+import com.orderbook.util.LineView;
+import com.orderbook.util.MappedDataFileReader;
+import com.orderbook.util.OrderRecordParser;
+
+import java.io.IOException;
+
+/**
+ * Converts a market data CSV file to the {@link BinaryOrderRecordFormat}. Records which are not valid or have an
+ * order id which is not numeric are skipped and reported.
+ */
+public class CsvToBinaryConverter {
+
+    /**
+     * <p>Converts a CSV file to a binary file</p>
+     * @param csvPath value of the CSV file path
+     * @param binaryPath value of the binary file path, created or truncated
+     * @param priceScale number of decimal places kept in a scaled price
+     * @return number of skipped records
+     * @throws IOException when a file can not be read or written
+     */
+    public static long convert(String csvPath, String binaryPath, int priceScale) throws IOException {
+        OrderRecordParser orderRecordParser = new OrderRecordParser();
+        OrderRecord orderRecord = new OrderRecord();
+        long skippedCount = 0;
+
+        try (MappedDataFileReader dataFileReader = new MappedDataFileReader(csvPath);
+             BinaryOrderRecordWriter binaryWriter = new BinaryOrderRecordWriter(binaryPath, priceScale)) {
+            while (dataFileReader.hasNext()) {
+                LineView recordLine = dataFileReader.nextLine();
+                OrderStatus orderStatus = orderRecordParser.parse(recordLine, priceScale, orderRecord);
+                if(orderStatus == OrderStatus.ACCEPTED
+                        && BinaryOrderRecordFormat.toNumericOrderId(orderRecord.getOrderId()) < 0) {
+                    orderStatus = OrderStatus.INVALID_ORDER_ID;
+                }
+                if(orderStatus != OrderStatus.ACCEPTED) {
+                    System.out.println("Skipped order record:" + recordLine + " " + orderStatus);
+                    skippedCount++;
+                    continue;
+                }
+                binaryWriter.write(orderRecord);
+            }
+        }
+        return skippedCount;
+    }
+
+    public static void main(String[] args) {
+        if(args.length != 2 && args.length != 3) {
+            System.out.println("Usage: CsvToBinaryConverter <csv file> <binary file> [price scale]");
+            System.exit(-1);
+        }
+        int priceScale = args.length == 3 ? Integer.parseInt(args[2]) : Instrument.DEFAULT_PRICE_SCALE;
+        try {
+            long skippedCount = convert(args[0], args[1], priceScale);
+            System.out.println("Converted " + args[0] + " to " + args[1] + ", skipped records:" + skippedCount);
+        } catch (IOException e) {
+            System.out.println("Failed converting file:" + e.getMessage());
+            System.exit(-1);
+        }
+    }
+}
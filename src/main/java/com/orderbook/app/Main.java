@@ -1,49 +1,269 @@
 package com.orderbook.app;
 
-import com.orderbook.service.OrderProcessor;
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.OrderBookRenderer;
 import com.orderbook.exception.OrderException;
-import com.orderbook.util.DataFileReader;
+import com.orderbook.service.OrderProcessor;
+import com.orderbook.metrics.BookMetricsRegistry;
+import com.orderbook.metrics.BookMetricsReporter;
+import com.orderbook.metrics.LatencyMetricsRegistry;
+import com.orderbook.metrics.LatencyReporter;
 
-import java.io.FileNotFoundException;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 public class Main {
 
-    public static void main(String[] args) {
-        System.out.println("---- Order Book Management ----");
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final String USAGE = "Usage: Main <file> [--output=full|final|every:<N>] [--levels=<N>]"
+            + " [--latency-report=<file>] [--metrics-report=<file>] [--threads=<N>]\n"
+            + "       Main <directory or glob of files> [options]";
+    private static final long LATENCY_REPORT_INTERVAL_MILLIS = 1000;
+    private static final long METRICS_REPORT_INTERVAL_MILLIS = 1000;
 
-        if(args.length != 1) {
+    // output is buffered and only flushed when the buffer is full and at the end
+    private static Writer out;
+    private static final OrderBookRenderer orderBookRenderer = new OrderBookRenderer();
+    // the book is printed every printInterval accepted records, never during processing when 0
+    private static long printInterval = 1;
+    private static int maxLevels = OrderBookRenderer.ALL_LEVELS;
+    private static long acceptedCount;
+    // latencies are only recorded with a report file
+    private static String latencyReportPath;
+    // counters and gauges are only updated with a report file, and are also published with JMX
+    private static String metricsReportPath;
+    // files of many symbols are replayed on a fixed pool of threadCount threads, on virtual threads when 0
+    private static int threadCount;
+
+    public static void main(String[] args) {
+        if(args.length < 1) {
+            System.out.println("---- Order Book Management ----");
             System.out.println("Please provide the file path!");
+            System.out.println(USAGE);
             System.exit(-1);
         }
         String dataFilePath = args[0];
+        for (int i = 1; i < args.length; i++) {
+            if(!parseOption(args[i])) {
+                System.out.println("Invalid option:" + args[i] + "\n" + USAGE);
+                System.exit(-1);
+            }
+        }
+        // a directory or a glob pattern replays the file of every symbol concurrently
+        boolean isMultiFile = ParallelReplay.isMultiFilePath(dataFilePath);
         // assumption : file name contains the symbol
-        // file name pattern : MarketDataFile-<SYMBOL>.csv
-        if(!dataFilePath.matches(".*-.*\\.csv")) {
-            System.out.println("File Name Error!\nExpected:MarketDataFile-<SYMBOL>.csv");
+        // file name pattern : MarketDataFile-<SYMBOL>.csv or MarketDataFile-<SYMBOL>.bin for binary records
+        if(!isMultiFile && MarketDataFileReplay.getSymbol(dataFilePath) == null) {
+            System.out.println("File Name Error!\nExpected:MarketDataFile-<SYMBOL>.csv or MarketDataFile-<SYMBOL>.bin");
+            System.exit(-1);
+        }
+        LatencyMetricsRegistry latencyMetricsRegistry = null;
+        LatencyReporter latencyReporter = null;
+        Writer latencyOut = null;
+        if(latencyReportPath != null) {
+            latencyMetricsRegistry = new LatencyMetricsRegistry();
+            try {
+                latencyOut = new BufferedWriter(new FileWriter(latencyReportPath));
+                latencyReporter = new LatencyReporter(latencyMetricsRegistry, latencyOut);
+            } catch (IOException e) {
+                System.out.println("Failed writing latency report:" + e.getMessage());
+                System.exit(-1);
+            }
+            latencyReporter.start(LATENCY_REPORT_INTERVAL_MILLIS);
+        }
+        BookMetricsRegistry bookMetricsRegistry = null;
+        BookMetricsReporter bookMetricsReporter = null;
+        Writer metricsOut = null;
+        if(metricsReportPath != null) {
+            bookMetricsRegistry = new BookMetricsRegistry(true);
+            try {
+                metricsOut = new BufferedWriter(new FileWriter(metricsReportPath));
+                bookMetricsReporter = new BookMetricsReporter(bookMetricsRegistry, metricsOut);
+            } catch (IOException e) {
+                System.out.println("Failed writing metrics report:" + e.getMessage());
+                System.exit(-1);
+            }
+            bookMetricsReporter.start(METRICS_REPORT_INTERVAL_MILLIS);
+        }
+
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                StandardCharsets.US_ASCII), OUTPUT_BUFFER_SIZE);
+        try {
+            print("---- Order Book Management ----\n");
+            if(isMultiFile) {
+                replayFiles(dataFilePath, latencyMetricsRegistry, bookMetricsRegistry);
+            } else {
+                replayFile(dataFilePath, latencyMetricsRegistry, bookMetricsRegistry);
+            }
+            out.flush();
+            if(latencyReporter != null) {
+                latencyReporter.close();
+                latencyReporter.reportTotal();
+                latencyOut.close();
+            }
+            if(bookMetricsReporter != null) {
+                bookMetricsReporter.close();
+                metricsOut.close();
+                bookMetricsRegistry.close();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed writing output:" + e.getMessage());
             System.exit(-1);
         }
-        String symbol = dataFilePath.substring(dataFilePath.lastIndexOf('-') + 1, dataFilePath.lastIndexOf(".csv"));
+    }
+
+    /**
+     * <p>Parses an output option</p>
+     * @param option option argument
+     * @return true if the option is valid
+     */
+    private static boolean parseOption(String option) {
+        try {
+            if(option.equals("--output=full")) {
+                printInterval = 1;
+            } else if(option.equals("--output=final")) {
+                printInterval = 0;
+            } else if(option.startsWith("--output=every:")) {
+                printInterval = Long.parseLong(option.substring("--output=every:".length()));
+                return printInterval > 0;
+            } else if(option.startsWith("--levels=")) {
+                maxLevels = Integer.parseInt(option.substring("--levels=".length()));
+                return maxLevels > 0;
+            } else if(option.startsWith("--latency-report=")) {
+                latencyReportPath = option.substring("--latency-report=".length());
+                return !latencyReportPath.isEmpty();
+            } else if(option.startsWith("--threads=")) {
+                threadCount = Integer.parseInt(option.substring("--threads=".length()));
+                return threadCount > 0;
+            } else if(option.startsWith("--metrics-report=")) {
+                metricsReportPath = option.substring("--metrics-report=".length());
+                return !metricsReportPath.isEmpty();
+            } else {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private static void replayFile(String dataFilePath, LatencyMetricsRegistry latencyMetricsRegistry,
+                                   BookMetricsRegistry bookMetricsRegistry) {
         OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setLatencyMetricsRegistry(latencyMetricsRegistry);
+        orderProcessor.setBookMetricsRegistry(bookMetricsRegistry);
+        MarketDataFileReplay replay = new MarketDataFileReplay(dataFilePath, orderProcessor,
+                new MarketDataFileReplay.ReplayListener() {
+                    @Override
+                    public void onAccepted(OrderBook orderBook) {
+                        acceptedCount++;
+                        if(printInterval > 0 && acceptedCount % printInterval == 0) {
+                            printOrderBook(orderBook);
+                            print("\n");
+                        }
+                    }
+
+                    @Override
+                    public void onInvalidRecord(CharSequence record, OrderStatus orderStatus) {
+                        print("Invalid order record:");
+                        print(record);
+                        print(" " + orderStatus + "\n");
+                    }
+
+                    @Override
+                    public void onRejected(CharSequence record, OrderActionType orderActionType, String orderId,
+                                           OrderStatus orderStatus) {
+                        // the message of the exception such a reject threw before result codes
+                        print(OrderException.message(orderStatus, orderActionType, orderId) + "\n");
+                    }
+                });
+        replay.run();
+        if(replay.getFailure() != null) {
+            print(replay.getFailure() + "\n");
+        }
+
+        print("\nFinal state of Order Book\n");
+        printOrderBook(replay.getOrderBook());
+        print("\n");
+    }
+
+    /**
+     * <p>Replays the files of many symbols concurrently and prints the time of every file and the final state of
+     * every book. Books are not printed while they are replayed.</p>
+     */
+    private static void replayFiles(String dataFilesPath, LatencyMetricsRegistry latencyMetricsRegistry,
+                                    BookMetricsRegistry bookMetricsRegistry) throws IOException {
+        List<String> dataFiles;
+        try {
+            dataFiles = ParallelReplay.findDataFiles(dataFilesPath);
+        } catch (IOException | IllegalArgumentException e) {
+            print("Failed finding files:" + e.getMessage() + "\n");
+            return;
+        }
+        ParallelReplay parallelReplay = new ParallelReplay(threadCount);
+        parallelReplay.setLatencyMetricsRegistry(latencyMetricsRegistry);
+        parallelReplay.setBookMetricsRegistry(bookMetricsRegistry);
+
+        long startNanos = System.nanoTime();
+        List<MarketDataFileReplay> replays;
+        try {
+            replays = parallelReplay.run(dataFiles);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            print("Interrupted replaying files\n");
+            return;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
 
-        DataFileReader dataFileReader = null;
+        long totalAcceptedCount = 0;
+        long totalRejectedCount = 0;
+        print("\nfile,symbol,accepted,rejected,millis\n");
+        for (MarketDataFileReplay replay : replays) {
+            totalAcceptedCount += replay.getAcceptedCount();
+            totalRejectedCount += replay.getRejectedCount();
+            print(replay.getDataFilePath() + "," + replay.getSymbol() + "," + replay.getAcceptedCount() + ","
+                    + replay.getRejectedCount() + "," + replay.getElapsedNanos() / 1_000_000 + "\n");
+            if(replay.getFailure() != null) {
+                print(replay.getFailure() + "\n");
+            }
+        }
+        print("Files:" + replays.size() + " Accepted:" + totalAcceptedCount + " Rejected:" + totalRejectedCount
+                + " Millis:" + elapsedNanos / 1_000_000 + "\n");
+
+        for (MarketDataFileReplay replay : replays) {
+            print("\nFinal state of Order Book " + replay.getSymbol() + "\n");
+            printOrderBook(replay.getOrderBook());
+            print("\n");
+        }
+    }
+
+    private static void printOrderBook(OrderBook orderBook) {
         try {
-            dataFileReader = new DataFileReader(dataFilePath);
-            while (dataFileReader.hasNext()) {
-                String[] recordDetail = dataFileReader.nextLine().split(",");
-                try {
-                    orderProcessor.processOrder(symbol, recordDetail);
-                    System.out.println(orderProcessor.getOrderBook(symbol));
-                } catch (OrderException e) {
-                    System.out.println(e.getMessage());
-                }
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println("Failed reading file:" + e.getMessage());
-        } finally {
-            if(dataFileReader != null)
-                dataFileReader.close();
-        }
-
-        System.out.println("\nFinal state of Order Book\n" + orderProcessor.getOrderBook(symbol));
+            if(orderBook == null) {
+                out.write("null");
+            } else {
+                orderBookRenderer.render(orderBook, out, maxLevels);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void print(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
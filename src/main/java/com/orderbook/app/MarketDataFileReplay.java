@@ -0,0 +1,239 @@
+package com.orderbook.app;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.service.OrderProcessor;
+import com.orderbook.util.BinaryOrderRecordReader;
+import com.orderbook.util.LineView;
+import com.orderbook.util.MappedDataFileReader;
+import com.orderbook.util.OrderRecordParser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replays one market data file of one symbol into the book of the symbol, counting accepted and rejected records and
+ * timing the replay. CSV files are named {@code MarketDataFile-<SYMBOL>.csv}, binary order record files
+ * {@code MarketDataFile-<SYMBOL>.bin}. A replay runs on one thread, which owns the processor and the book.
+ */
+public class MarketDataFileReplay {
+
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile(".*-(.*)\\.(csv|bin)");
+
+    private final String dataFilePath;
+    private final String symbol;
+    private final OrderProcessor orderProcessor;
+    private final ReplayListener replayListener;
+    private long acceptedCount;
+    private long rejectedCount;
+    private long elapsedNanos;
+    private String failure;
+
+    /**
+     * Receives the records of a replay, on the thread of the replay.
+     */
+    public interface ReplayListener {
+
+        /**
+         * <p>Called after the book accepted a record</p>
+         * @param orderBook book of the symbol {@link OrderBook}
+         */
+        void onAccepted(OrderBook orderBook);
+
+        /**
+         * <p>Called when a record is not valid</p>
+         * @param record text of a CSV record, or {@code #<record number>} of a binary record
+         * @param orderStatus reason {@link OrderStatus}
+         */
+        void onInvalidRecord(CharSequence record, OrderStatus orderStatus);
+
+        /**
+         * <p>Called when the book rejected a record, as a duplicate or as an order to remove or modify which it does
+         * not have. {@link com.orderbook.exception.OrderException#message} gives the message of the exception the
+         * reject would have thrown.</p>
+         * @param record text of a CSV record, or {@code #<record number>} of a binary record
+         * @param orderActionType order action type of the record {@link OrderActionType}
+         * @param orderId value of the order id of the record
+         * @param orderStatus reason {@link OrderStatus}
+         */
+        void onRejected(CharSequence record, OrderActionType orderActionType, String orderId,
+                        OrderStatus orderStatus);
+    }
+
+    /**
+     * <p>Constructs a MarketDataFileReplay</p>
+     * @param dataFilePath value of the path of the market data file
+     * @param orderProcessor processor of the book of the symbol of the file {@link OrderProcessor}
+     * @param replayListener listener of the records {@link ReplayListener}, null to only count them
+     * @throws IllegalArgumentException when the file name does not contain a symbol
+     */
+    public MarketDataFileReplay(String dataFilePath, OrderProcessor orderProcessor, ReplayListener replayListener) {
+        this.symbol = getSymbol(dataFilePath);
+        if(symbol == null) {
+            throw new IllegalArgumentException("Invalid Market Data File Name:" + dataFilePath);
+        }
+        this.dataFilePath = dataFilePath;
+        this.orderProcessor = orderProcessor;
+        this.replayListener = replayListener;
+    }
+
+    /**
+     * <p>Returns the symbol in the name of a market data file</p>
+     * @param dataFilePath value of the path of the market data file
+     * @return value of the symbol, null if the name does not match {@code *-<SYMBOL>.csv} or {@code *-<SYMBOL>.bin}
+     */
+    public static String getSymbol(String dataFilePath) {
+        Path fileName = Paths.get(dataFilePath).getFileName();
+        if(fileName == null) {
+            return null;
+        }
+        Matcher matcher = FILE_NAME_PATTERN.matcher(fileName.toString());
+        return matcher.matches() && !matcher.group(1).isEmpty() ? matcher.group(1) : null;
+    }
+
+    /**
+     * <p>Replays the file. A file which can not be read is recorded as the failure of the replay.</p>
+     * @return this replay
+     */
+    public MarketDataFileReplay run() {
+        long startNanos = System.nanoTime();
+        if(dataFilePath.endsWith(".bin")) {
+            replayBinaryFile();
+        } else {
+            replayCsvFile();
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        return this;
+    }
+
+    private void replayCsvFile() {
+        OrderRecordParser orderRecordParser = new OrderRecordParser();
+        OrderRecord orderRecord = new OrderRecord();
+        try (MappedDataFileReader dataFileReader = new MappedDataFileReader(dataFilePath)) {
+            while (dataFileReader.hasNext()) {
+                LineView recordLine = dataFileReader.nextLine();
+                OrderStatus orderStatus = orderProcessor.processRecord(symbol, recordLine);
+                if(isRejectedByBook(orderStatus) && replayListener != null) {
+                    // only a reported reject is parsed again, for the action type and the id of the record
+                    orderRecordParser.parse(recordLine, getOrderBook().getInstrument().getPriceScale(), orderRecord);
+                }
+                onResult(recordLine, orderStatus, orderRecord);
+            }
+        } catch (IOException e) {
+            failure = "Failed reading file:" + e.getMessage();
+        }
+    }
+
+    private void replayBinaryFile() {
+        BinaryOrderRecordReader binaryReader;
+        try {
+            binaryReader = new BinaryOrderRecordReader(dataFilePath);
+        } catch (IOException | IllegalArgumentException e) {
+            failure = "Failed reading file:" + e.getMessage();
+            return;
+        }
+        try {
+            // prices of the file are scaled by the price scale of its header
+            orderProcessor.registerInstrument(new Instrument(symbol, binaryReader.getPriceScale(),
+                    Instrument.DEFAULT_TICK_SIZE));
+            OrderRecord orderRecord = new OrderRecord();
+            long recordNumber = 0;
+            while (binaryReader.hasNext()) {
+                recordNumber++;
+                OrderStatus orderStatus = binaryReader.next(orderRecord);
+                if(orderStatus == OrderStatus.ACCEPTED) {
+                    orderStatus = orderProcessor.processRecord(symbol, orderRecord);
+                }
+                onResult(orderStatus == OrderStatus.ACCEPTED || replayListener == null ? null : "#" + recordNumber,
+                        orderStatus, orderRecord);
+            }
+        } finally {
+            binaryReader.close();
+        }
+    }
+
+    private void onResult(CharSequence record, OrderStatus orderStatus, OrderRecord orderRecord) {
+        if(orderStatus == OrderStatus.ACCEPTED) {
+            acceptedCount++;
+            if(replayListener != null) {
+                replayListener.onAccepted(orderProcessor.getOrderBook(symbol));
+            }
+            return;
+        }
+        rejectedCount++;
+        if(replayListener == null) {
+            return;
+        }
+        if(isRejectedByBook(orderStatus)) {
+            replayListener.onRejected(record, orderRecord.getActionType(), orderRecord.getOrderId(), orderStatus);
+        } else {
+            replayListener.onInvalidRecord(record, orderStatus);
+        }
+    }
+
+    private static boolean isRejectedByBook(OrderStatus orderStatus) {
+        return orderStatus == OrderStatus.DUPLICATE_ORDER || orderStatus == OrderStatus.ORDER_NOT_FOUND;
+    }
+
+    /**
+     * <p>Returns the path of the market data file</p>
+     * @return value of the path
+     */
+    public String getDataFilePath() {
+        return dataFilePath;
+    }
+
+    /**
+     * <p>Returns the symbol of the file</p>
+     * @return value of the symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * <p>Returns the book of the symbol</p>
+     * @return book {@link OrderBook}, null if no record of the file was processed
+     */
+    public OrderBook getOrderBook() {
+        return orderProcessor.getOrderBook(symbol);
+    }
+
+    /**
+     * <p>Returns the number of records accepted by the book</p>
+     * @return accepted count
+     */
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * <p>Returns the number of records which were not valid or were rejected by the book</p>
+     * @return rejected count
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * <p>Returns the time the replay took</p>
+     * @return elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * <p>Returns why the file could not be read</p>
+     * @return failure message, null if the file was read
+     */
+    public String getFailure() {
+        return failure;
+    }
+}
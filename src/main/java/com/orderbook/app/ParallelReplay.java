@@ -0,0 +1,173 @@
+package com.orderbook.app;
+
+import com.orderbook.metrics.BookMetricsRegistry;
+import com.orderbook.metrics.LatencyMetricsRegistry;
+import com.orderbook.service.OrderProcessor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays the market data files of many symbols concurrently. Every file is replayed by one task with its own
+ * {@link OrderProcessor}, so every book is only touched by the thread of its task and matching takes no lock. Tasks
+ * run on virtual threads when the JDK has them, otherwise on a fixed pool with a thread per processor.
+ */
+public class ParallelReplay {
+
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final int threadCount;
+    private LatencyMetricsRegistry latencyMetricsRegistry;
+    private BookMetricsRegistry bookMetricsRegistry;
+
+    /**
+     * <p>Constructs a ParallelReplay which runs on virtual threads when the JDK has them</p>
+     */
+    public ParallelReplay() {
+        this(0);
+    }
+
+    /**
+     * <p>Constructs a ParallelReplay</p>
+     * @param threadCount number of threads of a fixed pool, 0 for virtual threads when the JDK has them
+     */
+    public ParallelReplay(int threadCount) {
+        if(threadCount < 0) {
+            throw new IllegalArgumentException("Invalid Thread Count:" + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * <p>Records the latencies of the books of every file. The histograms of a book are only written by its task.</p>
+     * @param latencyMetricsRegistry registry of the histograms of the books {@link LatencyMetricsRegistry}
+     */
+    public void setLatencyMetricsRegistry(LatencyMetricsRegistry latencyMetricsRegistry) {
+        this.latencyMetricsRegistry = latencyMetricsRegistry;
+    }
+
+    /**
+     * <p>Counts the messages of the books of every file. The values of a book are only written by its task.</p>
+     * @param bookMetricsRegistry registry of the counters and gauges of the books {@link BookMetricsRegistry}
+     */
+    public void setBookMetricsRegistry(BookMetricsRegistry bookMetricsRegistry) {
+        this.bookMetricsRegistry = bookMetricsRegistry;
+    }
+
+    /**
+     * <p>Checks whether a path argument names many files</p>
+     * @param path value of the path argument
+     * @return true if the path is a directory or a glob pattern
+     */
+    public static boolean isMultiFilePath(String path) {
+        for (int i = 0; i < GLOB_CHARACTERS.length(); i++) {
+            if(path.indexOf(GLOB_CHARACTERS.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return Files.isDirectory(Paths.get(path));
+    }
+
+    /**
+     * <p>Returns the market data files named by a path argument, sorted by path</p>
+     * @param path value of a directory, whose market data files are returned, or of a glob pattern such as
+     * {@code data/MarketDataFile-*.csv} whose directory part has no pattern
+     * @return paths of the market data files
+     * @throws IOException when the directory can not be listed
+     * @throws IllegalArgumentException when two files have the same symbol
+     */
+    public static List<String> findDataFiles(String path) throws IOException {
+        Path directory;
+        PathMatcher pathMatcher;
+        if(Files.isDirectory(Paths.get(path))) {
+            directory = Paths.get(path);
+            pathMatcher = null;
+        } else {
+            Path pattern = Paths.get(path);
+            directory = pattern.getParent() != null ? pattern.getParent() : Paths.get(".");
+            pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.getFileName());
+        }
+
+        List<String> dataFiles = new ArrayList<>();
+        HashMap<String, String> symbolFiles = new HashMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if(!Files.isRegularFile(entry) || MarketDataFileReplay.getSymbol(entry.toString()) == null
+                        || (pathMatcher != null && !pathMatcher.matches(entry.getFileName()))) {
+                    continue;
+                }
+                dataFiles.add(entry.toString());
+            }
+        }
+        Collections.sort(dataFiles);
+        for (String dataFile : dataFiles) {
+            String otherFile = symbolFiles.put(MarketDataFileReplay.getSymbol(dataFile), dataFile);
+            if(otherFile != null) {
+                throw new IllegalArgumentException("Same Symbol, Files:" + otherFile + ", " + dataFile);
+            }
+        }
+        return dataFiles;
+    }
+
+    /**
+     * <p>Replays files concurrently and waits until every replay ended</p>
+     * @param dataFiles paths of the market data files, one per symbol
+     * @return replays in the order of the files {@link MarketDataFileReplay}
+     * @throws InterruptedException when the calling thread is interrupted while waiting
+     */
+    public List<MarketDataFileReplay> run(List<String> dataFiles) throws InterruptedException {
+        List<MarketDataFileReplay> replays = new ArrayList<>(dataFiles.size());
+        for (String dataFile : dataFiles) {
+            OrderProcessor orderProcessor = new OrderProcessor();
+            orderProcessor.setLatencyMetricsRegistry(latencyMetricsRegistry);
+            orderProcessor.setBookMetricsRegistry(bookMetricsRegistry);
+            replays.add(new MarketDataFileReplay(dataFile, orderProcessor, null));
+        }
+
+        ExecutorService executorService = newExecutorService(replays.size());
+        try {
+            List<Future<MarketDataFileReplay>> futures = new ArrayList<>(replays.size());
+            for (MarketDataFileReplay replay : replays) {
+                futures.add(executorService.submit(replay::run));
+            }
+            for (Future<MarketDataFileReplay> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Replay failed", e.getCause());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        return replays;
+    }
+
+    private ExecutorService newExecutorService(int taskCount) {
+        if(threadCount == 0) {
+            // virtual threads are only in newer JDKs, which are not needed to build
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fixed pool below
+            }
+        }
+        int poolSize = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, taskCount)));
+    }
+}
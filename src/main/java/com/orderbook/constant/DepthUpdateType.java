@@ -0,0 +1,10 @@
+package com.orderbook.constant;
+
+/**
+ * Represents the change of a price level of an {@link com.orderbook.domain.OrderBook} side
+ */
+public enum DepthUpdateType {
+    ADD,
+    UPDATE,
+    REMOVE
+}
@@ -0,0 +1,17 @@
+package com.orderbook.constant;
+
+/**
+ * Represents an operation whose latency is recorded by {@link com.orderbook.metrics.LatencyMetrics}
+ */
+public enum LatencyOperation {
+    // OrderProcessor.processOrder, including the book operations
+    PROCESS_ORDER,
+    // OrderBook.executeOrder, including the matching
+    EXECUTE_ORDER,
+    // matching of an incoming order with the resting orders
+    RUN_EXECUTION,
+    // OrderBook.removeOrder by order id
+    REMOVE_ORDER,
+    // OrderBook.modifyOrder by order id, including the matching of a re-priced order
+    MODIFY_ORDER
+}
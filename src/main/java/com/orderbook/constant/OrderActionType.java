@@ -6,5 +6,7 @@ package com.orderbook.constant;
  */
 public enum OrderActionType {
     ADD,
-    REMOVE
+    REMOVE,
+    // amends the quantity and price of a resting order
+    MODIFY
 }
@@ -0,0 +1,17 @@
+package com.orderbook.constant;
+
+/**
+ * Represents the result of processing an order record. Values other than ACCEPTED give the reason of a reject.
+ */
+public enum OrderStatus {
+    ACCEPTED,
+    INVALID_RECORD,
+    INVALID_ACTION_TYPE,
+    INVALID_ORDER_ID,
+    INVALID_SIDE,
+    INVALID_QUANTITY,
+    INVALID_PRICE,
+    // rejected by the book
+    DUPLICATE_ORDER,
+    ORDER_NOT_FOUND
+}
@@ -0,0 +1,66 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * A {@link TradeListener} which collects the fills of an incoming order in a reused {@link TradeBatch} and hands
+ * them to a {@link TradeBatchListener} once the execution of the order ends. Nothing is allocated per fill once the
+ * batch is large enough for the largest execution.
+ */
+public class BatchingTradeListener implements TradeListener {
+
+    public static final int DEFAULT_BATCH_CAPACITY = 64;
+
+    private final TradeBatchListener tradeBatchListener;
+    private final TradeBatch tradeBatch;
+
+    /**
+     * <p>Constructs a BatchingTradeListener with the default batch capacity</p>
+     * @param tradeBatchListener listener of the batches {@link TradeBatchListener}
+     */
+    public BatchingTradeListener(TradeBatchListener tradeBatchListener) {
+        this(tradeBatchListener, DEFAULT_BATCH_CAPACITY);
+    }
+
+    /**
+     * <p>Constructs a BatchingTradeListener</p>
+     * @param tradeBatchListener listener of the batches {@link TradeBatchListener}
+     * @param batchCapacity number of fills the batch holds before it grows
+     */
+    public BatchingTradeListener(TradeBatchListener tradeBatchListener, int batchCapacity) {
+        if(tradeBatchListener == null) {
+            throw new IllegalArgumentException("Invalid Trade Batch Listener");
+        }
+        this.tradeBatchListener = tradeBatchListener;
+        this.tradeBatch = new TradeBatch(batchCapacity);
+    }
+
+    @Override
+    public void onTrade(String symbol, long sequenceNumber, String aggressorOrderId, String restingOrderId, long price,
+                        long quantity, OrderSide aggressorSide) {
+        tradeBatch.add(symbol, sequenceNumber, aggressorOrderId, restingOrderId, price, quantity, aggressorSide);
+    }
+
+    @Override
+    public void onTrade(String symbol, long sequenceNumber, long aggressorOrderId, long restingOrderId, long price,
+                        long quantity, OrderSide aggressorSide) {
+        tradeBatch.add(symbol, sequenceNumber, aggressorOrderId, restingOrderId, price, quantity, aggressorSide);
+    }
+
+    @Override
+    public void onExecutionEnd(String symbol, long aggressorOrderId) {
+        onExecutionEnd(symbol, null);
+    }
+
+    @Override
+    public void onExecutionEnd(String symbol, String aggressorOrderId) {
+        if(tradeBatch.size() == 0) {
+            return;
+        }
+        try {
+            tradeBatchListener.onTradeBatch(tradeBatch);
+        } finally {
+            tradeBatch.clear();
+        }
+    }
+}
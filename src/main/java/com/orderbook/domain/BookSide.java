@@ -0,0 +1,100 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * BookSide stores the price levels of one side of an {@link OrderBook}.
+ * Levels are visited in price priority, best price first: highest price for BID, lowest price for ASK.
+ * Only levels with resting orders are visible.
+ */
+public interface BookSide {
+
+    /**
+     * <p>Returns the side of the orders stored</p>
+     * @return side {@link OrderSide}
+     */
+    OrderSide getSide();
+
+    /**
+     * <p>Adds an order to the end of the level of its price, creating the level if needed</p>
+     * @param order order for add
+     */
+    void addOrder(Order order);
+
+    /**
+     * <p>Adds an order behind every order of the side, for building a side in one pass from orders in price and
+     * time priority, such as the orders of a snapshot</p>
+     * @param order order for add
+     * @throws IllegalArgumentException when the price of the order is better than the worst price of the side
+     */
+    void appendOrder(Order order);
+
+    /**
+     * <p>Removes an order from its level, removing the level when it becomes empty</p>
+     * @param order resting order for remove
+     */
+    void removeOrder(Order order);
+
+    /**
+     * <p>Returns the level of a price</p>
+     * @param price scaled price
+     * @return price level, null if no order rests at the price
+     */
+    PriceLevel get(long price);
+
+    /**
+     * <p>Checks whether orders rest at a price</p>
+     * @param price scaled price
+     * @return true if a level exists for the price
+     */
+    boolean containsKey(long price);
+
+    /**
+     * <p>Returns the level with the best price</p>
+     * @return best level, null if the side is empty
+     */
+    PriceLevel best();
+
+    /**
+     * <p>Returns the level with the worst price</p>
+     * @return worst level, null if the side is empty
+     */
+    PriceLevel worst();
+
+    /**
+     * <p>Returns the next level with a worse price</p>
+     * @param level current level
+     * @return next worse level, null if the current level is the worst
+     */
+    PriceLevel nextWorse(PriceLevel level);
+
+    /**
+     * <p>Returns the next level with a better price</p>
+     * @param level current level
+     * @return next better level, null if the current level is the best
+     */
+    PriceLevel nextBetter(PriceLevel level);
+
+    /**
+     * <p>Returns the number of levels</p>
+     * @return level count
+     */
+    int size();
+
+    /**
+     * <p>Returns the number of resting orders of all levels</p>
+     * @return order count
+     */
+    int getOrderCount();
+
+    /**
+     * <p>Checks whether the side has no levels</p>
+     * @return true if the side is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * <p>Removes all levels. Links of the resting orders are not reset.</p>
+     */
+    void clear();
+}
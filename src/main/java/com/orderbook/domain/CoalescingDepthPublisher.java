@@ -0,0 +1,168 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.DepthUpdateType;
+import com.orderbook.constant.OrderSide;
+
+/**
+ * A {@link DepthListener} which keeps only the last state of every level changed since the last {@link #flush()}
+ * and passes one update per changed level to the downstream listener on flush, in the order the levels first
+ * changed. A level which is added and removed again between two flushes is not published, a level which is removed
+ * and added again is published as an update. Nothing is allocated once the tables are large enough for the largest
+ * batch. Not thread safe.
+ */
+public class CoalescingDepthPublisher implements DepthListener {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final DepthListener downstream;
+
+    // pending levels in the order they first changed
+    private int size;
+    private String[] symbols;
+    private OrderSide[] sides;
+    private long[] prices;
+    private long[] totalQuantities;
+    private int[] orderCounts;
+    // true if the level existed before the batch
+    private boolean[] existedBefore;
+    // slot of the pending level in the table
+    private int[] tableSlots;
+
+    // open addressing table of pending level index + 1, 0 for a free slot
+    private int[] table;
+    private int tableMask;
+
+    /**
+     * <p>Constructs a CoalescingDepthPublisher with the default capacity</p>
+     * @param downstream listener of the coalesced updates {@link DepthListener}
+     */
+    public CoalescingDepthPublisher(DepthListener downstream) {
+        this(downstream, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Constructs a CoalescingDepthPublisher</p>
+     * @param downstream listener of the coalesced updates {@link DepthListener}
+     * @param capacity number of changed levels held before the tables grow
+     */
+    public CoalescingDepthPublisher(DepthListener downstream, int capacity) {
+        if(downstream == null) {
+            throw new IllegalArgumentException("Invalid Depth Listener");
+        }
+        if(capacity <= 0 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("Invalid Capacity:" + capacity);
+        }
+        this.downstream = downstream;
+        allocate(capacity);
+    }
+
+    @Override
+    public void onDepthUpdate(String symbol, OrderSide side, DepthUpdateType updateType, long price,
+                              long totalQuantity, int orderCount) {
+        int slot = hash(symbol, side, price) & tableMask;
+        while (table[slot] != 0) {
+            int index = table[slot] - 1;
+            if(prices[index] == price && sides[index] == side && symbols[index].equals(symbol)) {
+                totalQuantities[index] = totalQuantity;
+                orderCounts[index] = orderCount;
+                return;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+
+        if(size == prices.length) {
+            grow();
+            onDepthUpdate(symbol, side, updateType, price, totalQuantity, orderCount);
+            return;
+        }
+        symbols[size] = symbol;
+        sides[size] = side;
+        prices[size] = price;
+        totalQuantities[size] = totalQuantity;
+        orderCounts[size] = orderCount;
+        existedBefore[size] = updateType != DepthUpdateType.ADD;
+        tableSlots[size] = slot;
+        table[slot] = ++size;
+    }
+
+    /**
+     * <p>Returns the number of levels changed since the last flush</p>
+     * @return pending level count
+     */
+    public int getPendingCount() {
+        return size;
+    }
+
+    /**
+     * <p>Publishes one update per level changed since the last flush and empties the publisher</p>
+     */
+    public void flush() {
+        try {
+            for (int i = 0; i < size; i++) {
+                boolean existsAfter = orderCounts[i] > 0;
+                DepthUpdateType updateType;
+                if(existsAfter) {
+                    updateType = existedBefore[i] ? DepthUpdateType.UPDATE : DepthUpdateType.ADD;
+                } else if(existedBefore[i]) {
+                    updateType = DepthUpdateType.REMOVE;
+                } else {
+                    // added and removed within the batch
+                    continue;
+                }
+                downstream.onDepthUpdate(symbols[i], sides[i], updateType, prices[i], totalQuantities[i],
+                        orderCounts[i]);
+            }
+        } finally {
+            for (int i = 0; i < size; i++) {
+                table[tableSlots[i]] = 0;
+                symbols[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    private static int hash(String symbol, OrderSide side, long price) {
+        long hash = price * 0x9E3779B97F4A7C15L + symbol.hashCode() * 31L + side.ordinal();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        symbols = new String[capacity];
+        sides = new OrderSide[capacity];
+        prices = new long[capacity];
+        totalQuantities = new long[capacity];
+        orderCounts = new int[capacity];
+        existedBefore = new boolean[capacity];
+        tableSlots = new int[capacity];
+        // load factor of the table is kept at or below 0.5
+        table = new int[Integer.highestOneBit(capacity) * 4];
+        tableMask = table.length - 1;
+    }
+
+    private void grow() {
+        String[] oldSymbols = symbols;
+        OrderSide[] oldSides = sides;
+        long[] oldPrices = prices;
+        long[] oldTotalQuantities = totalQuantities;
+        int[] oldOrderCounts = orderCounts;
+        boolean[] oldExistedBefore = existedBefore;
+        int oldSize = size;
+
+        allocate(oldPrices.length * 2);
+        size = 0;
+        for (int i = 0; i < oldSize; i++) {
+            int slot = hash(oldSymbols[i], oldSides[i], oldPrices[i]) & tableMask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & tableMask;
+            }
+            symbols[size] = oldSymbols[i];
+            sides[size] = oldSides[i];
+            prices[size] = oldPrices[i];
+            totalQuantities[size] = oldTotalQuantities[i];
+            orderCounts[size] = oldOrderCounts[i];
+            existedBefore[size] = oldExistedBefore[i];
+            tableSlots[size] = slot;
+            table[slot] = ++size;
+        }
+    }
+}
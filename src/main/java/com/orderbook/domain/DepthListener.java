@@ -0,0 +1,24 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.DepthUpdateType;
+import com.orderbook.constant.OrderSide;
+
+/**
+ * Receives the price level changes of an {@link OrderBook}. It is called synchronously on the matching thread once
+ * per changed level of an add, a remove or an execution, with primitive values so that nothing is allocated.
+ * Applying the updates in order to an empty depth gives the depth of the book.
+ */
+public interface DepthListener {
+
+    /**
+     * <p>Called when a price level is added, changed or removed</p>
+     * @param symbol value of the symbol of the book
+     * @param side side of the level {@link OrderSide}
+     * @param updateType change of the level {@link DepthUpdateType}
+     * @param price scaled price of the level
+     * @param totalQuantity new total quantity of the level, 0 when the level is removed
+     * @param orderCount new number of orders of the level, 0 when the level is removed
+     */
+    void onDepthUpdate(String symbol, OrderSide side, DepthUpdateType updateType, long price, long totalQuantity,
+                       int orderCount);
+}
@@ -0,0 +1,125 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * Copy of the best levels of both sides of a book, read from a {@link PublishedDepth} by a thread other than the
+ * matching thread. All levels of a snapshot were published together, so the snapshot is a consistent view of the book
+ * at one point of the matching. Snapshots are reused, so reading one periodically allocates nothing. Not thread safe.
+ */
+public class DepthSnapshot {
+
+    private final long[] bidPrices;
+    private final long[] bidQuantities;
+    private final int[] bidOrderCounts;
+    private final long[] askPrices;
+    private final long[] askQuantities;
+    private final int[] askOrderCounts;
+    int bidCount;
+    int askCount;
+    long version;
+    long tradeSequenceNumber;
+
+    /**
+     * <p>Constructs an empty DepthSnapshot</p>
+     * @param maxLevels highest number of levels of each side
+     */
+    public DepthSnapshot(int maxLevels) {
+        if(maxLevels <= 0) {
+            throw new IllegalArgumentException("Invalid Max Levels:" + maxLevels);
+        }
+        bidPrices = new long[maxLevels];
+        bidQuantities = new long[maxLevels];
+        bidOrderCounts = new int[maxLevels];
+        askPrices = new long[maxLevels];
+        askQuantities = new long[maxLevels];
+        askOrderCounts = new int[maxLevels];
+    }
+
+    /**
+     * <p>Returns the highest number of levels of each side</p>
+     * @return max levels
+     */
+    public int getMaxLevels() {
+        return bidPrices.length;
+    }
+
+    /**
+     * <p>Returns the number of times the depth was published when the snapshot was read</p>
+     * @return version of the snapshot, 0 if nothing was published
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * <p>Returns the sequence number of the last fill of the book when the depth was published</p>
+     * @return trade sequence number
+     */
+    public long getTradeSequenceNumber() {
+        return tradeSequenceNumber;
+    }
+
+    /**
+     * <p>Returns the number of levels of a side</p>
+     * @param side side {@link OrderSide}
+     * @return level count, at most the max levels
+     */
+    public int getLevelCount(OrderSide side) {
+        return side == OrderSide.BID ? bidCount : askCount;
+    }
+
+    /**
+     * <p>Returns the price of a level</p>
+     * @param side side {@link OrderSide}
+     * @param level index of the level, 0 for the best level
+     * @return scaled price
+     */
+    public long getPrice(OrderSide side, int level) {
+        checkLevel(side, level);
+        return side == OrderSide.BID ? bidPrices[level] : askPrices[level];
+    }
+
+    /**
+     * <p>Returns the total quantity of a level</p>
+     * @param side side {@link OrderSide}
+     * @param level index of the level, 0 for the best level
+     * @return total quantity
+     */
+    public long getTotalQuantity(OrderSide side, int level) {
+        checkLevel(side, level);
+        return side == OrderSide.BID ? bidQuantities[level] : askQuantities[level];
+    }
+
+    /**
+     * <p>Returns the number of orders of a level</p>
+     * @param side side {@link OrderSide}
+     * @param level index of the level, 0 for the best level
+     * @return order count
+     */
+    public int getOrderCount(OrderSide side, int level) {
+        checkLevel(side, level);
+        return side == OrderSide.BID ? bidOrderCounts[level] : askOrderCounts[level];
+    }
+
+    /**
+     * <p>Sets a level, called while the snapshot is read</p>
+     */
+    void setLevel(OrderSide side, int level, long price, long totalQuantity, int orderCount) {
+        if(side == OrderSide.BID) {
+            bidPrices[level] = price;
+            bidQuantities[level] = totalQuantity;
+            bidOrderCounts[level] = orderCount;
+        } else {
+            askPrices[level] = price;
+            askQuantities[level] = totalQuantity;
+            askOrderCounts[level] = orderCount;
+        }
+    }
+
+    private void checkLevel(OrderSide side, int level) {
+        if(level < 0 || level >= getLevelCount(side)) {
+            throw new IndexOutOfBoundsException("Level:" + level + ", Level Count:" + getLevelCount(side));
+        }
+    }
+}
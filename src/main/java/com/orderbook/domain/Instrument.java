@@ -0,0 +1,165 @@
+package com.orderbook.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Instrument holds the price representation of a symbol traded in an {@link OrderBook}.
+ * Prices are kept as scaled longs (decimal price * 10^priceScale) and must be a multiple of the tick size.
+ * An instrument with a price band only accepts prices within the band, and its order book stores levels in a
+ * {@link TickLadderBookSide}.
+ */
+public class Instrument {
+
+    public static final int DEFAULT_PRICE_SCALE = 4;
+    public static final long DEFAULT_TICK_SIZE = 1;
+
+    private final String symbol;
+    private final int priceScale;
+    private final long tickSize;
+    private final long minPrice;
+    private final long maxPrice;
+
+    /**
+     * <p>Constructs an Instrument with the default price scale and tick size</p>
+     * @param symbol value of the symbol
+     */
+    public Instrument(String symbol) {
+        this(symbol, DEFAULT_PRICE_SCALE, DEFAULT_TICK_SIZE);
+    }
+
+    /**
+     * <p>Constructs an Instrument</p>
+     * @param symbol value of the symbol
+     * @param priceScale number of decimal places kept in a scaled price
+     * @param tickSize minimum price increment, in scaled price units
+     */
+    public Instrument(String symbol, int priceScale, long tickSize) {
+        this(symbol, priceScale, tickSize, 0, 0);
+    }
+
+    /**
+     * <p>Constructs an Instrument with a price band</p>
+     * @param symbol value of the symbol
+     * @param priceScale number of decimal places kept in a scaled price
+     * @param tickSize minimum price increment, in scaled price units
+     * @param minPrice lowest valid scaled price, 0 if the instrument has no price band
+     * @param maxPrice highest valid scaled price, 0 if the instrument has no price band
+     */
+    public Instrument(String symbol, int priceScale, long tickSize, long minPrice, long maxPrice) {
+        if(!isValidSymbol(symbol)) {
+            throw new IllegalArgumentException("Invalid Symbol:" + symbol);
+        }
+        if(priceScale < 0 || priceScale > 18) {
+            throw new IllegalArgumentException("Invalid Price Scale:" + priceScale);
+        }
+        if(tickSize <= 0) {
+            throw new IllegalArgumentException("Invalid Tick Size:" + tickSize);
+        }
+        if(minPrice != 0 || maxPrice != 0) {
+            if(minPrice <= 0 || maxPrice < minPrice || minPrice % tickSize != 0 || maxPrice % tickSize != 0) {
+                throw new IllegalArgumentException("Invalid Price Band:" + minPrice + "-" + maxPrice);
+            }
+        }
+        this.symbol = symbol;
+        this.priceScale = priceScale;
+        this.tickSize = tickSize;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    /**
+     * <p>Returns the value of the symbol</p>
+     * @return value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * <p>Returns the number of decimal places kept in a scaled price</p>
+     * @return price scale
+     */
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    /**
+     * <p>Returns the minimum price increment in scaled price units</p>
+     * @return tick size
+     */
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    /**
+     * <p>Returns the lowest valid scaled price</p>
+     * @return lower bound of the price band, 0 if the instrument has no price band
+     */
+    public long getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * <p>Returns the highest valid scaled price</p>
+     * @return upper bound of the price band, 0 if the instrument has no price band
+     */
+    public long getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * <p>Checks whether the instrument has a price band</p>
+     * @return true if prices are bounded
+     */
+    public boolean hasPriceBand() {
+        return maxPrice > 0;
+    }
+
+    /**
+     * <p>Converts a decimal price to the scaled long representation</p>
+     * @param price decimal price
+     * @return scaled price
+     * @throws IllegalArgumentException when the price is not representable with this price scale and tick size
+     */
+    public long toScaledPrice(BigDecimal price) {
+        if(price == null) {
+            throw new IllegalArgumentException("Invalid Order Price:" + price);
+        }
+        long scaledPrice;
+        try {
+            scaledPrice = price.movePointRight(priceScale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid Order Price:" + price);
+        }
+        if(!isValidPrice(scaledPrice)) {
+            throw new IllegalArgumentException("Invalid Order Price:" + price);
+        }
+        return scaledPrice;
+    }
+
+    /**
+     * <p>Converts a scaled price back to its decimal value</p>
+     * @param scaledPrice scaled price
+     * @return decimal price without trailing zeros
+     */
+    public BigDecimal toDecimalPrice(long scaledPrice) {
+        BigDecimal price = BigDecimal.valueOf(scaledPrice, priceScale).stripTrailingZeros();
+        return price.scale() < 0 ? price.setScale(0) : price;
+    }
+
+    /**
+     * <p>Checks whether a scaled price is positive, on the tick grid and within the price band if there is one</p>
+     * @param scaledPrice scaled price
+     * @return true if the price is valid for this instrument
+     */
+    public boolean isValidPrice(long scaledPrice) {
+        if(scaledPrice <= 0 || scaledPrice % tickSize != 0) {
+            return false;
+        }
+        return !hasPriceBand() || (scaledPrice >= minPrice && scaledPrice <= maxPrice);
+    }
+
+    private boolean isValidSymbol(String symbol) {
+        return symbol != null && !symbol.trim().equals("");
+    }
+}
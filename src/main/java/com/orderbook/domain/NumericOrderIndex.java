@@ -0,0 +1,222 @@
+package com.orderbook.domain;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * NumericOrderIndex maps numeric order ids to the resting {@link Order}s of an {@link OrderBook} with numeric order
+ * ids. It is an open addressing hash table with linear probing over a primitive key array, so a lookup compares longs
+ * of one array without touching the orders, and get, put and remove allocate nothing unless the table grows. Removal
+ * shifts the following entries back instead of leaving tombstones.
+ */
+public class NumericOrderIndex {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    // key of a free slot, order ids are not negative
+    private static final long FREE = -1;
+
+    private long[] keys;
+    private Order[] orders;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * <p>Constructs an empty NumericOrderIndex with the default capacity</p>
+     */
+    public NumericOrderIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Constructs an empty NumericOrderIndex</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public NumericOrderIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * <p>Grows the table once for the given number of orders, so indexing them does not grow it step by step</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public void ensureCapacity(int expectedSize) {
+        if(expectedSize > resizeThreshold) {
+            long[] oldKeys = keys;
+            Order[] oldOrders = orders;
+            allocate(Integer.highestOneBit(expectedSize * 2 - 1) << 1);
+            rehash(oldKeys, oldOrders);
+        }
+    }
+
+    /**
+     * <p>Returns the order with the given id</p>
+     * @param orderId value of the numeric id of the order
+     * @return order, null if not found
+     */
+    public Order get(long orderId) {
+        int slot = slotOf(orderId);
+        return slot < 0 ? null : orders[slot];
+    }
+
+    /**
+     * <p>Checks whether an order with the given id is indexed</p>
+     * @param orderId value of the numeric id of the order
+     * @return true if found
+     */
+    public boolean containsKey(long orderId) {
+        return slotOf(orderId) >= 0;
+    }
+
+    /**
+     * <p>Indexes an order by its numeric id, replacing an order with the same id</p>
+     * @param order order for index
+     * @throws IllegalArgumentException when the order has no numeric id
+     */
+    public void put(Order order) {
+        long orderId = order.getNumericOrderId();
+        if(orderId < 0) {
+            throw new IllegalArgumentException("Invalid Order Id:" + order.getOrderId());
+        }
+        long[] keys = this.keys;
+        int slot = homeSlot(orderId);
+        while(keys[slot] != FREE) {
+            if(keys[slot] == orderId) {
+                orders[slot] = order;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = orderId;
+        orders[slot] = order;
+        if(++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * <p>Removes the order with the given id</p>
+     * @param orderId value of the numeric id of the order
+     * @return removed order, null if not found
+     */
+    public Order remove(long orderId) {
+        int slot = slotOf(orderId);
+        if(slot < 0) {
+            return null;
+        }
+        long[] keys = this.keys;
+        Order order = orders[slot];
+        size--;
+        // shift back the entries of the probe sequence which follows the removed slot
+        int free = slot;
+        int next = (slot + 1) & mask;
+        while(keys[next] != FREE) {
+            int home = homeSlot(keys[next]);
+            if(((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                orders[free] = orders[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = FREE;
+        orders[free] = null;
+        return order;
+    }
+
+    /**
+     * <p>Returns the number of indexed orders</p>
+     * @return order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of slots of the table</p>
+     * @return capacity
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * <p>Checks whether no order is indexed</p>
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * <p>Performs an action for every indexed order, in no particular order</p>
+     * @param action action to perform
+     */
+    public void forEach(Consumer<? super Order> action) {
+        for (Order order : orders) {
+            if(order != null) {
+                action.accept(order);
+            }
+        }
+    }
+
+    /**
+     * <p>Removes all orders, keeping the capacity</p>
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(orders, null);
+        size = 0;
+    }
+
+    private int slotOf(long orderId) {
+        if(orderId < 0) {
+            return -1;
+        }
+        long[] keys = this.keys;
+        int slot = homeSlot(orderId);
+        while(keys[slot] != FREE) {
+            if(keys[slot] == orderId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int homeSlot(long orderId) {
+        // sequential ids are spread over the table by the multiplication
+        long hash = orderId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Order[] oldOrders = orders;
+        allocate(oldKeys.length << 1);
+        rehash(oldKeys, oldOrders);
+    }
+
+    private void rehash(long[] oldKeys, Order[] oldOrders) {
+        for (int i = 0; i < oldKeys.length; i++) {
+            if(oldKeys[i] != FREE) {
+                int slot = homeSlot(oldKeys[i]);
+                while(keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                orders[slot] = oldOrders[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        orders = new Order[capacity];
+        mask = capacity - 1;
+        // keeps the load factor at or below 0.5 for short probe sequences
+        resizeThreshold = capacity >> 1;
+    }
+}
@@ -0,0 +1,341 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * OffHeapBookSide is the {@link TickLadderBookSide} of a book which stores its resting orders in an
+ * {@link OffHeapOrderStore}. The levels of the price band are fixed width records of a direct {@link ByteBuffer},
+ * indexed by the tick offset of the price from the lower bound of the band, which hold the head and tail slots of the
+ * queue of the level, its number of orders and its total quantity. Levels are addressed by their int index and
+ * orders by their int slot, so neither levels nor orders are heap objects. The best and the worst levels are tracked
+ * incrementally. Not thread safe.
+ */
+public class OffHeapBookSide {
+
+    // index of no level, returned when a side has no level in the asked direction
+    public static final int NO_LEVEL = -1;
+
+    // layout of a level
+    private static final int LEVEL_SIZE = 24;
+    private static final int HEAD_OFFSET = 0;
+    private static final int TAIL_OFFSET = 4;
+    private static final int ORDER_COUNT_OFFSET = 8;
+    private static final int TOTAL_QUANTITY_OFFSET = 16;
+
+    private final OrderSide side;
+    private final OffHeapOrderStore orderStore;
+    private final long minPrice;
+    private final long maxPrice;
+    private final long tickSize;
+    private final ByteBuffer levels;
+    // direction of the index towards worse prices
+    private final int worseStep;
+    private int bestIndex = NO_LEVEL;
+    private int worstIndex = NO_LEVEL;
+    private int levelCount;
+    private int orderCount;
+
+    /**
+     * <p>Constructs an empty OffHeapBookSide for the price band of an instrument</p>
+     * @param side side of the orders stored {@link OrderSide}
+     * @param instrument instrument with a price band {@link Instrument}
+     * @param orderStore store of the orders of the side, which may be shared with the other side of the book
+     */
+    public OffHeapBookSide(OrderSide side, Instrument instrument, OffHeapOrderStore orderStore) {
+        if(!instrument.hasPriceBand()) {
+            throw new IllegalArgumentException("No price band, Symbol:" + instrument.getSymbol());
+        }
+        long levelCount = (instrument.getMaxPrice() - instrument.getMinPrice()) / instrument.getTickSize() + 1;
+        if(levelCount > TickLadderBookSide.MAX_LEVELS) {
+            throw new IllegalArgumentException("Price band too wide, Symbol:" + instrument.getSymbol());
+        }
+        this.side = side;
+        this.orderStore = orderStore;
+        this.minPrice = instrument.getMinPrice();
+        this.maxPrice = instrument.getMaxPrice();
+        this.tickSize = instrument.getTickSize();
+        // a direct buffer starts zeroed, so every level starts empty
+        this.levels = ByteBuffer.allocateDirect((int) levelCount * LEVEL_SIZE).order(ByteOrder.nativeOrder());
+        this.worseStep = side == OrderSide.BID ? -1 : 1;
+    }
+
+    /**
+     * <p>Returns the side of the orders stored</p>
+     * @return side {@link OrderSide}
+     */
+    public OrderSide getSide() {
+        return side;
+    }
+
+    /**
+     * <p>Returns the store of the orders of the side</p>
+     * @return order store {@link OffHeapOrderStore}
+     */
+    public OffHeapOrderStore getOrderStore() {
+        return orderStore;
+    }
+
+    /**
+     * <p>Links an order at the back of the queue of its price, adding the level when it is empty</p>
+     * @param slot slot index of an order of the store, not linked to any queue
+     * @return index of the level of the order
+     * @throws IllegalArgumentException when the price of the order is out of the band or not on the tick grid
+     */
+    public int addOrder(int slot) {
+        int index = toIndex(orderStore.getPrice(slot));
+        if(index < 0) {
+            throw new IllegalArgumentException("Price out of band, Order:" + orderStore.getOrderId(slot));
+        }
+        int offset = index * LEVEL_SIZE;
+        int levelOrderCount = levels.getInt(offset + ORDER_COUNT_OFFSET);
+        if(levelOrderCount == 0) {
+            orderStore.linkAfter(OffHeapOrderStore.NO_SLOT, slot);
+            levels.putInt(offset + HEAD_OFFSET, slot);
+            levelCount++;
+            if(bestIndex < 0) {
+                bestIndex = index;
+                worstIndex = index;
+            } else if(isBetter(index, bestIndex)) {
+                bestIndex = index;
+            } else if(isBetter(worstIndex, index)) {
+                worstIndex = index;
+            }
+        } else {
+            orderStore.linkAfter(levels.getInt(offset + TAIL_OFFSET), slot);
+        }
+        levels.putInt(offset + TAIL_OFFSET, slot);
+        levels.putInt(offset + ORDER_COUNT_OFFSET, levelOrderCount + 1);
+        levels.putLong(offset + TOTAL_QUANTITY_OFFSET,
+                levels.getLong(offset + TOTAL_QUANTITY_OFFSET) + orderStore.getQuantity(slot));
+        orderCount++;
+        return index;
+    }
+
+    /**
+     * <p>Links an order behind every order of the side, such as an order restored in price and time priority</p>
+     * @param slot slot index of an order of the store, not linked to any queue
+     * @return index of the level of the order
+     * @throws IllegalArgumentException when the price of the order is out of the band, when it is better than the
+     * worst level
+     */
+    public int appendOrder(int slot) {
+        int index = toIndex(orderStore.getPrice(slot));
+        if(index >= 0 && worstIndex >= 0 && isBetter(index, worstIndex)) {
+            throw new IllegalArgumentException("Price better than the worst level, Order:"
+                    + orderStore.getOrderId(slot));
+        }
+        return addOrder(slot);
+    }
+
+    /**
+     * <p>Unlinks an order from the queue of its level, removing the level when it becomes empty. The slot stays in
+     * use, the caller frees it or links it again.</p>
+     * @param slot slot index of an order of the side
+     * @return index of the level of the order
+     */
+    public int removeOrder(int slot) {
+        int index = toIndex(orderStore.getPrice(slot));
+        int offset = index * LEVEL_SIZE;
+        if(orderStore.getPrev(slot) == OffHeapOrderStore.NO_SLOT) {
+            levels.putInt(offset + HEAD_OFFSET, orderStore.getNext(slot));
+        }
+        if(orderStore.getNext(slot) == OffHeapOrderStore.NO_SLOT) {
+            levels.putInt(offset + TAIL_OFFSET, orderStore.getPrev(slot));
+        }
+        orderStore.unlink(slot);
+        int levelOrderCount = levels.getInt(offset + ORDER_COUNT_OFFSET) - 1;
+        levels.putInt(offset + ORDER_COUNT_OFFSET, levelOrderCount);
+        levels.putLong(offset + TOTAL_QUANTITY_OFFSET,
+                levels.getLong(offset + TOTAL_QUANTITY_OFFSET) - orderStore.getQuantity(slot));
+        orderCount--;
+        if(levelOrderCount == 0) {
+            levelCount--;
+            if(levelCount == 0) {
+                bestIndex = NO_LEVEL;
+                worstIndex = NO_LEVEL;
+            } else if(index == bestIndex) {
+                bestIndex = findLevel(index, worseStep);
+            } else if(index == worstIndex) {
+                worstIndex = findLevel(index, -worseStep);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * <p>Sets the quantity of a linked order in place, keeping its place in the queue</p>
+     * @param slot slot index of an order of the side
+     * @param quantity new quantity, positive
+     * @return index of the level of the order
+     */
+    public int setQuantity(int slot, long quantity) {
+        int offset = toIndex(orderStore.getPrice(slot)) * LEVEL_SIZE;
+        levels.putLong(offset + TOTAL_QUANTITY_OFFSET,
+                levels.getLong(offset + TOTAL_QUANTITY_OFFSET) + quantity - orderStore.getQuantity(slot));
+        orderStore.setQuantity(slot, quantity);
+        return offset / LEVEL_SIZE;
+    }
+
+    /**
+     * <p>Returns the level of a price</p>
+     * @param price scaled price
+     * @return index of the level, NO_LEVEL if the level is empty or the price is out of the band
+     */
+    public int getLevel(long price) {
+        int index = toIndex(price);
+        return index < 0 || getOrderCount(index) == 0 ? NO_LEVEL : index;
+    }
+
+    /**
+     * <p>Returns the best level</p>
+     * @return index of the level, NO_LEVEL if the side is empty
+     */
+    public int best() {
+        return bestIndex;
+    }
+
+    /**
+     * <p>Returns the worst level</p>
+     * @return index of the level, NO_LEVEL if the side is empty
+     */
+    public int worst() {
+        return worstIndex;
+    }
+
+    /**
+     * <p>Returns the next worse level</p>
+     * @param index index of a non empty level
+     * @return index of the level, NO_LEVEL if the given level is the worst one
+     */
+    public int nextWorse(int index) {
+        return index == worstIndex ? NO_LEVEL : findLevel(index, worseStep);
+    }
+
+    /**
+     * <p>Returns the next better level</p>
+     * @param index index of a non empty level
+     * @return index of the level, NO_LEVEL if the given level is the best one
+     */
+    public int nextBetter(int index) {
+        return index == bestIndex ? NO_LEVEL : findLevel(index, -worseStep);
+    }
+
+    /**
+     * <p>Returns the price of a level</p>
+     * @param index index of the level
+     * @return scaled price
+     */
+    public long getPrice(int index) {
+        return minPrice + index * tickSize;
+    }
+
+    /**
+     * <p>Returns the first order of the queue of a level</p>
+     * @param index index of the level
+     * @return slot index, NO_SLOT if the level is empty
+     */
+    public int getHead(int index) {
+        return getOrderCount(index) == 0 ? OffHeapOrderStore.NO_SLOT : levels.getInt(index * LEVEL_SIZE + HEAD_OFFSET);
+    }
+
+    /**
+     * <p>Returns the number of orders of a level</p>
+     * @param index index of the level
+     * @return order count
+     */
+    public int getOrderCount(int index) {
+        return levels.getInt(index * LEVEL_SIZE + ORDER_COUNT_OFFSET);
+    }
+
+    /**
+     * <p>Returns the sum of the quantities of the orders of a level</p>
+     * @param index index of the level
+     * @return total quantity
+     */
+    public long getTotalQuantity(int index) {
+        return levels.getLong(index * LEVEL_SIZE + TOTAL_QUANTITY_OFFSET);
+    }
+
+    /**
+     * <p>Returns the number of non empty levels</p>
+     * @return level count
+     */
+    public int size() {
+        return levelCount;
+    }
+
+    /**
+     * <p>Returns the number of orders of the side</p>
+     * @return order count
+     */
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * <p>Checks whether the side has no level</p>
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return levelCount == 0;
+    }
+
+    /**
+     * <p>Returns the size of the levels, which are outside the heap</p>
+     * @return bytes of direct memory
+     */
+    public long getOffHeapBytes() {
+        return levels.capacity();
+    }
+
+    /**
+     * <p>Empties every level. The orders are not unlinked, the store is cleared with the side.</p>
+     */
+    public void clear() {
+        if(levelCount > 0) {
+            int from = Math.min(bestIndex, worstIndex);
+            int to = Math.max(bestIndex, worstIndex);
+            for (int i = from; i <= to; i++) {
+                levels.putInt(i * LEVEL_SIZE + ORDER_COUNT_OFFSET, 0);
+                levels.putLong(i * LEVEL_SIZE + TOTAL_QUANTITY_OFFSET, 0);
+            }
+        }
+        bestIndex = NO_LEVEL;
+        worstIndex = NO_LEVEL;
+        levelCount = 0;
+        orderCount = 0;
+    }
+
+    /**
+     * <p>Returns the ladder index of a price</p>
+     * @param price scaled price
+     * @return index, -1 if the price is out of the band or not on the tick grid
+     */
+    private int toIndex(long price) {
+        if(price < minPrice || price > maxPrice || (price - minPrice) % tickSize != 0) {
+            return -1;
+        }
+        return (int) ((price - minPrice) / tickSize);
+    }
+
+    /**
+     * <p>Returns the index of the next non empty level. There must be one in the given direction.</p>
+     * @param index index to start from, excluded
+     * @param step direction to move
+     * @return index of the next non empty level
+     */
+    private int findLevel(int index, int step) {
+        int i = index + step;
+        while(levels.getInt(i * LEVEL_SIZE + ORDER_COUNT_OFFSET) == 0) {
+            i += step;
+        }
+        return i;
+    }
+
+    private boolean isBetter(int index, int comparingIndex) {
+        return side == OrderSide.BID ? index > comparingIndex : index < comparingIndex;
+    }
+}
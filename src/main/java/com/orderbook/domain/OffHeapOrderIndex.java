@@ -0,0 +1,242 @@
+package com.orderbook.domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * OffHeapOrderIndex maps numeric order ids to the slots of an {@link OffHeapOrderStore}. Like
+ * {@link NumericOrderIndex} it is an open addressing hash table with linear probing and backward shift removal, but
+ * the keys and the slots are held in direct {@link ByteBuffer}s, so an index of millions of orders is two buffer
+ * references on the heap. Get, put and remove allocate nothing unless the table grows.
+ * Not thread safe, an index belongs to the thread which runs its book.
+ */
+public class OffHeapOrderIndex {
+
+    // keeps the size of the key buffer within an int
+    public static final int MAX_CAPACITY = 1 << 27;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    // key of a free slot, order ids are not negative
+    private static final long FREE = -1;
+
+    private ByteBuffer keys;
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * <p>Constructs an empty OffHeapOrderIndex with the default capacity</p>
+     */
+    public OffHeapOrderIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Constructs an empty OffHeapOrderIndex</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public OffHeapOrderIndex(int expectedSize) {
+        allocate(capacityFor(Math.max(expectedSize, 8)));
+    }
+
+    /**
+     * <p>Grows the table once for the given number of orders, so indexing them does not grow it step by step</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public void ensureCapacity(int expectedSize) {
+        if(expectedSize > resizeThreshold) {
+            ByteBuffer oldKeys = keys;
+            ByteBuffer oldSlots = slots;
+            allocate(capacityFor(expectedSize));
+            rehash(oldKeys, oldSlots);
+        }
+    }
+
+    /**
+     * <p>Returns the slot of the order with the given id</p>
+     * @param orderId value of the numeric id of the order
+     * @return slot index, {@link OffHeapOrderStore#NO_SLOT} if not found
+     */
+    public int get(long orderId) {
+        int index = indexOf(orderId);
+        return index < 0 ? OffHeapOrderStore.NO_SLOT : slots.getInt(index << 2);
+    }
+
+    /**
+     * <p>Checks whether an order with the given id is indexed</p>
+     * @param orderId value of the numeric id of the order
+     * @return true if found
+     */
+    public boolean containsKey(long orderId) {
+        return indexOf(orderId) >= 0;
+    }
+
+    /**
+     * <p>Indexes the slot of an order by its numeric id, replacing the slot of an order with the same id</p>
+     * @param orderId value of the numeric id of the order
+     * @param slot slot index of the order
+     * @throws IllegalArgumentException when the id is negative, when the slot is NO_SLOT
+     * @throws IllegalStateException when the table can not grow any more
+     */
+    public void put(long orderId, int slot) {
+        if(orderId < 0 || slot < 0) {
+            throw new IllegalArgumentException("Invalid Order Slot:" + orderId + "," + slot);
+        }
+        ByteBuffer keys = this.keys;
+        int index = homeIndex(orderId);
+        long key;
+        while((key = keys.getLong(index << 3)) != FREE) {
+            if(key == orderId) {
+                slots.putInt(index << 2, slot);
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        if(size == resizeThreshold && capacity() == MAX_CAPACITY) {
+            throw new IllegalStateException("Order Index Full:" + size);
+        }
+        keys.putLong(index << 3, orderId);
+        slots.putInt(index << 2, slot);
+        if(++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * <p>Removes the order with the given id</p>
+     * @param orderId value of the numeric id of the order
+     * @return slot index of the removed order, {@link OffHeapOrderStore#NO_SLOT} if not found
+     */
+    public int remove(long orderId) {
+        int index = indexOf(orderId);
+        if(index < 0) {
+            return OffHeapOrderStore.NO_SLOT;
+        }
+        ByteBuffer keys = this.keys;
+        ByteBuffer slots = this.slots;
+        int slot = slots.getInt(index << 2);
+        size--;
+        // shift back the entries of the probe sequence which follows the removed entry
+        int free = index;
+        int next = (index + 1) & mask;
+        long key;
+        while((key = keys.getLong(next << 3)) != FREE) {
+            int home = homeIndex(key);
+            if(((next - home) & mask) >= ((next - free) & mask)) {
+                keys.putLong(free << 3, key);
+                slots.putInt(free << 2, slots.getInt(next << 2));
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys.putLong(free << 3, FREE);
+        return slot;
+    }
+
+    /**
+     * <p>Returns the number of indexed orders</p>
+     * @return order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of entries of the table</p>
+     * @return capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * <p>Checks whether no order is indexed</p>
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * <p>Returns the size of the table, which is outside the heap</p>
+     * @return bytes of direct memory
+     */
+    public long getOffHeapBytes() {
+        return (long) capacity() * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * <p>Removes all orders, keeping the capacity</p>
+     */
+    public void clear() {
+        fillFree(keys);
+        size = 0;
+    }
+
+    private int indexOf(long orderId) {
+        if(orderId < 0) {
+            return -1;
+        }
+        ByteBuffer keys = this.keys;
+        int index = homeIndex(orderId);
+        long key;
+        while((key = keys.getLong(index << 3)) != FREE) {
+            if(key == orderId) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int homeIndex(long orderId) {
+        // sequential ids are spread over the table by the multiplication
+        long hash = orderId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize() {
+        ByteBuffer oldKeys = keys;
+        ByteBuffer oldSlots = slots;
+        allocate(capacity() << 1);
+        rehash(oldKeys, oldSlots);
+    }
+
+    private void rehash(ByteBuffer oldKeys, ByteBuffer oldSlots) {
+        int oldCapacity = oldKeys.capacity() >> 3;
+        for (int i = 0; i < oldCapacity; i++) {
+            long key = oldKeys.getLong(i << 3);
+            if(key != FREE) {
+                int index = homeIndex(key);
+                while(keys.getLong(index << 3) != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys.putLong(index << 3, key);
+                slots.putInt(index << 2, oldSlots.getInt(i << 2));
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = ByteBuffer.allocateDirect(capacity << 3).order(ByteOrder.nativeOrder());
+        fillFree(keys);
+        slots = ByteBuffer.allocateDirect(capacity << 2).order(ByteOrder.nativeOrder());
+        mask = capacity - 1;
+        // keeps the load factor at or below 0.5 for short probe sequences
+        resizeThreshold = capacity >> 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        if(expectedSize > MAX_CAPACITY >> 1) {
+            throw new IllegalArgumentException("Invalid Expected Size:" + expectedSize);
+        }
+        return Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+    }
+
+    private static void fillFree(ByteBuffer keys) {
+        for (int i = 0; i < keys.capacity(); i += Long.BYTES) {
+            keys.putLong(i, FREE);
+        }
+    }
+}
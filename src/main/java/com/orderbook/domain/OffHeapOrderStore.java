@@ -0,0 +1,349 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * OffHeapOrderStore keeps resting orders in fixed width slots of direct {@link ByteBuffer} slabs instead of heap
+ * objects. A slot holds the numeric order id, the scaled price, the quantity, the side and the previous and next slot
+ * of the queue of its price level, so orders are addressed by int slot indices and a queue is walked without touching
+ * the heap. Slabs are added as the store grows and never given back; freed slots are linked in a free list and reused
+ * first. The heap footprint is one reference per slab, whatever the number of orders.
+ * A slot knows whether it is linked to a queue, so a linked slot or a free slot is never freed, and every accessor
+ * checks that the slot is in use, so a stale slot index fails instead of reading the order which reuses the slot.
+ * Not thread safe, a store belongs to the thread which runs its book.
+ */
+public class OffHeapOrderStore {
+
+    // slot index of no order, ends a queue and the free list
+    public static final int NO_SLOT = -1;
+    public static final int DEFAULT_SLAB_SLOTS = 1 << 16;
+
+    // layout of a slot, 8 byte aligned
+    static final int SLOT_SIZE = 40;
+    private static final int ORDER_ID_OFFSET = 0;
+    private static final int PRICE_OFFSET = 8;
+    private static final int QUANTITY_OFFSET = 16;
+    private static final int PREV_OFFSET = 24;
+    private static final int NEXT_OFFSET = 28;
+    private static final int SIDE_OFFSET = 32;
+    private static final int LINKED_OFFSET = 33;
+    // side of a free slot, used sides are stored as ordinal + 1
+    private static final byte FREE_SIDE = 0;
+    private static final OrderSide[] SIDES = OrderSide.values();
+
+    private final int slabShift;
+    private final int slabMask;
+    private ByteBuffer[] slabs;
+    private int slabCount;
+    // slots below this index were handed out at least once
+    private int usedSlots;
+    private int freeSlot = NO_SLOT;
+    private int size;
+
+    /**
+     * <p>Constructs an empty OffHeapOrderStore with slabs of the default number of slots</p>
+     */
+    public OffHeapOrderStore() {
+        this(DEFAULT_SLAB_SLOTS);
+    }
+
+    /**
+     * <p>Constructs an empty OffHeapOrderStore. No slab is allocated until the first order is stored.</p>
+     * @param slabSlots number of slots of a slab, a power of two
+     */
+    public OffHeapOrderStore(int slabSlots) {
+        if(slabSlots <= 0 || Integer.bitCount(slabSlots) != 1 || (long) slabSlots * SLOT_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid Slab Slots:" + slabSlots);
+        }
+        this.slabShift = Integer.numberOfTrailingZeros(slabSlots);
+        this.slabMask = slabSlots - 1;
+        this.slabs = new ByteBuffer[8];
+    }
+
+    /**
+     * <p>Stores an order in a free slot, reusing a freed slot first. The slot is not linked to any queue.</p>
+     * @param orderId value of the numeric id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     * @return slot index of the order
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public int allocate(long orderId, long price, long quantity, OrderSide side) {
+        if(orderId < 0 || price <= 0 || quantity < 0 || side == null) {
+            throw new IllegalArgumentException("Invalid Order:" + orderId + "," + side + "," + quantity + "," + price);
+        }
+        int slot;
+        if(freeSlot != NO_SLOT) {
+            slot = freeSlot;
+            freeSlot = readNext(slot);
+        } else {
+            if(usedSlots == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Order Store Full:" + usedSlots);
+            }
+            slot = usedSlots;
+            if((slot >>> slabShift) == slabCount) {
+                addSlab();
+            }
+            usedSlots++;
+        }
+        ByteBuffer slab = slabOf(slot);
+        int offset = offsetOf(slot);
+        slab.putLong(offset + ORDER_ID_OFFSET, orderId);
+        slab.putLong(offset + PRICE_OFFSET, price);
+        slab.putLong(offset + QUANTITY_OFFSET, quantity);
+        slab.putInt(offset + PREV_OFFSET, NO_SLOT);
+        slab.putInt(offset + NEXT_OFFSET, NO_SLOT);
+        slab.put(offset + SIDE_OFFSET, (byte) (side.ordinal() + 1));
+        slab.put(offset + LINKED_OFFSET, (byte) 0);
+        size++;
+        return slot;
+    }
+
+    /**
+     * <p>Frees the slot of an order for reuse. The slot must be unlinked from its queue first.</p>
+     * @param slot slot index of the order
+     * @throws IllegalStateException when the slot is not in use, when the slot is still linked to a queue
+     */
+    public void free(int slot) {
+        checkUsed(slot);
+        if(isLinked(slot)) {
+            throw new IllegalStateException("Slot still linked:" + slot);
+        }
+        ByteBuffer slab = slabOf(slot);
+        int offset = offsetOf(slot);
+        slab.put(offset + SIDE_OFFSET, FREE_SIDE);
+        slab.putInt(offset + PREV_OFFSET, NO_SLOT);
+        slab.putInt(offset + NEXT_OFFSET, freeSlot);
+        freeSlot = slot;
+        size--;
+    }
+
+    /**
+     * <p>Links an order behind another one, as the new tail of a queue</p>
+     * @param tailSlot slot index of the current tail, NO_SLOT for an empty queue
+     * @param slot slot index of the order to link, not linked to any queue
+     * @throws IllegalStateException when a slot is not in use, when the order is already linked, when the tail is not
+     * the last order of a queue
+     */
+    public void linkAfter(int tailSlot, int slot) {
+        checkUsed(slot);
+        if(isLinked(slot)) {
+            throw new IllegalStateException("Slot already linked:" + slot);
+        }
+        if(tailSlot != NO_SLOT) {
+            checkUsed(tailSlot);
+            if(!isLinked(tailSlot) || readNext(tailSlot) != NO_SLOT) {
+                throw new IllegalStateException("Slot not a tail:" + tailSlot);
+            }
+            setNext(tailSlot, slot);
+        }
+        setPrev(slot, tailSlot);
+        setNext(slot, NO_SLOT);
+        slabOf(slot).put(offsetOf(slot) + LINKED_OFFSET, (byte) 1);
+    }
+
+    /**
+     * <p>Unlinks an order from its queue, linking its neighbours to each other. The caller moves the head or the tail
+     * of the queue when the order was the first or the last one.</p>
+     * @param slot slot index of the order
+     * @throws IllegalStateException when the slot is not in use, when the order is not linked
+     */
+    public void unlink(int slot) {
+        checkUsed(slot);
+        if(!isLinked(slot)) {
+            throw new IllegalStateException("Slot not linked:" + slot);
+        }
+        int prev = readPrev(slot);
+        int next = readNext(slot);
+        if(prev != NO_SLOT) {
+            setNext(prev, next);
+        }
+        if(next != NO_SLOT) {
+            setPrev(next, prev);
+        }
+        setPrev(slot, NO_SLOT);
+        setNext(slot, NO_SLOT);
+        slabOf(slot).put(offsetOf(slot) + LINKED_OFFSET, (byte) 0);
+    }
+
+    /**
+     * <p>Checks whether an order is linked to a queue</p>
+     * @param slot slot index of the order
+     * @return true if the order is linked
+     * @throws IllegalStateException when the slot is not in use
+     */
+    public boolean isLinked(int slot) {
+        checkUsed(slot);
+        return slabOf(slot).get(offsetOf(slot) + LINKED_OFFSET) != 0;
+    }
+
+    /**
+     * <p>Returns the numeric id of an order</p>
+     * @param slot slot index of the order
+     * @return value of the order id
+     */
+    public long getOrderId(int slot) {
+        checkUsed(slot);
+        return slabOf(slot).getLong(offsetOf(slot) + ORDER_ID_OFFSET);
+    }
+
+    /**
+     * <p>Returns the price of an order</p>
+     * @param slot slot index of the order
+     * @return scaled price
+     */
+    public long getPrice(int slot) {
+        checkUsed(slot);
+        return slabOf(slot).getLong(offsetOf(slot) + PRICE_OFFSET);
+    }
+
+    /**
+     * <p>Sets the price of an order, the caller moves it to the queue of the new price</p>
+     * @param slot slot index of the order
+     * @param price scaled price
+     */
+    public void setPrice(int slot, long price) {
+        if(price <= 0) {
+            throw new IllegalArgumentException("Invalid Order Price:" + price);
+        }
+        checkUsed(slot);
+        slabOf(slot).putLong(offsetOf(slot) + PRICE_OFFSET, price);
+    }
+
+    /**
+     * <p>Returns the quantity of an order</p>
+     * @param slot slot index of the order
+     * @return quantity
+     */
+    public long getQuantity(int slot) {
+        checkUsed(slot);
+        return slabOf(slot).getLong(offsetOf(slot) + QUANTITY_OFFSET);
+    }
+
+    /**
+     * <p>Sets the quantity of an order</p>
+     * @param slot slot index of the order
+     * @param quantity quantity
+     */
+    public void setQuantity(int slot, long quantity) {
+        if(quantity < 0) {
+            throw new IllegalArgumentException("Invalid Order Quantity:" + quantity);
+        }
+        checkUsed(slot);
+        slabOf(slot).putLong(offsetOf(slot) + QUANTITY_OFFSET, quantity);
+    }
+
+    /**
+     * <p>Returns the side of an order</p>
+     * @param slot slot index of the order
+     * @return side {@link OrderSide}
+     */
+    public OrderSide getSide(int slot) {
+        checkUsed(slot);
+        return SIDES[slabOf(slot).get(offsetOf(slot) + SIDE_OFFSET) - 1];
+    }
+
+    /**
+     * <p>Returns the order in front of an order in its queue</p>
+     * @param slot slot index of the order
+     * @return slot index, NO_SLOT if the order is the first one
+     */
+    public int getPrev(int slot) {
+        checkUsed(slot);
+        return readPrev(slot);
+    }
+
+    /**
+     * <p>Returns the order behind an order in its queue</p>
+     * @param slot slot index of the order
+     * @return slot index, NO_SLOT if the order is the last one
+     */
+    public int getNext(int slot) {
+        checkUsed(slot);
+        return readNext(slot);
+    }
+
+    /**
+     * <p>Checks whether a slot holds an order</p>
+     * @param slot slot index
+     * @return true if the slot is in use
+     */
+    public boolean isUsed(int slot) {
+        return slot >= 0 && slot < usedSlots && slabOf(slot).get(offsetOf(slot) + SIDE_OFFSET) != FREE_SIDE;
+    }
+
+    /**
+     * <p>Returns the number of stored orders</p>
+     * @return order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of slots of the allocated slabs</p>
+     * @return capacity
+     */
+    public long capacity() {
+        return (long) slabCount << slabShift;
+    }
+
+    /**
+     * <p>Returns the size of the allocated slabs, which are outside the heap</p>
+     * @return bytes of direct memory
+     */
+    public long getOffHeapBytes() {
+        return capacity() * SLOT_SIZE;
+    }
+
+    /**
+     * <p>Frees every slot, keeping the slabs</p>
+     */
+    public void clear() {
+        usedSlots = 0;
+        freeSlot = NO_SLOT;
+        size = 0;
+    }
+
+    private int readPrev(int slot) {
+        return slabOf(slot).getInt(offsetOf(slot) + PREV_OFFSET);
+    }
+
+    private int readNext(int slot) {
+        return slabOf(slot).getInt(offsetOf(slot) + NEXT_OFFSET);
+    }
+
+    private void setPrev(int slot, int prev) {
+        slabOf(slot).putInt(offsetOf(slot) + PREV_OFFSET, prev);
+    }
+
+    private void setNext(int slot, int next) {
+        slabOf(slot).putInt(offsetOf(slot) + NEXT_OFFSET, next);
+    }
+
+    private void checkUsed(int slot) {
+        if(!isUsed(slot)) {
+            throw new IllegalStateException("Slot not in use:" + slot);
+        }
+    }
+
+    private ByteBuffer slabOf(int slot) {
+        return slabs[slot >>> slabShift];
+    }
+
+    private int offsetOf(int slot) {
+        return (slot & slabMask) * SLOT_SIZE;
+    }
+
+    private void addSlab() {
+        if(slabCount == slabs.length) {
+            slabs = Arrays.copyOf(slabs, slabs.length * 2);
+        }
+        slabs[slabCount++] = ByteBuffer.allocateDirect((slabMask + 1) * SLOT_SIZE).order(ByteOrder.nativeOrder());
+    }
+}
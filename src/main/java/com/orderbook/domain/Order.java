@@ -2,25 +2,37 @@ package com.orderbook.domain;
 
 import com.orderbook.constant.OrderSide;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-
 /**
  * Order represents a Buy or Sell order which is taken place in a market.
+ * Price is a scaled long, see {@link Instrument}.
  * @author Tharaka Udayanga
  */
 public class Order {
 
+    // numeric id of an order without one
+    public static final long NO_NUMERIC_ORDER_ID = -1;
+
     private String orderId;
-    private BigInteger quantity;
-    private BigDecimal price;
+    // id of an order of a book with numeric order ids, see NumericOrderIndex
+    long numericOrderId = NO_NUMERIC_ORDER_ID;
+    private long quantity;
+    private long price;
     private OrderSide side;
 
+    // intrusive links of the price level the order rests in, see PriceLevel
+    PriceLevel level;
+    Order prev;
+    Order next;
+
+    // owner pool of a recycled order, see OrderPool
+    OrderPool pool;
+    boolean inPool;
+
     /**
      * <p>Returns the quantity of the order</p>
      * @return the quantity of order
      */
-    public BigInteger getQuantity() {
+    public long getQuantity() {
         return quantity;
     }
 
@@ -28,8 +40,11 @@ public class Order {
      * <p>Sets the quantity of the order with the specified value</p>
      * @param quantity value for quantity of the order
      */
-    public void setQuantity(BigInteger quantity) {
+    public void setQuantity(long quantity) {
         if(isValidQuantity(quantity)){
+            if(level != null) {
+                level.onQuantityChange(quantity - this.quantity);
+            }
             this.quantity = quantity;
         } else {
             throw new IllegalArgumentException("Invalid Order Quantity:" + quantity);
@@ -37,18 +52,18 @@ public class Order {
     }
 
     /**
-     * <p>Returns the price of the order</p>
+     * <p>Returns the scaled price of the order</p>
      * @return the price of order
      */
-    public BigDecimal getPrice() {
+    public long getPrice() {
         return price;
     }
 
     /**
-     * <p>Sets the price of the order with the specified value</p>
+     * <p>Sets the scaled price of the order with the specified value</p>
      * @param price value for price of the order
      */
-    public void setPrice(BigDecimal price) {
+    public void setPrice(long price) {
         if(isValidPrice(price)){
             this.price = price;
         } else {
@@ -77,13 +92,24 @@ public class Order {
     }
 
     /**
-     * <p>Returns the id of the order</p>
+     * <p>Returns the id of the order. The text of a numeric id given as a long is created on the first call.</p>
      * @return the id of order
      */
     public String getOrderId() {
+        if(orderId == null && numericOrderId != NO_NUMERIC_ORDER_ID) {
+            orderId = Long.toString(numericOrderId);
+        }
         return orderId;
     }
 
+    /**
+     * <p>Returns the numeric id of the order</p>
+     * @return the numeric id of order, NO_NUMERIC_ORDER_ID if the order was not given a numeric id
+     */
+    public long getNumericOrderId() {
+        return numericOrderId;
+    }
+
     /**
      * <p>Sets the if of the order with the specified value</p>
      * @param orderId value for id of the order
@@ -91,25 +117,125 @@ public class Order {
     public void setOrderId(String orderId) {
         if(isValidOrderId(orderId)) {
             this.orderId = orderId;
+            this.numericOrderId = NO_NUMERIC_ORDER_ID;
         } else {
             throw new IllegalArgumentException("Invalid Order Id:" + orderId);
         }
     }
 
     /**
-     *
-     * @param orderId
-     * @param price
-     * @param quantity
-     * @param side
+     * <p>Returns the price level the order rests in</p>
+     * @return price level, null if the order is not resting in an {@link OrderBook}
+     */
+    public PriceLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * <p>Returns the next order in time priority of the same price level</p>
+     * @return next order, null if this is the last order of the level
      */
-    public Order(String orderId, BigDecimal price, BigInteger quantity, OrderSide side) {
+    public Order getNext() {
+        return next;
+    }
+
+    /**
+     * <p>Returns the previous order in time priority of the same price level</p>
+     * @return previous order, null if this is the first order of the level
+     */
+    public Order getPrevious() {
+        return prev;
+    }
+
+    /**
+     * <p>Constructs an Order</p>
+     * @param orderId value for id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     */
+    public Order(String orderId, long price, long quantity, OrderSide side) {
+        init(orderId, price, quantity, side);
+    }
+
+    /**
+     * <p>Constructs an Order with a numeric id</p>
+     * @param orderId value for numeric id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     */
+    public Order(long orderId, long price, long quantity, OrderSide side) {
+        init(orderId, price, quantity, side);
+    }
+
+    /**
+     * <p>Constructs an empty Order for an {@link OrderPool}</p>
+     */
+    Order() {
+    }
+
+    /**
+     * <p>Sets all values of the order</p>
+     */
+    void init(String orderId, long price, long quantity, OrderSide side) {
         setOrderId(orderId);
         setPrice(price);
         setQuantity(quantity);
         setSide(side);
     }
 
+    /**
+     * <p>Sets all values of the order with a numeric id, whose text is only created when asked for</p>
+     */
+    void init(long numericOrderId, long price, long quantity, OrderSide side) {
+        if(numericOrderId < 0) {
+            throw new IllegalArgumentException("Invalid Order Id:" + numericOrderId);
+        }
+        this.orderId = null;
+        this.numericOrderId = numericOrderId;
+        setPrice(price);
+        setQuantity(quantity);
+        setSide(side);
+    }
+
+    /**
+     * <p>Converts an order id to a numeric order id</p>
+     * @param orderId value of the order id
+     * @return numeric order id, NO_NUMERIC_ORDER_ID if the order id is not a number of up to 18 digits without leading
+     * zeros
+     */
+    public static long toNumericOrderId(String orderId) {
+        if(orderId == null || orderId.isEmpty() || orderId.length() > 18) {
+            return NO_NUMERIC_ORDER_ID;
+        }
+        if(orderId.length() > 1 && orderId.charAt(0) == '0') {
+            return NO_NUMERIC_ORDER_ID;
+        }
+        long value = 0;
+        for (int i = 0; i < orderId.length(); i++) {
+            int digit = orderId.charAt(i) - '0';
+            if(digit < 0 || digit > 9) {
+                return NO_NUMERIC_ORDER_ID;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * <p>Clears all values of the order before it goes back to its pool</p>
+     */
+    void reset() {
+        orderId = null;
+        numericOrderId = NO_NUMERIC_ORDER_ID;
+        quantity = 0;
+        price = 0;
+        side = null;
+        prev = null;
+        next = null;
+    }
+
     /**
      * <p>Returns string representation of the order with only quantity</p>
      * @return quantity of order as a string
@@ -118,12 +244,12 @@ public class Order {
         return String.valueOf(this.quantity);
     }
 
-    private boolean isValidPrice(BigDecimal price) {
-        return price != null && price.compareTo(BigDecimal.ZERO) > 0;
+    private boolean isValidPrice(long price) {
+        return price > 0;
     }
 
-    private boolean isValidQuantity(BigInteger quantity) {
-        return quantity != null && quantity.compareTo(BigInteger.ZERO) >= 0;
+    private boolean isValidQuantity(long quantity) {
+        return quantity >= 0;
     }
 
     private boolean isValidOrderId(String orderId) {
@@ -139,20 +265,20 @@ public class Order {
      * @return true if the order is executable
      */
     public boolean isExecutable() {
-        return quantity.compareTo(BigInteger.ZERO) > 0;
+        return quantity > 0;
     }
 
     /**
      * <p>Checks whether the order is able to execute against a given price</p>
-     * @param comparingPrice value of the price to compare against the price of the order
+     * @param comparingPrice value of the scaled price to compare against the price of the order
      * @return true if the order is executable
      */
-    public boolean isExecutable(BigDecimal comparingPrice) {
+    public boolean isExecutable(long comparingPrice) {
         if(isExecutable()) {
             if(this.getSide() == OrderSide.BID) {
-                return this.getPrice().compareTo(comparingPrice) >= 0;
+                return this.getPrice() >= comparingPrice;
             } else {
-                return this.getPrice().compareTo(comparingPrice) <= 0;
+                return this.getPrice() <= comparingPrice;
             }
         }
         return false;
@@ -1,99 +1,434 @@
 package com.orderbook.domain;
 
+import com.orderbook.constant.DepthUpdateType;
+import com.orderbook.constant.LatencyOperation;
 import com.orderbook.constant.OrderActionType;
 import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
 import com.orderbook.exception.OrderException;
+import com.orderbook.metrics.BookMetrics;
+import com.orderbook.metrics.LatencyMetrics;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.util.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
 
 /**
  * OrderBook stores buy,sell orders. When orders are executable this executes such orders and updates self state.
+ * Prices are scaled longs as defined by the {@link Instrument} of the book. Instruments with a price band are
+ * stored in a {@link TickLadderBookSide}, others in a {@link TreeBookSide}.
+ * Orders taken from {@link #newOrder} belong to the book once executed, they go back to the {@link OrderPool} of the
+ * book when they are filled, removed or do not rest in the book.
+ * A book with numeric order ids indexes its orders by long ids in a {@link NumericOrderIndex}, so the duplicate check
+ * and the removal of orders given as longs allocate nothing.
+ * A book with off heap orders rests its orders in the slots of an {@link OffHeapOrderStore}, linked in the levels of
+ * {@link OffHeapBookSide}s and indexed by an {@link OffHeapOrderIndex}, so resting orders are no heap objects. Such a
+ * book has numeric order ids and a price band, orders of {@link #newOrder} only carry an order into the book and go
+ * back to the pool once it is executed, and {@link #getOrder} returns a copy of a resting order.
  * @author Tharaka Udayanga
  */
 public class OrderBook {
 
-    private String symbol;
-    private final TreeMap<BigDecimal, Queue<Order>> sellOrders;
-    private final TreeMap<BigDecimal, Queue<Order>> buyOrders;
-    private final Set<String> orderIds;
+    private final Instrument instrument;
+    private final BookSide sellOrders;
+    private final BookSide buyOrders;
+    // one of the indexes is null, depending on the order id mode of the book
+    private final OrderIndex orderIndex;
+    private final NumericOrderIndex numericOrderIndex;
+    private final OrderPool orderPool;
+    // set in a book with off heap orders, which has neither heap sides nor a heap order index
+    private final OffHeapOrderStore orderStore;
+    private final OffHeapOrderIndex offHeapOrderIndex;
+    private final OffHeapBookSide offHeapSellOrders;
+    private final OffHeapBookSide offHeapBuyOrders;
+    private TradeListener tradeListener;
+    private DepthListener depthListener;
+    // null when latencies are not recorded
+    private LatencyMetrics latencyMetrics;
+    private BookMetrics bookMetrics;
+    private PublishedDepth publishedDepth;
+    private long tradeSequenceNumber;
+    private long lastFilledQuantity;
 
     /**
-     * <p>Sets the value of the symbol</p>
-     * @param symbol the value of symbol
+     * <p>Returns the value of the symbol</p>
+     * @return value of symbol
      */
-    private void setSymbol(String symbol) {
-        if(isValidSymbol(symbol)) {
-            this.symbol = symbol;
-        } else {
-            throw new IllegalArgumentException();
-        }
+    public String getSymbol() {
+        return instrument.getSymbol();
     }
 
     /**
-     * <p>Returns the value of the symbol</p>
-     * @return value of symbol
+     * <p>Returns the instrument of the order book</p>
+     * @return instrument {@link Instrument}
      */
-    public String getSymbol() {
-        return symbol;
+    public Instrument getInstrument() {
+        return instrument;
     }
 
     /**
      * <p>Returns the sell orders stored in the order book</p>
      * @return sell orders
+     * @throws IllegalStateException when the book has off heap orders, see {@link #getOffHeapSellOrders()}
      */
-    public TreeMap<BigDecimal, Queue<Order>> getSellOrders() {
+    public BookSide getSellOrders() {
+        checkHeapOrders();
         return sellOrders;
     }
 
     /**
      * <p>Returns the bu yorders stored in the order book</p>
      * @return buy orders
+     * @throws IllegalStateException when the book has off heap orders, see {@link #getOffHeapBuyOrders()}
      */
-    public TreeMap<BigDecimal, Queue<Order>> getBuyOrders() {
+    public BookSide getBuyOrders() {
+        checkHeapOrders();
         return buyOrders;
     }
 
     /**
-     * <p>Constructs an OrderBook for the given symbol</p>
+     * <p>Returns the sell orders of a book with off heap orders</p>
+     * @return sell orders, null if the book rests heap orders
+     */
+    public OffHeapBookSide getOffHeapSellOrders() {
+        return offHeapSellOrders;
+    }
+
+    /**
+     * <p>Returns the buy orders of a book with off heap orders</p>
+     * @return buy orders, null if the book rests heap orders
+     */
+    public OffHeapBookSide getOffHeapBuyOrders() {
+        return offHeapBuyOrders;
+    }
+
+    /**
+     * <p>Checks whether the book rests its orders off heap</p>
+     * @return true if the book has off heap orders
+     */
+    public boolean isOffHeapOrders() {
+        return orderStore != null;
+    }
+
+    /**
+     * <p>Returns the number of resting orders of a side of the book</p>
+     * @param side side of the orders {@link OrderSide}
+     * @return order count
+     */
+    public int getOrderCount(OrderSide side) {
+        if(orderStore != null) {
+            return getOffHeapSide(side, true).getOrderCount();
+        }
+        return getOrderMap(side, true).getOrderCount();
+    }
+
+    /**
+     * <p>Returns the number of price levels of a side of the book</p>
+     * @param side side of the levels {@link OrderSide}
+     * @return level count
+     */
+    public int getLevelCount(OrderSide side) {
+        if(orderStore != null) {
+            return getOffHeapSide(side, true).size();
+        }
+        return getOrderMap(side, true).size();
+    }
+
+    /**
+     * <p>Constructs an OrderBook for the given symbol with the default price scale and tick size</p>
      * @param symbol value of the symbol
      */
     public OrderBook(String symbol) {
-        setSymbol(symbol);
-        sellOrders = new TreeMap<>();
-        buyOrders = new TreeMap<>(Collections.reverseOrder());
-        orderIds = new HashSet<>();
+        this(new Instrument(symbol));
+    }
+
+    /**
+     * <p>Constructs an OrderBook for the given instrument</p>
+     * @param instrument instrument of the order book {@link Instrument}
+     */
+    public OrderBook(Instrument instrument) {
+        this(instrument, false);
+    }
+
+    /**
+     * <p>Constructs an OrderBook for the given instrument</p>
+     * @param instrument instrument of the order book {@link Instrument}
+     * @param numericOrderIds true to index orders by numeric ids, in which case ids given as text must be numbers of up
+     * to 18 digits without leading zeros
+     */
+    public OrderBook(Instrument instrument, boolean numericOrderIds) {
+        this(instrument, numericOrderIds, false);
+    }
+
+    /**
+     * <p>Constructs an OrderBook for the given instrument</p>
+     * @param instrument instrument of the order book {@link Instrument}
+     * @param numericOrderIds true to index orders by numeric ids, see {@link #OrderBook(Instrument, boolean)}
+     * @param offHeapOrders true to rest orders off heap, which implies numeric order ids
+     * @throws IllegalArgumentException when off heap orders are asked for an instrument without a price band
+     */
+    public OrderBook(Instrument instrument, boolean numericOrderIds, boolean offHeapOrders) {
+        if(instrument == null) {
+            throw new IllegalArgumentException("Invalid Instrument");
+        }
+        this.instrument = instrument;
+        orderPool = new OrderPool();
+        if(offHeapOrders) {
+            if(!instrument.hasPriceBand()) {
+                throw new IllegalArgumentException("No price band, Symbol:" + instrument.getSymbol());
+            }
+            orderStore = new OffHeapOrderStore();
+            offHeapOrderIndex = new OffHeapOrderIndex();
+            offHeapSellOrders = new OffHeapBookSide(OrderSide.ASK, instrument, orderStore);
+            offHeapBuyOrders = new OffHeapBookSide(OrderSide.BID, instrument, orderStore);
+            sellOrders = null;
+            buyOrders = null;
+            orderIndex = null;
+            numericOrderIndex = null;
+            return;
+        }
+        orderStore = null;
+        offHeapOrderIndex = null;
+        offHeapSellOrders = null;
+        offHeapBuyOrders = null;
+        if(instrument.hasPriceBand()) {
+            sellOrders = new TickLadderBookSide(OrderSide.ASK, instrument);
+            buyOrders = new TickLadderBookSide(OrderSide.BID, instrument);
+        } else {
+            sellOrders = new TreeBookSide(OrderSide.ASK);
+            buyOrders = new TreeBookSide(OrderSide.BID);
+        }
+        orderIndex = numericOrderIds ? null : new OrderIndex();
+        numericOrderIndex = numericOrderIds ? new NumericOrderIndex() : null;
+    }
+
+    /**
+     * <p>Returns a pooled order of this book set with the given values</p>
+     * @param orderId value for id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     * @return order for {@link #executeOrder}
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public Order newOrder(String orderId, long price, long quantity, OrderSide side) {
+        if(!isNumericOrderIds()) {
+            return orderPool.acquire(orderId, price, quantity, side);
+        }
+        long numericOrderId = Order.toNumericOrderId(orderId);
+        if(numericOrderId == Order.NO_NUMERIC_ORDER_ID) {
+            throw new IllegalArgumentException("Invalid Order Id:" + orderId);
+        }
+        Order order = orderPool.acquire(orderId, price, quantity, side);
+        // keeps the given text, so listeners do not create it again
+        order.numericOrderId = numericOrderId;
+        return order;
+    }
+
+    /**
+     * <p>Returns a pooled order of this book set with the given values and a numeric id</p>
+     * @param orderId value for numeric id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     * @return order for {@link #executeOrder}
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public Order newOrder(long orderId, long price, long quantity, OrderSide side) {
+        return orderPool.acquire(orderId, price, quantity, side);
+    }
+
+    /**
+     * <p>Checks whether the book indexes its orders by numeric ids</p>
+     * @return true if the book has numeric order ids
+     */
+    public boolean isNumericOrderIds() {
+        return numericOrderIndex != null || orderStore != null;
+    }
+
+    /**
+     * <p>Sets the listener of the fills of the book</p>
+     * @param tradeListener listener of fills {@link TradeListener}, null for none
+     */
+    public void setTradeListener(TradeListener tradeListener) {
+        this.tradeListener = tradeListener;
+    }
+
+    /**
+     * <p>Sets the listener of the price level changes of the book</p>
+     * @param depthListener listener of level changes {@link DepthListener}, null for none
+     */
+    public void setDepthListener(DepthListener depthListener) {
+        this.depthListener = depthListener;
+    }
+
+    /**
+     * <p>Sets the histograms which record the latencies of the operations of the book. Latencies of operations which
+     * are rejected with an exception are not recorded.</p>
+     * @param latencyMetrics latency histograms {@link LatencyMetrics}, null to record nothing
+     */
+    public void setLatencyMetrics(LatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    /**
+     * <p>Returns the histograms which record the latencies of the operations of the book</p>
+     * @return latency histograms {@link LatencyMetrics}, null if latencies are not recorded
+     */
+    public LatencyMetrics getLatencyMetrics() {
+        return latencyMetrics;
+    }
+
+    /**
+     * <p>Sets the counters and gauges of the book, which are updated by the processor of the book</p>
+     * @param bookMetrics counters and gauges {@link BookMetrics}, null for none
+     */
+    public void setBookMetrics(BookMetrics bookMetrics) {
+        this.bookMetrics = bookMetrics;
+    }
+
+    /**
+     * <p>Returns the counters and gauges of the book</p>
+     * @return counters and gauges {@link BookMetrics}, null if the book has none
+     */
+    public BookMetrics getBookMetrics() {
+        return bookMetrics;
     }
 
-    private boolean isValidSymbol(String symbol) {
-        return symbol != null && !symbol.trim().equals("");
+    /**
+     * <p>Sets the depth of the book published for reader threads, which is updated by the processor of the book</p>
+     * @param publishedDepth published depth {@link PublishedDepth}, null for none
+     */
+    public void setPublishedDepth(PublishedDepth publishedDepth) {
+        this.publishedDepth = publishedDepth;
+    }
+
+    /**
+     * <p>Returns the depth of the book published for reader threads</p>
+     * @return published depth {@link PublishedDepth}, null if the book has none
+     */
+    public PublishedDepth getPublishedDepth() {
+        return publishedDepth;
+    }
+
+    /**
+     * <p>Returns the sequence number of the last fill of the book</p>
+     * @return number of fills so far
+     */
+    public long getTradeSequenceNumber() {
+        return tradeSequenceNumber;
+    }
+
+    /**
+     * <p>Returns the quantity filled by the last added or modified order which the book accepted</p>
+     * @return filled quantity of the last accepted add or modify, 0 if it did not match
+     */
+    public long getLastFilledQuantity() {
+        return lastFilledQuantity;
+    }
+
+    /**
+     * <p>Returns the order pool of the order book</p>
+     * @return order pool {@link OrderPool}
+     */
+    public OrderPool getOrderPool() {
+        return orderPool;
     }
 
     /**
      * <p>Executes an order with matching orders</p>
      * @param order the order to execute
      * @param orderActionType order action type {@link OrderActionType}
-     * @throws OrderException when Duplicate Order added, when invalid orderActionType parsed, when Order not found to remove
+     * @throws OrderException when Duplicate Order added, when invalid orderActionType parsed, when Order not found to remove,
+     * when the price of an added order is not valid for the instrument, when a modify is not valid, see
+     * {@link #modifyOrder(String, long, long)}
      */
     public void executeOrder(Order order, OrderActionType orderActionType) throws OrderException {
+        // read before the order goes back to the pool, without creating the text of a numeric id
+        long numericOrderId = order.getNumericOrderId();
+        String orderId = numericOrderId == Order.NO_NUMERIC_ORDER_ID ? order.getOrderId() : null;
+        OrderStatus orderStatus = tryExecuteOrder(order, orderActionType);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw OrderException.of(orderStatus, orderActionType,
+                    orderId != null ? orderId : Long.toString(numericOrderId));
+        }
+    }
+
+    /**
+     * <p>Executes an order with matching orders and returns the reject reason instead of throwing, so a reject
+     * allocates nothing. The order belongs to the book afterwards, like with {@link #executeOrder}.</p>
+     * @param order the order to execute
+     * @param orderActionType order action type {@link OrderActionType}
+     * @return ACCEPTED, or DUPLICATE_ORDER, ORDER_NOT_FOUND, INVALID_ORDER_ID, INVALID_QUANTITY, INVALID_PRICE or
+     * INVALID_ACTION_TYPE when the order is rejected {@link OrderStatus}
+     */
+    public OrderStatus tryExecuteOrder(Order order, OrderActionType orderActionType) {
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        OrderStatus orderStatus;
+        boolean isNumeric = isNumericOrderIds() && order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID;
+        if(orderActionType == null) {
+            orderPool.release(order);
+            return OrderStatus.INVALID_ACTION_TYPE;
+        }
         switch (orderActionType) {
             case ADD:
-                if(!isDuplicateOrder(order.getOrderId())) {
-                    runExecution(getOrderMap(order.getSide(), false), order);
+                orderStatus = checkNewOrder(order);
+                if(orderStatus == OrderStatus.ACCEPTED && orderStore != null) {
+                    runOffHeapExecution(getOffHeapSide(order.getSide(), false), order);
                     if(order.isExecutable()) {
-                        addOrder(order);
+                        restOffHeapOrder(order);
                     }
+                    // only the values of the order rest in the book
+                    orderPool.release(order);
+                    break;
+                }
+                if(orderStatus == OrderStatus.ACCEPTED) {
+                    runExecution(getOrderMap(order.getSide(), false), order);
+                }
+                if(orderStatus == OrderStatus.ACCEPTED && order.isExecutable()) {
+                    restOrder(order);
                 } else {
-                    throw new OrderException("Duplicate Order:" + order.getOrderId());
+                    orderPool.release(order);
                 }
                 break;
             case REMOVE:
-                removeOrder(order);
+                orderStatus = isNumeric ? tryRemoveOrder(order.getNumericOrderId()) : tryRemoveOrder(order.getOrderId());
+                // the order only carries the id, unless it is the resting order itself
+                orderPool.release(order);
+                break;
+            case MODIFY:
+                // the order carries the id, the new price and the new quantity of the resting order
+                orderStatus = isNumeric
+                        ? tryModifyOrder(order.getNumericOrderId(), order.getPrice(), order.getQuantity())
+                        : tryModifyOrder(order.getOrderId(), order.getPrice(), order.getQuantity());
+                orderPool.release(order);
                 break;
             default:
-                throw new OrderException("Unexpected Order Action Type:" + orderActionType);
+                orderPool.release(order);
+                return OrderStatus.INVALID_ACTION_TYPE;
+        }
+        if(orderStatus == OrderStatus.ACCEPTED && latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.EXECUTE_ORDER, startNanos);
         }
+        return orderStatus;
+    }
+
+    /**
+     * <p>Checks whether a new order can be added to the book</p>
+     * @param order order to check
+     * @return ACCEPTED, INVALID_ORDER_ID, DUPLICATE_ORDER or INVALID_PRICE {@link OrderStatus}
+     */
+    private OrderStatus checkNewOrder(Order order) {
+        if(!hasOrderId(order)) {
+            return OrderStatus.INVALID_ORDER_ID;
+        }
+        if(isDuplicateOrder(order)) {
+            return OrderStatus.DUPLICATE_ORDER;
+        }
+        if(!instrument.isValidPrice(order.getPrice())) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        return OrderStatus.ACCEPTED;
     }
 
     /**
@@ -101,43 +436,189 @@ public class OrderBook {
      * @param orderMapToCompare order map to execute against
      * @param order order for execution
      */
-    private void runExecution(TreeMap<BigDecimal, Queue<Order>> orderMapToCompare, Order order) {
-        // iterate through comparing order map
-        Iterator<Map.Entry<BigDecimal, Queue<Order>>> iterator = orderMapToCompare.entrySet().iterator();
-
-        while (iterator.hasNext()) {
-            Map.Entry<BigDecimal, Queue<Order>> entry = iterator.next();
-            BigDecimal comparingPrice = entry.getKey();
-
-            if(order.isExecutable(comparingPrice)) {
-                // iterate through order queue and execute order
-                Queue<Order> orderQueue = orderMapToCompare.get(comparingPrice);
-                Iterator<Order> queueIterator = orderQueue.iterator();
-                while(queueIterator.hasNext()) {
-                    Order orderInFront = queueIterator.next();
-                    if(orderInFront.getQuantity().compareTo(order.getQuantity()) > 0) {
-                        orderInFront.setQuantity(orderInFront.getQuantity().subtract(order.getQuantity()));
-                        order.setQuantity(BigInteger.ZERO);
-                        break;
-                    } else {
-                        order.setQuantity(order.getQuantity().subtract(orderInFront.getQuantity()));
-                        orderIds.remove(orderInFront.getOrderId());
-                        queueIterator.remove();
-                    }
-                }
+    private void runExecution(BookSide orderMapToCompare, Order order) {
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        // iterate through comparing order map from the best price
+        PriceLevel orderQueue = orderMapToCompare.best();
+
+        long firstSequenceNumber = tradeSequenceNumber;
+        long quantity = order.getQuantity();
 
-                // remove entry from Order Book if no more orders in the queue
-                if(orderQueue.isEmpty()) {
-                    iterator.remove();
+        while (orderQueue != null && order.isExecutable(orderQueue.getPrice())) {
+            // iterate through order queue and execute order
+            Order orderInFront = orderQueue.peek();
+            while(orderInFront != null) {
+                if(orderInFront.getQuantity() > order.getQuantity()) {
+                    // partial fill of the resting order, level quantity is updated by the order
+                    onTrade(order, orderInFront, orderQueue.getPrice(), order.getQuantity());
+                    orderInFront.setQuantity(orderInFront.getQuantity() - order.getQuantity());
+                    order.setQuantity(0);
+                    break;
+                } else {
+                    onTrade(order, orderInFront, orderQueue.getPrice(), orderInFront.getQuantity());
+                    order.setQuantity(order.getQuantity() - orderInFront.getQuantity());
+                    unindexOrder(orderInFront);
+                    // removes the level from the book when it becomes empty
+                    orderMapToCompare.removeOrder(orderInFront);
+                    orderPool.release(orderInFront);
+                    orderInFront = orderQueue.peek();
                 }
-                // exit if order is fully executed
-                if(!order.isExecutable()) {
+            }
+            // one update per level, the level is removed from the book side when it became empty
+            onLevelChange(orderMapToCompare.getSide(), orderQueue, false);
+
+            // exit if order is fully executed
+            if(!order.isExecutable()) {
+                break;
+            }
+            orderQueue = orderMapToCompare.best();
+        }
+
+        lastFilledQuantity = quantity - order.getQuantity();
+        if(tradeListener != null && tradeSequenceNumber != firstSequenceNumber) {
+            onExecutionEnd(order);
+        }
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.RUN_EXECUTION, startNanos);
+        }
+    }
+
+    /**
+     * <p>Runs execution of order against the off heap orders of a side</p>
+     * @param bookSide side to execute against
+     * @param order order for execution, resting orders of the book are never given
+     */
+    private void runOffHeapExecution(OffHeapBookSide bookSide, Order order) {
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        int level = bookSide.best();
+
+        long firstSequenceNumber = tradeSequenceNumber;
+        long quantity = order.getQuantity();
+
+        while (level != OffHeapBookSide.NO_LEVEL && order.isExecutable(bookSide.getPrice(level))) {
+            long price = bookSide.getPrice(level);
+            int slotInFront = bookSide.getHead(level);
+            while(slotInFront != OffHeapOrderStore.NO_SLOT) {
+                long restingQuantity = orderStore.getQuantity(slotInFront);
+                if(restingQuantity > order.getQuantity()) {
+                    onTrade(order, orderStore.getOrderId(slotInFront), price, order.getQuantity());
+                    bookSide.setQuantity(slotInFront, restingQuantity - order.getQuantity());
+                    order.setQuantity(0);
                     break;
+                } else {
+                    onTrade(order, orderStore.getOrderId(slotInFront), price, restingQuantity);
+                    order.setQuantity(order.getQuantity() - restingQuantity);
+                    offHeapOrderIndex.remove(orderStore.getOrderId(slotInFront));
+                    bookSide.removeOrder(slotInFront);
+                    orderStore.free(slotInFront);
+                    slotInFront = bookSide.getHead(level);
                 }
-            } else {
-                // exit if no matching price found for execution
+            }
+            onLevelChange(bookSide, level, false);
+
+            if(!order.isExecutable()) {
                 break;
             }
+            level = bookSide.best();
+        }
+
+        lastFilledQuantity = quantity - order.getQuantity();
+        if(tradeListener != null && tradeSequenceNumber != firstSequenceNumber) {
+            onExecutionEnd(order);
+        }
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.RUN_EXECUTION, startNanos);
+        }
+    }
+
+    /**
+     * <p>Passes the state of a changed level to the depth listener</p>
+     * @param side side of the level
+     * @param level changed level, an empty level is removed from the book side
+     * @param isNewLevel true if the level was added by the change
+     */
+    private void onLevelChange(OrderSide side, PriceLevel level, boolean isNewLevel) {
+        if(depthListener == null) {
+            return;
+        }
+        DepthUpdateType updateType;
+        if(level.isEmpty()) {
+            updateType = DepthUpdateType.REMOVE;
+        } else {
+            updateType = isNewLevel ? DepthUpdateType.ADD : DepthUpdateType.UPDATE;
+        }
+        depthListener.onDepthUpdate(getSymbol(), side, updateType, level.getPrice(), level.getTotalQuantity(),
+                level.size());
+    }
+
+    /**
+     * <p>Passes the state of a changed off heap level to the depth listener</p>
+     * @param bookSide side of the level
+     * @param level index of the changed level, an empty level is removed from the book side
+     * @param isNewLevel true if the level was added by the change
+     */
+    private void onLevelChange(OffHeapBookSide bookSide, int level, boolean isNewLevel) {
+        if(depthListener == null) {
+            return;
+        }
+        int levelOrderCount = bookSide.getOrderCount(level);
+        DepthUpdateType updateType;
+        if(levelOrderCount == 0) {
+            updateType = DepthUpdateType.REMOVE;
+        } else {
+            updateType = isNewLevel ? DepthUpdateType.ADD : DepthUpdateType.UPDATE;
+        }
+        depthListener.onDepthUpdate(getSymbol(), bookSide.getSide(), updateType, bookSide.getPrice(level),
+                bookSide.getTotalQuantity(level), levelOrderCount);
+    }
+
+    /**
+     * <p>Numbers a fill and passes it to the trade listener</p>
+     * @param order incoming order
+     * @param restingOrder resting order
+     * @param price price of the fill
+     * @param quantity filled quantity
+     */
+    private void onTrade(Order order, Order restingOrder, long price, long quantity) {
+        tradeSequenceNumber++;
+        if(tradeListener == null) {
+            return;
+        }
+        if(order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID
+                && restingOrder.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID) {
+            tradeListener.onTrade(getSymbol(), tradeSequenceNumber, order.getNumericOrderId(),
+                    restingOrder.getNumericOrderId(), price, quantity, order.getSide());
+        } else {
+            tradeListener.onTrade(getSymbol(), tradeSequenceNumber, order.getOrderId(), restingOrder.getOrderId(),
+                    price, quantity, order.getSide());
+        }
+    }
+
+    /**
+     * <p>Numbers a fill against an off heap order and passes it to the trade listener with the numeric ids of the
+     * orders</p>
+     * @param order incoming order
+     * @param restingOrderId numeric id of the resting order
+     * @param price price of the fill
+     * @param quantity filled quantity
+     */
+    private void onTrade(Order order, long restingOrderId, long price, long quantity) {
+        tradeSequenceNumber++;
+        if(tradeListener != null) {
+            tradeListener.onTrade(getSymbol(), tradeSequenceNumber, order.getNumericOrderId(), restingOrderId,
+                    price, quantity, order.getSide());
+        }
+    }
+
+    /**
+     * <p>Tells the trade listener that the execution of an order ends, with its numeric id if it has one</p>
+     * @param order incoming order
+     */
+    private void onExecutionEnd(Order order) {
+        if(order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID) {
+            tradeListener.onExecutionEnd(getSymbol(), order.getNumericOrderId());
+        } else {
+            tradeListener.onExecutionEnd(getSymbol(), order.getOrderId());
         }
     }
 
@@ -146,63 +627,446 @@ public class OrderBook {
      * @param order order for add
      */
     public void addOrder(Order order) throws OrderException {
-        if(!isDuplicateOrder(order.getOrderId()) && order.isExecutable()) {
-            TreeMap<BigDecimal, Queue<Order>> orderMap = getOrderMap(order.getSide(), true);
-            // if price exist add to the end of the existing queue else add a new queue
-            if (orderMap.containsKey(order.getPrice())) {
-                Queue<Order> orderQueue = orderMap.get(order.getPrice());
-                orderQueue.add(order);
-            } else {
-                Queue<Order> orderQueue = new LinkedList<>();
-                orderQueue.add(order);
-                orderMap.put(order.getPrice(), orderQueue);
-            }
-            orderIds.add(order.getOrderId());
+        OrderStatus orderStatus = checkNewOrder(order);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw OrderException.of(orderStatus, OrderActionType.ADD, order.getOrderId());
+        }
+        if(!order.isExecutable()) {
+            throw new OrderException("Not executable, Order:" + order.getOrderId(), OrderStatus.INVALID_QUANTITY);
+        }
+        if(orderStore != null) {
+            restOffHeapOrder(order);
+            orderPool.release(order);
         } else {
-            if(isDuplicateOrder(order.getOrderId())) {
-                throw new OrderException("Duplicate Order:" + order.getOrderId());
-            } else {
-                throw new OrderException("Not executable, Order:" + order.getOrderId());
-            }
+            restOrder(order);
         }
     }
 
+    private void restOrder(Order order) {
+        // adds to the end of the existing queue of the price or to a new queue
+        getOrderMap(order.getSide(), true).addOrder(order);
+        indexOrder(order);
+        onLevelChange(order.getSide(), order.getLevel(), order.getLevel().size() == 1);
+    }
+
+    private void restOffHeapOrder(Order order) {
+        int slot = orderStore.allocate(order.getNumericOrderId(), order.getPrice(), order.getQuantity(),
+                order.getSide());
+        OffHeapBookSide bookSide = getOffHeapSide(order.getSide(), true);
+        int level = bookSide.addOrder(slot);
+        offHeapOrderIndex.put(order.getNumericOrderId(), slot);
+        onLevelChange(bookSide, level, bookSide.getOrderCount(level) == 1);
+    }
+
     /**
-     * <p>Removes an order from the corresponding order map</p>
+     * <p>Prepares an empty book for {@link #restoreOrder}, such as a book restored from a snapshot</p>
+     * @param orderCount number of orders to restore, the order index is sized for them once
+     * @param tradeSequenceNumber sequence number of the last fill of the book
+     * @throws IllegalStateException when the book is not empty
+     */
+    public void beginRestore(int orderCount, long tradeSequenceNumber) {
+        if(getOrderCount() != 0) {
+            throw new IllegalStateException("OrderBook not empty, Symbol:" + getSymbol());
+        }
+        if(orderStore != null) {
+            offHeapOrderIndex.ensureCapacity(orderCount);
+        } else if(numericOrderIndex != null) {
+            numericOrderIndex.ensureCapacity(orderCount);
+        } else {
+            orderIndex.ensureCapacity(orderCount);
+        }
+        this.tradeSequenceNumber = tradeSequenceNumber;
+    }
+
+    /**
+     * <p>Restores a resting order without matching it and without a depth update. Orders of each side must be
+     * restored in price priority and then in time priority, so every order goes behind the orders of its side and the
+     * book is built in one pass.</p>
+     * @param order order for restore
+     * @throws OrderException when an order with the same id rests in the book, when the price of the order is not
+     * valid for the instrument
+     * @throws IllegalArgumentException when the price of the order is better than the worst price of its side
+     */
+    public void restoreOrder(Order order) throws OrderException {
+        if(!hasOrderId(order)) {
+            throw new OrderException("Invalid Order Id:" + order.getOrderId());
+        }
+        if(isDuplicateOrder(order)) {
+            throw new OrderException("Duplicate Order:" + order.getOrderId());
+        }
+        if(!order.isExecutable() || !instrument.isValidPrice(order.getPrice())) {
+            throw new OrderException("Invalid Order:" + order.getOrderId());
+        }
+        if(orderStore != null) {
+            restoreOffHeapOrder(order);
+            return;
+        }
+        getOrderMap(order.getSide(), true).appendOrder(order);
+        indexOrder(order);
+    }
+
+    private void restoreOffHeapOrder(Order order) {
+        int slot = orderStore.allocate(order.getNumericOrderId(), order.getPrice(), order.getQuantity(),
+                order.getSide());
+        try {
+            getOffHeapSide(order.getSide(), true).appendOrder(slot);
+        } catch (IllegalArgumentException e) {
+            orderStore.free(slot);
+            throw e;
+        }
+        offHeapOrderIndex.put(order.getNumericOrderId(), slot);
+        orderPool.release(order);
+    }
+
+    /**
+     * <p>Removes an order from the corresponding order map. Only the id of the given order is used.</p>
      * @param order order for remove
      */
     public void removeOrder(Order order) throws OrderException {
-        TreeMap<BigDecimal, Queue<Order>>  orderMap = getOrderMap(order.getSide(), true);
-        boolean orderNotFound = true;
-        // check a matching price available in the corresponding map
-        if(orderMap.containsKey(order.getPrice())) {
-            Queue<Order> orderQueue = orderMap.get(order.getPrice());
-            Iterator<Order> queueIterator = orderQueue.iterator();
-
-            while(queueIterator.hasNext()) {
-                if(order.getOrderId().equals(queueIterator.next().getOrderId())) {
-                    queueIterator.remove();
-                    orderIds.remove(order.getOrderId());
-                    orderNotFound = false;
-                    break;
-                }
+        if(isNumericOrderIds() && order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID) {
+            removeOrder(order.getNumericOrderId());
+        } else {
+            removeOrder(order.getOrderId());
+        }
+    }
+
+    /**
+     * <p>Removes the resting order with the given id in constant time</p>
+     * @param orderId value of the id of the order
+     */
+    public void removeOrder(String orderId) throws OrderException {
+        if(tryRemoveOrder(orderId) != OrderStatus.ACCEPTED) {
+            throw OrderException.of(OrderStatus.ORDER_NOT_FOUND, OrderActionType.REMOVE, orderId);
+        }
+    }
+
+    /**
+     * <p>Removes the resting order with the given id in constant time, without throwing</p>
+     * @param orderId value of the id of the order
+     * @return ACCEPTED, or ORDER_NOT_FOUND when no order with the id rests in the book {@link OrderStatus}
+     */
+    public OrderStatus tryRemoveOrder(String orderId) {
+        if(orderStore != null) {
+            return tryRemoveOrder(Order.toNumericOrderId(orderId));
+        }
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        Order restingOrder = numericOrderIndex != null ? numericOrderIndex.remove(Order.toNumericOrderId(orderId))
+                : orderIndex.remove(orderId);
+        if(restingOrder == null) {
+            return OrderStatus.ORDER_NOT_FOUND;
+        }
+        removeRestingOrder(restingOrder, startNanos);
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Removes the resting order with the given numeric id in constant time, without allocating in a book with
+     * numeric order ids</p>
+     * @param orderId value of the numeric id of the order
+     */
+    public void removeOrder(long orderId) throws OrderException {
+        if(tryRemoveOrder(orderId) != OrderStatus.ACCEPTED) {
+            throw OrderException.of(OrderStatus.ORDER_NOT_FOUND, OrderActionType.REMOVE, Long.toString(orderId));
+        }
+    }
+
+    /**
+     * <p>Removes the resting order with the given numeric id in constant time, without throwing</p>
+     * @param orderId value of the numeric id of the order
+     * @return ACCEPTED, or ORDER_NOT_FOUND when no order with the id rests in the book {@link OrderStatus}
+     */
+    public OrderStatus tryRemoveOrder(long orderId) {
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        if(orderStore != null) {
+            int slot = offHeapOrderIndex.remove(orderId);
+            if(slot == OffHeapOrderStore.NO_SLOT) {
+                return OrderStatus.ORDER_NOT_FOUND;
+            }
+            removeOffHeapOrder(slot, startNanos);
+            return OrderStatus.ACCEPTED;
+        }
+        Order restingOrder = numericOrderIndex != null ? numericOrderIndex.remove(orderId)
+                : orderIndex.remove(Long.toString(orderId));
+        if(restingOrder == null) {
+            return OrderStatus.ORDER_NOT_FOUND;
+        }
+        removeRestingOrder(restingOrder, startNanos);
+        return OrderStatus.ACCEPTED;
+    }
+
+    private void removeRestingOrder(Order restingOrder, long startNanos) {
+        PriceLevel level = restingOrder.getLevel();
+        OrderSide side = restingOrder.getSide();
+        getOrderMap(side, true).removeOrder(restingOrder);
+        orderPool.release(restingOrder);
+        onLevelChange(side, level, false);
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.REMOVE_ORDER, startNanos);
+        }
+    }
+
+    private void removeOffHeapOrder(int slot, long startNanos) {
+        OffHeapBookSide bookSide = getOffHeapSide(orderStore.getSide(slot), true);
+        int level = bookSide.removeOrder(slot);
+        orderStore.free(slot);
+        onLevelChange(bookSide, level, false);
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.REMOVE_ORDER, startNanos);
+        }
+    }
+
+    /**
+     * <p>Amends the price and quantity of the resting order with the given id, keeping its side. A lower quantity at
+     * the same price is set in place and keeps the time priority of the order. A higher quantity or a new price moves
+     * the order to the back of the queue of its price, with one unlink and one relink of the same order. A new price
+     * which crosses the other side is matched first, like an added order.</p>
+     * @param orderId value of the id of the order
+     * @param price new scaled price of the order
+     * @param quantity new quantity of the order
+     * @throws OrderException when the order is not found, when the quantity is not positive, when the price is not valid
+     * for the instrument
+     */
+    public void modifyOrder(String orderId, long price, long quantity) throws OrderException {
+        OrderStatus orderStatus = tryModifyOrder(orderId, price, quantity);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw OrderException.of(orderStatus, OrderActionType.MODIFY, orderId);
+        }
+    }
+
+    /**
+     * <p>Amends the price and quantity of the resting order with the given id without throwing, see
+     * {@link #modifyOrder(String, long, long)}</p>
+     * @param orderId value of the id of the order
+     * @param price new scaled price of the order
+     * @param quantity new quantity of the order
+     * @return ACCEPTED, or ORDER_NOT_FOUND, INVALID_QUANTITY or INVALID_PRICE when the modify is rejected
+     * {@link OrderStatus}
+     */
+    public OrderStatus tryModifyOrder(String orderId, long price, long quantity) {
+        if(orderStore != null) {
+            return tryModifyOrder(Order.toNumericOrderId(orderId), price, quantity);
+        }
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        Order restingOrder = getOrder(orderId);
+        if(restingOrder == null) {
+            return OrderStatus.ORDER_NOT_FOUND;
+        }
+        return modifyRestingOrder(restingOrder, price, quantity, startNanos);
+    }
+
+    /**
+     * <p>Amends the price and quantity of the resting order with the given numeric id, see
+     * {@link #modifyOrder(String, long, long)}</p>
+     * @param orderId value of the numeric id of the order
+     * @param price new scaled price of the order
+     * @param quantity new quantity of the order
+     * @throws OrderException when the order is not found, when the quantity is not positive, when the price is not valid
+     * for the instrument
+     */
+    public void modifyOrder(long orderId, long price, long quantity) throws OrderException {
+        OrderStatus orderStatus = tryModifyOrder(orderId, price, quantity);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw OrderException.of(orderStatus, OrderActionType.MODIFY, Long.toString(orderId));
+        }
+    }
+
+    /**
+     * <p>Amends the price and quantity of the resting order with the given numeric id without throwing, see
+     * {@link #modifyOrder(String, long, long)}</p>
+     * @param orderId value of the numeric id of the order
+     * @param price new scaled price of the order
+     * @param quantity new quantity of the order
+     * @return ACCEPTED, or ORDER_NOT_FOUND, INVALID_QUANTITY or INVALID_PRICE when the modify is rejected
+     * {@link OrderStatus}
+     */
+    public OrderStatus tryModifyOrder(long orderId, long price, long quantity) {
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        if(orderStore != null) {
+            int slot = offHeapOrderIndex.get(orderId);
+            if(slot == OffHeapOrderStore.NO_SLOT) {
+                return OrderStatus.ORDER_NOT_FOUND;
             }
-            if(orderQueue.isEmpty()) {
-                orderMap.remove(order.getPrice());
+            return modifyOffHeapOrder(slot, price, quantity, startNanos);
+        }
+        Order restingOrder = getOrder(orderId);
+        if(restingOrder == null) {
+            return OrderStatus.ORDER_NOT_FOUND;
+        }
+        return modifyRestingOrder(restingOrder, price, quantity, startNanos);
+    }
+
+    private OrderStatus modifyRestingOrder(Order restingOrder, long price, long quantity, long startNanos) {
+        if(quantity <= 0) {
+            return OrderStatus.INVALID_QUANTITY;
+        }
+        if(!instrument.isValidPrice(price)) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        OrderSide side = restingOrder.getSide();
+        PriceLevel level = restingOrder.getLevel();
+        lastFilledQuantity = 0;
+        if(price == restingOrder.getPrice() && quantity <= restingOrder.getQuantity()) {
+            // the level quantity is updated by the order, the place in the queue is kept
+            restingOrder.setQuantity(quantity);
+            onLevelChange(side, level, false);
+        } else {
+            BookSide bookSide = getOrderMap(side, true);
+            bookSide.removeOrder(restingOrder);
+            onLevelChange(side, level, false);
+            boolean isNewPrice = price != restingOrder.getPrice();
+            restingOrder.setPrice(price);
+            restingOrder.setQuantity(quantity);
+            if(isNewPrice) {
+                runExecution(getOrderMap(side, false), restingOrder);
+            }
+            if(restingOrder.isExecutable()) {
+                bookSide.addOrder(restingOrder);
+                onLevelChange(side, restingOrder.getLevel(), restingOrder.getLevel().size() == 1);
+            } else {
+                unindexOrder(restingOrder);
+                orderPool.release(restingOrder);
             }
         }
-        if(orderNotFound) {
-            throw new OrderException("Remove fail.Not found, Order:" + order.getOrderId());
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.MODIFY_ORDER, startNanos);
         }
+        return OrderStatus.ACCEPTED;
+    }
+
+    private OrderStatus modifyOffHeapOrder(int slot, long price, long quantity, long startNanos) {
+        if(quantity <= 0) {
+            return OrderStatus.INVALID_QUANTITY;
+        }
+        if(!instrument.isValidPrice(price)) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        OrderSide side = orderStore.getSide(slot);
+        OffHeapBookSide bookSide = getOffHeapSide(side, true);
+        long restingPrice = orderStore.getPrice(slot);
+        lastFilledQuantity = 0;
+        if(price == restingPrice && quantity <= orderStore.getQuantity(slot)) {
+            // the place in the queue is kept
+            onLevelChange(bookSide, bookSide.setQuantity(slot, quantity), false);
+        } else {
+            onLevelChange(bookSide, bookSide.removeOrder(slot), false);
+            long orderId = orderStore.getOrderId(slot);
+            if(price != restingPrice) {
+                // a pooled order carries the values of the resting order through the execution
+                Order order = orderPool.acquire(orderId, price, quantity, side);
+                runOffHeapExecution(getOffHeapSide(side, false), order);
+                quantity = order.getQuantity();
+                orderPool.release(order);
+            }
+            if(quantity > 0) {
+                orderStore.setPrice(slot, price);
+                orderStore.setQuantity(slot, quantity);
+                int level = bookSide.addOrder(slot);
+                onLevelChange(bookSide, level, bookSide.getOrderCount(level) == 1);
+            } else {
+                offHeapOrderIndex.remove(orderId);
+                orderStore.free(slot);
+            }
+        }
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.MODIFY_ORDER, startNanos);
+        }
+        return OrderStatus.ACCEPTED;
     }
 
     /**
-     * <p>Checks whether an order already exists</p>
+     * <p>Returns the resting order with the given id</p>
      * @param orderId value of the id of the order
+     * @return resting order, null if no order with the id rests in the OrderBook. A book with off heap orders returns
+     * a copy of the order, which does not follow later changes.
+     */
+    public Order getOrder(String orderId) {
+        if(orderStore != null) {
+            return getOrder(Order.toNumericOrderId(orderId));
+        }
+        return numericOrderIndex != null ? numericOrderIndex.get(Order.toNumericOrderId(orderId))
+                : orderIndex.get(orderId);
+    }
+
+    /**
+     * <p>Returns the resting order with the given numeric id</p>
+     * @param orderId value of the numeric id of the order
+     * @return resting order, null if no order with the id rests in the OrderBook. A book with off heap orders returns
+     * a copy of the order, which does not follow later changes.
+     */
+    public Order getOrder(long orderId) {
+        if(orderStore != null) {
+            int slot = offHeapOrderIndex.get(orderId);
+            return slot == OffHeapOrderStore.NO_SLOT ? null : new Order(orderId, orderStore.getPrice(slot),
+                    orderStore.getQuantity(slot), orderStore.getSide(slot));
+        }
+        return numericOrderIndex != null ? numericOrderIndex.get(orderId) : orderIndex.get(Long.toString(orderId));
+    }
+
+    /**
+     * <p>Returns the number of resting orders of the OrderBook</p>
+     * @return size of the order index
+     */
+    public int getOrderCount() {
+        if(orderStore != null) {
+            return offHeapOrderIndex.size();
+        }
+        return numericOrderIndex != null ? numericOrderIndex.size() : orderIndex.size();
+    }
+
+    /**
+     * <p>Returns the number of slots of the order index, which grows with the number of resting orders</p>
+     * @return capacity of the order index
+     */
+    public int getOrderIndexCapacity() {
+        if(orderStore != null) {
+            return offHeapOrderIndex.capacity();
+        }
+        return numericOrderIndex != null ? numericOrderIndex.capacity() : orderIndex.capacity();
+    }
+
+    /**
+     * <p>Checks whether an order already exists</p>
+     * @param order order to check
      * @return true if the id of the order is available in OrderBook
      */
-    private boolean isDuplicateOrder(String orderId) {
-        return orderIds.contains(orderId);
+    private boolean isDuplicateOrder(Order order) {
+        if(orderStore != null) {
+            return offHeapOrderIndex.containsKey(order.getNumericOrderId());
+        }
+        if(numericOrderIndex != null) {
+            return numericOrderIndex.containsKey(order.getNumericOrderId());
+        }
+        return orderIndex.containsKey(order.getOrderId());
+    }
+
+    /**
+     * <p>Checks whether an order has an id of the mode of the book. An order of a book with numeric order ids which
+     * was given a text id, such as an order not taken from {@link #newOrder}, gets the numeric id of its text.</p>
+     * @param order order to check
+     * @return true if the order can be indexed
+     */
+    private boolean hasOrderId(Order order) {
+        if(!isNumericOrderIds() || order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID) {
+            return true;
+        }
+        order.numericOrderId = Order.toNumericOrderId(order.getOrderId());
+        return order.getNumericOrderId() != Order.NO_NUMERIC_ORDER_ID;
+    }
+
+    private void indexOrder(Order order) {
+        if(numericOrderIndex != null) {
+            numericOrderIndex.put(order);
+        } else {
+            orderIndex.put(order);
+        }
+    }
+
+    private void unindexOrder(Order order) {
+        if(numericOrderIndex != null) {
+            numericOrderIndex.remove(order.getNumericOrderId());
+        } else {
+            orderIndex.remove(order.getOrderId());
+        }
     }
 
     /**
@@ -211,8 +1075,8 @@ public class OrderBook {
      * @param isSameSide true if the order map returns should be same side
      * @return order map of same side when isSameSide is true, order map of opposite side otherwise
      */
-    private TreeMap<BigDecimal, Queue<Order>> getOrderMap(OrderSide side, boolean isSameSide) {
-        TreeMap<BigDecimal, Queue<Order>>  orderMap;
+    private BookSide getOrderMap(OrderSide side, boolean isSameSide) {
+        BookSide orderMap;
         OrderSide orderMapSide = side;
         if(!isSameSide) {
             orderMapSide = (side == OrderSide.BID) ? OrderSide.ASK : OrderSide.BID;
@@ -230,45 +1094,63 @@ public class OrderBook {
         return orderMap;
     }
 
+    /**
+     * <p>Returns the off heap side of a book with off heap orders</p>
+     * @param side value of the side
+     * @param isSameSide true if the side returned should be the same side
+     * @return side of the same side when isSameSide is true, side of the opposite side otherwise
+     */
+    private OffHeapBookSide getOffHeapSide(OrderSide side, boolean isSameSide) {
+        return (side == OrderSide.BID) == isSameSide ? offHeapBuyOrders : offHeapSellOrders;
+    }
+
+    private void checkHeapOrders() {
+        if(orderStore != null) {
+            throw new IllegalStateException("Off heap orders, Symbol:" + getSymbol());
+        }
+    }
+
     /**
      * <p>Returns the content of the OrderBook</p>
      * @return order book content string
      */
     public String toString() {
         StringBuilder orderBookString = new StringBuilder();
-
-        orderBookString.append("======================\nASK\n");
-        for (Map.Entry<BigDecimal, Queue<Order>> entry : sellOrders.descendingMap().entrySet()) {
-            orderBookString.append(getOrderBookEntryString(entry));
+        try {
+            new OrderBookRenderer().render(this, orderBookString);
+        } catch (IOException e) {
+            // a StringBuilder does not throw
+            throw new UncheckedIOException(e);
         }
-        orderBookString.append("-------------\n");
-        for (Map.Entry<BigDecimal, Queue<Order>> entry : buyOrders.entrySet()) {
-            orderBookString.append(getOrderBookEntryString(entry));
-        }
-        orderBookString.append("BID\n======================\n");
         return orderBookString.toString();
     }
 
-    private StringBuilder getOrderBookEntryString(Map.Entry<BigDecimal, Queue<Order>> entry) {
-        StringBuilder orderBookEntryString = new StringBuilder();
-        orderBookEntryString.append(entry.getKey().toString());
-        orderBookEntryString.append(": ");
-        // remove ',' from quantity string
-        String quantityString = entry.getValue().toString().replaceAll(",","");
-        // get order string without brackets '[' and ']'
-        orderBookEntryString.append(quantityString.substring(1,quantityString.length() - 1));
-        orderBookEntryString.append("\n");
-
-        return orderBookEntryString;
-    }
-
     /**
      * <p>Clears the OrderBook content, except the symbol</p>
      */
     public void clear() {
+        if(orderStore != null) {
+            offHeapOrderIndex.clear();
+            offHeapSellOrders.clear();
+            offHeapBuyOrders.clear();
+            orderStore.clear();
+            return;
+        }
+        Consumer<Order> releaseAction = order -> {
+            order.level = null;
+            order.prev = null;
+            order.next = null;
+            orderPool.release(order);
+        };
+        if(numericOrderIndex != null) {
+            numericOrderIndex.forEach(releaseAction);
+            numericOrderIndex.clear();
+        } else {
+            orderIndex.forEach(releaseAction);
+            orderIndex.clear();
+        }
         sellOrders.clear();
         buyOrders.clear();
-        orderIds.clear();
     }
 
 }
@@ -0,0 +1,175 @@
+package com.orderbook.domain;
+
+import java.io.IOException;
+
+/**
+ * Renders the content of an {@link OrderBook} straight into an {@link Appendable}, such as a buffered Writer or a
+ * reused StringBuilder. Prices and quantities are written digit by digit from their long values, so rendering
+ * creates no intermediate String. Asks are written from the highest to the lowest price above the bids, which are
+ * written from the highest to the lowest price. Not thread safe.
+ */
+public class OrderBookRenderer {
+
+    public static final int ALL_LEVELS = Integer.MAX_VALUE;
+
+    private static final String BOOK_LINE = "======================\n";
+    private static final String SPREAD_LINE = "-------------\n";
+
+    private final char[] digits = new char[20];
+
+    /**
+     * <p>Renders every level of the book</p>
+     * @param orderBook order book to render
+     * @param out destination of the content
+     * @throws IOException when the destination can not be written
+     */
+    public void render(OrderBook orderBook, Appendable out) throws IOException {
+        render(orderBook, out, ALL_LEVELS);
+    }
+
+    /**
+     * <p>Renders the best levels of each side of the book</p>
+     * @param orderBook order book to render
+     * @param out destination of the content
+     * @param maxLevels number of the best levels rendered for each side, {@link #ALL_LEVELS} for every level
+     * @throws IOException when the destination can not be written
+     */
+    public void render(OrderBook orderBook, Appendable out, int maxLevels) throws IOException {
+        if(maxLevels <= 0) {
+            throw new IllegalArgumentException("Invalid Level Count:" + maxLevels);
+        }
+        int priceScale = orderBook.getInstrument().getPriceScale();
+        if(orderBook.isOffHeapOrders()) {
+            renderOffHeap(orderBook, out, maxLevels, priceScale);
+            return;
+        }
+        BookSide sellOrders = orderBook.getSellOrders();
+        BookSide buyOrders = orderBook.getBuyOrders();
+
+        out.append(BOOK_LINE).append("ASK\n");
+        // asks are written from the worst of the rendered levels to the best
+        PriceLevel level = sellOrders.best();
+        for (int i = 1; i < maxLevels && level != null && sellOrders.nextWorse(level) != null; i++) {
+            level = sellOrders.nextWorse(level);
+        }
+        for (; level != null; level = sellOrders.nextBetter(level)) {
+            renderLevel(level, priceScale, out);
+        }
+        out.append(SPREAD_LINE);
+        level = buyOrders.best();
+        for (int i = 0; i < maxLevels && level != null; i++) {
+            renderLevel(level, priceScale, out);
+            level = buyOrders.nextWorse(level);
+        }
+        out.append("BID\n").append(BOOK_LINE);
+    }
+
+    private void renderOffHeap(OrderBook orderBook, Appendable out, int maxLevels, int priceScale)
+            throws IOException {
+        OffHeapBookSide sellOrders = orderBook.getOffHeapSellOrders();
+        OffHeapBookSide buyOrders = orderBook.getOffHeapBuyOrders();
+
+        out.append(BOOK_LINE).append("ASK\n");
+        int level = sellOrders.best();
+        for (int i = 1; i < maxLevels && level != OffHeapBookSide.NO_LEVEL
+                && sellOrders.nextWorse(level) != OffHeapBookSide.NO_LEVEL; i++) {
+            level = sellOrders.nextWorse(level);
+        }
+        for (; level != OffHeapBookSide.NO_LEVEL; level = sellOrders.nextBetter(level)) {
+            renderLevel(sellOrders, level, priceScale, out);
+        }
+        out.append(SPREAD_LINE);
+        level = buyOrders.best();
+        for (int i = 0; i < maxLevels && level != OffHeapBookSide.NO_LEVEL; i++) {
+            renderLevel(buyOrders, level, priceScale, out);
+            level = buyOrders.nextWorse(level);
+        }
+        out.append("BID\n").append(BOOK_LINE);
+    }
+
+    /**
+     * <p>Renders a level as its price followed by the quantities of its orders in time priority</p>
+     */
+    private void renderLevel(PriceLevel level, int priceScale, Appendable out) throws IOException {
+        appendPrice(level.getPrice(), priceScale, out);
+        out.append(':');
+        for (Order order = level.peek(); order != null; order = order.getNext()) {
+            out.append(' ');
+            appendLong(order.getQuantity(), out);
+        }
+        out.append('\n');
+    }
+
+    private void renderLevel(OffHeapBookSide bookSide, int level, int priceScale, Appendable out)
+            throws IOException {
+        OffHeapOrderStore orderStore = bookSide.getOrderStore();
+        appendPrice(bookSide.getPrice(level), priceScale, out);
+        out.append(':');
+        for (int slot = bookSide.getHead(level); slot != OffHeapOrderStore.NO_SLOT; slot = orderStore.getNext(slot)) {
+            out.append(' ');
+            appendLong(orderStore.getQuantity(slot), out);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * <p>Appends a scaled price as a decimal without trailing zeros</p>
+     * @param scaledPrice scaled price
+     * @param priceScale number of decimal places kept in the scaled price
+     * @param out destination of the price
+     * @throws IOException when the destination can not be written
+     */
+    public void appendPrice(long scaledPrice, int priceScale, Appendable out) throws IOException {
+        if(scaledPrice < 0) {
+            out.append('-');
+            scaledPrice = -scaledPrice;
+        }
+        long unit = pow10(priceScale);
+        appendLong(scaledPrice / unit, out);
+        long fraction = scaledPrice % unit;
+        if(fraction == 0) {
+            return;
+        }
+        int decimals = priceScale;
+        while (fraction % 10 == 0) {
+            fraction /= 10;
+            decimals--;
+        }
+        out.append('.');
+        // leading zeros of the fraction
+        for (long limit = pow10(decimals - 1); fraction < limit; limit /= 10) {
+            out.append('0');
+        }
+        appendLong(fraction, out);
+    }
+
+    /**
+     * <p>Appends the decimal digits of a non negative long</p>
+     * @param value value to append
+     * @param out destination of the digits
+     * @throws IOException when the destination can not be written
+     */
+    public void appendLong(long value, Appendable out) throws IOException {
+        if(value < 0) {
+            // not expected for prices and quantities, written as it is
+            out.append(Long.toString(value));
+            return;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (; position < digits.length; position++) {
+            out.append(digits[position]);
+        }
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
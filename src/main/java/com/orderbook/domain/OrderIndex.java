@@ -0,0 +1,202 @@
+package com.orderbook.domain;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * OrderIndex maps order ids to the resting {@link Order}s of an {@link OrderBook}.
+ * It is an open addressing hash table with linear probing which stores the orders themselves, so put and remove
+ * allocate nothing unless the table grows. Removal shifts the following entries back instead of leaving tombstones.
+ */
+public class OrderIndex {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private Order[] table;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * <p>Constructs an empty OrderIndex with the default capacity</p>
+     */
+    public OrderIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Constructs an empty OrderIndex</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public OrderIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * <p>Grows the table once for the given number of orders, so indexing them does not grow it step by step</p>
+     * @param expectedSize number of orders the index holds without growing
+     */
+    public void ensureCapacity(int expectedSize) {
+        if(expectedSize > resizeThreshold) {
+            Order[] oldTable = table;
+            allocate(Integer.highestOneBit(expectedSize * 2 - 1) << 1);
+            rehash(oldTable);
+        }
+    }
+
+    /**
+     * <p>Returns the order with the given id</p>
+     * @param orderId value of the id of the order
+     * @return order, null if not found
+     */
+    public Order get(String orderId) {
+        int slot = slotOf(orderId);
+        return slot < 0 ? null : table[slot];
+    }
+
+    /**
+     * <p>Checks whether an order with the given id is indexed</p>
+     * @param orderId value of the id of the order
+     * @return true if found
+     */
+    public boolean containsKey(String orderId) {
+        return slotOf(orderId) >= 0;
+    }
+
+    /**
+     * <p>Indexes an order by its id, replacing an order with the same id</p>
+     * @param order order for index
+     */
+    public void put(Order order) {
+        Order[] table = this.table;
+        int slot = homeSlot(order.getOrderId());
+        while(table[slot] != null) {
+            if(table[slot].getOrderId().equals(order.getOrderId())) {
+                table[slot] = order;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = order;
+        if(++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * <p>Removes the order with the given id</p>
+     * @param orderId value of the id of the order
+     * @return removed order, null if not found
+     */
+    public Order remove(String orderId) {
+        int slot = slotOf(orderId);
+        if(slot < 0) {
+            return null;
+        }
+        Order order = table[slot];
+        size--;
+        // shift back the entries of the probe sequence which follows the removed slot
+        int free = slot;
+        int next = (slot + 1) & mask;
+        while(table[next] != null) {
+            int home = homeSlot(table[next].getOrderId());
+            if(((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[free] = null;
+        return order;
+    }
+
+    /**
+     * <p>Returns the number of indexed orders</p>
+     * @return order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of slots of the table</p>
+     * @return capacity
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * <p>Checks whether no order is indexed</p>
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * <p>Performs an action for every indexed order, in no particular order</p>
+     * @param action action to perform
+     */
+    public void forEach(Consumer<? super Order> action) {
+        for (Order order : table) {
+            if(order != null) {
+                action.accept(order);
+            }
+        }
+    }
+
+    /**
+     * <p>Removes all orders, keeping the capacity</p>
+     */
+    public void clear() {
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    private int slotOf(String orderId) {
+        if(orderId == null) {
+            return -1;
+        }
+        Order[] table = this.table;
+        int slot = homeSlot(orderId);
+        while(table[slot] != null) {
+            if(table[slot].getOrderId().equals(orderId)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int homeSlot(String orderId) {
+        int hash = orderId.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void resize() {
+        Order[] oldTable = table;
+        allocate(oldTable.length << 1);
+        rehash(oldTable);
+    }
+
+    private void rehash(Order[] oldTable) {
+        for (Order order : oldTable) {
+            if(order != null) {
+                int slot = homeSlot(order.getOrderId());
+                while(table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = order;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new Order[capacity];
+        mask = capacity - 1;
+        // keeps the load factor at or below 0.5 for short probe sequences
+        resizeThreshold = capacity >> 1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * OrderPool recycles the {@link Order} objects of an {@link OrderBook}. Free orders are linked through their
+ * intrusive links, so acquiring and releasing an order allocates nothing once the pool is warm.
+ * Only orders acquired from the pool are taken back, orders created with a constructor are left to the GC.
+ * Not thread safe, a pool belongs to the thread which runs its book.
+ */
+public class OrderPool {
+
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    private final int maxSize;
+    private Order free;
+    private int size;
+    private long createdCount;
+
+    /**
+     * <p>Constructs an empty OrderPool with the default maximum size</p>
+     */
+    public OrderPool() {
+        this(DEFAULT_MAX_SIZE, 0);
+    }
+
+    /**
+     * <p>Constructs an OrderPool</p>
+     * @param maxSize maximum number of free orders kept, released orders over this size are left to the GC
+     * @param initialSize number of free orders created upfront
+     */
+    public OrderPool(int maxSize, int initialSize) {
+        if(maxSize < 0 || initialSize < 0 || initialSize > maxSize) {
+            throw new IllegalArgumentException("Invalid Pool Size:" + initialSize + "/" + maxSize);
+        }
+        this.maxSize = maxSize;
+        for (int i = 0; i < initialSize; i++) {
+            release(createOrder());
+        }
+    }
+
+    /**
+     * <p>Returns a free order set with the given values, creating one when the pool is empty</p>
+     * @param orderId value for id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     * @return order owned by this pool
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public Order acquire(String orderId, long price, long quantity, OrderSide side) {
+        Order order = take();
+        try {
+            order.init(orderId, price, quantity, side);
+        } catch (IllegalArgumentException e) {
+            release(order);
+            throw e;
+        }
+        return order;
+    }
+
+    /**
+     * <p>Returns a free order set with the given values and a numeric id, creating one when the pool is empty</p>
+     * @param orderId value for numeric id of the order
+     * @param price scaled price of the order
+     * @param quantity quantity of the order
+     * @param side side of the order {@link OrderSide}
+     * @return order owned by this pool
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public Order acquire(long orderId, long price, long quantity, OrderSide side) {
+        Order order = take();
+        try {
+            order.init(orderId, price, quantity, side);
+        } catch (IllegalArgumentException e) {
+            release(order);
+            throw e;
+        }
+        return order;
+    }
+
+    private Order take() {
+        Order order = free;
+        if(order == null) {
+            order = createOrder();
+        } else {
+            free = order.next;
+            order.next = null;
+            order.inPool = false;
+            size--;
+        }
+        return order;
+    }
+
+    /**
+     * <p>Returns an order to the pool. Orders not acquired from this pool, already free or still resting in a
+     * price level are ignored.</p>
+     * @param order order for release
+     */
+    public void release(Order order) {
+        if(order.pool != this || order.inPool || order.level != null || size >= maxSize) {
+            return;
+        }
+        order.reset();
+        order.inPool = true;
+        order.next = free;
+        free = order;
+        size++;
+    }
+
+    /**
+     * <p>Returns the number of free orders</p>
+     * @return free order count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of orders created by the pool</p>
+     * @return created order count
+     */
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    private Order createOrder() {
+        Order order = new Order();
+        order.pool = this;
+        createdCount++;
+        return order;
+    }
+}
@@ -0,0 +1,208 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+
+/**
+ * OrderRecord holds the parsed values of an order record. It is mutable so that a reader can reuse one instance
+ * for every record, values are validated by the parser which fills it.
+ */
+public class OrderRecord {
+
+    private String symbol;
+    private OrderActionType actionType;
+    private String orderId;
+    // id of a record read as a number, the text is only created when asked for
+    private long numericOrderId = Order.NO_NUMERIC_ORDER_ID;
+    private OrderSide side;
+    private long quantity;
+    private long price;
+    private int symbolId;
+    private long timestamp;
+
+    /**
+     * <p>Returns the symbol of the record</p>
+     * @return value of symbol, null if the symbol is given with the record source
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * <p>Sets the symbol of the record</p>
+     * @param symbol value of symbol
+     */
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * <p>Returns the action type of the record</p>
+     * @return action type {@link OrderActionType}
+     */
+    public OrderActionType getActionType() {
+        return actionType;
+    }
+
+    /**
+     * <p>Sets the action type of the record</p>
+     * @param actionType action type {@link OrderActionType}
+     */
+    public void setActionType(OrderActionType actionType) {
+        this.actionType = actionType;
+    }
+
+    /**
+     * <p>Returns the id of the order. The text of a numeric id is created on the first call.</p>
+     * @return value of order id
+     */
+    public String getOrderId() {
+        if(orderId == null && numericOrderId != Order.NO_NUMERIC_ORDER_ID) {
+            orderId = Long.toString(numericOrderId);
+        }
+        return orderId;
+    }
+
+    /**
+     * <p>Sets the id of the order</p>
+     * @param orderId value of order id
+     */
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+        this.numericOrderId = Order.NO_NUMERIC_ORDER_ID;
+    }
+
+    /**
+     * <p>Returns the numeric id of the order</p>
+     * @return value of the numeric order id, NO_NUMERIC_ORDER_ID of {@link Order} if the id was set as text
+     */
+    public long getNumericOrderId() {
+        return numericOrderId;
+    }
+
+    /**
+     * <p>Checks whether the id of the order was set as a number</p>
+     * @return true if the record has a numeric order id
+     */
+    public boolean hasNumericOrderId() {
+        return numericOrderId != Order.NO_NUMERIC_ORDER_ID;
+    }
+
+    /**
+     * <p>Returns the side of the order</p>
+     * @return side {@link OrderSide}
+     */
+    public OrderSide getSide() {
+        return side;
+    }
+
+    /**
+     * <p>Sets the side of the order</p>
+     * @param side side {@link OrderSide}
+     */
+    public void setSide(OrderSide side) {
+        this.side = side;
+    }
+
+    /**
+     * <p>Returns the quantity of the order</p>
+     * @return quantity
+     */
+    public long getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * <p>Sets the quantity of the order</p>
+     * @param quantity quantity
+     */
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    /**
+     * <p>Returns the scaled price of the order</p>
+     * @return price
+     */
+    public long getPrice() {
+        return price;
+    }
+
+    /**
+     * <p>Sets the scaled price of the order</p>
+     * @param price scaled price
+     */
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
+    /**
+     * <p>Returns the numeric id of the symbol of the record</p>
+     * @return symbol id, 0 if the record has none
+     */
+    public int getSymbolId() {
+        return symbolId;
+    }
+
+    /**
+     * <p>Sets the numeric id of the symbol of the record</p>
+     * @param symbolId symbol id, 0 if the record has none
+     */
+    public void setSymbolId(int symbolId) {
+        this.symbolId = symbolId;
+    }
+
+    /**
+     * <p>Returns the timestamp of the record</p>
+     * @return timestamp in nanoseconds, 0 if the record has none
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * <p>Sets the timestamp of the record</p>
+     * @param timestamp timestamp in nanoseconds, 0 if the record has none
+     */
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * <p>Sets all values of the record</p>
+     * @param actionType action type {@link OrderActionType}
+     * @param orderId value of order id
+     * @param side side {@link OrderSide}
+     * @param quantity quantity
+     * @param price scaled price
+     * @return this record
+     */
+    public OrderRecord set(OrderActionType actionType, String orderId, OrderSide side, long quantity, long price) {
+        this.actionType = actionType;
+        this.orderId = orderId;
+        this.numericOrderId = Order.NO_NUMERIC_ORDER_ID;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        return this;
+    }
+
+    /**
+     * <p>Sets all values of the record with a numeric order id, without creating its text</p>
+     * @param actionType action type {@link OrderActionType}
+     * @param orderId value of the numeric order id
+     * @param side side {@link OrderSide}
+     * @param quantity quantity
+     * @param price scaled price
+     * @return this record
+     */
+    public OrderRecord set(OrderActionType actionType, long orderId, OrderSide side, long quantity, long price) {
+        this.actionType = actionType;
+        this.orderId = null;
+        this.numericOrderId = orderId;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        return this;
+    }
+}
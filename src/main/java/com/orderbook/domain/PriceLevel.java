@@ -0,0 +1,172 @@
+package com.orderbook.domain;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * PriceLevel stores the orders of an {@link OrderBook} side which have the same price, in time priority.
+ * Orders are the nodes of an intrusive doubly linked list, so adding and removing an order allocates nothing
+ * and any order of the level can be removed in constant time. The order count and the total quantity of the
+ * level are kept up to date on add, fill and remove.
+ */
+public class PriceLevel implements Iterable<Order> {
+
+    private final long price;
+    private Order head;
+    private Order tail;
+    private int orderCount;
+    private long totalQuantity;
+
+    // neighbour levels in price priority, used by TreeBookSide
+    PriceLevel prevLevel;
+    PriceLevel nextLevel;
+
+    /**
+     * <p>Constructs an empty PriceLevel</p>
+     * @param price scaled price of the level
+     */
+    public PriceLevel(long price) {
+        this.price = price;
+    }
+
+    /**
+     * <p>Returns the scaled price of the level</p>
+     * @return price of level
+     */
+    public long getPrice() {
+        return price;
+    }
+
+    /**
+     * <p>Returns the order with the highest time priority without removing it</p>
+     * @return first order of the level, null if the level is empty
+     */
+    public Order peek() {
+        return head;
+    }
+
+    /**
+     * <p>Returns the order with the lowest time priority</p>
+     * @return last order of the level, null if the level is empty
+     */
+    public Order peekLast() {
+        return tail;
+    }
+
+    /**
+     * <p>Adds an order to the end of the level</p>
+     * @param order order for add
+     * @throws IllegalStateException when the order is already in a level
+     */
+    public void add(Order order) {
+        if(order.level != null) {
+            throw new IllegalStateException("Order already in a level, Order:" + order.getOrderId());
+        }
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if(tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        orderCount++;
+        totalQuantity += order.getQuantity();
+    }
+
+    /**
+     * <p>Removes an order from the level</p>
+     * @param order order for remove
+     * @return true if the order was in the level
+     */
+    public boolean remove(Order order) {
+        if(order.level != this) {
+            return false;
+        }
+        if(order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if(order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        orderCount--;
+        totalQuantity -= order.getQuantity();
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+        return true;
+    }
+
+    /**
+     * <p>Updates the total quantity of the level when the quantity of one of its orders changes</p>
+     * @param quantityChange difference between the new and the old quantity of the order
+     */
+    void onQuantityChange(long quantityChange) {
+        totalQuantity += quantityChange;
+    }
+
+    /**
+     * <p>Returns the number of orders in the level</p>
+     * @return order count
+     */
+    public int size() {
+        return orderCount;
+    }
+
+    /**
+     * <p>Returns the sum of the quantities of the orders in the level</p>
+     * @return total quantity
+     */
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    /**
+     * <p>Checks whether the level has no orders</p>
+     * @return true if the level is empty
+     */
+    public boolean isEmpty() {
+        return orderCount == 0;
+    }
+
+    /**
+     * <p>Empties the level without visiting its orders. Links of the orders are not reset.</p>
+     */
+    void clear() {
+        head = null;
+        tail = null;
+        orderCount = 0;
+        totalQuantity = 0;
+    }
+
+    /**
+     * <p>Returns an iterator over the orders of the level in time priority</p>
+     * @return order iterator
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<Order>() {
+            private Order current = head;
+
+            @Override
+            public boolean hasNext() {
+                return current != null;
+            }
+
+            @Override
+            public Order next() {
+                if(current == null) {
+                    throw new NoSuchElementException();
+                }
+                Order order = current;
+                current = current.next;
+                return order;
+            }
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The best levels of both sides of a book, published by the matching thread for reader threads such as risk checks
+ * and user interfaces. The levels are copied into an array guarded by a sequence lock: the matching thread makes the
+ * sequence odd, writes the levels and makes the sequence even again, while a reader copies the levels into a
+ * {@link DepthSnapshot} and retries when the sequence was odd or changed during the copy. The matching thread never
+ * waits for a reader and publishing allocates nothing.
+ * <p>The depth is published every publish interval accepted orders, so a larger interval trades freshness for
+ * matching time. {@link #publishPending(OrderBook)} publishes the orders accepted since the last publish.</p>
+ */
+public class PublishedDepth {
+
+    public static final int DEFAULT_MAX_LEVELS = 10;
+
+    private static final int SEQUENCE = 0;
+    private static final int TRADE_SEQUENCE_NUMBER = 1;
+    private static final int BID_COUNT = 2;
+    private static final int ASK_COUNT = 3;
+    private static final int HEADER_LENGTH = 4;
+    // price, total quantity and order count of a level
+    private static final int LEVEL_LENGTH = 3;
+
+    private final int maxLevels;
+    private final int publishInterval;
+    // written by the matching thread only
+    private final AtomicLongArray values;
+    private int pendingCount;
+
+    /**
+     * <p>Constructs a PublishedDepth which publishes after every accepted order</p>
+     * @param maxLevels highest number of levels published for each side
+     */
+    public PublishedDepth(int maxLevels) {
+        this(maxLevels, 1);
+    }
+
+    /**
+     * <p>Constructs a PublishedDepth</p>
+     * @param maxLevels highest number of levels published for each side
+     * @param publishInterval number of accepted orders between two publishes
+     */
+    public PublishedDepth(int maxLevels, int publishInterval) {
+        if(maxLevels <= 0) {
+            throw new IllegalArgumentException("Invalid Max Levels:" + maxLevels);
+        }
+        if(publishInterval <= 0) {
+            throw new IllegalArgumentException("Invalid Publish Interval:" + publishInterval);
+        }
+        this.maxLevels = maxLevels;
+        this.publishInterval = publishInterval;
+        this.values = new AtomicLongArray(HEADER_LENGTH + 2 * maxLevels * LEVEL_LENGTH);
+    }
+
+    /**
+     * <p>Returns the highest number of levels published for each side</p>
+     * @return max levels
+     */
+    public int getMaxLevels() {
+        return maxLevels;
+    }
+
+    /**
+     * <p>Counts an order accepted by the book and publishes the depth when the publish interval is reached. Must
+     * only be called by the matching thread.</p>
+     * @param orderBook book of the depth {@link OrderBook}
+     */
+    public void onUpdate(OrderBook orderBook) {
+        if(++pendingCount >= publishInterval) {
+            publish(orderBook);
+        }
+    }
+
+    /**
+     * <p>Publishes the depth if orders were accepted since the last publish, such as when the matching thread is
+     * idle. Must only be called by the matching thread.</p>
+     * @param orderBook book of the depth {@link OrderBook}
+     */
+    public void publishPending(OrderBook orderBook) {
+        if(pendingCount > 0) {
+            publish(orderBook);
+        }
+    }
+
+    /**
+     * <p>Publishes the best levels of the book. Must only be called by the matching thread.</p>
+     * @param orderBook book of the depth {@link OrderBook}
+     */
+    public void publish(OrderBook orderBook) {
+        long sequence = values.get(SEQUENCE);
+        // the odd sequence is stored with a full fence so that it is visible before any level
+        values.set(SEQUENCE, sequence + 1);
+        values.lazySet(TRADE_SEQUENCE_NUMBER, orderBook.getTradeSequenceNumber());
+        if(orderBook.isOffHeapOrders()) {
+            values.lazySet(BID_COUNT, writeLevels(orderBook.getOffHeapBuyOrders(), HEADER_LENGTH));
+            values.lazySet(ASK_COUNT, writeLevels(orderBook.getOffHeapSellOrders(),
+                    HEADER_LENGTH + maxLevels * LEVEL_LENGTH));
+        } else {
+            values.lazySet(BID_COUNT, writeLevels(orderBook.getBuyOrders(), HEADER_LENGTH));
+            values.lazySet(ASK_COUNT, writeLevels(orderBook.getSellOrders(),
+                    HEADER_LENGTH + maxLevels * LEVEL_LENGTH));
+        }
+        values.lazySet(SEQUENCE, sequence + 2);
+        pendingCount = 0;
+    }
+
+    private int writeLevels(BookSide bookSide, int offset) {
+        int levelCount = 0;
+        for (PriceLevel level = bookSide.best(); level != null && levelCount < maxLevels;
+             level = bookSide.nextWorse(level)) {
+            int index = offset + levelCount * LEVEL_LENGTH;
+            values.lazySet(index, level.getPrice());
+            values.lazySet(index + 1, level.getTotalQuantity());
+            values.lazySet(index + 2, level.size());
+            levelCount++;
+        }
+        return levelCount;
+    }
+
+    private int writeLevels(OffHeapBookSide bookSide, int offset) {
+        int levelCount = 0;
+        for (int level = bookSide.best(); level != OffHeapBookSide.NO_LEVEL && levelCount < maxLevels;
+             level = bookSide.nextWorse(level)) {
+            int index = offset + levelCount * LEVEL_LENGTH;
+            values.lazySet(index, bookSide.getPrice(level));
+            values.lazySet(index + 1, bookSide.getTotalQuantity(level));
+            values.lazySet(index + 2, bookSide.getOrderCount(level));
+            levelCount++;
+        }
+        return levelCount;
+    }
+
+    /**
+     * <p>Returns the number of times the depth was published</p>
+     * @return version of the depth, 0 if nothing was published
+     */
+    public long getVersion() {
+        return values.get(SEQUENCE) >>> 1;
+    }
+
+    /**
+     * <p>Copies the last published depth into a snapshot, retrying while the matching thread publishes. Thread
+     * safe, the matching thread never waits for a reader.</p>
+     * @param snapshot snapshot to fill, with at least the max levels of this depth {@link DepthSnapshot}
+     * @return version of the snapshot, 0 if nothing was published
+     */
+    public long read(DepthSnapshot snapshot) {
+        if(snapshot.getMaxLevels() < maxLevels) {
+            throw new IllegalArgumentException("Snapshot Max Levels:" + snapshot.getMaxLevels() + " below "
+                    + maxLevels);
+        }
+        while (true) {
+            long sequence = values.get(SEQUENCE);
+            if((sequence & 1) == 0) {
+                snapshot.tradeSequenceNumber = values.get(TRADE_SEQUENCE_NUMBER);
+                // counts of a torn read are still counts written by the matching thread, so within the max levels
+                int bidCount = (int) values.get(BID_COUNT);
+                int askCount = (int) values.get(ASK_COUNT);
+                readLevels(snapshot, OrderSide.BID, bidCount, HEADER_LENGTH);
+                readLevels(snapshot, OrderSide.ASK, askCount, HEADER_LENGTH + maxLevels * LEVEL_LENGTH);
+                if(values.get(SEQUENCE) == sequence) {
+                    snapshot.bidCount = bidCount;
+                    snapshot.askCount = askCount;
+                    snapshot.version = sequence >>> 1;
+                    return snapshot.version;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    private void readLevels(DepthSnapshot snapshot, OrderSide side, int levelCount, int offset) {
+        for (int i = 0; i < levelCount; i++) {
+            int index = offset + i * LEVEL_LENGTH;
+            snapshot.setLevel(side, i, values.get(index), values.get(index + 1), (int) values.get(index + 2));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.orderbook.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link PublishedDepth} of every symbol. A depth is created with the book of the symbol by the matching
+ * thread, and reader threads look it up by symbol at any time. Thread safe.
+ */
+public class PublishedDepthRegistry {
+
+    private final ConcurrentHashMap<String, PublishedDepth> depthMap;
+    private final int maxLevels;
+    private final int publishInterval;
+
+    /**
+     * <p>Constructs a PublishedDepthRegistry whose depths are published after every accepted order</p>
+     * @param maxLevels highest number of levels published for each side
+     */
+    public PublishedDepthRegistry(int maxLevels) {
+        this(maxLevels, 1);
+    }
+
+    /**
+     * <p>Constructs a PublishedDepthRegistry</p>
+     * @param maxLevels highest number of levels published for each side
+     * @param publishInterval number of accepted orders between two publishes of a depth
+     */
+    public PublishedDepthRegistry(int maxLevels, int publishInterval) {
+        if(maxLevels <= 0) {
+            throw new IllegalArgumentException("Invalid Max Levels:" + maxLevels);
+        }
+        if(publishInterval <= 0) {
+            throw new IllegalArgumentException("Invalid Publish Interval:" + publishInterval);
+        }
+        this.depthMap = new ConcurrentHashMap<>();
+        this.maxLevels = maxLevels;
+        this.publishInterval = publishInterval;
+    }
+
+    /**
+     * <p>Returns the depth of a symbol, creating it if needed</p>
+     * @param symbol value of the symbol
+     * @return depth of the symbol {@link PublishedDepth}
+     */
+    public PublishedDepth getOrCreate(String symbol) {
+        return depthMap.computeIfAbsent(symbol, key -> new PublishedDepth(maxLevels, publishInterval));
+    }
+
+    /**
+     * <p>Returns the depth of a symbol</p>
+     * @param symbol value of the symbol
+     * @return depth of the symbol {@link PublishedDepth}, null if no book of the symbol is published
+     */
+    public PublishedDepth get(String symbol) {
+        return depthMap.get(symbol);
+    }
+
+    /**
+     * <p>Returns the depth of every symbol</p>
+     * @return read only view of the depths {@link PublishedDepth}
+     */
+    public Collection<PublishedDepth> getAll() {
+        return Collections.unmodifiableCollection(depthMap.values());
+    }
+}
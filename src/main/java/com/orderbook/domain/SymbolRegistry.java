@@ -0,0 +1,111 @@
+package com.orderbook.domain;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Assigns dense int ids to symbols, starting at 1, either when a symbol is first seen or from a reference file. Ids
+ * never change once assigned, so a client can resolve its symbols once and route every order by id, and a book
+ * directory can be a plain array indexed by id. Not thread safe.
+ */
+public class SymbolRegistry {
+
+    // id of no symbol, as in an order record without symbol id
+    public static final int NO_SYMBOL_ID = 0;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final HashMap<String, Integer> symbolIds;
+    // symbol of every id, index 0 is not used
+    private String[] symbols;
+    private int size;
+
+    /**
+     * <p>Constructs an empty SymbolRegistry</p>
+     */
+    public SymbolRegistry() {
+        symbolIds = new HashMap<>();
+        symbols = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * <p>Constructs a SymbolRegistry from a reference file with one symbol per line. Symbols get ids in the order of
+     * the file, blank lines and lines starting with # are skipped.</p>
+     * @param path value of the path of the reference file
+     * @return registry of the symbols of the file
+     * @throws IOException when the file can not be read
+     * @throws IllegalArgumentException when a symbol is listed twice
+     */
+    public static SymbolRegistry load(String path) throws IOException {
+        SymbolRegistry symbolRegistry = new SymbolRegistry();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String symbol = line.trim();
+                if(symbol.isEmpty() || symbol.startsWith("#")) {
+                    continue;
+                }
+                if(symbolRegistry.getId(symbol) != NO_SYMBOL_ID) {
+                    throw new IllegalArgumentException("Duplicate Symbol:" + symbol);
+                }
+                symbolRegistry.getOrAssign(symbol);
+            }
+        }
+        return symbolRegistry;
+    }
+
+    /**
+     * <p>Returns the id of a symbol, assigning the next id to a symbol seen for the first time</p>
+     * @param symbol value of the symbol
+     * @return id of the symbol, above 0
+     */
+    public int getOrAssign(String symbol) {
+        Integer symbolId = symbolIds.get(symbol);
+        if(symbolId != null) {
+            return symbolId;
+        }
+        if(symbol == null || symbol.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid Symbol:" + symbol);
+        }
+        int id = size + 1;
+        if(id == symbols.length) {
+            symbols = Arrays.copyOf(symbols, symbols.length * 2);
+        }
+        symbols[id] = symbol;
+        symbolIds.put(symbol, id);
+        size++;
+        return id;
+    }
+
+    /**
+     * <p>Returns the id of a symbol</p>
+     * @param symbol value of the symbol
+     * @return id of the symbol, NO_SYMBOL_ID if the symbol has no id
+     */
+    public int getId(String symbol) {
+        Integer symbolId = symbolIds.get(symbol);
+        return symbolId != null ? symbolId : NO_SYMBOL_ID;
+    }
+
+    /**
+     * <p>Returns the symbol of an id</p>
+     * @param symbolId id of the symbol
+     * @return value of the symbol, null if the id is not assigned
+     */
+    public String getSymbol(int symbolId) {
+        return symbolId > NO_SYMBOL_ID && symbolId <= size ? symbols[symbolId] : null;
+    }
+
+    /**
+     * <p>Returns the number of symbols, which is also the highest id</p>
+     * @return symbol count
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,207 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * TickLadderBookSide stores price levels in an array indexed by the tick offset of the price from the lower
+ * bound of the price band of the instrument. Level lookup and insertion are array accesses, the best and the worst
+ * levels are tracked incrementally. Level objects are kept in the ladder after they become empty and are reused.
+ */
+public class TickLadderBookSide implements BookSide {
+
+    public static final int MAX_LEVELS = 1 << 24;
+
+    private final OrderSide side;
+    private final long minPrice;
+    private final long maxPrice;
+    private final long tickSize;
+    private final PriceLevel[] levels;
+    // direction of the index towards worse prices
+    private final int worseStep;
+    private int bestIndex = -1;
+    private int worstIndex = -1;
+    private int levelCount;
+    private int orderCount;
+
+    /**
+     * <p>Constructs an empty TickLadderBookSide for the price band of an instrument</p>
+     * @param side side of the orders stored {@link OrderSide}
+     * @param instrument instrument with a price band {@link Instrument}
+     */
+    public TickLadderBookSide(OrderSide side, Instrument instrument) {
+        if(!instrument.hasPriceBand()) {
+            throw new IllegalArgumentException("No price band, Symbol:" + instrument.getSymbol());
+        }
+        long levelCount = (instrument.getMaxPrice() - instrument.getMinPrice()) / instrument.getTickSize() + 1;
+        if(levelCount > MAX_LEVELS) {
+            throw new IllegalArgumentException("Price band too wide, Symbol:" + instrument.getSymbol());
+        }
+        this.side = side;
+        this.minPrice = instrument.getMinPrice();
+        this.maxPrice = instrument.getMaxPrice();
+        this.tickSize = instrument.getTickSize();
+        this.levels = new PriceLevel[(int) levelCount];
+        this.worseStep = side == OrderSide.BID ? -1 : 1;
+    }
+
+    @Override
+    public OrderSide getSide() {
+        return side;
+    }
+
+    @Override
+    public void addOrder(Order order) {
+        int index = toIndex(order.getPrice());
+        if(index < 0) {
+            throw new IllegalArgumentException("Price out of band, Order:" + order.getOrderId());
+        }
+        PriceLevel level = levels[index];
+        if(level == null) {
+            level = new PriceLevel(order.getPrice());
+            levels[index] = level;
+        }
+        if(level.isEmpty()) {
+            levelCount++;
+            if(bestIndex < 0) {
+                bestIndex = index;
+                worstIndex = index;
+            } else if(isBetter(index, bestIndex)) {
+                bestIndex = index;
+            } else if(isBetter(worstIndex, index)) {
+                worstIndex = index;
+            }
+        }
+        level.add(order);
+        orderCount++;
+    }
+
+    @Override
+    public void appendOrder(Order order) {
+        int index = toIndex(order.getPrice());
+        if(index < 0) {
+            throw new IllegalArgumentException("Price out of band, Order:" + order.getOrderId());
+        }
+        if(worstIndex >= 0 && isBetter(index, worstIndex)) {
+            throw new IllegalArgumentException("Price better than the worst level, Order:" + order.getOrderId());
+        }
+        // the best and the worst levels are known without a search
+        addOrder(order);
+    }
+
+    @Override
+    public void removeOrder(Order order) {
+        PriceLevel level = order.getLevel();
+        level.remove(order);
+        orderCount--;
+        if(level.isEmpty()) {
+            levelCount--;
+            int index = toIndex(level.getPrice());
+            if(levelCount == 0) {
+                bestIndex = -1;
+                worstIndex = -1;
+            } else if(index == bestIndex) {
+                bestIndex = findLevel(index, worseStep);
+            } else if(index == worstIndex) {
+                worstIndex = findLevel(index, -worseStep);
+            }
+        }
+    }
+
+    @Override
+    public PriceLevel get(long price) {
+        int index = toIndex(price);
+        if(index < 0 || levels[index] == null || levels[index].isEmpty()) {
+            return null;
+        }
+        return levels[index];
+    }
+
+    @Override
+    public boolean containsKey(long price) {
+        return get(price) != null;
+    }
+
+    @Override
+    public PriceLevel best() {
+        return bestIndex < 0 ? null : levels[bestIndex];
+    }
+
+    @Override
+    public PriceLevel worst() {
+        return worstIndex < 0 ? null : levels[worstIndex];
+    }
+
+    @Override
+    public PriceLevel nextWorse(PriceLevel level) {
+        int index = toIndex(level.getPrice());
+        return index == worstIndex ? null : levels[findLevel(index, worseStep)];
+    }
+
+    @Override
+    public PriceLevel nextBetter(PriceLevel level) {
+        int index = toIndex(level.getPrice());
+        return index == bestIndex ? null : levels[findLevel(index, -worseStep)];
+    }
+
+    @Override
+    public int size() {
+        return levelCount;
+    }
+
+    @Override
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levelCount == 0;
+    }
+
+    @Override
+    public void clear() {
+        if(levelCount > 0) {
+            int from = Math.min(bestIndex, worstIndex);
+            int to = Math.max(bestIndex, worstIndex);
+            for (int i = from; i <= to; i++) {
+                if(levels[i] != null) {
+                    levels[i].clear();
+                }
+            }
+        }
+        bestIndex = -1;
+        worstIndex = -1;
+        levelCount = 0;
+        orderCount = 0;
+    }
+
+    /**
+     * <p>Returns the ladder index of a price</p>
+     * @param price scaled price
+     * @return index, -1 if the price is out of the band or not on the tick grid
+     */
+    private int toIndex(long price) {
+        if(price < minPrice || price > maxPrice || (price - minPrice) % tickSize != 0) {
+            return -1;
+        }
+        return (int) ((price - minPrice) / tickSize);
+    }
+
+    /**
+     * <p>Returns the index of the next non empty level. There must be one in the given direction.</p>
+     * @param index index to start from, excluded
+     * @param step direction to move
+     * @return index of the next non empty level
+     */
+    private int findLevel(int index, int step) {
+        int i = index + step;
+        while(levels[i] == null || levels[i].isEmpty()) {
+            i += step;
+        }
+        return i;
+    }
+
+    private boolean isBetter(int index, int comparingIndex) {
+        return side == OrderSide.BID ? index > comparingIndex : index < comparingIndex;
+    }
+}
@@ -0,0 +1,218 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * TradeBatch holds the fills of one incoming order in parallel arrays. It is reused for every order, the arrays
+ * only grow when an order has more fills than any order before. The fills of orders with numeric ids keep the ids as
+ * longs, their text is only created when it is asked for.
+ */
+public class TradeBatch {
+
+    private String symbol;
+    private String aggressorOrderId;
+    private long numericAggressorOrderId = Order.NO_NUMERIC_ORDER_ID;
+    private OrderSide aggressorSide;
+    private int size;
+    private long[] sequenceNumbers;
+    private String[] restingOrderIds;
+    private long[] numericRestingOrderIds;
+    private long[] prices;
+    private long[] quantities;
+
+    /**
+     * <p>Constructs an empty TradeBatch</p>
+     * @param initialCapacity number of fills the batch holds before it grows
+     */
+    public TradeBatch(int initialCapacity) {
+        if(initialCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid Capacity:" + initialCapacity);
+        }
+        sequenceNumbers = new long[initialCapacity];
+        restingOrderIds = new String[initialCapacity];
+        numericRestingOrderIds = new long[initialCapacity];
+        prices = new long[initialCapacity];
+        quantities = new long[initialCapacity];
+    }
+
+    /**
+     * <p>Adds a fill, the first fill of the batch sets the incoming order of the batch</p>
+     */
+    void add(String symbol, long sequenceNumber, String aggressorOrderId, String restingOrderId, long price,
+             long quantity, OrderSide aggressorSide) {
+        if(size == 0) {
+            this.symbol = symbol;
+            this.aggressorOrderId = aggressorOrderId;
+            this.aggressorSide = aggressorSide;
+        }
+        if(size == prices.length) {
+            grow();
+        }
+        sequenceNumbers[size] = sequenceNumber;
+        restingOrderIds[size] = restingOrderId;
+        numericRestingOrderIds[size] = Order.NO_NUMERIC_ORDER_ID;
+        prices[size] = price;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    /**
+     * <p>Adds a fill of two orders with numeric ids, the first fill of the batch sets the incoming order of the
+     * batch</p>
+     */
+    void add(String symbol, long sequenceNumber, long aggressorOrderId, long restingOrderId, long price,
+             long quantity, OrderSide aggressorSide) {
+        add(symbol, sequenceNumber, null, null, price, quantity, aggressorSide);
+        if(size == 1) {
+            numericAggressorOrderId = aggressorOrderId;
+        }
+        numericRestingOrderIds[size - 1] = restingOrderId;
+    }
+
+    /**
+     * <p>Empties the batch</p>
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            restingOrderIds[i] = null;
+        }
+        size = 0;
+        symbol = null;
+        aggressorOrderId = null;
+        numericAggressorOrderId = Order.NO_NUMERIC_ORDER_ID;
+        aggressorSide = null;
+    }
+
+    /**
+     * <p>Returns the value of the symbol of the book</p>
+     * @return value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * <p>Returns the id of the incoming order</p>
+     * @return value of the aggressor order id
+     */
+    public String getAggressorOrderId() {
+        if(aggressorOrderId == null && numericAggressorOrderId != Order.NO_NUMERIC_ORDER_ID) {
+            aggressorOrderId = Long.toString(numericAggressorOrderId);
+        }
+        return aggressorOrderId;
+    }
+
+    /**
+     * <p>Returns the numeric id of the incoming order</p>
+     * @return value of the numeric aggressor order id, NO_NUMERIC_ORDER_ID if the fills have text ids
+     */
+    public long getNumericAggressorOrderId() {
+        return numericAggressorOrderId;
+    }
+
+    /**
+     * <p>Returns the side of the incoming order</p>
+     * @return aggressor side {@link OrderSide}
+     */
+    public OrderSide getAggressorSide() {
+        return aggressorSide;
+    }
+
+    /**
+     * <p>Returns the number of fills in the batch</p>
+     * @return fill count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the sequence number of a fill</p>
+     * @param index index of the fill
+     * @return sequence number of the fill in the book
+     */
+    public long getSequenceNumber(int index) {
+        checkIndex(index);
+        return sequenceNumbers[index];
+    }
+
+    /**
+     * <p>Returns the id of the resting order of a fill</p>
+     * @param index index of the fill
+     * @return value of the resting order id
+     */
+    public String getRestingOrderId(int index) {
+        checkIndex(index);
+        if(restingOrderIds[index] == null && numericRestingOrderIds[index] != Order.NO_NUMERIC_ORDER_ID) {
+            restingOrderIds[index] = Long.toString(numericRestingOrderIds[index]);
+        }
+        return restingOrderIds[index];
+    }
+
+    /**
+     * <p>Returns the numeric id of the resting order of a fill</p>
+     * @param index index of the fill
+     * @return value of the numeric resting order id, NO_NUMERIC_ORDER_ID if the fill has text ids
+     */
+    public long getNumericRestingOrderId(int index) {
+        checkIndex(index);
+        return numericRestingOrderIds[index];
+    }
+
+    /**
+     * <p>Returns the price of a fill</p>
+     * @param index index of the fill
+     * @return scaled price
+     */
+    public long getPrice(int index) {
+        checkIndex(index);
+        return prices[index];
+    }
+
+    /**
+     * <p>Returns the quantity of a fill</p>
+     * @param index index of the fill
+     * @return filled quantity
+     */
+    public long getQuantity(int index) {
+        checkIndex(index);
+        return quantities[index];
+    }
+
+    /**
+     * <p>Returns the sum of the quantities of the fills</p>
+     * @return filled quantity of the incoming order
+     */
+    public long getTotalQuantity() {
+        long totalQuantity = 0;
+        for (int i = 0; i < size; i++) {
+            totalQuantity += quantities[i];
+        }
+        return totalQuantity;
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + ", Size:" + size);
+        }
+    }
+
+    private void grow() {
+        int capacity = prices.length * 2;
+        long[] newSequenceNumbers = new long[capacity];
+        String[] newRestingOrderIds = new String[capacity];
+        long[] newNumericRestingOrderIds = new long[capacity];
+        long[] newPrices = new long[capacity];
+        long[] newQuantities = new long[capacity];
+        System.arraycopy(sequenceNumbers, 0, newSequenceNumbers, 0, size);
+        System.arraycopy(restingOrderIds, 0, newRestingOrderIds, 0, size);
+        System.arraycopy(numericRestingOrderIds, 0, newNumericRestingOrderIds, 0, size);
+        System.arraycopy(prices, 0, newPrices, 0, size);
+        System.arraycopy(quantities, 0, newQuantities, 0, size);
+        sequenceNumbers = newSequenceNumbers;
+        restingOrderIds = newRestingOrderIds;
+        numericRestingOrderIds = newNumericRestingOrderIds;
+        prices = newPrices;
+        quantities = newQuantities;
+    }
+}
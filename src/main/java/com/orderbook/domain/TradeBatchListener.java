@@ -0,0 +1,13 @@
+package com.orderbook.domain;
+
+/**
+ * Receives the fills of an incoming order at once from a {@link BatchingTradeListener}.
+ */
+public interface TradeBatchListener {
+
+    /**
+     * <p>Called once per incoming order which had at least one fill</p>
+     * @param tradeBatch fills of the order, reused for the next order {@link TradeBatch}
+     */
+    void onTradeBatch(TradeBatch tradeBatch);
+}
@@ -0,0 +1,59 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+/**
+ * Receives the fills of an {@link OrderBook}. It is called synchronously on the matching thread for every match of
+ * an incoming order with a resting order, with primitive values so that nothing is allocated per fill.
+ */
+public interface TradeListener {
+
+    /**
+     * <p>Called for every fill of an incoming order with a resting order</p>
+     * @param symbol value of the symbol of the book
+     * @param sequenceNumber number of the fill in the book, starting at 1
+     * @param aggressorOrderId value of the id of the incoming order
+     * @param restingOrderId value of the id of the resting order
+     * @param price scaled price of the fill, the price of the resting order
+     * @param quantity filled quantity
+     * @param aggressorSide side of the incoming order {@link OrderSide}
+     */
+    void onTrade(String symbol, long sequenceNumber, String aggressorOrderId, String restingOrderId, long price,
+                 long quantity, OrderSide aggressorSide);
+
+    /**
+     * <p>Called instead of the text version for every fill of two orders with numeric ids, such as the fills of a
+     * book with numeric order ids. The default passes the text of the ids to the text version, a listener which
+     * overrides it receives the fills of such books without any id text being created.</p>
+     * @param symbol value of the symbol of the book
+     * @param sequenceNumber number of the fill in the book, starting at 1
+     * @param aggressorOrderId value of the numeric id of the incoming order
+     * @param restingOrderId value of the numeric id of the resting order
+     * @param price scaled price of the fill, the price of the resting order
+     * @param quantity filled quantity
+     * @param aggressorSide side of the incoming order {@link OrderSide}
+     */
+    default void onTrade(String symbol, long sequenceNumber, long aggressorOrderId, long restingOrderId, long price,
+                         long quantity, OrderSide aggressorSide) {
+        onTrade(symbol, sequenceNumber, Long.toString(aggressorOrderId), Long.toString(restingOrderId), price,
+                quantity, aggressorSide);
+    }
+
+    /**
+     * <p>Called once the execution of an incoming order which had at least one fill ends</p>
+     * @param symbol value of the symbol of the book
+     * @param aggressorOrderId value of the id of the incoming order
+     */
+    default void onExecutionEnd(String symbol, String aggressorOrderId) {
+    }
+
+    /**
+     * <p>Called instead of the text version once the execution of an incoming order with a numeric id which had at
+     * least one fill ends. The default passes the text of the id to the text version.</p>
+     * @param symbol value of the symbol of the book
+     * @param aggressorOrderId value of the numeric id of the incoming order
+     */
+    default void onExecutionEnd(String symbol, long aggressorOrderId) {
+        onExecutionEnd(symbol, Long.toString(aggressorOrderId));
+    }
+}
@@ -0,0 +1,164 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * TreeBookSide stores price levels in a TreeMap keyed by price, for instruments without a price band.
+ * Levels are also linked in price priority so the best level and the next level are read without a tree walk.
+ */
+public class TreeBookSide implements BookSide {
+
+    private final OrderSide side;
+    private final TreeMap<Long, PriceLevel> levels;
+    private PriceLevel bestLevel;
+    private PriceLevel worstLevel;
+    private int orderCount;
+
+    /**
+     * <p>Constructs an empty TreeBookSide</p>
+     * @param side side of the orders stored {@link OrderSide}
+     */
+    public TreeBookSide(OrderSide side) {
+        this.side = side;
+        // keys are kept in price priority, best price first
+        this.levels = side == OrderSide.BID ? new TreeMap<>(Collections.reverseOrder()) : new TreeMap<>();
+    }
+
+    @Override
+    public OrderSide getSide() {
+        return side;
+    }
+
+    @Override
+    public void addOrder(Order order) {
+        PriceLevel level = levels.get(order.getPrice());
+        if(level == null) {
+            level = new PriceLevel(order.getPrice());
+            Map.Entry<Long, PriceLevel> betterEntry = levels.lowerEntry(order.getPrice());
+            levels.put(order.getPrice(), level);
+            linkLevel(level, betterEntry == null ? null : betterEntry.getValue());
+        }
+        level.add(order);
+        orderCount++;
+    }
+
+    @Override
+    public void appendOrder(Order order) {
+        long price = order.getPrice();
+        if(worstLevel == null || worstLevel.getPrice() != price) {
+            if(worstLevel != null
+                    && (side == OrderSide.BID ? price > worstLevel.getPrice() : price < worstLevel.getPrice())) {
+                throw new IllegalArgumentException("Price better than the worst level, Order:" + order.getOrderId());
+            }
+            PriceLevel level = new PriceLevel(price);
+            levels.put(price, level);
+            linkLevel(level, worstLevel);
+        }
+        worstLevel.add(order);
+        orderCount++;
+    }
+
+    @Override
+    public void removeOrder(Order order) {
+        PriceLevel level = order.getLevel();
+        level.remove(order);
+        orderCount--;
+        if(level.isEmpty()) {
+            levels.remove(level.getPrice());
+            unlinkLevel(level);
+        }
+    }
+
+    @Override
+    public PriceLevel get(long price) {
+        return levels.get(price);
+    }
+
+    @Override
+    public boolean containsKey(long price) {
+        return levels.containsKey(price);
+    }
+
+    @Override
+    public PriceLevel best() {
+        return bestLevel;
+    }
+
+    @Override
+    public PriceLevel worst() {
+        return worstLevel;
+    }
+
+    @Override
+    public PriceLevel nextWorse(PriceLevel level) {
+        return level.nextLevel;
+    }
+
+    @Override
+    public PriceLevel nextBetter(PriceLevel level) {
+        return level.prevLevel;
+    }
+
+    @Override
+    public int size() {
+        return levels.size();
+    }
+
+    @Override
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        levels.clear();
+        orderCount = 0;
+        bestLevel = null;
+        worstLevel = null;
+    }
+
+    /**
+     * <p>Links a new level right after the given better level</p>
+     * @param level new level
+     * @param betterLevel level with the next better price, null if the new level is the best
+     */
+    private void linkLevel(PriceLevel level, PriceLevel betterLevel) {
+        PriceLevel worseLevel = betterLevel == null ? bestLevel : betterLevel.nextLevel;
+        level.prevLevel = betterLevel;
+        level.nextLevel = worseLevel;
+        if(betterLevel == null) {
+            bestLevel = level;
+        } else {
+            betterLevel.nextLevel = level;
+        }
+        if(worseLevel == null) {
+            worstLevel = level;
+        } else {
+            worseLevel.prevLevel = level;
+        }
+    }
+
+    private void unlinkLevel(PriceLevel level) {
+        if(level.prevLevel == null) {
+            bestLevel = level.nextLevel;
+        } else {
+            level.prevLevel.nextLevel = level.nextLevel;
+        }
+        if(level.nextLevel == null) {
+            worstLevel = level.prevLevel;
+        } else {
+            level.nextLevel.prevLevel = level.prevLevel;
+        }
+        level.prevLevel = null;
+        level.nextLevel = null;
+    }
+}
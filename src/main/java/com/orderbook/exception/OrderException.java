@@ -1,11 +1,84 @@
 package com.orderbook.exception;
 
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
+
 /**
  * Generic Exception class for {@link com.orderbook.domain.Order}
  * @author Tharaka Udayanga
  */
 public class OrderException extends Exception{
+
+    private final OrderStatus orderStatus;
+
     public OrderException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * <p>Constructs an OrderException of a rejected order</p>
+     * @param message detail message
+     * @param orderStatus reason of the reject {@link OrderStatus}, null if not known
+     */
+    public OrderException(String message, OrderStatus orderStatus) {
         super(message);
+        this.orderStatus = orderStatus;
+    }
+
+    /**
+     * <p>Returns the exception of a reject which a result code method returned as a status, for the methods which
+     * throw. The message is only built here, so the result code methods do not build it.</p>
+     * @param orderStatus reason of the reject {@link OrderStatus}
+     * @param orderActionType order action type of the rejected order {@link OrderActionType}
+     * @param orderId value of the id of the rejected order
+     * @return exception of the reject
+     */
+    public static OrderException of(OrderStatus orderStatus, OrderActionType orderActionType, String orderId) {
+        return new OrderException(message(orderStatus, orderActionType, orderId), orderStatus);
+    }
+
+    /**
+     * <p>Returns the message of the exception of a reject, for callers of the result code methods which report a
+     * reject like the methods which throw</p>
+     * @param orderStatus reason of the reject {@link OrderStatus}
+     * @param orderActionType order action type of the rejected order {@link OrderActionType}
+     * @param orderId value of the id of the rejected order
+     * @return message of the reject
+     */
+    public static String message(OrderStatus orderStatus, OrderActionType orderActionType, String orderId) {
+        String message;
+        switch (orderStatus) {
+            case DUPLICATE_ORDER:
+                message = "Duplicate Order:" + orderId;
+                break;
+            case ORDER_NOT_FOUND:
+                message = (orderActionType == OrderActionType.MODIFY ? "Modify" : "Remove")
+                        + " fail.Not found, Order:" + orderId;
+                break;
+            case INVALID_PRICE:
+                message = "Invalid Price, Order:" + orderId;
+                break;
+            case INVALID_QUANTITY:
+                message = "Invalid Quantity, Order:" + orderId;
+                break;
+            case INVALID_ORDER_ID:
+                message = "Invalid Order Id:" + orderId;
+                break;
+            case INVALID_ACTION_TYPE:
+                message = "Unexpected Order Action Type:" + orderActionType;
+                break;
+            default:
+                message = orderStatus + ", Order:" + orderId;
+                break;
+        }
+        return message;
+    }
+
+    /**
+     * <p>Returns the reason of the reject</p>
+     * @return reason {@link OrderStatus}, null if not known
+     */
+    public OrderStatus getOrderStatus() {
+        return orderStatus;
     }
 }
@@ -0,0 +1,188 @@
+package com.orderbook.metrics;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderBook;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and gauges of one {@link OrderBook}. They are written only by the thread which processes the orders of
+ * the book, with plain reads and lazySet writes, so updating them takes no lock and no atomic read-modify-write.
+ * Other threads read them at any time, such as a JMX client or a {@link BookMetricsReporter}.
+ */
+public class BookMetrics implements BookMetricsMXBean {
+
+    private static final int MESSAGES = 0;
+    private static final int ADDS = 1;
+    private static final int CANCELS = 2;
+    private static final int MODIFIES = 3;
+    private static final int REJECTED_DUPLICATE = 4;
+    private static final int REJECTED_NOT_FOUND = 5;
+    private static final int REJECTED_INVALID_PRICE = 6;
+    private static final int REJECTED_INVALID_RECORD = 7;
+    // gauges, set from the book after every message
+    private static final int FILLS = 8;
+    private static final int BID_LEVELS = 9;
+    private static final int ASK_LEVELS = 10;
+    private static final int BID_ORDERS = 11;
+    private static final int ASK_ORDERS = 12;
+    private static final int ORDER_INDEX_SIZE = 13;
+    private static final int ORDER_INDEX_CAPACITY = 14;
+    private static final int VALUE_COUNT = 15;
+
+    private final String symbol;
+    // single writer, written with lazySet and read by other threads
+    private final AtomicLongArray values;
+
+    /**
+     * <p>Constructs a BookMetrics with every value at 0</p>
+     * @param symbol value of the symbol of the book
+     */
+    public BookMetrics(String symbol) {
+        this.symbol = symbol;
+        this.values = new AtomicLongArray(VALUE_COUNT);
+    }
+
+    /**
+     * <p>Counts an order accepted by the book and updates the gauges. Must only be called by the writer thread.</p>
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderBook book of the order {@link OrderBook}
+     */
+    public void onAccepted(OrderActionType orderActionType, OrderBook orderBook) {
+        increment(MESSAGES);
+        switch (orderActionType) {
+            case ADD:
+                increment(ADDS);
+                break;
+            case REMOVE:
+                increment(CANCELS);
+                break;
+            default:
+                increment(MODIFIES);
+                break;
+        }
+        update(orderBook);
+    }
+
+    /**
+     * <p>Counts a rejected order or record. Must only be called by the writer thread.</p>
+     * @param reason reason of the reject {@link OrderStatus}
+     */
+    public void onRejected(OrderStatus reason) {
+        increment(MESSAGES);
+        switch (reason) {
+            case DUPLICATE_ORDER:
+                increment(REJECTED_DUPLICATE);
+                break;
+            case ORDER_NOT_FOUND:
+                increment(REJECTED_NOT_FOUND);
+                break;
+            case INVALID_PRICE:
+                increment(REJECTED_INVALID_PRICE);
+                break;
+            default:
+                increment(REJECTED_INVALID_RECORD);
+                break;
+        }
+    }
+
+    /**
+     * <p>Sets the gauges from the state of the book. Must only be called by the writer thread.</p>
+     * @param orderBook book of the metrics {@link OrderBook}
+     */
+    public void update(OrderBook orderBook) {
+        values.lazySet(FILLS, orderBook.getTradeSequenceNumber());
+        values.lazySet(BID_LEVELS, orderBook.getLevelCount(OrderSide.BID));
+        values.lazySet(ASK_LEVELS, orderBook.getLevelCount(OrderSide.ASK));
+        values.lazySet(BID_ORDERS, orderBook.getOrderCount(OrderSide.BID));
+        values.lazySet(ASK_ORDERS, orderBook.getOrderCount(OrderSide.ASK));
+        values.lazySet(ORDER_INDEX_SIZE, orderBook.getOrderCount());
+        values.lazySet(ORDER_INDEX_CAPACITY, orderBook.getOrderIndexCapacity());
+    }
+
+    @Override
+    public String getSymbol() {
+        return symbol;
+    }
+
+    @Override
+    public long getMessageCount() {
+        return values.get(MESSAGES);
+    }
+
+    @Override
+    public long getAddCount() {
+        return values.get(ADDS);
+    }
+
+    @Override
+    public long getCancelCount() {
+        return values.get(CANCELS);
+    }
+
+    @Override
+    public long getModifyCount() {
+        return values.get(MODIFIES);
+    }
+
+    @Override
+    public long getFillCount() {
+        return values.get(FILLS);
+    }
+
+    @Override
+    public long getRejectedDuplicateCount() {
+        return values.get(REJECTED_DUPLICATE);
+    }
+
+    @Override
+    public long getRejectedNotFoundCount() {
+        return values.get(REJECTED_NOT_FOUND);
+    }
+
+    @Override
+    public long getRejectedInvalidPriceCount() {
+        return values.get(REJECTED_INVALID_PRICE);
+    }
+
+    @Override
+    public long getRejectedInvalidRecordCount() {
+        return values.get(REJECTED_INVALID_RECORD);
+    }
+
+    @Override
+    public long getBidLevelCount() {
+        return values.get(BID_LEVELS);
+    }
+
+    @Override
+    public long getAskLevelCount() {
+        return values.get(ASK_LEVELS);
+    }
+
+    @Override
+    public long getBidOrderCount() {
+        return values.get(BID_ORDERS);
+    }
+
+    @Override
+    public long getAskOrderCount() {
+        return values.get(ASK_ORDERS);
+    }
+
+    @Override
+    public long getOrderIndexSize() {
+        return values.get(ORDER_INDEX_SIZE);
+    }
+
+    @Override
+    public long getOrderIndexCapacity() {
+        return values.get(ORDER_INDEX_CAPACITY);
+    }
+
+    private void increment(int index) {
+        values.lazySet(index, values.get(index) + 1);
+    }
+}
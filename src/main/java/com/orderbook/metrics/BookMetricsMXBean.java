@@ -0,0 +1,40 @@
+package com.orderbook.metrics;
+
+/**
+ * Management interface of the counters and gauges of an {@link com.orderbook.domain.OrderBook}, registered as
+ * {@code com.orderbook:type=BookMetrics,symbol=<symbol>}
+ */
+public interface BookMetricsMXBean {
+
+    String getSymbol();
+
+    long getMessageCount();
+
+    long getAddCount();
+
+    long getCancelCount();
+
+    long getModifyCount();
+
+    long getFillCount();
+
+    long getRejectedDuplicateCount();
+
+    long getRejectedNotFoundCount();
+
+    long getRejectedInvalidPriceCount();
+
+    long getRejectedInvalidRecordCount();
+
+    long getBidLevelCount();
+
+    long getAskLevelCount();
+
+    long getBidOrderCount();
+
+    long getAskOrderCount();
+
+    long getOrderIndexSize();
+
+    long getOrderIndexCapacity();
+}
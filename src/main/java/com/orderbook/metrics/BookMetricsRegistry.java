@@ -0,0 +1,101 @@
+package com.orderbook.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link BookMetrics} of every symbol. Metrics are created with the book of the symbol, by the thread which
+ * processes the orders of the symbol, and optionally registered with the platform MBean server. Thread safe.
+ */
+public class BookMetricsRegistry implements AutoCloseable {
+
+    public static final String JMX_DOMAIN = "com.orderbook";
+
+    private final ConcurrentHashMap<String, BookMetrics> metricsMap;
+    private final MBeanServer mBeanServer;
+
+    /**
+     * <p>Constructs a BookMetricsRegistry which does not register its metrics with JMX</p>
+     */
+    public BookMetricsRegistry() {
+        this(false);
+    }
+
+    /**
+     * <p>Constructs a BookMetricsRegistry</p>
+     * @param registerMBeans true to register the metrics of every symbol with the platform MBean server
+     */
+    public BookMetricsRegistry(boolean registerMBeans) {
+        this.metricsMap = new ConcurrentHashMap<>();
+        this.mBeanServer = registerMBeans ? ManagementFactory.getPlatformMBeanServer() : null;
+    }
+
+    /**
+     * <p>Returns the metrics of a symbol, creating and registering them if needed</p>
+     * @param symbol value of the symbol
+     * @return metrics of the symbol {@link BookMetrics}
+     * @throws IllegalStateException when the metrics can not be registered with JMX
+     */
+    public BookMetrics getOrCreate(String symbol) {
+        return metricsMap.computeIfAbsent(symbol, key -> {
+            BookMetrics bookMetrics = new BookMetrics(key);
+            if(mBeanServer != null) {
+                try {
+                    mBeanServer.registerMBean(bookMetrics, getObjectName(key));
+                } catch (JMException e) {
+                    throw new IllegalStateException("Failed registering book metrics, Symbol:" + key, e);
+                }
+            }
+            return bookMetrics;
+        });
+    }
+
+    /**
+     * <p>Returns the metrics of a symbol</p>
+     * @param symbol value of the symbol
+     * @return metrics of the symbol {@link BookMetrics}, null if no book of the symbol has metrics
+     */
+    public BookMetrics get(String symbol) {
+        return metricsMap.get(symbol);
+    }
+
+    /**
+     * <p>Returns the metrics of every symbol</p>
+     * @return read only view of the metrics {@link BookMetrics}
+     */
+    public Collection<BookMetrics> getAll() {
+        return Collections.unmodifiableCollection(metricsMap.values());
+    }
+
+    /**
+     * <p>Returns the JMX name of the metrics of a symbol</p>
+     * @param symbol value of the symbol
+     * @return object name {@code com.orderbook:type=BookMetrics,symbol=<quoted symbol>}
+     * @throws JMException when the name is not valid
+     */
+    public static ObjectName getObjectName(String symbol) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=BookMetrics,symbol=" + ObjectName.quote(symbol));
+    }
+
+    /**
+     * <p>Unregisters the metrics of every symbol from JMX</p>
+     */
+    @Override
+    public void close() {
+        if(mBeanServer == null) {
+            return;
+        }
+        for (String symbol : metricsMap.keySet()) {
+            try {
+                mBeanServer.unregisterMBean(getObjectName(symbol));
+            } catch (JMException e) {
+                // already unregistered
+            }
+        }
+    }
+}
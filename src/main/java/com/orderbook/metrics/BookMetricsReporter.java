@@ -0,0 +1,87 @@
+package com.orderbook.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+
+/**
+ * Writes the counters and gauges of every symbol of a {@link BookMetricsRegistry} as CSV lines, with the message
+ * rate since the previous report. Reports can be written periodically by a daemon thread, {@link #close()} writes a
+ * last report. Thread safe.
+ * <pre>
+ * time,symbol,messages,messagesPerSecond,adds,cancels,modifies,fills,rejectedDuplicate,rejectedNotFound,
+ * rejectedInvalidPrice,rejectedInvalidRecord,bidLevels,askLevels,bidOrders,askOrders,orderIndexSize,orderIndexCapacity
+ * </pre>
+ * Times are epoch milliseconds, counters are totals since the book was created.
+ */
+public class BookMetricsReporter extends PeriodicReporter {
+
+    public static final String HEADER = "time,symbol,messages,messagesPerSecond,adds,cancels,modifies,fills,"
+            + "rejectedDuplicate,rejectedNotFound,rejectedInvalidPrice,rejectedInvalidRecord,"
+            + "bidLevels,askLevels,bidOrders,askOrders,orderIndexSize,orderIndexCapacity\n";
+
+    private final BookMetricsRegistry registry;
+    private final Writer out;
+    // message count and time of the previous report of every symbol
+    private final HashMap<String, long[]> previousCounts;
+
+    /**
+     * <p>Constructs a BookMetricsReporter and writes the CSV header</p>
+     * @param registry metrics to report {@link BookMetricsRegistry}
+     * @param out destination of the reports, flushed after every report
+     * @throws IOException when the destination can not be written
+     */
+    public BookMetricsReporter(BookMetricsRegistry registry, Writer out) throws IOException {
+        super("orderbook-metrics-reporter");
+        this.registry = registry;
+        this.out = out;
+        this.previousCounts = new HashMap<>();
+        out.write(HEADER);
+        out.flush();
+    }
+
+    /**
+     * <p>Writes the values of every symbol</p>
+     * @throws IOException when the destination can not be written
+     */
+    @Override
+    public synchronized void reportInterval() throws IOException {
+        long time = System.currentTimeMillis();
+        long nanoTime = System.nanoTime();
+        for (BookMetrics metrics : registry.getAll()) {
+            long messageCount = metrics.getMessageCount();
+            long[] previous = previousCounts.get(metrics.getSymbol());
+            long messagesPerSecond = 0;
+            if(previous == null) {
+                previous = new long[2];
+                previousCounts.put(metrics.getSymbol(), previous);
+            } else if(nanoTime > previous[1]) {
+                messagesPerSecond = (messageCount - previous[0]) * 1_000_000_000L / (nanoTime - previous[1]);
+            }
+            previous[0] = messageCount;
+            previous[1] = nanoTime;
+
+            StringBuilder line = new StringBuilder(160);
+            line.append(time).append(',').append(metrics.getSymbol())
+                    .append(',').append(messageCount)
+                    .append(',').append(messagesPerSecond)
+                    .append(',').append(metrics.getAddCount())
+                    .append(',').append(metrics.getCancelCount())
+                    .append(',').append(metrics.getModifyCount())
+                    .append(',').append(metrics.getFillCount())
+                    .append(',').append(metrics.getRejectedDuplicateCount())
+                    .append(',').append(metrics.getRejectedNotFoundCount())
+                    .append(',').append(metrics.getRejectedInvalidPriceCount())
+                    .append(',').append(metrics.getRejectedInvalidRecordCount())
+                    .append(',').append(metrics.getBidLevelCount())
+                    .append(',').append(metrics.getAskLevelCount())
+                    .append(',').append(metrics.getBidOrderCount())
+                    .append(',').append(metrics.getAskOrderCount())
+                    .append(',').append(metrics.getOrderIndexSize())
+                    .append(',').append(metrics.getOrderIndexCapacity())
+                    .append('\n');
+            out.write(line.toString());
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,125 @@
+package com.orderbook.metrics;
+
+/**
+ * Copy of the counts of a {@link LatencyHistogram}, read by a thread other than the writer of the histogram. A
+ * snapshot is either cumulative, the counts since the histogram was created, or an interval, the difference between
+ * two cumulative snapshots. Snapshots are reused, so taking one periodically allocates nothing. Not thread safe.
+ */
+public class HistogramSnapshot {
+
+    private final LatencyHistogram histogram;
+    private final long[] counts;
+    private long totalCount;
+
+    /**
+     * <p>Constructs an empty HistogramSnapshot for the buckets of a histogram</p>
+     * @param histogram histogram of the snapshot {@link LatencyHistogram}
+     */
+    public HistogramSnapshot(LatencyHistogram histogram) {
+        this.histogram = histogram;
+        this.counts = new long[histogram.getBucketCount()];
+    }
+
+    /**
+     * <p>Copies the current counts of the histogram, as a cumulative snapshot</p>
+     * @return this snapshot
+     */
+    public HistogramSnapshot update() {
+        totalCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram.getCount(i);
+            totalCount += counts[i];
+        }
+        return this;
+    }
+
+    /**
+     * <p>Sets the counts to the difference between two cumulative snapshots of the histogram</p>
+     * @param current later snapshot
+     * @param previous earlier snapshot
+     * @return this snapshot
+     */
+    public HistogramSnapshot setInterval(HistogramSnapshot current, HistogramSnapshot previous) {
+        if(current.histogram != histogram || previous.histogram != histogram) {
+            throw new IllegalArgumentException("Snapshot of another histogram");
+        }
+        totalCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = current.counts[i] - previous.counts[i];
+            totalCount += counts[i];
+        }
+        return this;
+    }
+
+    /**
+     * <p>Copies the counts of another snapshot of the histogram</p>
+     * @param snapshot snapshot to copy
+     * @return this snapshot
+     */
+    public HistogramSnapshot set(HistogramSnapshot snapshot) {
+        System.arraycopy(snapshot.counts, 0, counts, 0, counts.length);
+        totalCount = snapshot.totalCount;
+        return this;
+    }
+
+    /**
+     * <p>Returns the number of values of the snapshot</p>
+     * @return total count
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * <p>Returns the value at a percentile, as the highest value of the bucket of the value</p>
+     * @param percentile percentile between 0 and 100, such as 99.9
+     * @return value at the percentile, 0 for an empty snapshot
+     */
+    public long getValueAtPercentile(double percentile) {
+        if(percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid Percentile:" + percentile);
+        }
+        if(totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            if(count >= rank) {
+                return histogram.highestValue(i);
+            }
+        }
+        return getMaxValue();
+    }
+
+    /**
+     * <p>Returns the highest value of the bucket of the highest value</p>
+     * @return highest value, 0 for an empty snapshot
+     */
+    public long getMaxValue() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if(counts[i] > 0) {
+                return histogram.highestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * <p>Returns the mean of the values, taking the middle of the bucket for each value</p>
+     * @return mean value, 0 for an empty snapshot
+     */
+    public double getMean() {
+        if(totalCount == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if(counts[i] > 0) {
+                sum += counts[i] * (histogram.lowestValue(i) + histogram.highestValue(i)) / 2.0;
+            }
+        }
+        return sum / totalCount;
+    }
+}
@@ -0,0 +1,113 @@
+package com.orderbook.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, as in an HDR histogram. Values below the sub bucket
+ * count have a bucket each, every higher power of two range is split into the sub bucket count of equal buckets, so
+ * the bucket of a value is at most 1 / sub bucket count wider than the value. Values above the highest trackable value
+ * are counted in the highest bucket.
+ * Recording is allocation free and takes no lock. The histogram has a single writer, the thread which records, while
+ * other threads read it into a {@link HistogramSnapshot} at any time.
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 5;
+    // about 18 minutes
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 1L << 40;
+
+    private final int precisionBits;
+    private final int subBucketCount;
+    private final long highestTrackableValue;
+    // single writer, written with lazySet and read by other threads
+    private final AtomicLongArray counts;
+
+    /**
+     * <p>Constructs a LatencyHistogram with the default precision and highest trackable value</p>
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * <p>Constructs a LatencyHistogram</p>
+     * @param precisionBits log2 of the sub bucket count, the relative error of a value is below 2^-precisionBits
+     * @param highestTrackableValue highest value counted in its own bucket
+     */
+    public LatencyHistogram(int precisionBits, long highestTrackableValue) {
+        if(precisionBits < 1 || precisionBits > 14) {
+            throw new IllegalArgumentException("Invalid Precision Bits:" + precisionBits);
+        }
+        if(highestTrackableValue < (1L << precisionBits) || highestTrackableValue == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid Highest Trackable Value:" + highestTrackableValue);
+        }
+        this.precisionBits = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(bucketIndex(highestTrackableValue) + 1);
+    }
+
+    /**
+     * <p>Counts a value. Must only be called by the writer thread.</p>
+     * @param value value in nanoseconds, negative values are counted as 0
+     */
+    public void record(long value) {
+        int index = bucketIndex(Math.min(Math.max(value, 0), highestTrackableValue));
+        counts.lazySet(index, counts.get(index) + 1);
+    }
+
+    /**
+     * <p>Returns the number of buckets</p>
+     * @return bucket count
+     */
+    public int getBucketCount() {
+        return counts.length();
+    }
+
+    /**
+     * <p>Returns the count of a bucket</p>
+     * @param index index of the bucket
+     * @return number of values counted in the bucket
+     */
+    public long getCount(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * <p>Returns the index of the bucket of a value</p>
+     * @param value non negative value
+     * @return bucket index
+     */
+    public int bucketIndex(long value) {
+        if(value < subBucketCount) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - precisionBits;
+        int subBucket = (int) (value >>> shift) - subBucketCount;
+        return ((shift + 1) << precisionBits) + subBucket;
+    }
+
+    /**
+     * <p>Returns the highest value counted in a bucket</p>
+     * @param index index of the bucket
+     * @return highest value of the bucket
+     */
+    public long highestValue(int index) {
+        return lowestValue(index + 1) - 1;
+    }
+
+    /**
+     * <p>Returns the lowest value counted in a bucket</p>
+     * @param index index of the bucket
+     * @return lowest value of the bucket
+     */
+    public long lowestValue(int index) {
+        if(index < subBucketCount) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        long subBucket = index & (subBucketCount - 1);
+        return (subBucketCount + subBucket) << shift;
+    }
+}
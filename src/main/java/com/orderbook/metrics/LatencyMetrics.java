@@ -0,0 +1,63 @@
+package com.orderbook.metrics;
+
+import com.orderbook.constant.LatencyOperation;
+
+/**
+ * Latency histograms of the operations of one {@link com.orderbook.domain.OrderBook}, one {@link LatencyHistogram} per
+ * {@link LatencyOperation}. Latencies are recorded by the thread which processes the orders of the book.
+ */
+public class LatencyMetrics {
+
+    private static final LatencyOperation[] OPERATIONS = LatencyOperation.values();
+
+    private final String symbol;
+    private final LatencyHistogram[] histograms;
+
+    /**
+     * <p>Constructs a LatencyMetrics with histograms of the default precision</p>
+     * @param symbol value of the symbol of the book
+     */
+    public LatencyMetrics(String symbol) {
+        this(symbol, LatencyHistogram.DEFAULT_PRECISION_BITS, LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * <p>Constructs a LatencyMetrics</p>
+     * @param symbol value of the symbol of the book
+     * @param precisionBits precision of the histograms {@link LatencyHistogram}
+     * @param highestTrackableValue highest value of the histograms in nanoseconds
+     */
+    public LatencyMetrics(String symbol, int precisionBits, long highestTrackableValue) {
+        this.symbol = symbol;
+        this.histograms = new LatencyHistogram[OPERATIONS.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram(precisionBits, highestTrackableValue);
+        }
+    }
+
+    /**
+     * <p>Returns the value of the symbol</p>
+     * @return value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * <p>Records the latency of an operation which started at the given time</p>
+     * @param operation operation {@link LatencyOperation}
+     * @param startNanos value of {@link System#nanoTime()} when the operation started
+     */
+    public void recordSince(LatencyOperation operation, long startNanos) {
+        histograms[operation.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * <p>Returns the histogram of an operation</p>
+     * @param operation operation {@link LatencyOperation}
+     * @return histogram {@link LatencyHistogram}
+     */
+    public LatencyHistogram getHistogram(LatencyOperation operation) {
+        return histograms[operation.ordinal()];
+    }
+}
@@ -0,0 +1,63 @@
+package com.orderbook.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link LatencyMetrics} of every symbol. Metrics are created with the book of the symbol, by the thread
+ * which processes the orders of the symbol, and read by a reporter thread. Thread safe.
+ */
+public class LatencyMetricsRegistry {
+
+    private final ConcurrentHashMap<String, LatencyMetrics> metricsMap;
+    private final int precisionBits;
+    private final long highestTrackableValue;
+
+    /**
+     * <p>Constructs a LatencyMetricsRegistry with histograms of the default precision</p>
+     */
+    public LatencyMetricsRegistry() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS, LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * <p>Constructs a LatencyMetricsRegistry</p>
+     * @param precisionBits precision of the histograms {@link LatencyHistogram}
+     * @param highestTrackableValue highest value of the histograms in nanoseconds
+     */
+    public LatencyMetricsRegistry(int precisionBits, long highestTrackableValue) {
+        // validates the values once
+        new LatencyHistogram(precisionBits, highestTrackableValue);
+        this.metricsMap = new ConcurrentHashMap<>();
+        this.precisionBits = precisionBits;
+        this.highestTrackableValue = highestTrackableValue;
+    }
+
+    /**
+     * <p>Returns the metrics of a symbol, creating them if needed</p>
+     * @param symbol value of the symbol
+     * @return metrics of the symbol {@link LatencyMetrics}
+     */
+    public LatencyMetrics getOrCreate(String symbol) {
+        return metricsMap.computeIfAbsent(symbol,
+                key -> new LatencyMetrics(key, precisionBits, highestTrackableValue));
+    }
+
+    /**
+     * <p>Returns the metrics of a symbol</p>
+     * @param symbol value of the symbol
+     * @return metrics of the symbol {@link LatencyMetrics}, null if no book of the symbol records latencies
+     */
+    public LatencyMetrics get(String symbol) {
+        return metricsMap.get(symbol);
+    }
+
+    /**
+     * <p>Returns the metrics of every symbol</p>
+     * @return read only view of the metrics {@link LatencyMetrics}
+     */
+    public Collection<LatencyMetrics> getAll() {
+        return Collections.unmodifiableCollection(metricsMap.values());
+    }
+}
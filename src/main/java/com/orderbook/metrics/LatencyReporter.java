@@ -0,0 +1,118 @@
+package com.orderbook.metrics;
+
+import com.orderbook.constant.LatencyOperation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+
+/**
+ * Writes the latency percentiles of every symbol and operation of a {@link LatencyMetricsRegistry} as CSV lines.
+ * An interval report has the latencies recorded since the previous report, a total report has every latency
+ * recorded so far. Reports can be written periodically by a daemon thread, {@link #close()} writes a last interval
+ * report. Thread safe.
+ * <pre>
+ * time,scope,symbol,operation,count,mean,p50,p90,p99,p99.9,p99.99,max
+ * </pre>
+ * Times are epoch milliseconds, latencies are nanoseconds. Operations without a latency in the report are skipped.
+ */
+public class LatencyReporter extends PeriodicReporter {
+
+    public static final String HEADER = "time,scope,symbol,operation,count,mean,p50,p90,p99,p99.9,p99.99,max\n";
+
+    private static final LatencyOperation[] OPERATIONS = LatencyOperation.values();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final LatencyMetricsRegistry registry;
+    private final Writer out;
+    private final HashMap<LatencyHistogram, Snapshots> snapshotsMap;
+
+    /**
+     * <p>Constructs a LatencyReporter and writes the CSV header</p>
+     * @param registry metrics to report {@link LatencyMetricsRegistry}
+     * @param out destination of the reports, flushed after every report
+     * @throws IOException when the destination can not be written
+     */
+    public LatencyReporter(LatencyMetricsRegistry registry, Writer out) throws IOException {
+        super("orderbook-latency-reporter");
+        this.registry = registry;
+        this.out = out;
+        this.snapshotsMap = new HashMap<>();
+        out.write(HEADER);
+        out.flush();
+    }
+
+    /**
+     * <p>Writes the latencies recorded since the previous interval report</p>
+     * @throws IOException when the destination can not be written
+     */
+    @Override
+    public synchronized void reportInterval() throws IOException {
+        long time = System.currentTimeMillis();
+        for (LatencyMetrics metrics : registry.getAll()) {
+            for (LatencyOperation operation : OPERATIONS) {
+                Snapshots snapshots = getSnapshots(metrics.getHistogram(operation));
+                snapshots.current.update();
+                snapshots.interval.setInterval(snapshots.current, snapshots.previous);
+                snapshots.previous.set(snapshots.current);
+                writeLine(time, "interval", metrics.getSymbol(), operation, snapshots.interval);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * <p>Writes every latency recorded so far</p>
+     * @throws IOException when the destination can not be written
+     */
+    public synchronized void reportTotal() throws IOException {
+        long time = System.currentTimeMillis();
+        for (LatencyMetrics metrics : registry.getAll()) {
+            for (LatencyOperation operation : OPERATIONS) {
+                Snapshots snapshots = getSnapshots(metrics.getHistogram(operation));
+                writeLine(time, "total", metrics.getSymbol(), operation, snapshots.current.update());
+            }
+        }
+        out.flush();
+    }
+
+    private Snapshots getSnapshots(LatencyHistogram histogram) {
+        Snapshots snapshots = snapshotsMap.get(histogram);
+        if(snapshots == null) {
+            snapshots = new Snapshots(histogram);
+            snapshotsMap.put(histogram, snapshots);
+        }
+        return snapshots;
+    }
+
+    private void writeLine(long time, String scope, String symbol, LatencyOperation operation,
+                           HistogramSnapshot snapshot) throws IOException {
+        if(snapshot.getTotalCount() == 0) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(128);
+        line.append(time).append(',').append(scope).append(',').append(symbol).append(',').append(operation)
+                .append(',').append(snapshot.getTotalCount())
+                .append(',').append(Math.round(snapshot.getMean()));
+        for (double percentile : PERCENTILES) {
+            line.append(',').append(snapshot.getValueAtPercentile(percentile));
+        }
+        line.append(',').append(snapshot.getMaxValue()).append('\n');
+        out.write(line.toString());
+    }
+
+    /**
+     * Reused snapshots of one histogram
+     */
+    private static class Snapshots {
+        private final HistogramSnapshot current;
+        private final HistogramSnapshot previous;
+        private final HistogramSnapshot interval;
+
+        private Snapshots(LatencyHistogram histogram) {
+            current = new HistogramSnapshot(histogram);
+            previous = new HistogramSnapshot(histogram);
+            interval = new HistogramSnapshot(histogram);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.orderbook.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a report periodically on a daemon thread, until it is closed. Thread safe.
+ */
+public abstract class PeriodicReporter implements AutoCloseable {
+
+    private final String threadName;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * <p>Constructs a PeriodicReporter</p>
+     * @param threadName name of the reporting thread
+     */
+    protected PeriodicReporter(String threadName) {
+        this.threadName = threadName;
+    }
+
+    /**
+     * <p>Starts writing a report periodically on a daemon thread</p>
+     * @param intervalMillis time between two reports in milliseconds
+     */
+    public synchronized void start(long intervalMillis) {
+        if(scheduler != null) {
+            throw new IllegalStateException("Reporter already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                reportInterval();
+            } catch (IOException e) {
+                System.err.println("Failed writing report:" + e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <p>Writes a report of the values since the previous report</p>
+     * @throws IOException when the destination can not be written
+     */
+    public abstract void reportInterval() throws IOException;
+
+    /**
+     * <p>Stops the periodic reports and writes a last report. The destination is not closed.</p>
+     * @throws IOException when the destination can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            scheduler = this.scheduler;
+            this.scheduler = null;
+        }
+        if(scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        reportInterval();
+    }
+}
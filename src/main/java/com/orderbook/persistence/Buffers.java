@@ -0,0 +1,49 @@
+package com.orderbook.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Moves the content of the buffers of the journal and snapshot readers and writers to and from their files
+ */
+final class Buffers {
+
+    private Buffers() {
+    }
+
+    /**
+     * <p>Moves the unread bytes of a buffer in read mode to its start and reads more of the file after them</p>
+     * @param channel file to read
+     * @param buffer buffer in read mode, left in read mode
+     * @return true if bytes were read
+     * @throws IOException when the file can not be read
+     */
+    static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.compact();
+        int readCount = 0;
+        int read;
+        while (buffer.hasRemaining() && (read = channel.read(buffer)) > 0) {
+            readCount += read;
+        }
+        buffer.flip();
+        return readCount > 0;
+    }
+
+    /**
+     * <p>Writes the content of a buffer in write mode to the file and empties the buffer</p>
+     * @param channel file to write
+     * @param buffer buffer in write mode, left empty in write mode
+     * @return number of bytes written
+     * @throws IOException when the file can not be written
+     */
+    static int drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return length;
+    }
+}
@@ -0,0 +1,11 @@
+package com.orderbook.persistence;
+
+/**
+ * Represents when an {@link OrderJournal} forces its writes to the storage device
+ */
+public enum FsyncPolicy {
+    // left to the operating system, forced on close only
+    NONE,
+    // forced after every group commit
+    COMMIT
+}
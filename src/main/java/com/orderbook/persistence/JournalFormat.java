@@ -0,0 +1,156 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderActionType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Defines the binary format of an {@link OrderJournal}. A journal starts with a header followed by entries, all
+ * values are little endian. Every entry starts with its length and its type.
+ * <pre>
+ * header (16 bytes) : int magic, short version, short reserved, long reserved
+ * symbol entry      : int length, byte 'S', byte wide text, short reserved, int symbol id, int price scale,
+ *                     long tick size, long min price, long max price, text symbol
+ * order entry       : int length, byte 'A', 'X' or 'M', byte side ('B' or 'S'), byte wide text, byte reserved,
+ *                     int symbol id, long quantity, long scaled price, text order id
+ * text              : short char count, one byte per char, or two bytes per char with wide text
+ * </pre>
+ * An entry which is cut short or has an unknown type marks the end of the journal.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x4C4A424F; // "OBJL"
+    static final short VERSION = 1;
+    static final int HEADER_LENGTH = 16;
+
+    static final byte SYMBOL = 'S';
+    static final byte ADD = 'A';
+    static final byte REMOVE = 'X';
+    static final byte MODIFY = 'M';
+    static final byte BID = 'B';
+    static final byte ASK = 'S';
+
+    static final int SYMBOL_ENTRY_LENGTH = 42;
+    static final int ORDER_ENTRY_LENGTH = 30;
+    static final int MAX_TEXT_LENGTH = Short.MAX_VALUE;
+
+    private JournalFormat() {
+    }
+
+    /**
+     * <p>Returns the entry type of an order action</p>
+     * @param orderActionType order action type {@link OrderActionType}
+     * @return ADD, REMOVE or MODIFY
+     */
+    static byte toEntryType(OrderActionType orderActionType) {
+        switch (orderActionType) {
+            case ADD:
+                return ADD;
+            case REMOVE:
+                return REMOVE;
+            case MODIFY:
+                return MODIFY;
+            default:
+                throw new IllegalArgumentException("Unexpected Order Action Type:" + orderActionType);
+        }
+    }
+
+    /**
+     * <p>Returns the order action of an entry type</p>
+     * @param type entry type
+     * @return order action type {@link OrderActionType}, null if the entry is not an order entry
+     */
+    static OrderActionType toOrderActionType(byte type) {
+        switch (type) {
+            case ADD:
+                return OrderActionType.ADD;
+            case REMOVE:
+                return OrderActionType.REMOVE;
+            case MODIFY:
+                return OrderActionType.MODIFY;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * <p>Checks whether a text has a char which does not fit in one byte</p>
+     * @param text text to check
+     * @return true if the text needs two bytes per char
+     */
+    static boolean isWide(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) > 0xFF) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>Returns the encoded length of a text</p>
+     * @param text text to encode
+     * @param wide true if the text is encoded with two bytes per char
+     * @return encoded length without the char count
+     */
+    static int textLength(String text, boolean wide) {
+        return wide ? text.length() * 2 : text.length();
+    }
+
+    /**
+     * <p>Writes a text at the position of the buffer</p>
+     */
+    static void putText(ByteBuffer buffer, String text, boolean wide) {
+        int length = text.length();
+        buffer.putShort((short) length);
+        if(wide) {
+            for (int i = 0; i < length; i++) {
+                buffer.putChar(text.charAt(i));
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) text.charAt(i));
+            }
+        }
+    }
+
+    /**
+     * <p>Returns the number of decimal digits of a number which is not negative</p>
+     * @param value number to encode
+     * @return digit count
+     */
+    static int digitCount(long value) {
+        int digitCount = 1;
+        while(value >= 10) {
+            value /= 10;
+            digitCount++;
+        }
+        return digitCount;
+    }
+
+    /**
+     * <p>Writes the decimal digits of a number which is not negative at the position of the buffer, encoded like a
+     * text which is not wide, so it reads back as the text of the number</p>
+     */
+    static void putDigits(ByteBuffer buffer, long value, int digitCount) {
+        buffer.putShort((short) digitCount);
+        int position = buffer.position();
+        for (int i = position + digitCount - 1; i >= position; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(position + digitCount);
+    }
+
+    /**
+     * <p>Reads a text at the position of the buffer</p>
+     */
+    static String getText(ByteBuffer buffer, boolean wide) {
+        int length = buffer.getShort();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = wide ? buffer.getChar() : (char) (buffer.get() & 0xFF);
+        }
+        return new String(chars);
+    }
+}
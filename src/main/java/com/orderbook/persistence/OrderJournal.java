@@ -0,0 +1,259 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.exception.OrderException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Append only journal of the orders accepted by the books, in the binary {@link JournalFormat}. Entries are encoded
+ * into a direct buffer and written to the file as a group commit, once every groupCommitSize entries, when the
+ * buffer is full, on {@link #commit()} and on {@link #close()}. Entries which are not committed yet are lost by a
+ * crash. Encoding allocates nothing once every symbol of the journal has been seen. An existing journal is
+ * appended to, after its last complete entry. Not thread safe.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int groupCommitSize;
+    private final FsyncPolicy fsyncPolicy;
+    // symbol ids of the symbols written by this journal, a symbol entry is written before the first order of a symbol
+    private final HashMap<String, Integer> symbolIds;
+    private Instrument lastInstrument;
+    private int lastSymbolId;
+    private int pendingCount;
+    private long entryCount;
+    private long committedLength;
+
+    /**
+     * <p>Constructs an OrderJournal with the default group commit size, which leaves the writes to the storage
+     * device to the operating system</p>
+     * @param path value of the journal file path
+     * @throws IOException when the file can not be written or is not a journal
+     */
+    public OrderJournal(String path) throws IOException {
+        this(path, DEFAULT_GROUP_COMMIT_SIZE, FsyncPolicy.NONE);
+    }
+
+    /**
+     * <p>Constructs an OrderJournal which creates a journal or appends to an existing journal. An entry of an
+     * existing journal which is cut short by a crash is truncated.</p>
+     * @param path value of the journal file path
+     * @param groupCommitSize number of entries written to the file together
+     * @param fsyncPolicy when the writes are forced to the storage device {@link FsyncPolicy}
+     * @throws IOException when the file can not be written or is not a journal
+     */
+    public OrderJournal(String path, int groupCommitSize, FsyncPolicy fsyncPolicy) throws IOException {
+        if(groupCommitSize <= 0) {
+            throw new IllegalArgumentException("Invalid Group Commit Size:" + groupCommitSize);
+        }
+        if(fsyncPolicy == null) {
+            throw new IllegalArgumentException("Invalid Fsync Policy");
+        }
+        this.groupCommitSize = groupCommitSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.symbolIds = new HashMap<>();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if(channel.size() == 0) {
+                buffer.putInt(JournalFormat.MAGIC);
+                buffer.putShort(JournalFormat.VERSION);
+                buffer.putShort((short) 0);
+                buffer.putLong(0);
+                write();
+                channel.force(true);
+            } else {
+                OrderJournalReader journalReader = new OrderJournalReader(path);
+                journalReader.replay(null);
+                committedLength = journalReader.getValidLength();
+                channel.truncate(committedLength);
+                channel.position(committedLength);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (OrderException e) {
+            // not thrown, nothing is replayed without a processor
+            channel.close();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * <p>Appends an accepted order</p>
+     * @param instrument instrument of the book of the order {@link Instrument}
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws UncheckedIOException when a group commit can not be written
+     */
+    public void append(Instrument instrument, OrderActionType orderActionType, String orderId, OrderSide side,
+                       long quantity, long price) {
+        if(orderId.length() > JournalFormat.MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("Invalid Order Id Length:" + orderId.length());
+        }
+        boolean wide = JournalFormat.isWide(orderId);
+        int textLength = JournalFormat.textLength(orderId, wide);
+        putOrderEntry(instrument, orderActionType, side, quantity, price, textLength, wide);
+        JournalFormat.putText(buffer, orderId, wide);
+        onEntryAppended();
+    }
+
+    /**
+     * <p>Appends an accepted order with a numeric id. The digits of the id are written straight into the buffer, so
+     * the entry reads back like one of the text of the id, and nothing is allocated.</p>
+     * @param instrument instrument of the book of the order {@link Instrument}
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the numeric id of the order, not negative
+     * @param side side of the order {@link OrderSide}, not used for remove
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws UncheckedIOException when a group commit can not be written
+     */
+    public void append(Instrument instrument, OrderActionType orderActionType, long orderId, OrderSide side,
+                       long quantity, long price) {
+        if(orderId < 0) {
+            throw new IllegalArgumentException("Invalid Order Id:" + orderId);
+        }
+        int digitCount = JournalFormat.digitCount(orderId);
+        putOrderEntry(instrument, orderActionType, side, quantity, price, digitCount, false);
+        JournalFormat.putDigits(buffer, orderId, digitCount);
+        onEntryAppended();
+    }
+
+    /**
+     * <p>Writes the fixed part of an order entry, the order id follows it</p>
+     */
+    private void putOrderEntry(Instrument instrument, OrderActionType orderActionType, OrderSide side, long quantity,
+                               long price, int textLength, boolean wide) {
+        int symbolId = getSymbolId(instrument);
+        int entryLength = JournalFormat.ORDER_ENTRY_LENGTH + textLength;
+        ensureRemaining(entryLength);
+        buffer.putInt(entryLength);
+        buffer.put(JournalFormat.toEntryType(orderActionType));
+        buffer.put(side == OrderSide.BID ? JournalFormat.BID : JournalFormat.ASK);
+        buffer.put((byte) (wide ? 1 : 0));
+        buffer.put((byte) 0);
+        buffer.putInt(symbolId);
+        buffer.putLong(quantity);
+        buffer.putLong(price);
+    }
+
+    private void onEntryAppended() {
+        entryCount++;
+        if(++pendingCount >= groupCommitSize) {
+            commit();
+        }
+    }
+
+    /**
+     * <p>Writes the entries which are not committed yet to the file, and forces them to the storage device when the
+     * fsync policy is {@link FsyncPolicy#COMMIT}</p>
+     * @throws UncheckedIOException when the file can not be written
+     */
+    public void commit() {
+        try {
+            write();
+            if(fsyncPolicy == FsyncPolicy.COMMIT) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * <p>Returns the number of entries appended since the journal was opened, including symbol entries</p>
+     * @return entry count
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * <p>Returns the length of the journal up to the end of its last committed entry. A snapshot taken right after a
+     * commit is followed by the entries from this position.</p>
+     * @return committed length in bytes
+     */
+    public long getCommittedLength() {
+        return committedLength;
+    }
+
+    /**
+     * <p>Commits the entries which are not committed yet, forces them to the storage device and closes the file</p>
+     * @throws IOException when the file can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            write();
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int getSymbolId(Instrument instrument) {
+        if(instrument == lastInstrument) {
+            return lastSymbolId;
+        }
+        String symbol = instrument.getSymbol();
+        Integer symbolId = symbolIds.get(symbol);
+        if(symbolId == null) {
+            symbolId = symbolIds.size();
+            symbolIds.put(symbol, symbolId);
+            appendSymbol(instrument, symbolId);
+        }
+        lastInstrument = instrument;
+        lastSymbolId = symbolId;
+        return symbolId;
+    }
+
+    private void appendSymbol(Instrument instrument, int symbolId) {
+        String symbol = instrument.getSymbol();
+        boolean wide = JournalFormat.isWide(symbol);
+        int entryLength = JournalFormat.SYMBOL_ENTRY_LENGTH + JournalFormat.textLength(symbol, wide);
+        ensureRemaining(entryLength);
+        buffer.putInt(entryLength);
+        buffer.put(JournalFormat.SYMBOL);
+        buffer.put((byte) (wide ? 1 : 0));
+        buffer.putShort((short) 0);
+        buffer.putInt(symbolId);
+        buffer.putInt(instrument.getPriceScale());
+        buffer.putLong(instrument.getTickSize());
+        buffer.putLong(instrument.getMinPrice());
+        buffer.putLong(instrument.getMaxPrice());
+        JournalFormat.putText(buffer, symbol, wide);
+        entryCount++;
+        pendingCount++;
+    }
+
+    private void ensureRemaining(int entryLength) {
+        if(buffer.remaining() < entryLength) {
+            commit();
+        }
+    }
+
+    private void write() throws IOException {
+        committedLength += Buffers.drain(channel, buffer);
+        pendingCount = 0;
+    }
+}
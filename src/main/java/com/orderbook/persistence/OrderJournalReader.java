@@ -0,0 +1,174 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+/**
+ * Replays an {@link OrderJournal} into an {@link OrderProcessor}, for the recovery of the books after a restart.
+ * The journal is read through a buffer one block at a time, so journals of any size can be replayed. Reading stops
+ * at the first entry which is cut short, such as the last entry of a crash during a write.
+ */
+public class OrderJournalReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final String path;
+    private long validLength;
+    private long entryCount;
+
+    /**
+     * <p>Constructs an OrderJournalReader</p>
+     * @param path value of the journal file path
+     */
+    public OrderJournalReader(String path) {
+        this.path = path;
+    }
+
+    /**
+     * <p>Replays every order of the journal into a processor</p>
+     * @param orderProcessor processor to replay into {@link OrderProcessor}, null to only find the end of the journal
+     * @return number of replayed orders
+     * @throws FileNotFoundException when the file is not found
+     * @throws IOException when the file can not be read or is not a journal
+     * @throws OrderException when an order of the journal is rejected
+     */
+    public long replay(OrderProcessor orderProcessor) throws IOException, OrderException {
+        return replay(orderProcessor, 0);
+    }
+
+    /**
+     * <p>Replays the journal into a processor from a position, such as the journal position of a snapshot restored
+     * into the processor. Instruments of the journal are registered for the symbols which do not have a book yet.
+     * Every order of the journal was accepted when it was written, so it is expected to be accepted again by a
+     * processor which starts from the same state.</p>
+     * @param orderProcessor processor to replay into {@link OrderProcessor}, null to only find the end of the journal
+     * @param fromPosition position of the first replayed entry, orders before it are skipped
+     * @return number of replayed orders
+     * @throws FileNotFoundException when the file is not found
+     * @throws IOException when the file can not be read or is not a journal
+     * @throws OrderException when an order of the journal is rejected
+     */
+    public long replay(OrderProcessor orderProcessor, long fromPosition) throws IOException, OrderException {
+        HashMap<Integer, String> symbols = new HashMap<>();
+        entryCount = 0;
+        long orderCount = 0;
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            // starts empty
+            buffer.flip();
+            Buffers.fill(channel, buffer);
+            readHeader(buffer);
+            validLength = JournalFormat.HEADER_LENGTH;
+
+            while (true) {
+                if(buffer.remaining() < 4) {
+                    if(!Buffers.fill(channel, buffer) || buffer.remaining() < 4) {
+                        break;
+                    }
+                }
+                int entryLength = buffer.getInt(buffer.position());
+                if(entryLength < 5 || entryLength > BUFFER_SIZE) {
+                    break;
+                }
+                if(buffer.remaining() < entryLength) {
+                    Buffers.fill(channel, buffer);
+                    if(buffer.remaining() < entryLength) {
+                        // cut short by a crash
+                        break;
+                    }
+                }
+                int entryStart = buffer.position();
+                byte type = buffer.get(entryStart + 4);
+                if(type == JournalFormat.SYMBOL) {
+                    readSymbol(buffer, symbols, orderProcessor);
+                } else if(JournalFormat.toOrderActionType(type) != null) {
+                    if(validLength >= fromPosition) {
+                        readOrder(buffer, symbols, orderProcessor);
+                        orderCount++;
+                    }
+                } else {
+                    break;
+                }
+                buffer.position(entryStart + entryLength);
+                validLength += entryLength;
+                entryCount++;
+            }
+        }
+        return orderCount;
+    }
+
+    /**
+     * <p>Returns the length of the journal up to the end of its last complete entry, as found by the last replay</p>
+     * @return valid length in bytes
+     */
+    public long getValidLength() {
+        return validLength;
+    }
+
+    /**
+     * <p>Returns the number of complete entries of the journal, as found by the last replay</p>
+     * @return entry count, including symbol entries
+     */
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    private void readHeader(ByteBuffer buffer) throws IOException {
+        if(buffer.remaining() < JournalFormat.HEADER_LENGTH || buffer.getInt() != JournalFormat.MAGIC) {
+            throw new IOException("Not an order journal:" + path);
+        }
+        short version = buffer.getShort();
+        if(version != JournalFormat.VERSION) {
+            throw new IOException("Unsupported order journal version:" + version);
+        }
+        buffer.position(buffer.position() + JournalFormat.HEADER_LENGTH - 6);
+    }
+
+    private void readSymbol(ByteBuffer buffer, HashMap<Integer, String> symbols, OrderProcessor orderProcessor) {
+        int start = buffer.position();
+        boolean wide = buffer.get(start + 5) != 0;
+        int symbolId = buffer.getInt(start + 8);
+        int priceScale = buffer.getInt(start + 12);
+        long tickSize = buffer.getLong(start + 16);
+        long minPrice = buffer.getLong(start + 24);
+        long maxPrice = buffer.getLong(start + 32);
+        buffer.position(start + 40);
+        String symbol = JournalFormat.getText(buffer, wide);
+        symbols.put(symbolId, symbol);
+        if(orderProcessor != null && orderProcessor.getOrderBook(symbol) == null) {
+            orderProcessor.registerInstrument(new Instrument(symbol, priceScale, tickSize, minPrice, maxPrice));
+        }
+    }
+
+    private void readOrder(ByteBuffer buffer, HashMap<Integer, String> symbols, OrderProcessor orderProcessor)
+            throws IOException, OrderException {
+        int start = buffer.position();
+        OrderActionType actionType = JournalFormat.toOrderActionType(buffer.get(start + 4));
+        OrderSide side = buffer.get(start + 5) == JournalFormat.BID ? OrderSide.BID : OrderSide.ASK;
+        boolean wide = buffer.get(start + 6) != 0;
+        int symbolId = buffer.getInt(start + 8);
+        long quantity = buffer.getLong(start + 12);
+        long price = buffer.getLong(start + 20);
+        buffer.position(start + 28);
+        String orderId = JournalFormat.getText(buffer, wide);
+        String symbol = symbols.get(symbolId);
+        if(symbol == null) {
+            throw new IOException("Order journal entry of unknown symbol id:" + symbolId);
+        }
+        if(orderProcessor != null) {
+            orderProcessor.processOrder(symbol, actionType, orderId, side, quantity, price);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.orderbook.persistence;
+
+/**
+ * Defines the binary format of a snapshot written by {@link SnapshotWriter}. A snapshot starts with a header followed
+ * by the books, all values are little endian. The orders of a book are stored side by side, bids first, in price
+ * priority and then in time priority, so a book is rebuilt in one pass.
+ * <pre>
+ * header (24 bytes) : int magic, short version, short reserved, int book count, long journal position
+ * book              : byte wide text, byte mode, short reserved, int price scale, long tick size,
+ *                     long min price, long max price, long trade sequence number, int order count, text symbol,
+ *                     bid side, ask side
+ * side              : int level count, levels
+ * level             : long scaled price, int order count, orders
+ * order             : long quantity, byte wide text, text order id
+ * </pre>
+ * The mode of a book holds the flags of its order id and storage modes, 0 for text ids and heap orders.
+ * Text is encoded as in {@link JournalFormat}.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4E53424F; // "OBSN"
+    static final short VERSION = 1;
+    static final int HEADER_LENGTH = 24;
+
+    static final int BOOK_LENGTH = 46;
+    static final int SIDE_LENGTH = 4;
+    static final int LEVEL_LENGTH = 12;
+    static final int ORDER_LENGTH = 11;
+
+    static final int MODE_NUMERIC_ORDER_IDS = 1;
+    static final int MODE_OFF_HEAP_ORDERS = 2;
+
+    private SnapshotFormat() {
+    }
+}
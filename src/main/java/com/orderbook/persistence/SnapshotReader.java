@@ -0,0 +1,145 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Restores the books of a snapshot written by {@link SnapshotWriter} into an {@link OrderProcessor}. Every book is
+ * built in one pass with {@link OrderBook#restoreOrder}, without matching and without a depth update, and the orders
+ * come from the pool of the book. The orders accepted after the snapshot are replayed from the journal position of
+ * the snapshot with {@link OrderJournalReader#replay(OrderProcessor, long)}.
+ * A restored book keeps the order id and storage modes it had when the snapshot was written, and takes the modes of
+ * the processor as well, see {@link OrderProcessor#newOrderBook(Instrument, boolean, boolean)}.
+ */
+public class SnapshotReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final String path;
+    private long journalPosition;
+
+    /**
+     * <p>Constructs a SnapshotReader</p>
+     * @param path value of the snapshot file path
+     */
+    public SnapshotReader(String path) {
+        this.path = path;
+    }
+
+    /**
+     * <p>Restores the books of the snapshot into a processor which has no book of their symbols</p>
+     * @param orderProcessor processor to restore into {@link OrderProcessor}
+     * @return number of restored orders
+     * @throws FileNotFoundException when the file is not found
+     * @throws IOException when the file can not be read, is not a snapshot or is cut short
+     * @throws OrderException when the snapshot has an invalid or a duplicate order
+     * @throws IllegalStateException when the processor already has a book of a symbol of the snapshot
+     */
+    public long restore(OrderProcessor orderProcessor) throws IOException, OrderException {
+        long orderCount = 0;
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            FileChannel channel = file.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            // starts empty
+            buffer.flip();
+            ensureRemaining(channel, buffer, SnapshotFormat.HEADER_LENGTH);
+            if(buffer.getInt() != SnapshotFormat.MAGIC) {
+                throw new IOException("Not an order book snapshot:" + path);
+            }
+            short version = buffer.getShort();
+            if(version != SnapshotFormat.VERSION) {
+                throw new IOException("Unsupported order book snapshot version:" + version);
+            }
+            buffer.getShort();
+            int bookCount = buffer.getInt();
+            journalPosition = buffer.getLong();
+
+            for (int i = 0; i < bookCount; i++) {
+                orderCount += readBook(channel, buffer, orderProcessor);
+            }
+        }
+        return orderCount;
+    }
+
+    /**
+     * <p>Returns the committed length of the journal at the snapshot, as read by the last restore</p>
+     * @return journal position, 0 if the snapshot was written without a journal
+     */
+    public long getJournalPosition() {
+        return journalPosition;
+    }
+
+    private int readBook(FileChannel channel, ByteBuffer buffer, OrderProcessor orderProcessor)
+            throws IOException, OrderException {
+        ensureRemaining(channel, buffer, SnapshotFormat.BOOK_LENGTH);
+        boolean wide = buffer.get() != 0;
+        int mode = buffer.get();
+        buffer.getShort();
+        int priceScale = buffer.getInt();
+        long tickSize = buffer.getLong();
+        long minPrice = buffer.getLong();
+        long maxPrice = buffer.getLong();
+        long tradeSequenceNumber = buffer.getLong();
+        int orderCount = buffer.getInt();
+        String symbol = readText(channel, buffer, wide);
+
+        Instrument instrument = new Instrument(symbol, priceScale, tickSize, minPrice, maxPrice);
+        OrderBook orderBook = orderProcessor.newOrderBook(instrument,
+                (mode & SnapshotFormat.MODE_NUMERIC_ORDER_IDS) != 0, (mode & SnapshotFormat.MODE_OFF_HEAP_ORDERS) != 0);
+        orderBook.beginRestore(orderCount, tradeSequenceNumber);
+        int restoredCount = readSide(channel, buffer, orderBook, OrderSide.BID)
+                + readSide(channel, buffer, orderBook, OrderSide.ASK);
+        if(restoredCount != orderCount) {
+            throw new IOException("Order count mismatch, Symbol:" + symbol);
+        }
+        orderProcessor.registerOrderBook(orderBook);
+        return orderCount;
+    }
+
+    private int readSide(FileChannel channel, ByteBuffer buffer, OrderBook orderBook, OrderSide side)
+            throws IOException, OrderException {
+        ensureRemaining(channel, buffer, SnapshotFormat.SIDE_LENGTH);
+        int levelCount = buffer.getInt();
+        int orderCount = 0;
+        for (int i = 0; i < levelCount; i++) {
+            ensureRemaining(channel, buffer, SnapshotFormat.LEVEL_LENGTH);
+            long price = buffer.getLong();
+            int levelOrderCount = buffer.getInt();
+            for (int j = 0; j < levelOrderCount; j++) {
+                ensureRemaining(channel, buffer, SnapshotFormat.ORDER_LENGTH - 2);
+                long quantity = buffer.getLong();
+                boolean wide = buffer.get() != 0;
+                String orderId = readText(channel, buffer, wide);
+                orderBook.restoreOrder(orderBook.newOrder(orderId, price, quantity, side));
+            }
+            orderCount += levelOrderCount;
+        }
+        return orderCount;
+    }
+
+    private String readText(FileChannel channel, ByteBuffer buffer, boolean wide) throws IOException {
+        ensureRemaining(channel, buffer, 2);
+        int length = buffer.getShort(buffer.position());
+        ensureRemaining(channel, buffer, 2 + (wide ? length * 2 : length));
+        return JournalFormat.getText(buffer, wide);
+    }
+
+    private void ensureRemaining(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        if(buffer.remaining() < length) {
+            Buffers.fill(channel, buffer);
+            if(buffer.remaining() < length) {
+                throw new IOException("Order book snapshot cut short:" + path);
+            }
+        }
+    }
+}
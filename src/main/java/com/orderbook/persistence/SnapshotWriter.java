@@ -0,0 +1,161 @@
+package com.orderbook.persistence;
+
+import com.orderbook.domain.BookSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OffHeapBookSide;
+import com.orderbook.domain.OffHeapOrderStore;
+import com.orderbook.domain.Order;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.PriceLevel;
+import com.orderbook.service.OrderProcessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * Writes the resting orders of every {@link OrderBook} of a processor to a snapshot in the binary
+ * {@link SnapshotFormat}. The snapshot is written to a temporary file which replaces the snapshot file once it is
+ * complete and forced to the storage device, so a crash never leaves a partial snapshot behind. The processor must
+ * not process orders while its snapshot is written. Not thread safe.
+ */
+public class SnapshotWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+
+    /**
+     * <p>Constructs a SnapshotWriter</p>
+     * @param path value of the snapshot file path
+     */
+    public SnapshotWriter(String path) {
+        this.path = Paths.get(path);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * <p>Writes a snapshot of the books of a processor</p>
+     * @param orderProcessor processor of the books {@link OrderProcessor}
+     * @param journalPosition committed length of the journal of the processor at the snapshot
+     * {@link OrderJournal#getCommittedLength()}, 0 without a journal
+     * @return number of orders written
+     * @throws IOException when the snapshot can not be written
+     */
+    public long write(OrderProcessor orderProcessor, long journalPosition) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        long orderCount = 0;
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.channel = channel;
+            Collection<OrderBook> orderBooks = orderProcessor.getOrderBooks();
+            buffer.putInt(SnapshotFormat.MAGIC);
+            buffer.putShort(SnapshotFormat.VERSION);
+            buffer.putShort((short) 0);
+            buffer.putInt(orderBooks.size());
+            buffer.putLong(journalPosition);
+            for (OrderBook orderBook : orderBooks) {
+                orderCount += writeBook(orderBook);
+            }
+            Buffers.drain(channel, buffer);
+            channel.force(true);
+        } finally {
+            this.channel = null;
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return orderCount;
+    }
+
+    private long writeBook(OrderBook orderBook) throws IOException {
+        Instrument instrument = orderBook.getInstrument();
+        String symbol = instrument.getSymbol();
+        boolean wide = JournalFormat.isWide(symbol);
+        boolean offHeap = orderBook.isOffHeapOrders();
+        int orderCount = offHeap ? orderBook.getOrderCount()
+                : countOrders(orderBook.getBuyOrders()) + countOrders(orderBook.getSellOrders());
+        ensureRemaining(SnapshotFormat.BOOK_LENGTH + JournalFormat.textLength(symbol, wide));
+        int mode = (orderBook.isNumericOrderIds() ? SnapshotFormat.MODE_NUMERIC_ORDER_IDS : 0)
+                | (offHeap ? SnapshotFormat.MODE_OFF_HEAP_ORDERS : 0);
+        buffer.put((byte) (wide ? 1 : 0));
+        buffer.put((byte) mode);
+        buffer.putShort((short) 0);
+        buffer.putInt(instrument.getPriceScale());
+        buffer.putLong(instrument.getTickSize());
+        buffer.putLong(instrument.getMinPrice());
+        buffer.putLong(instrument.getMaxPrice());
+        buffer.putLong(orderBook.getTradeSequenceNumber());
+        buffer.putInt(orderCount);
+        JournalFormat.putText(buffer, symbol, wide);
+        if(offHeap) {
+            writeSide(orderBook.getOffHeapBuyOrders());
+            writeSide(orderBook.getOffHeapSellOrders());
+        } else {
+            writeSide(orderBook.getBuyOrders());
+            writeSide(orderBook.getSellOrders());
+        }
+        return orderCount;
+    }
+
+    private void writeSide(BookSide bookSide) throws IOException {
+        ensureRemaining(SnapshotFormat.SIDE_LENGTH);
+        buffer.putInt(bookSide.size());
+        for (PriceLevel level = bookSide.best(); level != null; level = bookSide.nextWorse(level)) {
+            ensureRemaining(SnapshotFormat.LEVEL_LENGTH);
+            buffer.putLong(level.getPrice());
+            buffer.putInt(level.size());
+            for (Order order = level.peek(); order != null; order = order.getNext()) {
+                String orderId = order.getOrderId();
+                boolean wide = JournalFormat.isWide(orderId);
+                ensureRemaining(SnapshotFormat.ORDER_LENGTH + JournalFormat.textLength(orderId, wide));
+                buffer.putLong(order.getQuantity());
+                buffer.put((byte) (wide ? 1 : 0));
+                JournalFormat.putText(buffer, orderId, wide);
+            }
+        }
+    }
+
+    private void writeSide(OffHeapBookSide bookSide) throws IOException {
+        OffHeapOrderStore orderStore = bookSide.getOrderStore();
+        ensureRemaining(SnapshotFormat.SIDE_LENGTH);
+        buffer.putInt(bookSide.size());
+        for (int level = bookSide.best(); level != OffHeapBookSide.NO_LEVEL; level = bookSide.nextWorse(level)) {
+            ensureRemaining(SnapshotFormat.LEVEL_LENGTH);
+            buffer.putLong(bookSide.getPrice(level));
+            buffer.putInt(bookSide.getOrderCount(level));
+            for (int slot = bookSide.getHead(level); slot != OffHeapOrderStore.NO_SLOT;
+                 slot = orderStore.getNext(slot)) {
+                long orderId = orderStore.getOrderId(slot);
+                // numeric ids are narrow text, written digit by digit
+                int length = JournalFormat.digitCount(orderId);
+                ensureRemaining(SnapshotFormat.ORDER_LENGTH + length);
+                buffer.putLong(orderStore.getQuantity(slot));
+                buffer.put((byte) 0);
+                JournalFormat.putDigits(buffer, orderId, length);
+            }
+        }
+    }
+
+    private static int countOrders(BookSide bookSide) {
+        int orderCount = 0;
+        for (PriceLevel level = bookSide.best(); level != null; level = bookSide.nextWorse(level)) {
+            orderCount += level.size();
+        }
+        return orderCount;
+    }
+
+    private void ensureRemaining(int length) throws IOException {
+        if(buffer.remaining() < length) {
+            Buffers.drain(channel, buffer);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderStatus;
+
+/**
+ * Results of a batch of order records processed by {@link OrderProcessor#processBatch}, one status and filled quantity
+ * per record in the order of the batch. Results are stored in primitive arrays and the instance is meant to be reused
+ * for every batch, so processing a batch allocates no result. Not thread safe.
+ */
+public class BatchResult {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final byte[] statuses;
+    private final long[] filledQuantities;
+    private int size;
+    private int acceptedCount;
+
+    /**
+     * <p>Constructs an empty BatchResult</p>
+     * @param capacity highest number of records of a batch
+     */
+    public BatchResult(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Invalid Capacity:" + capacity);
+        }
+        this.statuses = new byte[capacity];
+        this.filledQuantities = new long[capacity];
+    }
+
+    /**
+     * <p>Returns the highest number of records of a batch</p>
+     * @return capacity
+     */
+    public int capacity() {
+        return statuses.length;
+    }
+
+    /**
+     * <p>Returns the number of records of the last batch</p>
+     * @return number of results
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * <p>Returns the number of records of the last batch which were accepted</p>
+     * @return accepted count
+     */
+    public int getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * <p>Returns the status of a record</p>
+     * @param index index of the record in the batch
+     * @return ACCEPTED, or the reason why the record was rejected {@link OrderStatus}
+     */
+    public OrderStatus getStatus(int index) {
+        checkIndex(index);
+        return STATUSES[statuses[index]];
+    }
+
+    /**
+     * <p>Returns the quantity filled by a record when it was added</p>
+     * @param index index of the record in the batch
+     * @return filled quantity, 0 for a rejected record or a remove
+     */
+    public long getFilledQuantity(int index) {
+        checkIndex(index);
+        return filledQuantities[index];
+    }
+
+    /**
+     * <p>Starts the results of a batch</p>
+     * @param length number of records of the batch
+     */
+    void reset(int length) {
+        if(length < 0 || length > statuses.length) {
+            throw new IllegalArgumentException("Invalid Batch Length:" + length + ", Capacity:" + statuses.length);
+        }
+        size = length;
+        acceptedCount = 0;
+    }
+
+    /**
+     * <p>Sets the result of a record</p>
+     * @param index index of the record in the batch
+     * @param status status of the record {@link OrderStatus}
+     * @param filledQuantity quantity filled by the record
+     */
+    void set(int index, OrderStatus status, long filledQuantity) {
+        statuses[index] = (byte) status.ordinal();
+        filledQuantities[index] = filledQuantity;
+        if(status == OrderStatus.ACCEPTED) {
+            acceptedCount++;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index:" + index + ", Size:" + size);
+        }
+    }
+}
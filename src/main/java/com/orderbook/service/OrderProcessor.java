@@ -1,13 +1,22 @@
 package com.orderbook.service;
 
+import com.orderbook.constant.LatencyOperation;
 import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
 import com.orderbook.domain.*;
 import com.orderbook.constant.OrderSide;
 import com.orderbook.exception.OrderException;
+import com.orderbook.metrics.BookMetrics;
+import com.orderbook.metrics.BookMetricsRegistry;
+import com.orderbook.metrics.LatencyMetrics;
+import com.orderbook.metrics.LatencyMetricsRegistry;
+import com.orderbook.persistence.OrderJournal;
+import com.orderbook.util.OrderRecordParser;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 
 /**
@@ -16,13 +25,169 @@ import java.util.HashMap;
  */
 public class OrderProcessor {
 
-    private final HashMap<String, OrderBook> orderBookMap;
+    private static final int INITIAL_BOOK_CAPACITY = 16;
+
+    private final SymbolRegistry symbolRegistry;
+    // book of every symbol id, index 0 is not used
+    private OrderBook[] orderBooks;
+    private final ArrayList<OrderBook> orderBookList;
+    private final HashMap<String, Instrument> instrumentMap;
+    private final OrderRecordParser orderRecordParser;
+    private final OrderRecord orderRecord;
+    private TradeListener tradeListener;
+    private DepthListener depthListener;
+    private OrderJournal orderJournal;
+    private LatencyMetricsRegistry latencyMetricsRegistry;
+    private BookMetricsRegistry bookMetricsRegistry;
+    private PublishedDepthRegistry publishedDepthRegistry;
+    private boolean numericOrderIds;
+    private boolean offHeapOrders;
 
     /**
-     * <p>Constructs an OrderProcessor</p>
+     * <p>Constructs an OrderProcessor which assigns symbol ids when a symbol is first seen</p>
      */
     public OrderProcessor() {
-        orderBookMap = new HashMap<>();
+        this(new SymbolRegistry());
+    }
+
+    /**
+     * <p>Constructs an OrderProcessor with the symbol ids of a registry, such as a registry loaded from a reference
+     * file</p>
+     * @param symbolRegistry ids of the symbols {@link SymbolRegistry}, symbols which are not in it get the next id
+     */
+    public OrderProcessor(SymbolRegistry symbolRegistry) {
+        this.symbolRegistry = symbolRegistry;
+        orderBooks = new OrderBook[Math.max(INITIAL_BOOK_CAPACITY, symbolRegistry.size() + 1)];
+        orderBookList = new ArrayList<>();
+        instrumentMap = new HashMap<>();
+        orderRecordParser = new OrderRecordParser();
+        orderRecord = new OrderRecord();
+    }
+
+    /**
+     * <p>Registers the price scale and tick size of a symbol. Symbols which are not registered use the defaults of
+     * {@link Instrument}. Must be called before the first order of the symbol is processed.</p>
+     * @param instrument instrument to register {@link Instrument}
+     */
+    public void registerInstrument(Instrument instrument) {
+        if(getOrderBook(instrument.getSymbol()) != null) {
+            throw new IllegalStateException("OrderBook already created, Symbol:" + instrument.getSymbol());
+        }
+        instrumentMap.put(instrument.getSymbol(), instrument);
+    }
+
+    /**
+     * <p>Makes the books of the processor index their orders by numeric ids, see
+     * {@link OrderBook#OrderBook(Instrument, boolean)}. Must be called before the first book is created.</p>
+     * @param numericOrderIds true for numeric order ids
+     * @throws IllegalStateException when a book already exists
+     */
+    public void setNumericOrderIds(boolean numericOrderIds) {
+        if(!orderBookList.isEmpty()) {
+            throw new IllegalStateException("OrderBooks already created");
+        }
+        this.numericOrderIds = numericOrderIds;
+    }
+
+    /**
+     * <p>Makes the books of instruments with a price band rest their orders off heap, see
+     * {@link OrderBook#OrderBook(Instrument, boolean, boolean)}. Such books have numeric order ids, books of other
+     * instruments keep heap orders. Must be called before the first book is created.</p>
+     * @param offHeapOrders true for off heap orders
+     * @throws IllegalStateException when a book already exists
+     */
+    public void setOffHeapOrders(boolean offHeapOrders) {
+        if(!orderBookList.isEmpty()) {
+            throw new IllegalStateException("OrderBooks already created");
+        }
+        this.offHeapOrders = offHeapOrders;
+    }
+
+    /**
+     * <p>Sets the listener of the fills of every book of the processor, including books created later</p>
+     * @param tradeListener listener of fills {@link TradeListener}, null for none
+     */
+    public void setTradeListener(TradeListener tradeListener) {
+        this.tradeListener = tradeListener;
+        for (OrderBook orderBook : orderBookList) {
+            orderBook.setTradeListener(tradeListener);
+        }
+    }
+
+    /**
+     * <p>Sets the listener of the price level changes of every book of the processor, including books created
+     * later</p>
+     * @param depthListener listener of level changes {@link DepthListener}, null for none
+     */
+    public void setDepthListener(DepthListener depthListener) {
+        this.depthListener = depthListener;
+        for (OrderBook orderBook : orderBookList) {
+            orderBook.setDepthListener(depthListener);
+        }
+    }
+
+    /**
+     * <p>Enables the latency histograms of the operations of every book of the processor, including books created
+     * later. Meant to be called once at startup, latencies are not recorded without a registry.</p>
+     * @param latencyMetricsRegistry registry of the histograms of the books {@link LatencyMetricsRegistry}, null to
+     * record nothing
+     */
+    public void setLatencyMetricsRegistry(LatencyMetricsRegistry latencyMetricsRegistry) {
+        this.latencyMetricsRegistry = latencyMetricsRegistry;
+        for (OrderBook orderBook : orderBookList) {
+            orderBook.setLatencyMetrics(getLatencyMetrics(orderBook.getSymbol()));
+        }
+    }
+
+    /**
+     * <p>Enables the counters and gauges of every book of the processor, including books created later</p>
+     * @param bookMetricsRegistry registry of the counters and gauges of the books {@link BookMetricsRegistry}, null
+     * to count nothing
+     */
+    public void setBookMetricsRegistry(BookMetricsRegistry bookMetricsRegistry) {
+        this.bookMetricsRegistry = bookMetricsRegistry;
+        for (OrderBook orderBook : orderBookList) {
+            orderBook.setBookMetrics(getBookMetrics(orderBook));
+        }
+    }
+
+    /**
+     * <p>Publishes the best levels of every book of the processor for reader threads, including books created later.
+     * The depth of a book is published when it is set, then after the accepted orders of the publish interval of the
+     * registry.</p>
+     * @param publishedDepthRegistry registry of the published depths of the books {@link PublishedDepthRegistry},
+     * null to publish nothing
+     */
+    public void setPublishedDepthRegistry(PublishedDepthRegistry publishedDepthRegistry) {
+        this.publishedDepthRegistry = publishedDepthRegistry;
+        for (OrderBook orderBook : orderBookList) {
+            orderBook.setPublishedDepth(getPublishedDepth(orderBook));
+        }
+    }
+
+    /**
+     * <p>Publishes the depth of every book with orders accepted since its last publish, such as when no order is
+     * waiting to be processed</p>
+     */
+    public void publishPendingDepth() {
+        if(publishedDepthRegistry == null) {
+            return;
+        }
+        for (OrderBook orderBook : orderBookList) {
+            PublishedDepth publishedDepth = orderBook.getPublishedDepth();
+            if(publishedDepth != null) {
+                publishedDepth.publishPending(orderBook);
+            }
+        }
+    }
+
+    /**
+     * <p>Sets the journal of the orders accepted by the books of the processor. An order is appended once its book
+     * has accepted it, so replaying the journal into an empty processor rebuilds the books.</p>
+     * @param orderJournal journal of accepted orders {@link OrderJournal}, null for none
+     */
+    public void setJournal(OrderJournal orderJournal) {
+        this.orderJournal = orderJournal;
     }
 
     /**
@@ -45,13 +210,439 @@ public class OrderProcessor {
         String price = orderRecord[4];
 
         OrderSide orderSide = side.equals("B") ? OrderSide.BID : OrderSide.ASK;
-        OrderActionType orderActionType = actionType.equals("A") ? OrderActionType.ADD : OrderActionType.REMOVE;
+        OrderActionType orderActionType;
+        if(actionType.equals("A")) {
+            orderActionType = OrderActionType.ADD;
+        } else if(actionType.equals("M")) {
+            orderActionType = OrderActionType.MODIFY;
+        } else {
+            orderActionType = OrderActionType.REMOVE;
+        }
+
+        OrderBook orderBook = createOrderBookIfNotExists(symbol);
+
+        // prices and quantities are converted to longs only here, a remove only needs the id of the resting order
+        long scaledPrice = 0;
+        long orderQuantity = 0;
+        if(orderActionType != OrderActionType.REMOVE) {
+            Instrument instrument = orderBook.getInstrument();
+            scaledPrice = orderRecordParser.parsePrice(price, instrument.getPriceScale());
+            if(!instrument.isValidPrice(scaledPrice)) {
+                throw new IllegalArgumentException("Invalid Order Price:" + price);
+            }
+            orderQuantity = orderRecordParser.parseQuantity(quantity);
+            if(orderQuantity < 0) {
+                throw new IllegalArgumentException("Invalid Order Quantity:" + quantity);
+            }
+        }
+        processOrder(orderBook, orderActionType, orderId, orderSide, orderQuantity, scaledPrice);
+    }
 
-        //create an Order object
-        Order order = new Order(orderId, new BigDecimal(price), new BigInteger(quantity), orderSide);
+    /**
+     * <p>Processes an order record line, such as a line of a market data file, without splitting it</p>
+     * @param symbol value of the symbol
+     * @param orderRecordLine order record line {@code <action>,<order id>,<side>,<quantity>,<price>}
+     * @return ACCEPTED when the record is processed, the reason when the record is not valid or is rejected by the
+     * book {@link OrderStatus}. Nothing is thrown for a reject.
+     */
+    public OrderStatus processRecord(String symbol, CharSequence orderRecordLine) {
+        OrderBook orderBook = createOrderBookIfNotExists(symbol);
+        Instrument instrument = orderBook.getInstrument();
+
+        // the id of a record of a book with numeric order ids is decoded without creating its text
+        OrderStatus orderStatus = orderRecordParser.parse(orderRecordLine, instrument.getPriceScale(),
+                orderBook.isNumericOrderIds(), orderRecord);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            onRejected(orderBook, orderStatus);
+            return orderStatus;
+        }
+        return tryProcessRecord(orderBook, orderRecord);
+    }
 
+    /**
+     * <p>Processes a decoded order record, such as a record of a binary order record file</p>
+     * @param symbol value of the symbol
+     * @param orderRecord order record with a price scaled by the price scale of the instrument of the symbol
+     * @return ACCEPTED when the record is processed, the reason when a value of the record is not valid, such as
+     * INVALID_PRICE when the price is not valid for the instrument, or when the record is rejected by the book
+     * {@link OrderStatus}. Nothing is thrown for a reject.
+     */
+    public OrderStatus processRecord(String symbol, OrderRecord orderRecord) {
+        return tryProcessRecord(createOrderBookIfNotExists(symbol), orderRecord);
+    }
+
+    /**
+     * <p>Processes a batch of decoded order records of several symbols in the order of the batch. The records are
+     * not regrouped, the book is reused for a run of consecutive records of the same symbol and looked up again when
+     * the symbol changes, so a batch sorted by symbol pays one lookup per symbol and a batch of interleaved symbols one
+     * lookup per record. Rejected records do not throw, a record without a symbol is INVALID_RECORD, and the status
+     * and filled quantity of every record is written to the result.</p>
+     * @param orderRecords order records with their symbol and a price scaled by the price scale of the instrument
+     * @param offset index of the first record of the batch
+     * @param length number of records of the batch
+     * @param batchResult result of the batch, reused between batches {@link BatchResult}
+     * @return number of accepted records
+     */
+    public int processBatch(OrderRecord[] orderRecords, int offset, int length, BatchResult batchResult) {
+        batchResult.reset(length);
+        OrderBook orderBook = null;
+        String symbol = null;
+        for (int i = 0; i < length; i++) {
+            OrderRecord record = orderRecords[offset + i];
+            String recordSymbol = record.getSymbol();
+            if(recordSymbol == null || recordSymbol.trim().isEmpty()) {
+                batchResult.set(i, OrderStatus.INVALID_RECORD, 0);
+                continue;
+            }
+            if(orderBook == null || (recordSymbol != symbol && !recordSymbol.equals(symbol))) {
+                orderBook = createOrderBookIfNotExists(recordSymbol);
+                symbol = recordSymbol;
+            }
+            processBatchRecord(orderBook, record, batchResult, i);
+        }
+        return batchResult.getAcceptedCount();
+    }
+
+    /**
+     * <p>Processes a batch of decoded order records of one symbol in the order of the batch, looking up the book
+     * once. Rejected records do not throw, the status and filled quantity of every record is written to the
+     * result.</p>
+     * @param symbol value of the symbol, the symbols of the records are not used
+     * @param orderRecords order records with a price scaled by the price scale of the instrument of the symbol
+     * @param offset index of the first record of the batch
+     * @param length number of records of the batch
+     * @param batchResult result of the batch, reused between batches {@link BatchResult}
+     * @return number of accepted records
+     * @throws IllegalArgumentException when the symbol is blank, before any record is processed
+     */
+    public int processBatch(String symbol, OrderRecord[] orderRecords, int offset, int length,
+                            BatchResult batchResult) {
+        batchResult.reset(length);
         OrderBook orderBook = createOrderBookIfNotExists(symbol);
-        orderBook.executeOrder(order, orderActionType);
+        for (int i = 0; i < length; i++) {
+            processBatchRecord(orderBook, orderRecords[offset + i], batchResult, i);
+        }
+        return batchResult.getAcceptedCount();
+    }
+
+    private void processBatchRecord(OrderBook orderBook, OrderRecord record, BatchResult batchResult, int index) {
+        OrderStatus orderStatus = tryProcessRecord(orderBook, record);
+        batchResult.set(index, orderStatus, orderStatus == OrderStatus.ACCEPTED
+                && record.getActionType() != OrderActionType.REMOVE ? orderBook.getLastFilledQuantity() : 0);
+    }
+
+    /**
+     * <p>Processes a decoded order record, a numeric order id of a binary record is passed on as a long</p>
+     */
+    private OrderStatus tryProcessRecord(OrderBook orderBook, OrderRecord orderRecord) {
+        if(orderRecord.hasNumericOrderId()) {
+            return tryProcessOrder(orderBook, orderRecord.getActionType(), orderRecord.getNumericOrderId(),
+                    orderRecord.getSide(), orderRecord.getQuantity(), orderRecord.getPrice());
+        }
+        return tryProcessOrder(orderBook, orderRecord.getActionType(), orderRecord.getOrderId(),
+                orderRecord.getSide(), orderRecord.getQuantity(), orderRecord.getPrice());
+    }
+
+    /**
+     * <p>Checks whether an order id fits the order id mode of a book</p>
+     * @return false if the book has numeric order ids and the id is not numeric
+     */
+    private static boolean isValidOrderId(OrderBook orderBook, String orderId) {
+        return !orderBook.isNumericOrderIds() || Order.toNumericOrderId(orderId) != Order.NO_NUMERIC_ORDER_ID;
+    }
+
+    /**
+     * <p>Processes a parsed order. Once the book of the symbol exists and its order pool is warm, this allocates
+     * nothing for orders which are accepted, as long as the book is stored in a
+     * {@link com.orderbook.domain.TickLadderBookSide}. A {@link com.orderbook.domain.TreeBookSide} boxes prices.</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws OrderException when the order is rejected by the book
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public void processOrder(String symbol, OrderActionType orderActionType, String orderId, OrderSide side,
+                             long quantity, long price) throws OrderException {
+        processOrder(createOrderBookIfNotExists(symbol), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order of a symbol id, resolved once with {@link #getSymbolId(String)}. The book is found
+     * by indexing an array, without hashing the symbol.</p>
+     * @param symbolId id of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws OrderException when the order is rejected by the book
+     * @throws IllegalArgumentException when the id is not assigned to a symbol, when a value is not valid for an order
+     */
+    public void processOrder(int symbolId, OrderActionType orderActionType, String orderId, OrderSide side,
+                             long quantity, long price) throws OrderException {
+        processOrder(createOrderBookIfNotExists(symbolId), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order and returns the reject reason instead of throwing. A reject builds no message and
+     * captures no stack trace, so once the book is warm a rejected order allocates nothing either.</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @return ACCEPTED, or the reason of the reject {@link OrderStatus}
+     */
+    public OrderStatus tryProcessOrder(String symbol, OrderActionType orderActionType, String orderId, OrderSide side,
+                                       long quantity, long price) {
+        return tryProcessOrder(createOrderBookIfNotExists(symbol), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order of a symbol id and returns the reject reason instead of throwing, see
+     * {@link #tryProcessOrder(String, OrderActionType, String, OrderSide, long, long)}</p>
+     * @param symbolId id of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @return ACCEPTED, or the reason of the reject {@link OrderStatus}
+     * @throws IllegalArgumentException when the id is not assigned to a symbol
+     */
+    public OrderStatus tryProcessOrder(int symbolId, OrderActionType orderActionType, String orderId, OrderSide side,
+                                       long quantity, long price) {
+        return tryProcessOrder(createOrderBookIfNotExists(symbolId), orderActionType, orderId, side, quantity, price);
+    }
+
+    private void processOrder(OrderBook orderBook, OrderActionType orderActionType, String orderId, OrderSide side,
+                              long quantity, long price) throws OrderException {
+        OrderStatus orderStatus = tryProcessOrder(orderBook, orderActionType, orderId, side, quantity, price);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw toException(orderStatus, orderActionType, orderId, quantity, price);
+        }
+    }
+
+    private OrderStatus tryProcessOrder(OrderBook orderBook, OrderActionType orderActionType, String orderId,
+                                        OrderSide side, long quantity, long price) {
+        LatencyMetrics latencyMetrics = orderBook.getLatencyMetrics();
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        OrderStatus orderStatus;
+        if(orderId == null || orderId.trim().isEmpty() || !isValidOrderId(orderBook, orderId)) {
+            orderStatus = OrderStatus.INVALID_ORDER_ID;
+        } else {
+            orderStatus = validateOrder(orderActionType, side, quantity, price);
+        }
+        if(orderStatus == OrderStatus.ACCEPTED) {
+            switch (orderActionType) {
+                case REMOVE:
+                    orderStatus = orderBook.tryRemoveOrder(orderId);
+                    break;
+                case MODIFY:
+                    orderStatus = orderBook.tryModifyOrder(orderId, price, quantity);
+                    break;
+                default:
+                    // the order goes back to the pool of the book when it is filled or removed
+                    Order order = orderBook.newOrder(orderId, price, quantity, side);
+                    orderStatus = orderBook.tryExecuteOrder(order, orderActionType);
+                    break;
+            }
+        }
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            onRejected(orderBook, orderStatus);
+            return orderStatus;
+        }
+        if(orderJournal != null) {
+            orderJournal.append(orderBook.getInstrument(), orderActionType, orderId, side, quantity, price);
+        }
+        onAccepted(orderBook, orderActionType, latencyMetrics, startNanos);
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Processes a parsed order with a numeric id. In a book with numeric order ids, see
+     * {@link #setNumericOrderIds(boolean)}, the id is never turned into text unless a listener or the journal asks for
+     * it, so a warm book allocates nothing for accepted orders.</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the numeric id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws OrderException when the order is rejected by the book
+     * @throws IllegalArgumentException when a value is not valid for an order
+     */
+    public void processOrder(String symbol, OrderActionType orderActionType, long orderId, OrderSide side,
+                             long quantity, long price) throws OrderException {
+        processOrder(createOrderBookIfNotExists(symbol), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order with a numeric id of a symbol id, see {@link #processOrder(int, OrderActionType,
+     * String, OrderSide, long, long)}</p>
+     * @param symbolId id of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the numeric id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws OrderException when the order is rejected by the book
+     * @throws IllegalArgumentException when the id is not assigned to a symbol, when a value is not valid for an order
+     */
+    public void processOrder(int symbolId, OrderActionType orderActionType, long orderId, OrderSide side,
+                             long quantity, long price) throws OrderException {
+        processOrder(createOrderBookIfNotExists(symbolId), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order with a numeric id and returns the reject reason instead of throwing. In a book
+     * with numeric order ids a warm book allocates nothing for accepted and for rejected orders.</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the numeric id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @return ACCEPTED, or the reason of the reject {@link OrderStatus}
+     */
+    public OrderStatus tryProcessOrder(String symbol, OrderActionType orderActionType, long orderId, OrderSide side,
+                                       long quantity, long price) {
+        return tryProcessOrder(createOrderBookIfNotExists(symbol), orderActionType, orderId, side, quantity, price);
+    }
+
+    /**
+     * <p>Processes a parsed order with a numeric id of a symbol id and returns the reject reason instead of throwing,
+     * see {@link #tryProcessOrder(String, OrderActionType, long, OrderSide, long, long)}</p>
+     * @param symbolId id of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the numeric id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @return ACCEPTED, or the reason of the reject {@link OrderStatus}
+     * @throws IllegalArgumentException when the id is not assigned to a symbol
+     */
+    public OrderStatus tryProcessOrder(int symbolId, OrderActionType orderActionType, long orderId, OrderSide side,
+                                       long quantity, long price) {
+        return tryProcessOrder(createOrderBookIfNotExists(symbolId), orderActionType, orderId, side, quantity, price);
+    }
+
+    private void processOrder(OrderBook orderBook, OrderActionType orderActionType, long orderId, OrderSide side,
+                              long quantity, long price) throws OrderException {
+        OrderStatus orderStatus = tryProcessOrder(orderBook, orderActionType, orderId, side, quantity, price);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            throw toException(orderStatus, orderActionType, Long.toString(orderId), quantity, price);
+        }
+    }
+
+    private OrderStatus tryProcessOrder(OrderBook orderBook, OrderActionType orderActionType, long orderId,
+                                        OrderSide side, long quantity, long price) {
+        LatencyMetrics latencyMetrics = orderBook.getLatencyMetrics();
+        long startNanos = latencyMetrics != null ? System.nanoTime() : 0;
+        OrderStatus orderStatus;
+        if(orderId < 0) {
+            orderStatus = OrderStatus.INVALID_ORDER_ID;
+        } else {
+            orderStatus = validateOrder(orderActionType, side, quantity, price);
+        }
+        if(orderStatus == OrderStatus.ACCEPTED) {
+            switch (orderActionType) {
+                case REMOVE:
+                    orderStatus = orderBook.tryRemoveOrder(orderId);
+                    break;
+                case MODIFY:
+                    orderStatus = orderBook.tryModifyOrder(orderId, price, quantity);
+                    break;
+                default:
+                    Order order = orderBook.newOrder(orderId, price, quantity, side);
+                    orderStatus = orderBook.tryExecuteOrder(order, orderActionType);
+                    break;
+            }
+        }
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            onRejected(orderBook, orderStatus);
+            return orderStatus;
+        }
+        if(orderJournal != null) {
+            orderJournal.append(orderBook.getInstrument(), orderActionType, orderId, side, quantity, price);
+        }
+        onAccepted(orderBook, orderActionType, latencyMetrics, startNanos);
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Checks the values of an order which the order itself would not accept, the book checks the rest</p>
+     * @return ACCEPTED, INVALID_ACTION_TYPE, INVALID_SIDE, INVALID_QUANTITY or INVALID_PRICE {@link OrderStatus}
+     */
+    private static OrderStatus validateOrder(OrderActionType orderActionType, OrderSide side, long quantity,
+                                             long price) {
+        if(orderActionType == null) {
+            return OrderStatus.INVALID_ACTION_TYPE;
+        }
+        if(orderActionType != OrderActionType.ADD) {
+            return OrderStatus.ACCEPTED;
+        }
+        if(side == null) {
+            return OrderStatus.INVALID_SIDE;
+        }
+        if(quantity < 0) {
+            return OrderStatus.INVALID_QUANTITY;
+        }
+        return price > 0 ? OrderStatus.ACCEPTED : OrderStatus.INVALID_PRICE;
+    }
+
+    /**
+     * <p>Returns the exception of a reject for the methods which throw. Values which the order itself does not accept
+     * are an IllegalArgumentException, as when they were rejected by the order, rejects of the book are an
+     * OrderException.</p>
+     */
+    private static OrderException toException(OrderStatus orderStatus, OrderActionType orderActionType,
+                                              String orderId, long quantity, long price) {
+        switch (orderStatus) {
+            case INVALID_ORDER_ID:
+                throw new IllegalArgumentException("Invalid Order Id:" + orderId);
+            case INVALID_SIDE:
+                throw new IllegalArgumentException("Invalid Order Side");
+            case INVALID_QUANTITY:
+                if(orderActionType == OrderActionType.ADD) {
+                    throw new IllegalArgumentException("Invalid Order Quantity:" + quantity);
+                }
+                break;
+            case INVALID_PRICE:
+                if(price <= 0 && orderActionType == OrderActionType.ADD) {
+                    throw new IllegalArgumentException("Invalid Order Price:" + price);
+                }
+                break;
+            default:
+                break;
+        }
+        return OrderException.of(orderStatus, orderActionType, orderId);
+    }
+
+    private static void onAccepted(OrderBook orderBook, OrderActionType orderActionType,
+                                   LatencyMetrics latencyMetrics, long startNanos) {
+        BookMetrics bookMetrics = orderBook.getBookMetrics();
+        if(bookMetrics != null) {
+            bookMetrics.onAccepted(orderActionType, orderBook);
+        }
+        PublishedDepth publishedDepth = orderBook.getPublishedDepth();
+        if(publishedDepth != null) {
+            publishedDepth.onUpdate(orderBook);
+        }
+        if(latencyMetrics != null) {
+            latencyMetrics.recordSince(LatencyOperation.PROCESS_ORDER, startNanos);
+        }
+    }
+
+    private static void onRejected(OrderBook orderBook, OrderStatus reason) {
+        BookMetrics bookMetrics = orderBook.getBookMetrics();
+        if(bookMetrics != null) {
+            bookMetrics.onRejected(reason);
+        }
     }
 
     /**
@@ -60,7 +651,72 @@ public class OrderProcessor {
      * @return corresponding {@link OrderBook}
      */
     public OrderBook getOrderBook(String symbol) {
-        return orderBookMap.get(symbol);
+        return getOrderBook(symbolRegistry.getId(symbol));
+    }
+
+    /**
+     * <p>Returns the OrderBook of a symbol id</p>
+     * @param symbolId id of the symbol
+     * @return corresponding {@link OrderBook}, null if no order of the symbol is processed
+     */
+    public OrderBook getOrderBook(int symbolId) {
+        return symbolId > SymbolRegistry.NO_SYMBOL_ID && symbolId < orderBooks.length ? orderBooks[symbolId] : null;
+    }
+
+    /**
+     * <p>Returns the OrderBooks of every symbol processed so far</p>
+     * @return read only view of the order books {@link OrderBook}
+     */
+    public Collection<OrderBook> getOrderBooks() {
+        return Collections.unmodifiableList(orderBookList);
+    }
+
+    /**
+     * <p>Returns the id of a symbol, assigning one to a new symbol, so that a client can resolve its symbols once and
+     * process orders by symbol id</p>
+     * @param symbol value of the symbol
+     * @return id of the symbol
+     */
+    public int getSymbolId(String symbol) {
+        return symbolRegistry.getOrAssign(symbol);
+    }
+
+    /**
+     * <p>Returns the ids of the symbols of the processor</p>
+     * @return symbol registry {@link SymbolRegistry}
+     */
+    public SymbolRegistry getSymbolRegistry() {
+        return symbolRegistry;
+    }
+
+    /**
+     * <p>Adds an OrderBook which was built outside the processor, such as a book restored from a snapshot. The
+     * listeners of the processor are set on the book.</p>
+     * @param orderBook order book to add {@link OrderBook}
+     * @throws IllegalStateException when a book of the symbol already exists
+     */
+    public void registerOrderBook(OrderBook orderBook) {
+        String symbol = orderBook.getSymbol();
+        int symbolId = symbolRegistry.getOrAssign(symbol);
+        if(getOrderBook(symbolId) != null) {
+            throw new IllegalStateException("OrderBook already created, Symbol:" + symbol);
+        }
+        instrumentMap.put(symbol, orderBook.getInstrument());
+        addOrderBook(symbolId, orderBook);
+    }
+
+    /**
+     * <p>Returns a new OrderBook which is not added to the processor, in the order id and storage modes of the
+     * processor, such as a book to restore from a snapshot. Off heap orders are only used for an instrument with a
+     * price band.</p>
+     * @param instrument instrument of the order book {@link Instrument}
+     * @param numericOrderIds true for numeric order ids, whatever the mode of the processor
+     * @param offHeapOrders true for off heap orders, whatever the mode of the processor
+     * @return order book for {@link #registerOrderBook(OrderBook)}
+     */
+    public OrderBook newOrderBook(Instrument instrument, boolean numericOrderIds, boolean offHeapOrders) {
+        boolean offHeap = (this.offHeapOrders || offHeapOrders) && instrument.hasPriceBand();
+        return new OrderBook(instrument, this.numericOrderIds || numericOrderIds || offHeap, offHeap);
     }
 
     /**
@@ -69,16 +725,69 @@ public class OrderProcessor {
      * @return corresponding {@link OrderBook}
      */
     private OrderBook createOrderBookIfNotExists(String symbol) {
-        OrderBook orderBook;
-        if(orderBookMap.containsKey(symbol)){
-            orderBook = orderBookMap.get(symbol);
-        } else {
-            orderBook = new OrderBook(symbol);
-            orderBookMap.put(symbol, orderBook);
+        return createOrderBookIfNotExists(symbolRegistry.getOrAssign(symbol));
+    }
+
+    /**
+     * <p>Returns the OrderBook of a symbol id which exists or creates a new OrderBook otherwise and returns it</p>
+     * @param symbolId id of the symbol
+     * @return corresponding {@link OrderBook}
+     * @throws IllegalArgumentException when the id is not assigned to a symbol
+     */
+    private OrderBook createOrderBookIfNotExists(int symbolId) {
+        OrderBook orderBook = getOrderBook(symbolId);
+        if(orderBook != null) {
+            return orderBook;
+        }
+        String symbol = symbolRegistry.getSymbol(symbolId);
+        if(symbol == null) {
+            throw new IllegalArgumentException("Invalid Symbol Id:" + symbolId);
+        }
+        Instrument instrument = instrumentMap.get(symbol);
+        if(instrument == null) {
+            instrument = new Instrument(symbol);
         }
+        orderBook = newOrderBook(instrument, false, false);
+        addOrderBook(symbolId, orderBook);
         return orderBook;
     }
 
+    private void addOrderBook(int symbolId, OrderBook orderBook) {
+        orderBook.setTradeListener(tradeListener);
+        orderBook.setDepthListener(depthListener);
+        orderBook.setLatencyMetrics(getLatencyMetrics(orderBook.getSymbol()));
+        orderBook.setBookMetrics(getBookMetrics(orderBook));
+        orderBook.setPublishedDepth(getPublishedDepth(orderBook));
+        if(symbolId >= orderBooks.length) {
+            orderBooks = Arrays.copyOf(orderBooks, Math.max(orderBooks.length * 2, symbolId + 1));
+        }
+        orderBooks[symbolId] = orderBook;
+        orderBookList.add(orderBook);
+    }
+
+    private LatencyMetrics getLatencyMetrics(String symbol) {
+        return latencyMetricsRegistry != null ? latencyMetricsRegistry.getOrCreate(symbol) : null;
+    }
+
+    private BookMetrics getBookMetrics(OrderBook orderBook) {
+        if(bookMetricsRegistry == null) {
+            return null;
+        }
+        BookMetrics bookMetrics = bookMetricsRegistry.getOrCreate(orderBook.getSymbol());
+        // a restored book starts with its gauges
+        bookMetrics.update(orderBook);
+        return bookMetrics;
+    }
+
+    private PublishedDepth getPublishedDepth(OrderBook orderBook) {
+        if(publishedDepthRegistry == null) {
+            return null;
+        }
+        PublishedDepth publishedDepth = publishedDepthRegistry.getOrCreate(orderBook.getSymbol());
+        publishedDepth.publish(orderBook);
+        return publishedDepth;
+    }
+
     /**
      * <p>Validates an order record</p>
      * @param orderRecord order record properties
@@ -108,15 +817,34 @@ public class OrderProcessor {
     }
 
     public boolean isValidOrderActionTypeText(String orderActionTypeText) {
-        return (orderActionTypeText.equals("A") || orderActionTypeText.equals("X"));
+        return (orderActionTypeText.equals("A") || orderActionTypeText.equals("X") || orderActionTypeText.equals("M"));
     }
 
     public boolean isValidQuantityText(String quantityText) {
-        return quantityText.matches("[0-9]+");
+        // [0-9]+
+        int length = quantityText.length();
+        int position = skipDigits(quantityText, 0);
+        return length > 0 && position == length;
     }
 
     public boolean isValidPriceText(String priceText) {
-        return priceText.matches("[0-9]+\\.?[0-9]*");
+        // [0-9]+\.?[0-9]*
+        int length = priceText.length();
+        int position = skipDigits(priceText, 0);
+        if(position == 0) {
+            return false;
+        }
+        if(position < length && priceText.charAt(position) == '.') {
+            position = skipDigits(priceText, position + 1);
+        }
+        return position == length;
+    }
+
+    private int skipDigits(String text, int position) {
+        while(position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+            position++;
+        }
+        return position;
     }
 
 }
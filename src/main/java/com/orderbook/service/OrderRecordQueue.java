@@ -0,0 +1,118 @@
+package com.orderbook.service;
+
+import com.orderbook.domain.OrderRecord;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * OrderRecordQueue is a bounded single producer single consumer ring of preallocated {@link OrderRecord} slots.
+ * The producer fills the slot returned by {@link #claim()} and makes it visible with {@link #publish()}, the consumer
+ * reads the slot returned by {@link #peek()} and gives it back with {@link #release()}. Nothing is allocated per record
+ * and no lock is taken, the head and the tail are only written by one thread each.
+ */
+class OrderRecordQueue {
+
+    private final OrderRecord[] slots;
+    private final int mask;
+
+    // written by the producer only
+    private final AtomicLong head = new AtomicLong();
+    private long cachedTail;
+
+    // written by the consumer only
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead;
+
+    /**
+     * <p>Constructs an OrderRecordQueue</p>
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    OrderRecordQueue(int capacity) {
+        if(capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid Queue Capacity:" + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if(size < capacity) {
+            size <<= 1;
+        }
+        slots = new OrderRecord[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new OrderRecord();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * <p>Returns the next free slot for the producer, waits while the queue is full</p>
+     * @return slot to fill before {@link #publish()}
+     */
+    OrderRecord claim() {
+        long position = head.get();
+        if(position - cachedTail == slots.length) {
+            cachedTail = tail.get();
+            while (position - cachedTail == slots.length) {
+                // back pressure, the consumer is a full ring behind
+                LockSupport.parkNanos(1000);
+                cachedTail = tail.get();
+            }
+        }
+        return slots[(int) position & mask];
+    }
+
+    /**
+     * <p>Makes the claimed slot visible to the consumer</p>
+     */
+    void publish() {
+        head.lazySet(head.get() + 1);
+    }
+
+    /**
+     * <p>Returns the oldest published slot without removing it</p>
+     * @return published slot, null if the queue is empty
+     */
+    OrderRecord peek() {
+        long position = tail.get();
+        if(position == cachedHead) {
+            cachedHead = head.get();
+            if(position == cachedHead) {
+                return null;
+            }
+        }
+        return slots[(int) position & mask];
+    }
+
+    /**
+     * <p>Gives the slot returned by {@link #peek()} back to the producer</p>
+     */
+    void release() {
+        OrderRecord orderRecord = slots[(int) tail.get() & mask];
+        // the id is the only reference a slot keeps
+        orderRecord.setOrderId(null);
+        tail.lazySet(tail.get() + 1);
+    }
+
+    /**
+     * <p>Returns the number of records published so far</p>
+     * @return published count
+     */
+    long getPublishedCount() {
+        return head.get();
+    }
+
+    /**
+     * <p>Returns the number of records released so far</p>
+     * @return released count
+     */
+    long getReleasedCount() {
+        return tail.get();
+    }
+
+    /**
+     * <p>Returns the number of slots of the queue</p>
+     * @return capacity
+     */
+    int capacity() {
+        return slots.length;
+    }
+}
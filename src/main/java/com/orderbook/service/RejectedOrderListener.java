@@ -0,0 +1,21 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
+
+/**
+ * Receives the orders which are rejected on a matching thread of a {@link ShardedOrderProcessor}.
+ * It is called on the matching thread of the shard which owns the symbol.
+ */
+public interface RejectedOrderListener {
+
+    /**
+     * <p>Called when an order is rejected by its book, or with INVALID_RECORD when processing the order threw, such
+     * as when a listener of its book threw</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param orderStatus reason of the rejection {@link OrderStatus}
+     */
+    void onRejected(String symbol, OrderActionType orderActionType, String orderId, OrderStatus orderStatus);
+}
@@ -0,0 +1,389 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.DepthListener;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.domain.PublishedDepthRegistry;
+import com.orderbook.domain.TradeListener;
+import com.orderbook.metrics.BookMetricsRegistry;
+import com.orderbook.metrics.LatencyMetricsRegistry;
+import com.orderbook.util.OrderRecordParser;
+
+import java.util.HashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Processes orders of many symbols on a fixed number of matching threads. Every symbol is hashed onto one shard,
+ * and the shard owns the books of its symbols exclusively through its own {@link OrderProcessor}, so matching takes
+ * no lock. Orders are handed to a shard through an {@link OrderRecordQueue} and are processed in submission order,
+ * which keeps the order of the records of each symbol.
+ * <p>The queues have a single producer, so orders must be submitted from one thread. Books may only be read after
+ * {@link #flush()} returned and while nothing is submitted, other threads read the best levels of a book while it
+ * matches through a {@link PublishedDepthRegistry}.</p>
+ */
+public class ShardedOrderProcessor implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1 << 16;
+
+    // idle matching threads spin, then yield, then park for a short time
+    private static final int IDLE_SPIN_COUNT = 100;
+    private static final int IDLE_YIELD_COUNT = 200;
+    private static final long IDLE_PARK_NANOS = 50_000;
+
+    private final Shard[] shards;
+    private final HashMap<String, Instrument> instrumentMap;
+    private final OrderRecordParser orderRecordParser;
+    private final RejectedOrderListener rejectedOrderListener;
+    private volatile boolean started;
+
+    /**
+     * <p>Constructs a ShardedOrderProcessor with the default queue capacity and without a listener</p>
+     * @param shardCount number of matching threads
+     */
+    public ShardedOrderProcessor(int shardCount) {
+        this(shardCount, DEFAULT_QUEUE_CAPACITY, null);
+    }
+
+    /**
+     * <p>Constructs a ShardedOrderProcessor</p>
+     * @param shardCount number of matching threads
+     * @param queueCapacity number of records each shard queue holds before submission waits
+     * @param rejectedOrderListener listener of rejected orders {@link RejectedOrderListener}, may be null
+     */
+    public ShardedOrderProcessor(int shardCount, int queueCapacity, RejectedOrderListener rejectedOrderListener) {
+        if(shardCount <= 0) {
+            throw new IllegalArgumentException("Invalid Shard Count:" + shardCount);
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+        instrumentMap = new HashMap<>();
+        orderRecordParser = new OrderRecordParser();
+        this.rejectedOrderListener = rejectedOrderListener;
+    }
+
+    /**
+     * <p>Registers the price scale and tick size of a symbol. Must be called before {@link #start()}.</p>
+     * @param instrument instrument to register {@link Instrument}
+     */
+    public void registerInstrument(Instrument instrument) {
+        if(started) {
+            throw new IllegalStateException("Processor already started, Symbol:" + instrument.getSymbol());
+        }
+        getShard(instrument.getSymbol()).orderProcessor.registerInstrument(instrument);
+        instrumentMap.put(instrument.getSymbol(), instrument);
+    }
+
+    /**
+     * <p>Sets the listener of the fills of every book. It is called on the matching thread of the shard of the book,
+     * so it must be thread safe when there is more than one shard. Must be called before {@link #start()}.</p>
+     * @param tradeListener listener of fills {@link TradeListener}, null for none
+     */
+    public void setTradeListener(TradeListener tradeListener) {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        for (Shard shard : shards) {
+            shard.orderProcessor.setTradeListener(tradeListener);
+        }
+    }
+
+    /**
+     * <p>Sets the listener of the price level changes of every book. It is called on the matching thread of the shard
+     * of the book, so it must be thread safe when there is more than one shard. Must be called before
+     * {@link #start()}.</p>
+     * @param depthListener listener of level changes {@link DepthListener}, null for none
+     */
+    public void setDepthListener(DepthListener depthListener) {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        for (Shard shard : shards) {
+            shard.orderProcessor.setDepthListener(depthListener);
+        }
+    }
+
+    /**
+     * <p>Enables the latency histograms of the operations of every book. The histograms of a book are only written by
+     * the matching thread of its shard. Must be called before {@link #start()}.</p>
+     * @param latencyMetricsRegistry registry of the histograms of the books {@link LatencyMetricsRegistry}, null to
+     * record nothing
+     */
+    public void setLatencyMetricsRegistry(LatencyMetricsRegistry latencyMetricsRegistry) {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        for (Shard shard : shards) {
+            shard.orderProcessor.setLatencyMetricsRegistry(latencyMetricsRegistry);
+        }
+    }
+
+    /**
+     * <p>Enables the counters and gauges of every book. The values of a book are only written by the matching thread
+     * of its shard. Must be called before {@link #start()}.</p>
+     * @param bookMetricsRegistry registry of the counters and gauges of the books {@link BookMetricsRegistry}, null
+     * to count nothing
+     */
+    public void setBookMetricsRegistry(BookMetricsRegistry bookMetricsRegistry) {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        for (Shard shard : shards) {
+            shard.orderProcessor.setBookMetricsRegistry(bookMetricsRegistry);
+        }
+    }
+
+    /**
+     * <p>Publishes the best levels of every book for reader threads. A matching thread publishes the depth of a book
+     * after the accepted orders of the publish interval of the registry, and the pending depth of its books once it
+     * runs out of orders. Must be called before {@link #start()}.</p>
+     * @param publishedDepthRegistry registry of the published depths of the books {@link PublishedDepthRegistry},
+     * null to publish nothing
+     */
+    public void setPublishedDepthRegistry(PublishedDepthRegistry publishedDepthRegistry) {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        for (Shard shard : shards) {
+            shard.orderProcessor.setPublishedDepthRegistry(publishedDepthRegistry);
+        }
+    }
+
+    /**
+     * <p>Starts the matching threads</p>
+     */
+    public void start() {
+        if(started) {
+            throw new IllegalStateException("Processor already started");
+        }
+        started = true;
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * <p>Submits a parsed order to the shard of the symbol. Nothing is allocated per order.</p>
+     * @param symbol value of the symbol
+     * @param orderActionType order action type {@link OrderActionType}
+     * @param orderId value of the id of the order
+     * @param side side of the order {@link OrderSide}, not used for remove and modify
+     * @param quantity quantity of the order, not used for remove
+     * @param price scaled price of the order, not used for remove
+     * @throws IllegalArgumentException when the symbol is null or blank
+     */
+    public void submit(String symbol, OrderActionType orderActionType, String orderId, OrderSide side,
+                       long quantity, long price) {
+        if(!isValidSymbol(symbol)) {
+            throw new IllegalArgumentException("Invalid Symbol:" + symbol);
+        }
+        OrderRecordQueue queue = getStartedShard(symbol).queue;
+        OrderRecord orderRecord = queue.claim();
+        orderRecord.setSymbol(symbol);
+        orderRecord.set(orderActionType, orderId, side, quantity, price);
+        queue.publish();
+    }
+
+    /**
+     * <p>Parses an order record line on the calling thread and submits it to the shard of the symbol</p>
+     * @param symbol value of the symbol
+     * @param orderRecordLine order record line {@code <action>,<order id>,<side>,<quantity>,<price>}
+     * @return ACCEPTED when the record is submitted, the reason when the record is not valid, INVALID_RECORD when the
+     * symbol is null or blank {@link OrderStatus}
+     */
+    public OrderStatus submitRecord(String symbol, CharSequence orderRecordLine) {
+        if(!isValidSymbol(symbol)) {
+            return OrderStatus.INVALID_RECORD;
+        }
+        OrderRecordQueue queue = getStartedShard(symbol).queue;
+        Instrument instrument = instrumentMap.get(symbol);
+        int priceScale = instrument != null ? instrument.getPriceScale() : Instrument.DEFAULT_PRICE_SCALE;
+
+        // parsed straight into the slot, the slot is only published for a valid record
+        OrderRecord orderRecord = queue.claim();
+        OrderStatus orderStatus = orderRecordParser.parse(orderRecordLine, priceScale, orderRecord);
+        if(orderStatus != OrderStatus.ACCEPTED) {
+            return orderStatus;
+        }
+        if(instrument != null && orderRecord.getActionType() != OrderActionType.REMOVE
+                && !instrument.isValidPrice(orderRecord.getPrice())) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        orderRecord.setSymbol(symbol);
+        queue.publish();
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Waits until every order submitted so far is processed by its shard</p>
+     * @throws IllegalStateException when a matching thread is not running
+     */
+    public void flush() {
+        for (Shard shard : shards) {
+            long publishedCount = shard.queue.getPublishedCount();
+            while (shard.queue.getReleasedCount() < publishedCount) {
+                if(!shard.thread.isAlive()) {
+                    throw new IllegalStateException("Matching thread not running, Shard:" + shard.index);
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * <p>Returns the corresponding OrderBook. Only valid after {@link #flush()}.</p>
+     * @param symbol value of the symbol
+     * @return corresponding {@link OrderBook}, null if no order of the symbol is processed
+     */
+    public OrderBook getOrderBook(String symbol) {
+        return getShard(symbol).orderProcessor.getOrderBook(symbol);
+    }
+
+    /**
+     * <p>Returns the number of orders rejected by the books of all shards. Only exact after {@link #flush()}.</p>
+     * @return rejected order count
+     */
+    public long getRejectedCount() {
+        long rejectedCount = 0;
+        for (Shard shard : shards) {
+            rejectedCount += shard.rejectedCount;
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * <p>Returns the number of matching threads</p>
+     * @return shard count
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * <p>Returns the shard which owns the symbol</p>
+     * @param symbol value of the symbol
+     * @return index of the shard
+     */
+    public int getShardIndex(String symbol) {
+        int hash = symbol.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & 0x7fffffff) % shards.length;
+    }
+
+    /**
+     * <p>Processes the submitted orders and stops the matching threads. When the calling thread is interrupted while
+     * waiting for the matching threads, it stops waiting and keeps its interrupt flag.</p>
+     */
+    @Override
+    public void close() {
+        if(!started) {
+            return;
+        }
+        flush();
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        try {
+            for (Shard shard : shards) {
+                shard.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isValidSymbol(String symbol) {
+        return symbol != null && !symbol.trim().isEmpty();
+    }
+
+    private Shard getShard(String symbol) {
+        return shards[getShardIndex(symbol)];
+    }
+
+    private Shard getStartedShard(String symbol) {
+        if(!started) {
+            throw new IllegalStateException("Processor not started");
+        }
+        return getShard(symbol);
+    }
+
+    /**
+     * A matching thread with the books of its symbols and the queue of its orders.
+     */
+    private final class Shard implements Runnable {
+
+        private final int index;
+        private final OrderProcessor orderProcessor;
+        private final OrderRecordQueue queue;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        // written by the matching thread only, published by the release of the queue slot
+        private long rejectedCount;
+
+        private Shard(int index, int queueCapacity) {
+            this.index = index;
+            orderProcessor = new OrderProcessor();
+            queue = new OrderRecordQueue(queueCapacity);
+            thread = new Thread(this, "orderbook-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idleCount = 0;
+            while (running || queue.peek() != null) {
+                OrderRecord orderRecord = queue.peek();
+                if(orderRecord == null) {
+                    if(idleCount == 0) {
+                        orderProcessor.publishPendingDepth();
+                    }
+                    idleCount = Math.min(idleCount + 1, IDLE_YIELD_COUNT);
+                    idle(idleCount);
+                    continue;
+                }
+                idleCount = 0;
+                try {
+                    process(orderRecord);
+                } catch (RuntimeException e) {
+                    // one failing record, such as one whose listener threw, does not stop the shard
+                    onRejected(orderRecord, OrderStatus.INVALID_RECORD);
+                }
+                queue.release();
+            }
+        }
+
+        private void process(OrderRecord orderRecord) {
+            // a reject is a status, no exception is thrown on the matching thread
+            OrderStatus orderStatus = orderProcessor.processRecord(orderRecord.getSymbol(), orderRecord);
+            if(orderStatus != OrderStatus.ACCEPTED) {
+                onRejected(orderRecord, orderStatus);
+            }
+        }
+
+        private void onRejected(OrderRecord orderRecord, OrderStatus orderStatus) {
+            rejectedCount++;
+            if(rejectedOrderListener != null) {
+                rejectedOrderListener.onRejected(orderRecord.getSymbol(), orderRecord.getActionType(),
+                        orderRecord.getOrderId(), orderStatus);
+            }
+        }
+
+        private void idle(int idleCount) {
+            if(idleCount < IDLE_SPIN_COUNT) {
+                return;
+            }
+            if(idleCount < IDLE_YIELD_COUNT) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
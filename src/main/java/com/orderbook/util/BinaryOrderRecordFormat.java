@@ -0,0 +1,248 @@
+package com.orderbook.util;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Order;
+import com.orderbook.domain.OrderRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Defines the binary order record format. A binary file starts with a header followed by fixed width records,
+ * all values are little endian.
+ * <pre>
+ * header (16 bytes)    : int magic, short version, short record length, int price scale, int flags
+ * record (28-40 bytes) : byte action ('A', 'X' or 'M'), byte side ('B' or 'S'), short reserved,
+ *                        long order id, long quantity, long scaled price,
+ *                        int symbol id (with {@link #SYMBOL_ID}), long timestamp (with {@link #TIMESTAMP})
+ * </pre>
+ * The flags of the header tell which of the optional fields every record of the file has. Order ids are numeric
+ * without leading zeros, so they read back as the same text.
+ */
+public final class BinaryOrderRecordFormat {
+
+    public static final int MAGIC = 0x4B42524F; // "ORBK"
+    public static final short VERSION = 1;
+    public static final int HEADER_LENGTH = 16;
+
+    // optional fields
+    public static final int SYMBOL_ID = 1;
+    public static final int TIMESTAMP = 1 << 1;
+
+    private static final int BASE_RECORD_LENGTH = 28;
+    private static final byte ADD = 'A';
+    private static final byte REMOVE = 'X';
+    private static final byte MODIFY = 'M';
+    private static final byte BID = 'B';
+    private static final byte ASK = 'S';
+
+    private final int priceScale;
+    private final int flags;
+    private final int recordLength;
+
+    /**
+     * <p>Constructs a BinaryOrderRecordFormat</p>
+     * @param priceScale price scale of the prices of the records
+     * @param flags optional fields of the records, {@link #SYMBOL_ID} and {@link #TIMESTAMP} or 0
+     */
+    public BinaryOrderRecordFormat(int priceScale, int flags) {
+        if(priceScale < 0 || priceScale > 18) {
+            throw new IllegalArgumentException("Invalid Price Scale:" + priceScale);
+        }
+        if((flags & ~(SYMBOL_ID | TIMESTAMP)) != 0) {
+            throw new IllegalArgumentException("Invalid Binary Order Record Flags:" + flags);
+        }
+        this.priceScale = priceScale;
+        this.flags = flags;
+        this.recordLength = BASE_RECORD_LENGTH + (hasSymbolId() ? 4 : 0) + (hasTimestamp() ? 8 : 0);
+    }
+
+    /**
+     * <p>Returns the price scale of the prices of the records</p>
+     * @return price scale
+     */
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    /**
+     * <p>Returns the length of a record</p>
+     * @return record length in bytes
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * <p>Checks whether records have a symbol id</p>
+     * @return true if records have a symbol id
+     */
+    public boolean hasSymbolId() {
+        return (flags & SYMBOL_ID) != 0;
+    }
+
+    /**
+     * <p>Checks whether records have a timestamp</p>
+     * @return true if records have a timestamp
+     */
+    public boolean hasTimestamp() {
+        return (flags & TIMESTAMP) != 0;
+    }
+
+    /**
+     * <p>Writes the header at the position of the buffer</p>
+     * @param buffer little endian buffer with at least {@link #HEADER_LENGTH} remaining bytes
+     */
+    public void writeHeader(ByteBuffer buffer) {
+        checkOrder(buffer);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) recordLength);
+        buffer.putInt(priceScale);
+        buffer.putInt(flags);
+    }
+
+    /**
+     * <p>Reads and checks the header at the position of the buffer</p>
+     * @param buffer little endian buffer with at least {@link #HEADER_LENGTH} remaining bytes
+     * @return format of the records which follow the header
+     * @throws IllegalArgumentException when the header is not a header of this format
+     */
+    public static BinaryOrderRecordFormat readHeader(ByteBuffer buffer) {
+        checkOrder(buffer);
+        if(buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Invalid Binary Order Record Header");
+        }
+        short version = buffer.getShort();
+        if(version != VERSION) {
+            throw new IllegalArgumentException("Unsupported Binary Order Record Version:" + version);
+        }
+        short recordLength = buffer.getShort();
+        int priceScale = buffer.getInt();
+        int flags = buffer.getInt();
+        BinaryOrderRecordFormat format = new BinaryOrderRecordFormat(priceScale, flags);
+        if(format.getRecordLength() != recordLength) {
+            throw new IllegalArgumentException("Invalid Binary Order Record Length:" + recordLength);
+        }
+        return format;
+    }
+
+    /**
+     * <p>Writes a record at the position of the buffer</p>
+     * @param buffer little endian buffer with at least {@link #getRecordLength()} remaining bytes
+     * @param orderRecord record to write, the order id must be numeric
+     * @throws IllegalArgumentException when the order id is not numeric
+     */
+    public void writeRecord(ByteBuffer buffer, OrderRecord orderRecord) {
+        checkOrder(buffer);
+        long orderId = orderRecord.hasNumericOrderId() ? orderRecord.getNumericOrderId()
+                : toNumericOrderId(orderRecord.getOrderId());
+        if(orderId < 0) {
+            throw new IllegalArgumentException("Invalid Order Id:" + orderRecord.getOrderId());
+        }
+        buffer.put(toActionCode(orderRecord.getActionType()));
+        buffer.put(orderRecord.getSide() == OrderSide.BID ? BID : ASK);
+        buffer.putShort((short) 0);
+        buffer.putLong(orderId);
+        buffer.putLong(orderRecord.getQuantity());
+        buffer.putLong(orderRecord.getPrice());
+        if(hasSymbolId()) {
+            buffer.putInt(orderRecord.getSymbolId());
+        }
+        if(hasTimestamp()) {
+            buffer.putLong(orderRecord.getTimestamp());
+        }
+    }
+
+    /**
+     * <p>Reads the record at the position of the buffer, the position moves to the next record in any case</p>
+     * @param buffer little endian buffer with at least {@link #getRecordLength()} remaining bytes
+     * @param orderRecord record to fill, only filled when the record is valid. Symbol id and timestamp are 0 when
+     * the records of the format have none.
+     * @return ACCEPTED when the record is valid, the reason otherwise {@link OrderStatus}
+     */
+    public OrderStatus readRecord(ByteBuffer buffer, OrderRecord orderRecord) {
+        checkOrder(buffer);
+        int position = buffer.position();
+        buffer.position(position + recordLength);
+
+        OrderActionType actionType;
+        switch (buffer.get(position)) {
+            case ADD:
+                actionType = OrderActionType.ADD;
+                break;
+            case REMOVE:
+                actionType = OrderActionType.REMOVE;
+                break;
+            case MODIFY:
+                actionType = OrderActionType.MODIFY;
+                break;
+            default:
+                return OrderStatus.INVALID_ACTION_TYPE;
+        }
+        OrderSide side;
+        switch (buffer.get(position + 1)) {
+            case BID:
+                side = OrderSide.BID;
+                break;
+            case ASK:
+                side = OrderSide.ASK;
+                break;
+            default:
+                return OrderStatus.INVALID_SIDE;
+        }
+        long orderId = buffer.getLong(position + 4);
+        if(orderId < 0) {
+            return OrderStatus.INVALID_ORDER_ID;
+        }
+        long quantity = buffer.getLong(position + 12);
+        if(quantity < 0) {
+            return OrderStatus.INVALID_QUANTITY;
+        }
+        long price = buffer.getLong(position + 20);
+        if(price <= 0) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        orderRecord.set(actionType, orderId, side, quantity, price);
+
+        int optionalPosition = position + BASE_RECORD_LENGTH;
+        int symbolId = 0;
+        if(hasSymbolId()) {
+            symbolId = buffer.getInt(optionalPosition);
+            optionalPosition += 4;
+        }
+        orderRecord.setSymbolId(symbolId);
+        orderRecord.setTimestamp(hasTimestamp() ? buffer.getLong(optionalPosition) : 0);
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Converts an order id to the numeric order id of the format</p>
+     * @param orderId value of the order id
+     * @return numeric order id, -1 if the order id is not a number of up to 18 digits without leading zeros
+     */
+    public static long toNumericOrderId(String orderId) {
+        return Order.toNumericOrderId(orderId);
+    }
+
+    private static byte toActionCode(OrderActionType actionType) {
+        switch (actionType) {
+            case ADD:
+                return ADD;
+            case REMOVE:
+                return REMOVE;
+            case MODIFY:
+                return MODIFY;
+            default:
+                throw new IllegalArgumentException("Unexpected Order Action Type:" + actionType);
+        }
+    }
+
+    private static void checkOrder(ByteBuffer buffer) {
+        if(buffer.order() != ByteOrder.LITTLE_ENDIAN) {
+            throw new IllegalArgumentException("Binary order records are little endian");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.orderbook.util;
+
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderRecord;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads order records of the {@link BinaryOrderRecordFormat} from a {@link ByteBuffer}, such as a memory mapped
+ * binary file. Records are decoded straight into a reused {@link OrderRecord}, there is nothing to parse.
+ * Files larger than the chunk size are mapped one chunk at a time, a chunk always holds whole records.
+ * Not thread safe.
+ */
+public class BinaryOrderRecordReader implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    private final BinaryOrderRecordFormat format;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int chunkSize;
+    private ByteBuffer buffer;
+    // file position of the first byte of the mapped chunk
+    private long chunkStart;
+    private boolean closed;
+
+    /**
+     * <p>Constructs a BinaryOrderRecordReader which memory maps a binary file with the default chunk size</p>
+     * @param path value of the file path
+     * @throws FileNotFoundException when file is not found
+     * @throws IOException when the file can not be mapped
+     * @throws IllegalArgumentException when the file is not a binary order record file
+     */
+    public BinaryOrderRecordReader(String path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * <p>Constructs a BinaryOrderRecordReader which memory maps a binary file</p>
+     * @param path value of the file path
+     * @param chunkSize maximum number of bytes mapped at once, rounded down to whole records
+     * @throws FileNotFoundException when file is not found
+     * @throws IOException when the file can not be mapped
+     * @throws IllegalArgumentException when the file is not a binary order record file, when the chunk size is
+     * shorter than a record
+     */
+    public BinaryOrderRecordReader(String path, int chunkSize) throws IOException {
+        this.file = new RandomAccessFile(path, "r");
+        try {
+            this.channel = file.getChannel();
+            this.fileSize = channel.size();
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(BinaryOrderRecordFormat.HEADER_LENGTH, fileSize)).order(ByteOrder.LITTLE_ENDIAN);
+            this.format = BinaryOrderRecordFormat.readHeader(header);
+            int recordLength = format.getRecordLength();
+            if(chunkSize < recordLength) {
+                throw new IllegalArgumentException("Invalid Chunk Size:" + chunkSize);
+            }
+            this.chunkSize = chunkSize - chunkSize % recordLength;
+            mapChunk(BinaryOrderRecordFormat.HEADER_LENGTH);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Constructs a BinaryOrderRecordReader over the remaining bytes of a buffer, starting with the header</p>
+     * @param buffer buffer holding the header and the records, its byte order is set to little endian
+     * @throws IllegalArgumentException when the buffer does not start with a header of the format
+     */
+    public BinaryOrderRecordReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.format = BinaryOrderRecordFormat.readHeader(buffer);
+        this.file = null;
+        this.channel = null;
+        this.fileSize = 0;
+        this.chunkSize = 0;
+    }
+
+    /**
+     * <p>Returns the format of the records, as given by the header</p>
+     * @return format {@link BinaryOrderRecordFormat}
+     */
+    public BinaryOrderRecordFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * <p>Returns the price scale of the prices of the records</p>
+     * @return price scale
+     */
+    public int getPriceScale() {
+        return format.getPriceScale();
+    }
+
+    /**
+     * <p>Returns whether there is a record to read, mapping the next chunk when the current one is exhausted</p>
+     * @return true if a complete record remains
+     * @throws IllegalStateException when the reader is closed
+     */
+    public boolean hasNext() {
+        checkOpen();
+        if(buffer.remaining() >= format.getRecordLength()) {
+            return true;
+        }
+        if(channel == null || chunkStart + buffer.limit() >= fileSize) {
+            return false;
+        }
+        try {
+            mapChunk(chunkStart + buffer.position());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading file:" + e.getMessage(), e);
+        }
+        return buffer.remaining() >= format.getRecordLength();
+    }
+
+    /**
+     * <p>Reads the next record</p>
+     * @param orderRecord record to fill, only filled when the record is valid
+     * @return ACCEPTED when the record is valid, the reason otherwise {@link OrderStatus}
+     * @throws IllegalStateException when the reader is closed or there is no record to read
+     */
+    public OrderStatus next(OrderRecord orderRecord) {
+        if(!hasNext()) {
+            throw new IllegalStateException("No record to read");
+        }
+        return format.readRecord(buffer, orderRecord);
+    }
+
+    /**
+     * <p>Close all resources. A reader over a buffer has none.</p>
+     */
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        if(file == null) {
+            return;
+        }
+        try {
+            channel.close();
+            file.close();
+        } catch (IOException e) {
+            System.out.println("Resource closing failed:" + e);
+        }
+    }
+
+    private void mapChunk(long start) throws IOException {
+        long size = Math.max(0, Math.min(chunkSize, fileSize - start));
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size).order(ByteOrder.LITTLE_ENDIAN);
+        chunkStart = start;
+    }
+
+    private void checkOpen() {
+        if(closed) {
+            throw new IllegalStateException("Reader closed");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.orderbook.util;
+
+import com.orderbook.domain.OrderRecord;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes order records of the {@link BinaryOrderRecordFormat} to a file. Records are collected in a buffer and
+ * written when the buffer is full, on {@link #flush()} and on {@link #close()}. Not thread safe.
+ */
+public class BinaryOrderRecordWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileOutputStream outputStream;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final BinaryOrderRecordFormat format;
+    private long recordCount;
+
+    /**
+     * <p>Constructs a BinaryOrderRecordWriter for records without symbol id and timestamp</p>
+     * @param path value of the file path
+     * @param priceScale price scale of the prices of the records
+     * @throws IOException when the file can not be written
+     */
+    public BinaryOrderRecordWriter(String path, int priceScale) throws IOException {
+        this(path, new BinaryOrderRecordFormat(priceScale, 0));
+    }
+
+    /**
+     * <p>Constructs a BinaryOrderRecordWriter which creates or truncates a file and writes the header</p>
+     * @param path value of the file path
+     * @param format format of the records {@link BinaryOrderRecordFormat}
+     * @throws IOException when the file can not be written
+     */
+    public BinaryOrderRecordWriter(String path, BinaryOrderRecordFormat format) throws IOException {
+        this.outputStream = new FileOutputStream(path);
+        this.channel = outputStream.getChannel();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.format = format;
+        format.writeHeader(buffer);
+    }
+
+    /**
+     * <p>Writes a record</p>
+     * @param orderRecord record to write, prices must be scaled by the price scale of the file
+     * @throws IOException when the file can not be written
+     * @throws IllegalArgumentException when the order id of the record is not numeric
+     */
+    public void write(OrderRecord orderRecord) throws IOException {
+        if(buffer.remaining() < format.getRecordLength()) {
+            flush();
+        }
+        format.writeRecord(buffer, orderRecord);
+        recordCount++;
+    }
+
+    /**
+     * <p>Returns the number of records written</p>
+     * @return record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * <p>Writes the buffered records to the file</p>
+     * @throws IOException when the file can not be written
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * <p>Writes the buffered records and closes the file</p>
+     * @throws IOException when the file can not be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.orderbook.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LineView is a reusable view of a range of ASCII bytes in a {@link ByteBuffer}, such as a line of a data file.
+ * It does not copy the bytes, the content is only valid until the view is moved to another range.
+ */
+public class LineView implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    /**
+     * <p>Points the view to a range of a buffer</p>
+     * @param buffer buffer holding the bytes
+     * @param offset absolute index of the first byte
+     * @param length number of bytes
+     * @return this view
+     */
+    public LineView set(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * <p>Returns the buffer holding the bytes</p>
+     * @return buffer
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * <p>Returns the absolute index of the first byte in the buffer</p>
+     * @return offset
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * <p>Returns a byte of the view</p>
+     * @param index index in the view
+     * @return byte value
+     */
+    public byte byteAt(int index) {
+        if(index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index:" + index + ", Length:" + length);
+        }
+        return buffer.get(offset + index);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (byteAt(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if(start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range:" + start + "-" + end + ", Length:" + length);
+        }
+        return new LineView().set(buffer, offset + start, end - start);
+    }
+
+    /**
+     * <p>Returns the content as a new String</p>
+     * @return content of the view
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,179 @@
+package com.orderbook.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Represents a Data File Reader which memory maps the file and hands out lines as {@link LineView}s instead of
+ * Strings. Files larger than the chunk size are mapped one chunk at a time, a chunk always starts at a line start.
+ * Blank lines are skipped. The returned view is reused and is only valid until the next call of {@link #nextLine()}.
+ */
+public class MappedDataFileReader implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int chunkSize;
+    private final LineView line;
+    private MappedByteBuffer buffer;
+    // file position of the first byte of the mapped chunk
+    private long chunkStart;
+    private int position;
+    private boolean closed;
+
+    /**
+     * <p>Constructs a MappedDataFileReader for a given file with the default chunk size</p>
+     * @param path value of the file path
+     * @throws FileNotFoundException when file is not found
+     * @throws IOException when the file can not be mapped
+     */
+    public MappedDataFileReader(String path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * <p>Constructs a MappedDataFileReader for a given file</p>
+     * @param path value of the file path
+     * @param chunkSize maximum number of bytes mapped at once, must be larger than the longest line
+     * @throws FileNotFoundException when file is not found
+     * @throws IOException when the file can not be mapped
+     */
+    public MappedDataFileReader(String path, int chunkSize) throws IOException {
+        if(chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid Chunk Size:" + chunkSize);
+        }
+        this.file = new RandomAccessFile(path, "r");
+        this.channel = file.getChannel();
+        this.fileSize = channel.size();
+        this.chunkSize = chunkSize;
+        this.line = new LineView();
+        mapChunk(0);
+    }
+
+    /**
+     * <p>Returns whether the file has content which is readable</p>
+     * @return true if there is a line to be read in the file
+     * @throws IllegalStateException when the reader is closed
+     */
+    public boolean hasNext() {
+        checkOpen();
+        try {
+            return skipLineBreaks();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading file:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>Returns the next line of the file without its line break</p>
+     * @return view of the line, valid until the next call
+     * @throws IllegalStateException when the reader is closed or there is no line to read
+     */
+    public LineView nextLine() {
+        if(!hasNext()) {
+            throw new IllegalStateException("No line found");
+        }
+        try {
+            int lineEnd = findLineEnd();
+            if(lineEnd < 0) {
+                // the line continues in the next chunk, map from the start of the line
+                mapChunk(chunkStart + position);
+                lineEnd = findLineEnd();
+                if(lineEnd < 0) {
+                    throw new IllegalStateException("Line longer than chunk size at:" + chunkStart);
+                }
+            }
+            int lineStart = position;
+            position = lineEnd;
+            int length = lineEnd - lineStart;
+            if(length > 0 && buffer.get(lineEnd - 1) == CR) {
+                length--;
+            }
+            return line.set(buffer, lineStart, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading file:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p>Returns the position of the next line in the file</p>
+     * @return file position
+     */
+    public long getFilePosition() {
+        return chunkStart + position;
+    }
+
+    /**
+     * <p>Close all resources</p>
+     */
+    @Override
+    public void close() {
+        if(closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        try {
+            channel.close();
+            file.close();
+        } catch (IOException e) {
+            System.out.println("Resource closing failed:" + e);
+        }
+    }
+
+    /**
+     * <p>Moves the position over line breaks, mapping the next chunk when the current one is exhausted</p>
+     * @return true if a line starts at the position
+     */
+    private boolean skipLineBreaks() throws IOException {
+        while(true) {
+            int limit = buffer.limit();
+            while(position < limit) {
+                byte value = buffer.get(position);
+                if(value != LF && value != CR) {
+                    return true;
+                }
+                position++;
+            }
+            if(chunkStart + limit >= fileSize) {
+                return false;
+            }
+            mapChunk(chunkStart + limit);
+        }
+    }
+
+    /**
+     * <p>Returns the index of the line break which ends the line at the position</p>
+     * @return index of the line break, the end of the file for the last line, -1 if the line ends in a later chunk
+     */
+    private int findLineEnd() {
+        int limit = buffer.limit();
+        for (int i = position; i < limit; i++) {
+            if(buffer.get(i) == LF) {
+                return i;
+            }
+        }
+        return chunkStart + limit >= fileSize ? limit : -1;
+    }
+
+    private void mapChunk(long start) throws IOException {
+        long size = Math.min(chunkSize, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        chunkStart = start;
+        position = 0;
+    }
+
+    private void checkOpen() {
+        if(closed) {
+            throw new IllegalStateException("Reader closed");
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.orderbook.util;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Order;
+import com.orderbook.domain.OrderRecord;
+
+/**
+ * Parses order record lines of the format {@code <action>,<order id>,<side>,<quantity>,<price>} in a single scan.
+ * Quantity and price are decoded straight into longs, the price is scaled by the price scale of the instrument.
+ * Invalid records are reported with an {@link OrderStatus} instead of an exception. Apart from the order id
+ * String nothing is allocated per record, and a record parsed for a book with numeric order ids has its id decoded
+ * straight into a long, so nothing is allocated at all. Not thread safe.
+ */
+public class OrderRecordParser {
+
+    private static final char SEPARATOR = ',';
+    private static final char DECIMAL_POINT = '.';
+
+    private char[] orderIdBuffer = new char[32];
+    // value of the last decoded quantity or price
+    private long decodedValue;
+
+    /**
+     * <p>Parses an order record line with a text order id</p>
+     * @param line record line without line break
+     * @param priceScale number of decimal places kept in a scaled price
+     * @param orderRecord record to fill, only filled when the line is valid
+     * @return ACCEPTED when the line is valid, the reason otherwise {@link OrderStatus}
+     */
+    public OrderStatus parse(CharSequence line, int priceScale, OrderRecord orderRecord) {
+        return parse(line, priceScale, false, orderRecord);
+    }
+
+    /**
+     * <p>Parses an order record line</p>
+     * @param line record line without line break
+     * @param priceScale number of decimal places kept in a scaled price
+     * @param numericOrderIds true to decode the order id into the numeric id of the record, for a book with numeric
+     * order ids. An id which is not a number of up to 18 digits without leading zeros is then INVALID_ORDER_ID,
+     * reported once the other fields are valid, like the book reports it.
+     * @param orderRecord record to fill, only filled when the line is valid
+     * @return ACCEPTED when the line is valid, the reason otherwise {@link OrderStatus}
+     */
+    public OrderStatus parse(CharSequence line, int priceScale, boolean numericOrderIds, OrderRecord orderRecord) {
+        int length = line.length();
+        int position = 0;
+
+        // action type
+        if(length < 2) {
+            return OrderStatus.INVALID_RECORD;
+        }
+        OrderActionType actionType;
+        switch (line.charAt(position)) {
+            case 'A':
+                actionType = OrderActionType.ADD;
+                break;
+            case 'X':
+                actionType = OrderActionType.REMOVE;
+                break;
+            case 'M':
+                actionType = OrderActionType.MODIFY;
+                break;
+            default:
+                return OrderStatus.INVALID_ACTION_TYPE;
+        }
+        if(line.charAt(position + 1) != SEPARATOR) {
+            return OrderStatus.INVALID_ACTION_TYPE;
+        }
+        position += 2;
+
+        // order id, copied as it is or decoded into a long
+        int orderIdLength = 0;
+        boolean blankOrderId = true;
+        long numericOrderId = 0;
+        while(position < length && line.charAt(position) != SEPARATOR) {
+            char value = line.charAt(position++);
+            blankOrderId &= value <= ' ';
+            if(numericOrderIds) {
+                numericOrderId = decodeOrderIdDigit(numericOrderId, orderIdLength++, value);
+                continue;
+            }
+            if(orderIdLength == orderIdBuffer.length) {
+                char[] buffer = new char[orderIdLength * 2];
+                System.arraycopy(orderIdBuffer, 0, buffer, 0, orderIdLength);
+                orderIdBuffer = buffer;
+            }
+            orderIdBuffer[orderIdLength++] = value;
+        }
+        if(position >= length) {
+            return OrderStatus.INVALID_RECORD;
+        }
+        if(blankOrderId) {
+            return OrderStatus.INVALID_ORDER_ID;
+        }
+        position++;
+
+        // side
+        if(position + 1 >= length) {
+            return OrderStatus.INVALID_RECORD;
+        }
+        OrderSide side;
+        switch (line.charAt(position)) {
+            case 'B':
+                side = OrderSide.BID;
+                break;
+            case 'S':
+                side = OrderSide.ASK;
+                break;
+            default:
+                return OrderStatus.INVALID_SIDE;
+        }
+        if(line.charAt(position + 1) != SEPARATOR) {
+            return OrderStatus.INVALID_SIDE;
+        }
+        position += 2;
+
+        // quantity
+        position = decodeQuantity(line, position);
+        if(position < 0) {
+            return OrderStatus.INVALID_QUANTITY;
+        }
+        if(position >= length) {
+            return OrderStatus.INVALID_RECORD;
+        }
+        long quantity = decodedValue;
+        position++;
+
+        // price, the last field
+        position = decodePrice(line, position, priceScale);
+        if(position < 0 || decodedValue <= 0) {
+            return OrderStatus.INVALID_PRICE;
+        }
+        if(position != length) {
+            return OrderStatus.INVALID_RECORD;
+        }
+
+        if(!numericOrderIds) {
+            orderRecord.set(actionType, new String(orderIdBuffer, 0, orderIdLength), side, quantity, decodedValue);
+        } else if(numericOrderId != Order.NO_NUMERIC_ORDER_ID) {
+            orderRecord.set(actionType, numericOrderId, side, quantity, decodedValue);
+        } else {
+            return OrderStatus.INVALID_ORDER_ID;
+        }
+        return OrderStatus.ACCEPTED;
+    }
+
+    /**
+     * <p>Adds a character of an order id to its numeric value, with the rules of {@link Order#toNumericOrderId}</p>
+     * @param value numeric value of the previous characters, NO_NUMERIC_ORDER_ID once they are not a valid id
+     * @param index index of the character in the id
+     * @param character character of the id
+     * @return numeric value, NO_NUMERIC_ORDER_ID if the id is not valid
+     */
+    private static long decodeOrderIdDigit(long value, int index, char character) {
+        int digit = character - '0';
+        if(value == Order.NO_NUMERIC_ORDER_ID || digit < 0 || digit > 9 || index >= 18
+                || (index == 1 && value == 0)) {
+            return Order.NO_NUMERIC_ORDER_ID;
+        }
+        return value * 10 + digit;
+    }
+
+    /**
+     * <p>Parses a quantity text of digits</p>
+     * @param text quantity text
+     * @return quantity, -1 if the text is not a valid quantity
+     */
+    public long parseQuantity(CharSequence text) {
+        int end = decodeQuantity(text, 0);
+        return end == text.length() ? decodedValue : -1;
+    }
+
+    /**
+     * <p>Parses a decimal price text into a scaled price</p>
+     * @param text price text
+     * @param priceScale number of decimal places kept in a scaled price
+     * @return scaled price, -1 if the text is not a valid price or has more significant decimals than the scale
+     */
+    public long parsePrice(CharSequence text, int priceScale) {
+        int end = decodePrice(text, 0, priceScale);
+        return end == text.length() ? decodedValue : -1;
+    }
+
+    /**
+     * <p>Decodes the digits of a quantity field into {@link #decodedValue}</p>
+     * @param text text holding the field
+     * @param position index of the first character of the field
+     * @return index of the separator or end after the field, -1 if the field is not valid
+     */
+    private int decodeQuantity(CharSequence text, int position) {
+        int length = text.length();
+        int start = position;
+        long value = 0;
+        while(position < length) {
+            char character = text.charAt(position);
+            if(character == SEPARATOR) {
+                break;
+            }
+            int digit = character - '0';
+            if(digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        if(position == start) {
+            return -1;
+        }
+        decodedValue = value;
+        return position;
+    }
+
+    /**
+     * <p>Decodes a price field of the form {@code [0-9]+(.[0-9]*)?} into a scaled price in {@link #decodedValue}</p>
+     * @param text text holding the field
+     * @param position index of the first character of the field
+     * @param priceScale number of decimal places kept in a scaled price
+     * @return index of the separator or end after the field, -1 if the field is not valid
+     */
+    private int decodePrice(CharSequence text, int position, int priceScale) {
+        int length = text.length();
+        int integerDigits = 0;
+        int decimals = 0;
+        boolean decimalPoint = false;
+        long value = 0;
+        while(position < length) {
+            char character = text.charAt(position);
+            if(character == SEPARATOR) {
+                break;
+            }
+            if(character == DECIMAL_POINT) {
+                if(decimalPoint || integerDigits == 0) {
+                    return -1;
+                }
+                decimalPoint = true;
+                position++;
+                continue;
+            }
+            int digit = character - '0';
+            if(digit < 0 || digit > 9) {
+                return -1;
+            }
+            if(!decimalPoint) {
+                integerDigits++;
+            } else if(decimals < priceScale) {
+                decimals++;
+            } else if(digit == 0) {
+                // trailing zeros beyond the scale do not change the price
+                position++;
+                continue;
+            } else {
+                return -1;
+            }
+            if(value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+            position++;
+        }
+        if(integerDigits == 0) {
+            return -1;
+        }
+        for (int i = decimals; i < priceScale; i++) {
+            if(value > Long.MAX_VALUE / 10) {
+                return -1;
+            }
+            value *= 10;
+        }
+        decodedValue = value;
+        return position;
+    }
+}
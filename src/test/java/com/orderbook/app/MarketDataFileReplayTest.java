@@ -0,0 +1,59 @@
+package com.orderbook.app;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketDataFileReplayTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRejectsShouldBeReportedWithTheMessageOfTheirException() throws IOException {
+        Path dataFile = tempDir.resolve("MarketDataFile-XYZ.csv");
+        Files.write(dataFile, ("A,100000,S,1,1075\n"
+                + "A,100000,B,3,1050\n"
+                + "X,100008,B,3,1050\n"
+                + "M,100009,B,3,1050\n"
+                + "A,100001,Q,3,1050\n").getBytes(StandardCharsets.US_ASCII));
+        List<String> messages = new ArrayList<>();
+        MarketDataFileReplay replay = new MarketDataFileReplay(dataFile.toString(), new OrderProcessor(),
+                new MarketDataFileReplay.ReplayListener() {
+                    @Override
+                    public void onAccepted(OrderBook orderBook) {
+                    }
+
+                    @Override
+                    public void onInvalidRecord(CharSequence record, OrderStatus orderStatus) {
+                        messages.add(record + " " + orderStatus);
+                    }
+
+                    @Override
+                    public void onRejected(CharSequence record, OrderActionType orderActionType, String orderId,
+                                           OrderStatus orderStatus) {
+                        messages.add(OrderException.message(orderStatus, orderActionType, orderId));
+                    }
+                }).run();
+
+        assertEquals(1, replay.getAcceptedCount());
+        assertEquals(4, replay.getRejectedCount());
+        assertEquals("Duplicate Order:100000", messages.get(0));
+        assertEquals("Remove fail.Not found, Order:100008", messages.get(1));
+        assertEquals("Modify fail.Not found, Order:100009", messages.get(2));
+        assertEquals("A,100001,Q,3,1050 INVALID_SIDE", messages.get(3));
+    }
+}
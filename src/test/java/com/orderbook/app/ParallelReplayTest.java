@@ -0,0 +1,89 @@
+package com.orderbook.app;
+
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelReplayTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testDirectoryAndGlobShouldFindTheMarketDataFiles() throws IOException {
+        writeFile("MarketDataFile-BBB.csv", 10);
+        writeFile("MarketDataFile-AAA.csv", 10);
+        writeFile("MarketDataFile-CCC.bin", 0);
+        writeFile("notes.txt", 0);
+
+        assertTrue(ParallelReplay.isMultiFilePath(tempDir.toString()));
+        assertTrue(ParallelReplay.isMultiFilePath(tempDir.resolve("*.csv").toString()));
+        assertFalse(ParallelReplay.isMultiFilePath(tempDir.resolve("MarketDataFile-AAA.csv").toString()));
+
+        List<String> dataFiles = ParallelReplay.findDataFiles(tempDir.toString());
+        assertEquals(3, dataFiles.size());
+        assertTrue(dataFiles.get(0).endsWith("MarketDataFile-AAA.csv"));
+        assertTrue(dataFiles.get(2).endsWith("MarketDataFile-CCC.bin"));
+        assertEquals(2, ParallelReplay.findDataFiles(tempDir.resolve("*.csv").toString()).size());
+
+        writeFile("MarketDataFile-AAA.bin", 0);
+        assertThrows(IllegalArgumentException.class, () -> ParallelReplay.findDataFiles(tempDir.toString()));
+    }
+
+    @Test
+    void testParallelReplayShouldMatchSerialReplay() throws IOException, InterruptedException {
+        List<String> dataFiles = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            dataFiles.add(writeFile("MarketDataFile-S" + i + ".csv", 2000 + i * 100));
+        }
+        for (ParallelReplay parallelReplay : new ParallelReplay[]{new ParallelReplay(), new ParallelReplay(3)}) {
+            List<MarketDataFileReplay> replays = parallelReplay.run(dataFiles);
+            assertEquals(dataFiles.size(), replays.size());
+            for (int i = 0; i < dataFiles.size(); i++) {
+                MarketDataFileReplay replay = replays.get(i);
+                MarketDataFileReplay serialReplay = new MarketDataFileReplay(dataFiles.get(i), new OrderProcessor(),
+                        null).run();
+                assertEquals("S" + i, replay.getSymbol());
+                assertNull(replay.getFailure());
+                assertEquals(serialReplay.getAcceptedCount(), replay.getAcceptedCount());
+                assertEquals(serialReplay.getRejectedCount(), replay.getRejectedCount());
+                assertEquals(serialReplay.getOrderBook().toString(), replay.getOrderBook().toString());
+            }
+        }
+    }
+
+    @Test
+    void testSymbolShouldComeFromTheFileName() {
+        assertEquals("XYZ", MarketDataFileReplay.getSymbol("data/MarketDataFile-XYZ.csv"));
+        assertEquals("XYZ", MarketDataFileReplay.getSymbol("data-1/Market-Data-XYZ.bin"));
+        assertNull(MarketDataFileReplay.getSymbol("data/MarketDataFile-.csv"));
+        assertNull(MarketDataFileReplay.getSymbol("data/MarketDataFile.csv"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MarketDataFileReplay("MarketDataFile.csv", new OrderProcessor(), null));
+    }
+
+    private String writeFile(String fileName, int recordCount) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < recordCount; i++) {
+            if(i % 5 == 4) {
+                text.append("X,").append(i - 2).append(",B,0,0\n");
+            } else {
+                char side = i % 2 == 0 ? 'B' : 'S';
+                text.append("A,").append(i).append(',').append(side).append(',').append(1 + i % 9).append(',')
+                        .append(side == 'B' ? 100 - i % 7 : 98 + i % 11).append('\n');
+            }
+        }
+        Path path = tempDir.resolve(fileName);
+        Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+        return path.toString();
+    }
+}
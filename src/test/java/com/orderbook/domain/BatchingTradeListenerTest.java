@@ -0,0 +1,130 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingTradeListenerTest {
+
+    private static void add(OrderBook orderBook, String orderId, long price, long quantity, OrderSide side)
+            throws OrderException {
+        orderBook.executeOrder(orderBook.newOrder(orderId, price, quantity, side), OrderActionType.ADD);
+    }
+
+    @Test
+    void testTradeListenerShouldReceiveEveryFill() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1));
+        List<String> trades = new ArrayList<>();
+        orderBook.setTradeListener(new TradeListener() {
+            @Override
+            public void onTrade(String symbol, long sequenceNumber, String aggressorOrderId, String restingOrderId,
+                                long price, long quantity, OrderSide aggressorSide) {
+                trades.add(symbol + " " + sequenceNumber + " " + aggressorOrderId + " " + restingOrderId + " "
+                        + price + " " + quantity + " " + aggressorSide);
+            }
+
+            @Override
+            public void onExecutionEnd(String symbol, String aggressorOrderId) {
+                trades.add("end " + aggressorOrderId);
+            }
+        });
+
+        add(orderBook, "1", 100, 10, OrderSide.ASK);
+        add(orderBook, "2", 100, 5, OrderSide.ASK);
+        add(orderBook, "3", 101, 20, OrderSide.ASK);
+        assertTrue(trades.isEmpty());
+
+        add(orderBook, "4", 101, 18, OrderSide.BID);
+        add(orderBook, "5", 99, 5, OrderSide.BID);
+        add(orderBook, "6", 99, 30, OrderSide.ASK);
+
+        assertEquals("XYZ 1 4 1 100 10 BID", trades.get(0));
+        assertEquals("XYZ 2 4 2 100 5 BID", trades.get(1));
+        assertEquals("XYZ 3 4 3 101 3 BID", trades.get(2));
+        assertEquals("end 4", trades.get(3));
+        assertEquals("XYZ 4 6 5 99 5 ASK", trades.get(4));
+        assertEquals("end 6", trades.get(5));
+        assertEquals(6, trades.size());
+        assertEquals(4, orderBook.getTradeSequenceNumber());
+    }
+
+    @Test
+    void testBatchShouldHoldTheFillsOfOneOrder() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1));
+        List<String> batches = new ArrayList<>();
+        orderBook.setTradeListener(new BatchingTradeListener(tradeBatch -> {
+            StringBuilder batch = new StringBuilder(tradeBatch.getSymbol() + " " + tradeBatch.getAggressorOrderId()
+                    + " " + tradeBatch.getAggressorSide() + " " + tradeBatch.getTotalQuantity());
+            for (int i = 0; i < tradeBatch.size(); i++) {
+                batch.append(" ").append(tradeBatch.getSequenceNumber(i)).append(":")
+                        .append(tradeBatch.getRestingOrderId(i)).append("@").append(tradeBatch.getPrice(i))
+                        .append("x").append(tradeBatch.getQuantity(i));
+            }
+            batches.add(batch.toString());
+        }, 1));
+
+        for (int i = 0; i < 5; i++) {
+            add(orderBook, "S" + i, 100 + i, 10, OrderSide.ASK);
+        }
+        add(orderBook, "B1", 103, 35, OrderSide.BID);
+        add(orderBook, "B2", 90, 35, OrderSide.BID);
+        add(orderBook, "S9", 90, 50, OrderSide.ASK);
+
+        assertEquals(2, batches.size());
+        assertEquals("XYZ B1 BID 35 1:S0@100x10 2:S1@101x10 3:S2@102x10 4:S3@103x5", batches.get(0));
+        assertEquals("XYZ S9 ASK 35 5:B2@90x35", batches.get(1));
+    }
+
+    @Test
+    void testFillsOfNumericOrderIdsShouldKeepTheIdsAsLongs() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1, 1, 1000), true, true);
+        List<String> batches = new ArrayList<>();
+        orderBook.setTradeListener(new BatchingTradeListener(tradeBatch -> {
+            StringBuilder batch = new StringBuilder(tradeBatch.getNumericAggressorOrderId() + " "
+                    + tradeBatch.getAggressorOrderId());
+            for (int i = 0; i < tradeBatch.size(); i++) {
+                batch.append(" ").append(tradeBatch.getNumericRestingOrderId(i)).append(":")
+                        .append(tradeBatch.getRestingOrderId(i)).append("x").append(tradeBatch.getQuantity(i));
+            }
+            batches.add(batch.toString());
+        }));
+
+        orderBook.executeOrder(orderBook.newOrder(1, 100, 10, OrderSide.ASK), OrderActionType.ADD);
+        orderBook.executeOrder(orderBook.newOrder(2, 101, 10, OrderSide.ASK), OrderActionType.ADD);
+        orderBook.executeOrder(orderBook.newOrder(3, 101, 15, OrderSide.BID), OrderActionType.ADD);
+
+        assertEquals(1, batches.size());
+        assertEquals("3 3 1:1x10 2:2x5", batches.get(0));
+    }
+
+    @Test
+    void testNumericFillsShouldReachATextListenerWithTheTextOfTheIds() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1), true);
+        List<String> trades = new ArrayList<>();
+        orderBook.setTradeListener((symbol, sequenceNumber, aggressorOrderId, restingOrderId, price, quantity,
+                                    aggressorSide) -> trades.add(aggressorOrderId + " " + restingOrderId));
+
+        orderBook.executeOrder(orderBook.newOrder(7, 100, 10, OrderSide.ASK), OrderActionType.ADD);
+        orderBook.executeOrder(orderBook.newOrder(8, 100, 10, OrderSide.BID), OrderActionType.ADD);
+
+        assertEquals(1, trades.size());
+        assertEquals("8 7", trades.get(0));
+    }
+
+    @Test
+    void testTradeBatchIndexShouldBeChecked() {
+        TradeBatch tradeBatch = new TradeBatch(2);
+        tradeBatch.add("XYZ", 1, "1", "2", 100, 10, OrderSide.BID);
+        assertEquals(1, tradeBatch.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> tradeBatch.getPrice(1));
+        tradeBatch.clear();
+        assertEquals(0, tradeBatch.size());
+        assertThrows(IllegalArgumentException.class, () -> new TradeBatch(0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.DepthUpdateType;
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingDepthPublisherTest {
+
+    /**
+     * Depth of one book rebuilt from depth updates, checks that every update type is consistent with the depth
+     */
+    private static class Depth implements DepthListener {
+        private final Map<String, long[]> levels = new HashMap<>();
+        private final List<String> updates = new ArrayList<>();
+
+        @Override
+        public void onDepthUpdate(String symbol, OrderSide side, DepthUpdateType updateType, long price,
+                                  long totalQuantity, int orderCount) {
+            String key = side + " " + price;
+            updates.add(key + " " + updateType + " " + totalQuantity + " " + orderCount);
+            switch (updateType) {
+                case ADD:
+                    assertFalse(levels.containsKey(key), key);
+                    assertTrue(orderCount > 0);
+                    levels.put(key, new long[]{totalQuantity, orderCount});
+                    break;
+                case UPDATE:
+                    assertTrue(levels.containsKey(key), key);
+                    assertTrue(orderCount > 0);
+                    levels.put(key, new long[]{totalQuantity, orderCount});
+                    break;
+                case REMOVE:
+                    assertNotNull(levels.remove(key), key);
+                    assertEquals(0, orderCount);
+                    break;
+            }
+        }
+
+        void assertSameAs(OrderBook orderBook) {
+            int levelCount = 0;
+            for (BookSide bookSide : new BookSide[]{orderBook.getBuyOrders(), orderBook.getSellOrders()}) {
+                for (PriceLevel level = bookSide.best(); level != null; level = bookSide.nextWorse(level)) {
+                    long[] depthLevel = levels.get(bookSide.getSide() + " " + level.getPrice());
+                    assertNotNull(depthLevel);
+                    assertEquals(level.getTotalQuantity(), depthLevel[0]);
+                    assertEquals(level.size(), depthLevel[1]);
+                    levelCount++;
+                }
+            }
+            assertEquals(levelCount, levels.size());
+        }
+    }
+
+    private static void add(OrderBook orderBook, String orderId, long price, long quantity, OrderSide side)
+            throws OrderException {
+        orderBook.executeOrder(orderBook.newOrder(orderId, price, quantity, side), OrderActionType.ADD);
+    }
+
+    @Test
+    void testBookShouldEmitOneUpdatePerChangedLevel() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1));
+        Depth depth = new Depth();
+        orderBook.setDepthListener(depth);
+
+        add(orderBook, "1", 100, 10, OrderSide.ASK);
+        add(orderBook, "2", 100, 5, OrderSide.ASK);
+        add(orderBook, "3", 101, 20, OrderSide.ASK);
+        add(orderBook, "4", 101, 18, OrderSide.BID);
+        orderBook.removeOrder("3");
+
+        assertEquals("ASK 100 ADD 10 1", depth.updates.get(0));
+        assertEquals("ASK 100 UPDATE 15 2", depth.updates.get(1));
+        assertEquals("ASK 101 ADD 20 1", depth.updates.get(2));
+        assertEquals("ASK 100 REMOVE 0 0", depth.updates.get(3));
+        assertEquals("ASK 101 UPDATE 17 1", depth.updates.get(4));
+        assertEquals("ASK 101 REMOVE 0 0", depth.updates.get(5));
+        assertEquals(6, depth.updates.size());
+    }
+
+    @Test
+    void testCoalescedUpdatesShouldRebuildTheBook() throws OrderException {
+        for (Instrument instrument : new Instrument[]{new Instrument("XYZ", 0, 1),
+                new Instrument("XYZ", 0, 1, 1, 200)}) {
+            OrderBook orderBook = new OrderBook(instrument);
+            Depth directDepth = new Depth();
+            Depth coalescedDepth = new Depth();
+            CoalescingDepthPublisher publisher = new CoalescingDepthPublisher(coalescedDepth, 1);
+            orderBook.setDepthListener((symbol, side, updateType, price, totalQuantity, orderCount) -> {
+                directDepth.onDepthUpdate(symbol, side, updateType, price, totalQuantity, orderCount);
+                publisher.onDepthUpdate(symbol, side, updateType, price, totalQuantity, orderCount);
+            });
+
+            Random random = new Random(3);
+            for (int i = 0; i < 20000; i++) {
+                String orderId = String.valueOf(random.nextInt(300));
+                if(orderBook.getOrder(orderId) != null) {
+                    orderBook.removeOrder(orderId);
+                } else {
+                    add(orderBook, orderId, 90 + random.nextInt(20), 1 + random.nextInt(30),
+                            random.nextBoolean() ? OrderSide.BID : OrderSide.ASK);
+                }
+                // batches of 1 to 50 records
+                if(random.nextInt(50) == 0) {
+                    int updateCount = directDepth.updates.size();
+                    publisher.flush();
+                    coalescedDepth.assertSameAs(orderBook);
+                    assertTrue(coalescedDepth.updates.size() <= updateCount);
+                    assertEquals(0, publisher.getPendingCount());
+                }
+                directDepth.assertSameAs(orderBook);
+            }
+            assertTrue(coalescedDepth.updates.size() < directDepth.updates.size());
+        }
+    }
+
+    @Test
+    void testLevelAddedAndRemovedInBatchShouldNotBePublished() {
+        List<String> updates = new ArrayList<>();
+        CoalescingDepthPublisher publisher = new CoalescingDepthPublisher(
+                (symbol, side, updateType, price, totalQuantity, orderCount) ->
+                        updates.add(symbol + " " + side + " " + price + " " + updateType + " " + totalQuantity));
+
+        publisher.onDepthUpdate("XYZ", OrderSide.BID, DepthUpdateType.ADD, 100, 10, 1);
+        publisher.onDepthUpdate("XYZ", OrderSide.BID, DepthUpdateType.REMOVE, 100, 0, 0);
+        publisher.onDepthUpdate("XYZ", OrderSide.ASK, DepthUpdateType.REMOVE, 101, 0, 0);
+        publisher.onDepthUpdate("XYZ", OrderSide.ASK, DepthUpdateType.ADD, 101, 7, 1);
+        publisher.onDepthUpdate("ABC", OrderSide.ASK, DepthUpdateType.UPDATE, 101, 3, 1);
+        publisher.onDepthUpdate("ABC", OrderSide.ASK, DepthUpdateType.REMOVE, 101, 0, 0);
+        assertEquals(3, publisher.getPendingCount());
+        publisher.flush();
+
+        assertEquals(2, updates.size());
+        assertEquals("XYZ ASK 101 UPDATE 7", updates.get(0));
+        assertEquals("ABC ASK 101 REMOVE 0", updates.get(1));
+    }
+}
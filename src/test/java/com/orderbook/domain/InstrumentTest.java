@@ -0,0 +1,56 @@
+package com.orderbook.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentTest {
+
+    @Test
+    void testCreateInstrumentShouldThrowIllegalArgumentExceptionWhenSymbolIsNullOrEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new Instrument(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            new Instrument("  ");
+        });
+    }
+
+    @Test
+    void testCreateInstrumentShouldThrowIllegalArgumentExceptionWhenTickSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new Instrument("XYZ", 2, 0);
+        });
+    }
+
+    @Test
+    void testToScaledPrice() {
+        Instrument instrument = new Instrument("XYZ", 2, 5);
+        assertEquals(107500, instrument.toScaledPrice(new BigDecimal("1075")));
+        assertEquals(1005, instrument.toScaledPrice(new BigDecimal("10.05")));
+        assertEquals(1000, instrument.toScaledPrice(new BigDecimal("10.000")));
+    }
+
+    @Test
+    void testToScaledPriceShouldThrowIllegalArgumentExceptionWhenPriceIsNotRepresentable() {
+        Instrument instrument = new Instrument("XYZ", 2, 5);
+        assertThrows(IllegalArgumentException.class, () -> {
+            instrument.toScaledPrice(new BigDecimal("10.001"));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            instrument.toScaledPrice(new BigDecimal("10.01"));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            instrument.toScaledPrice(BigDecimal.ZERO);
+        });
+    }
+
+    @Test
+    void testToDecimalPrice() {
+        Instrument instrument = new Instrument("XYZ", 4, 1);
+        assertEquals(new BigDecimal("1075"), instrument.toDecimalPrice(10750000));
+        assertEquals(new BigDecimal("10.45"), instrument.toDecimalPrice(104500));
+    }
+}
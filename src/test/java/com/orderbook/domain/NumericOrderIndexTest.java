@@ -0,0 +1,59 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericOrderIndexTest {
+
+    @Test
+    void testPutGetRemove() {
+        NumericOrderIndex orderIndex = new NumericOrderIndex();
+        Order order = new Order(100000, 100, 10, OrderSide.BID);
+        orderIndex.put(order);
+
+        assertSame(order, orderIndex.get(100000));
+        assertTrue(orderIndex.containsKey(100000));
+        assertFalse(orderIndex.containsKey(100001));
+        assertNull(orderIndex.get(Order.NO_NUMERIC_ORDER_ID));
+        assertThrows(IllegalArgumentException.class, () -> orderIndex.put(new Order("A1", 100, 10, OrderSide.BID)));
+        assertSame(order, orderIndex.remove(100000));
+        assertNull(orderIndex.remove(100000));
+        assertTrue(orderIndex.isEmpty());
+    }
+
+    @Test
+    void testIndexShouldAgreeWithHashMapAfterRandomPutsAndRemoves() {
+        // a small table keeps probe sequences long and wrapping around, which exercises the backward shift
+        NumericOrderIndex orderIndex = new NumericOrderIndex(8);
+        Map<Long, Order> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            long orderId = random.nextInt(500) * 1024L;
+            if(random.nextBoolean()) {
+                Order order = new Order(orderId, 100, 10, OrderSide.BID);
+                orderIndex.put(order);
+                expected.put(orderId, order);
+            } else {
+                assertSame(expected.remove(orderId), orderIndex.remove(orderId));
+            }
+        }
+
+        assertEquals(expected.size(), orderIndex.size());
+        for (Map.Entry<Long, Order> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), orderIndex.get(entry.getKey()));
+        }
+        int[] count = new int[1];
+        orderIndex.forEach(order -> count[0]++);
+        assertEquals(expected.size(), count[0]);
+        orderIndex.clear();
+        assertTrue(orderIndex.isEmpty());
+        assertFalse(orderIndex.containsKey(0));
+    }
+}
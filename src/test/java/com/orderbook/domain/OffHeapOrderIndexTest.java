@@ -0,0 +1,53 @@
+package com.orderbook.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrderIndexTest {
+
+    @Test
+    void testPutGetAndRemoveShouldMapIdsToSlots() {
+        OffHeapOrderIndex orderIndex = new OffHeapOrderIndex(8);
+        orderIndex.put(100000, 3);
+        orderIndex.put(7, 0);
+
+        assertEquals(3, orderIndex.get(100000));
+        assertEquals(0, orderIndex.get(7));
+        assertTrue(orderIndex.containsKey(7));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderIndex.get(8));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderIndex.get(-1));
+        orderIndex.put(7, 5);
+        assertEquals(5, orderIndex.get(7));
+        assertEquals(2, orderIndex.size());
+
+        assertEquals(5, orderIndex.remove(7));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderIndex.remove(7));
+        assertEquals(1, orderIndex.size());
+        assertThrows(IllegalArgumentException.class, () -> orderIndex.put(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> orderIndex.put(1, OffHeapOrderStore.NO_SLOT));
+    }
+
+    @Test
+    void testRemovalShouldKeepProbeSequencesWhileGrowing() {
+        OffHeapOrderIndex orderIndex = new OffHeapOrderIndex(8);
+        for (int i = 0; i < 5000; i++) {
+            orderIndex.put(i, i);
+        }
+        assertEquals(16384, orderIndex.capacity());
+        assertEquals(16384L * 12, orderIndex.getOffHeapBytes());
+        for (int i = 0; i < 5000; i += 2) {
+            assertEquals(i, orderIndex.remove(i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? OffHeapOrderStore.NO_SLOT : i, orderIndex.get(i));
+        }
+        assertEquals(2500, orderIndex.size());
+
+        orderIndex.clear();
+        assertTrue(orderIndex.isEmpty());
+        assertFalse(orderIndex.containsKey(1));
+        orderIndex.ensureCapacity(20000);
+        assertEquals(65536, orderIndex.capacity());
+    }
+}
@@ -0,0 +1,121 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrderStoreTest {
+
+    @Test
+    void testAllocateShouldStoreTheValuesOfTheOrder() {
+        OffHeapOrderStore orderStore = new OffHeapOrderStore(8);
+        int slot = orderStore.allocate(100000, 101, 10, OrderSide.ASK);
+
+        assertEquals(100000, orderStore.getOrderId(slot));
+        assertEquals(101, orderStore.getPrice(slot));
+        assertEquals(10, orderStore.getQuantity(slot));
+        assertEquals(OrderSide.ASK, orderStore.getSide(slot));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderStore.getPrev(slot));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderStore.getNext(slot));
+        orderStore.setQuantity(slot, 4);
+        orderStore.setPrice(slot, 99);
+        assertEquals(4, orderStore.getQuantity(slot));
+        assertEquals(99, orderStore.getPrice(slot));
+        assertThrows(IllegalArgumentException.class, () -> orderStore.allocate(1, 0, 10, OrderSide.BID));
+        assertThrows(IllegalArgumentException.class, () -> orderStore.allocate(1, 100, 10, null));
+        assertThrows(IllegalArgumentException.class, () -> orderStore.setQuantity(slot, -1));
+    }
+
+    @Test
+    void testFreedSlotsShouldBeReusedBeforeAddingSlabs() {
+        OffHeapOrderStore orderStore = new OffHeapOrderStore(8);
+        int[] slots = new int[20];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = orderStore.allocate(i, 100, 1, OrderSide.BID);
+        }
+        assertEquals(20, orderStore.size());
+        assertEquals(24, orderStore.capacity());
+        assertEquals(24 * OffHeapOrderStore.SLOT_SIZE, orderStore.getOffHeapBytes());
+
+        orderStore.free(slots[3]);
+        orderStore.free(slots[17]);
+        assertFalse(orderStore.isUsed(slots[3]));
+        assertThrows(IllegalStateException.class, () -> orderStore.getSide(slots[3]));
+        assertThrows(IllegalStateException.class, () -> orderStore.free(slots[3]));
+        assertEquals(slots[17], orderStore.allocate(100, 100, 1, OrderSide.ASK));
+        assertEquals(slots[3], orderStore.allocate(101, 100, 1, OrderSide.ASK));
+        assertEquals(20, orderStore.allocate(102, 100, 1, OrderSide.ASK));
+        assertEquals(24, orderStore.capacity());
+
+        orderStore.clear();
+        assertEquals(0, orderStore.size());
+        assertEquals(0, orderStore.allocate(1, 100, 1, OrderSide.BID));
+        assertEquals(24, orderStore.capacity());
+    }
+
+    @Test
+    void testLinkedOrdersShouldKeepTheirQueueOrder() {
+        OffHeapOrderStore orderStore = new OffHeapOrderStore(4);
+        int head = OffHeapOrderStore.NO_SLOT;
+        int tail = OffHeapOrderStore.NO_SLOT;
+        for (int i = 0; i < 10; i++) {
+            int slot = orderStore.allocate(i, 100, 1, OrderSide.BID);
+            orderStore.linkAfter(tail, slot);
+            if(head == OffHeapOrderStore.NO_SLOT) {
+                head = slot;
+            }
+            tail = slot;
+        }
+
+        // unlink the head, one in the middle and the tail
+        int newHead = orderStore.getNext(head);
+        orderStore.unlink(head);
+        orderStore.free(head);
+        head = newHead;
+        orderStore.unlink(5);
+        orderStore.free(5);
+        int newTail = orderStore.getPrev(tail);
+        orderStore.unlink(tail);
+        orderStore.free(tail);
+        tail = newTail;
+
+        StringBuilder orderIds = new StringBuilder();
+        for (int slot = head; slot != OffHeapOrderStore.NO_SLOT; slot = orderStore.getNext(slot)) {
+            orderIds.append(orderStore.getOrderId(slot));
+        }
+        assertEquals("1234678", orderIds.toString());
+        assertEquals(8, orderStore.getOrderId(tail));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderStore.getPrev(head));
+        assertEquals(7, orderStore.size());
+    }
+
+    @Test
+    void testLinkedOrFreedSlotsShouldNotBeFreedAndStaleSlotsShouldNotBeRead() {
+        OffHeapOrderStore orderStore = new OffHeapOrderStore(8);
+        int head = orderStore.allocate(1, 100, 10, OrderSide.BID);
+        int tail = orderStore.allocate(2, 100, 10, OrderSide.BID);
+        orderStore.linkAfter(OffHeapOrderStore.NO_SLOT, head);
+        orderStore.linkAfter(head, tail);
+
+        // a single order of a queue has no neighbours but is still linked
+        assertThrows(IllegalStateException.class, () -> orderStore.free(head));
+        assertThrows(IllegalStateException.class, () -> orderStore.free(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.linkAfter(head, tail));
+        int other = orderStore.allocate(3, 100, 10, OrderSide.BID);
+        assertThrows(IllegalStateException.class, () -> orderStore.linkAfter(head, other));
+
+        orderStore.unlink(tail);
+        assertFalse(orderStore.isLinked(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.unlink(tail));
+        orderStore.free(tail);
+        assertThrows(IllegalStateException.class, () -> orderStore.free(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.getOrderId(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.getQuantity(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.setQuantity(tail, 1));
+        assertThrows(IllegalStateException.class, () -> orderStore.getNext(tail));
+        assertThrows(IllegalStateException.class, () -> orderStore.getPrice(7));
+        assertThrows(IllegalStateException.class, () -> orderStore.getPrice(OffHeapOrderStore.NO_SLOT));
+        assertEquals(OffHeapOrderStore.NO_SLOT, orderStore.getNext(head));
+    }
+}
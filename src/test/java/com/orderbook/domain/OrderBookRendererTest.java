@@ -0,0 +1,68 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookRendererTest {
+
+    private final OrderBookRenderer orderBookRenderer = new OrderBookRenderer();
+
+    private static OrderBook createOrderBook() throws OrderException {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 2, 5));
+        long[] askPrices = {10500, 10250, 10205, 10500};
+        long[] bidPrices = {10000, 9750, 10000, 5};
+        for (int i = 0; i < askPrices.length; i++) {
+            orderBook.executeOrder(orderBook.newOrder("S" + i, askPrices[i], 10 + i, OrderSide.ASK),
+                    OrderActionType.ADD);
+            orderBook.executeOrder(orderBook.newOrder("B" + i, bidPrices[i], 20 + i, OrderSide.BID),
+                    OrderActionType.ADD);
+        }
+        return orderBook;
+    }
+
+    @Test
+    void testRenderAllLevels() throws OrderException, IOException {
+        StringBuilder out = new StringBuilder();
+        orderBookRenderer.render(createOrderBook(), out);
+        assertEquals("======================\nASK\n105: 10 13\n102.5: 11\n102.05: 12\n-------------\n"
+                + "100: 20 22\n97.5: 21\n0.05: 23\nBID\n======================\n", out.toString());
+    }
+
+    @Test
+    void testRenderBestLevels() throws OrderException, IOException {
+        StringBuilder out = new StringBuilder();
+        orderBookRenderer.render(createOrderBook(), out, 2);
+        assertEquals("======================\nASK\n102.5: 11\n102.05: 12\n-------------\n"
+                + "100: 20 22\n97.5: 21\nBID\n======================\n", out.toString());
+
+        out.setLength(0);
+        orderBookRenderer.render(new OrderBook("XYZ"), out, 1);
+        assertEquals("======================\nASK\n-------------\nBID\n======================\n", out.toString());
+        assertThrows(IllegalArgumentException.class, () -> orderBookRenderer.render(new OrderBook("XYZ"), out, 0));
+    }
+
+    @Test
+    void testAppendPriceShouldMatchDecimalPrice() throws IOException {
+        Random random = new Random(11);
+        StringBuilder out = new StringBuilder();
+        for (int priceScale = 0; priceScale <= 6; priceScale++) {
+            Instrument instrument = new Instrument("XYZ", priceScale, 1);
+            for (int i = 0; i < 1000; i++) {
+                long price = i < 10 ? i * 1000 + 1 : random.nextInt(Integer.MAX_VALUE) / (1 + random.nextInt(1000));
+                out.setLength(0);
+                orderBookRenderer.appendPrice(price, priceScale, out);
+                assertEquals(instrument.toDecimalPrice(price).toPlainString(), out.toString());
+            }
+        }
+        out.setLength(0);
+        orderBookRenderer.appendLong(Long.MAX_VALUE, out);
+        assertEquals(String.valueOf(Long.MAX_VALUE), out.toString());
+    }
+}
@@ -2,6 +2,7 @@ package com.orderbook.domain;
 
 import com.orderbook.constant.OrderActionType;
 import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
 import com.orderbook.exception.OrderException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.MethodOrderer;
@@ -9,7 +10,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import java.math.BigDecimal;
-import java.math.BigInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,11 +23,15 @@ public class OrderBookTest {
         orderBook = new OrderBook(symbol);
     }
 
+    private static long price(String price) {
+        return orderBook.getInstrument().toScaledPrice(new BigDecimal(price));
+    }
+
     @Test
     @org.junit.jupiter.api.Order(1)
     void testOrderBookCreationShouldThrowIllegalArgumentExceptionWhenSymbolIsNullOrEmptyOrWhiteOrOnlySpaces() {
         assertThrows(IllegalArgumentException.class, () -> {
-           new OrderBook(null);
+           new OrderBook((String) null);
         });
 
         assertThrows(IllegalArgumentException.class, () -> {
@@ -48,7 +52,7 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(3)
     void testAddBuyOrder() throws OrderException {
-        Order order = new Order("1", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
+        Order order = new Order("1", price("100"), 10, OrderSide.BID);
 
         orderBook.addOrder(order);
         assertNotNull(orderBook.getBuyOrders().get(order.getPrice()));
@@ -58,7 +62,7 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(4)
     void testAddSellOrder() throws OrderException {
-        Order order = new Order("2", new BigDecimal("105"), new BigInteger("10"), OrderSide.ASK);
+        Order order = new Order("2", price("105"), 10, OrderSide.ASK);
         orderBook.addOrder(order);
         assertNotNull(orderBook.getSellOrders().get(order.getPrice()));
         assertNotNull(orderBook.getSellOrders().get(order.getPrice()).peek());
@@ -78,7 +82,7 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(6)
     void testRemoveBuyOrder() throws OrderException {
-        Order order = new Order("1", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
+        Order order = new Order("1", price("100"), 10, OrderSide.BID);
         orderBook.removeOrder(order);
         assertFalse(orderBook.getBuyOrders().containsKey(order.getPrice()));
         assertNull(orderBook.getBuyOrders().get(order.getPrice()));
@@ -87,7 +91,7 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(7)
     void testRemoveSellOrder() throws OrderException {
-        Order order = new Order("2", new BigDecimal("105"), new BigInteger("10"), OrderSide.ASK);
+        Order order = new Order("2", price("105"), 10, OrderSide.ASK);
         orderBook.removeOrder(order);
         assertFalse(orderBook.getSellOrders().containsKey(order.getPrice()));
         assertNull(orderBook.getSellOrders().get(order.getPrice()));
@@ -96,8 +100,8 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(8)
     void testAddOrderShouldThrowOrderExceptionWhenAddingOrderWithDuplicateOrderId() {
-        Order order1 = new Order("3", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
-        Order order2 = new Order("3", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
+        Order order1 = new Order("3", price("100"), 10, OrderSide.BID);
+        Order order2 = new Order("3", price("100"), 10, OrderSide.BID);
 
         OrderException exception = assertThrows(OrderException.class, () -> {
             orderBook.addOrder(order1);
@@ -112,8 +116,8 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(9)
     void testExecuteOrderShouldThrowOrderExceptionWhenExecutingOrderWithDuplicateOrderId() {
-        Order order1 = new Order("4", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
-        Order order2 = new Order("4", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
+        Order order1 = new Order("4", price("100"), 10, OrderSide.BID);
+        Order order2 = new Order("4", price("100"), 10, OrderSide.BID);
 
         OrderException exception = assertThrows(OrderException.class, () -> {
             orderBook.executeOrder(order1, OrderActionType.ADD);
@@ -128,7 +132,7 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(10)
     void testExecuteOrderShouldRemoveExistingOrderWhenExecutedWithActionTypeRemove() throws OrderException {
-        Order order1 = new Order("5", new BigDecimal("200"), new BigInteger("10"), OrderSide.BID);
+        Order order1 = new Order("5", price("200"), 10, OrderSide.BID);
         orderBook.addOrder(order1);
         orderBook.executeOrder(order1, OrderActionType.REMOVE);
 
@@ -139,8 +143,8 @@ public class OrderBookTest {
     @Test
     @org.junit.jupiter.api.Order(11)
     void testRemoveOrderShouldThrowOrderExceptionWhenRemovingOrderWithNonExistingId() throws OrderException {
-        Order order1 = new Order("6", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
-        Order order2 = new Order("20", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
+        Order order1 = new Order("6", price("100"), 10, OrderSide.BID);
+        Order order2 = new Order("20", price("100"), 10, OrderSide.BID);
 
         orderBook.addOrder(order1);
 
@@ -157,9 +161,9 @@ public class OrderBookTest {
     @org.junit.jupiter.api.Order(12)
     void testRemoveOrderShouldThrowOrderExceptionWhenRemovingAlreadyExecuted() throws OrderException {
         orderBook.clear();
-        Order order1 = new Order("7", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
-        Order order2 = new Order("8", new BigDecimal("100"), new BigInteger("10"), OrderSide.BID);
-        Order order3 = new Order("9", new BigDecimal("90"), new BigInteger("10"), OrderSide.ASK);
+        Order order1 = new Order("7", price("100"), 10, OrderSide.BID);
+        Order order2 = new Order("8", price("100"), 10, OrderSide.BID);
+        Order order3 = new Order("9", price("90"), 10, OrderSide.ASK);
 
         orderBook.executeOrder(order1, OrderActionType.ADD);
         orderBook.executeOrder(order2, OrderActionType.ADD);
@@ -184,6 +188,72 @@ public class OrderBookTest {
 
     @Test
     @org.junit.jupiter.api.Order(13)
+    void testRemoveOrderByIdShouldKeepTimePriorityOfRemainingOrders() throws OrderException {
+        orderBook.clear();
+        for (int i = 0; i < 1000; i++) {
+            orderBook.addOrder(new Order("D" + i, price("100"), i + 1, OrderSide.BID));
+        }
+
+        orderBook.removeOrder("D500");
+        orderBook.removeOrder("D0");
+
+        assertNull(orderBook.getOrder("D500"));
+        assertEquals(998, orderBook.getBuyOrders().get(price("100")).size());
+        assertEquals("D1", orderBook.getBuyOrders().get(price("100")).peek().getOrderId());
+
+        OrderException exception = assertThrows(OrderException.class, () -> {
+            orderBook.removeOrder("D500");
+        });
+        assertTrue(exception.getMessage().contains("Not found, Order:D500"));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(14)
+    void testExecuteOrderRemoveShouldOnlyNeedOrderId() throws OrderException {
+        orderBook.clear();
+        orderBook.addOrder(new Order("R1", price("100"), 10, OrderSide.BID));
+
+        orderBook.executeOrder(new Order("R1", price("1"), 1, OrderSide.ASK), OrderActionType.REMOVE);
+
+        assertTrue(orderBook.getBuyOrders().isEmpty());
+        assertNull(orderBook.getOrder("R1"));
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(15)
+    void testPooledOrdersShouldGoBackToThePoolWhenFilledOrRemoved() throws OrderException {
+        orderBook.clear();
+        OrderPool orderPool = orderBook.getOrderPool();
+        int freeOrders = orderPool.size();
+
+        Order bid = orderBook.newOrder("P1", price("100"), 10, OrderSide.BID);
+        orderBook.executeOrder(bid, OrderActionType.ADD);
+        Order ask = orderBook.newOrder("P2", price("100"), 4, OrderSide.ASK);
+        orderBook.executeOrder(ask, OrderActionType.ADD);
+        // the ask is filled and released, the bid rests
+        assertEquals(6, orderBook.getOrder("P1").getQuantity());
+        assertNull(ask.getOrderId());
+
+        orderBook.removeOrder("P1");
+        assertNull(bid.getOrderId());
+        assertEquals(Math.max(freeOrders, 2), orderPool.size());
+
+        // orders created with a constructor are not pooled
+        Order order = new Order("P3", price("100"), 10, OrderSide.BID);
+        orderBook.addOrder(order);
+        orderBook.removeOrder("P3");
+        assertEquals("P3", order.getOrderId());
+
+        // an order without an action type is rejected and goes back to the pool as well
+        int freeOrdersBeforeReject = orderPool.size();
+        Order rejected = orderBook.newOrder("P4", price("100"), 10, OrderSide.BID);
+        assertEquals(OrderStatus.INVALID_ACTION_TYPE, orderBook.tryExecuteOrder(rejected, null));
+        assertNull(rejected.getOrderId());
+        assertEquals(freeOrdersBeforeReject, orderPool.size());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(16)
     void testClearOrderBook() {
         orderBook.clear();
         assertTrue(orderBook.getBuyOrders().isEmpty());
@@ -193,20 +263,20 @@ public class OrderBookTest {
     }
 
     @Test
-    @org.junit.jupiter.api.Order(14)
+    @org.junit.jupiter.api.Order(17)
     void testGivenScenarioInAssignment() throws OrderException {
-        Order order1 = new Order("1", new BigDecimal("110"), new BigInteger("5"), OrderSide.ASK);
-        Order order2 = new Order("2", new BigDecimal("90"), new BigInteger("10"), OrderSide.BID);
-        Order order3 = new Order("3", new BigDecimal("110"), new BigInteger("10"), OrderSide.ASK);
-        Order order4 = new Order("4", new BigDecimal("105"), new BigInteger("3"), OrderSide.ASK);
-        Order order5 = new Order("5", new BigDecimal("105"), new BigInteger("7"), OrderSide.ASK);
-        Order order6 = new Order("6", new BigDecimal("90"), new BigInteger("2"), OrderSide.BID);
-        Order order7 = new Order("7", new BigDecimal("90"), new BigInteger("3"), OrderSide.BID);
-        Order order8 = new Order("8", new BigDecimal("100"), new BigInteger("4"), OrderSide.BID);
-        Order order9 = new Order("9", new BigDecimal("100"), new BigInteger("6"), OrderSide.BID);
-        Order order10 = new Order("10", new BigDecimal("105"), new BigInteger("4"), OrderSide.BID);
-        Order order11 = new Order("11", new BigDecimal("80"), new BigInteger("23"), OrderSide.ASK);
-        Order order12 = new Order("12", new BigDecimal("107"), new BigInteger("8"), OrderSide.BID);
+        Order order1 = new Order("1", price("110"), 5, OrderSide.ASK);
+        Order order2 = new Order("2", price("90"), 10, OrderSide.BID);
+        Order order3 = new Order("3", price("110"), 10, OrderSide.ASK);
+        Order order4 = new Order("4", price("105"), 3, OrderSide.ASK);
+        Order order5 = new Order("5", price("105"), 7, OrderSide.ASK);
+        Order order6 = new Order("6", price("90"), 2, OrderSide.BID);
+        Order order7 = new Order("7", price("90"), 3, OrderSide.BID);
+        Order order8 = new Order("8", price("100"), 4, OrderSide.BID);
+        Order order9 = new Order("9", price("100"), 6, OrderSide.BID);
+        Order order10 = new Order("10", price("105"), 4, OrderSide.BID);
+        Order order11 = new Order("11", price("80"), 23, OrderSide.ASK);
+        Order order12 = new Order("12", price("107"), 8, OrderSide.BID);
 
         orderBook.clear();
 
@@ -223,6 +293,11 @@ public class OrderBookTest {
         orderBook.executeOrder(order11, OrderActionType.ADD);
         orderBook.executeOrder(order12, OrderActionType.ADD);
 
+        assertEquals(15, orderBook.getSellOrders().get(price("110")).getTotalQuantity());
+        assertEquals(2, orderBook.getBuyOrders().get(price("107")).getTotalQuantity());
+        assertEquals(2, orderBook.getBuyOrders().get(price("90")).getTotalQuantity());
+        assertEquals(1, orderBook.getBuyOrders().get(price("90")).size());
+
         String orderBookString = "======================\nASK\n"
                                 +"110: 5 10\n"
                                 +"-------------\n"
@@ -232,4 +307,194 @@ public class OrderBookTest {
 
         assertEquals(orderBookString, orderBook.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @org.junit.jupiter.api.Order(18)
+    void testBookWithNumericOrderIdsShouldMatchOrdersGivenAsLongsOrText() throws OrderException {
+        OrderBook numericBook = new OrderBook(new Instrument(symbol), true);
+        assertTrue(numericBook.isNumericOrderIds());
+        numericBook.executeOrder(numericBook.newOrder(100000, 100, 10, OrderSide.BID), OrderActionType.ADD);
+        numericBook.executeOrder(numericBook.newOrder("100001", 101, 10, OrderSide.BID), OrderActionType.ADD);
+
+        assertEquals("100000", numericBook.getOrder(100000).getOrderId());
+        assertSame(numericBook.getOrder("100001"), numericBook.getOrder(100001));
+        assertNull(numericBook.getOrder("A1"));
+        assertThrows(IllegalArgumentException.class, () -> numericBook.newOrder("A1", 100, 10, OrderSide.BID));
+        assertThrows(OrderException.class, () -> numericBook.executeOrder(new Order("0100", 100, 10, OrderSide.BID),
+                OrderActionType.ADD));
+        OrderException exception = assertThrows(OrderException.class, () -> numericBook.executeOrder(
+                numericBook.newOrder(100000, 99, 10, OrderSide.BID), OrderActionType.ADD));
+        assertEquals("Duplicate Order:100000", exception.getMessage());
+
+        numericBook.executeOrder(numericBook.newOrder(100002, 100, 15, OrderSide.ASK), OrderActionType.ADD);
+        assertNull(numericBook.getOrder(100001));
+        assertEquals(5, numericBook.getOrder(100000).getQuantity());
+        numericBook.removeOrder(100000);
+        assertThrows(OrderException.class, () -> numericBook.removeOrder(100000));
+        assertThrows(OrderException.class, () -> numericBook.removeOrder("A1"));
+        assertEquals(0, numericBook.getOrderCount());
+
+        // a text book takes orders given as longs too
+        OrderBook textBook = new OrderBook(symbol);
+        textBook.executeOrder(textBook.newOrder(7, 100, 10, OrderSide.BID), OrderActionType.ADD);
+        assertSame(textBook.getOrder("7"), textBook.getOrder(7));
+        textBook.removeOrder(7);
+        assertEquals(0, textBook.getOrderCount());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(19)
+    void testModifyOrderShouldKeepPriorityOnlyForALowerQuantityAtTheSamePrice() throws OrderException {
+        OrderBook modifyBook = new OrderBook(new Instrument(symbol, 0, 1, 1, 1000));
+        modifyBook.executeOrder(modifyBook.newOrder("M1", 100, 10, OrderSide.BID), OrderActionType.ADD);
+        modifyBook.executeOrder(modifyBook.newOrder("M2", 100, 10, OrderSide.BID), OrderActionType.ADD);
+        Order order1 = modifyBook.getOrder("M1");
+
+        // lower quantity, same price: in place, still first in the queue
+        modifyBook.modifyOrder("M1", 100, 4);
+        assertSame(order1, modifyBook.getBuyOrders().best().peek());
+        assertEquals(14, modifyBook.getBuyOrders().best().getTotalQuantity());
+
+        // higher quantity: the same order goes to the back of the queue
+        modifyBook.modifyOrder("M1", 100, 6);
+        assertSame(order1, modifyBook.getOrder("M1"));
+        assertEquals("M2", modifyBook.getBuyOrders().best().peek().getOrderId());
+        assertEquals(16, modifyBook.getBuyOrders().best().getTotalQuantity());
+
+        // new price: the level of the old price is removed when it becomes empty
+        modifyBook.executeOrder(modifyBook.newOrder("M2", 99, 10, OrderSide.BID), OrderActionType.MODIFY);
+        assertEquals(2, modifyBook.getBuyOrders().size());
+        assertEquals(99, modifyBook.getOrder("M2").getPrice());
+        assertEquals(6, modifyBook.getBuyOrders().best().getTotalQuantity());
+
+        // a new price which crosses is matched first and the rest rests at the new price
+        modifyBook.executeOrder(modifyBook.newOrder("S1", 101, 8, OrderSide.ASK), OrderActionType.ADD);
+        modifyBook.modifyOrder("S1", 99, 8);
+        assertEquals(8, modifyBook.getLastFilledQuantity());
+        assertNull(modifyBook.getOrder("S1"));
+        assertNull(modifyBook.getOrder("M1"));
+        assertEquals(8, modifyBook.getOrder("M2").getQuantity());
+        assertTrue(modifyBook.getSellOrders().isEmpty());
+
+        assertThrows(OrderException.class, () -> modifyBook.modifyOrder("missing", 100, 1));
+        assertThrows(OrderException.class, () -> modifyBook.modifyOrder("M2", 100, 0));
+        assertThrows(OrderException.class, () -> modifyBook.modifyOrder("M2", 1001, 1));
+        assertEquals(8, modifyBook.getOrder("M2").getQuantity());
+        assertEquals(1, modifyBook.getOrderCount());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(20)
+    void testTryMethodsShouldReturnTheRejectReasonWithoutThrowing() throws OrderException {
+        OrderBook tryBook = new OrderBook(new Instrument(symbol, 0, 1, 1, 1000));
+        assertEquals(OrderStatus.ACCEPTED,
+                tryBook.tryExecuteOrder(tryBook.newOrder("T1", 100, 10, OrderSide.BID), OrderActionType.ADD));
+        assertEquals(OrderStatus.DUPLICATE_ORDER,
+                tryBook.tryExecuteOrder(tryBook.newOrder("T1", 100, 10, OrderSide.BID), OrderActionType.ADD));
+        assertEquals(OrderStatus.INVALID_PRICE,
+                tryBook.tryExecuteOrder(tryBook.newOrder("T2", 1001, 10, OrderSide.BID), OrderActionType.ADD));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, tryBook.tryRemoveOrder("missing"));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, tryBook.tryModifyOrder("missing", 100, 1));
+        assertEquals(OrderStatus.INVALID_QUANTITY, tryBook.tryModifyOrder("T1", 100, 0));
+        assertEquals(OrderStatus.ACCEPTED, tryBook.tryModifyOrder("T1", 100, 5));
+        assertEquals(5, tryBook.getOrder("T1").getQuantity());
+        assertEquals(OrderStatus.ACCEPTED, tryBook.tryRemoveOrder("T1"));
+        assertEquals(0, tryBook.getOrderCount());
+
+        OrderException e = assertThrows(OrderException.class, () -> tryBook.removeOrder("T1"));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, e.getOrderStatus());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(21)
+    void testBookWithOffHeapOrdersShouldMatchLikeABookWithHeapOrders() throws OrderException {
+        Instrument instrument = new Instrument(symbol, 0, 1, 1, 1000);
+        OrderBook heapBook = new OrderBook(instrument, true);
+        OrderBook offHeapBook = new OrderBook(instrument, false, true);
+        assertTrue(offHeapBook.isOffHeapOrders());
+        assertTrue(offHeapBook.isNumericOrderIds());
+        assertThrows(IllegalStateException.class, offHeapBook::getBuyOrders);
+        assertThrows(IllegalArgumentException.class, () -> new OrderBook(new Instrument(symbol), true, true));
+        StringBuilder heapEvents = new StringBuilder();
+        StringBuilder offHeapEvents = new StringBuilder();
+        heapBook.setTradeListener((s, sequenceNumber, aggressorOrderId, restingOrderId, price, quantity, side) ->
+                heapEvents.append(aggressorOrderId).append('/').append(restingOrderId).append('@').append(price)
+                        .append('x').append(quantity).append('\n'));
+        heapBook.setDepthListener((s, side, updateType, price, totalQuantity, orderCount) ->
+                heapEvents.append(side).append(updateType).append(price).append('/').append(totalQuantity)
+                        .append('/').append(orderCount).append('\n'));
+        offHeapBook.setTradeListener((s, sequenceNumber, aggressorOrderId, restingOrderId, price, quantity, side) ->
+                offHeapEvents.append(aggressorOrderId).append('/').append(restingOrderId).append('@').append(price)
+                        .append('x').append(quantity).append('\n'));
+        offHeapBook.setDepthListener((s, side, updateType, price, totalQuantity, orderCount) ->
+                offHeapEvents.append(side).append(updateType).append(price).append('/').append(totalQuantity)
+                        .append('/').append(orderCount).append('\n'));
+
+        // adds around a moving mid, with removes and modifies of earlier orders, some of which are gone
+        for (int i = 0; i < 3000; i++) {
+            OrderSide side = i % 2 == 0 ? OrderSide.BID : OrderSide.ASK;
+            long mid = 500 + (i / 100) % 7 * 3;
+            long price = side == OrderSide.BID ? mid - i % 9 + 2 : mid + i % 8 - 2;
+            for (OrderBook book : new OrderBook[]{heapBook, offHeapBook}) {
+                assertEquals(OrderStatus.ACCEPTED, book.tryExecuteOrder(book.newOrder(i, price, 1 + i % 13, side),
+                        OrderActionType.ADD));
+                if(i % 5 == 0) {
+                    book.tryRemoveOrder(i - 7);
+                }
+                if(i % 7 == 0) {
+                    book.tryModifyOrder(i - 11, price + (i % 3 == 0 ? 0 : 3), 1 + i % 4);
+                }
+            }
+            assertEquals(heapBook.getLastFilledQuantity(), offHeapBook.getLastFilledQuantity());
+        }
+        assertEquals(heapEvents.toString(), offHeapEvents.toString());
+        assertEquals(heapBook.toString(), offHeapBook.toString());
+        assertEquals(heapBook.getTradeSequenceNumber(), offHeapBook.getTradeSequenceNumber());
+        assertEquals(heapBook.getOrderCount(), offHeapBook.getOrderCount());
+        assertEquals(heapBook.getLevelCount(OrderSide.BID), offHeapBook.getLevelCount(OrderSide.BID));
+        assertEquals(heapBook.getOrderCount(OrderSide.ASK), offHeapBook.getOrderCount(OrderSide.ASK));
+        assertTrue(heapBook.getTradeSequenceNumber() > 0);
+
+        offHeapBook.clear();
+        assertEquals(0, offHeapBook.getOrderCount());
+        assertEquals(0, offHeapBook.getOffHeapBuyOrders().getOrderStore().size());
+        assertTrue(offHeapBook.getOffHeapSellOrders().isEmpty());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(22)
+    void testBookWithOffHeapOrdersShouldReturnCopiesAndRejectLikeAHeapBook() throws OrderException {
+        OrderBook offHeapBook = new OrderBook(new Instrument(symbol, 0, 1, 1, 1000), true, true);
+        offHeapBook.executeOrder(offHeapBook.newOrder("100000", 100, 10, OrderSide.BID), OrderActionType.ADD);
+        offHeapBook.addOrder(new Order(100001, 100, 5, OrderSide.BID));
+
+        Order order = offHeapBook.getOrder("100000");
+        assertEquals(10, order.getQuantity());
+        assertEquals(100, order.getPrice());
+        assertEquals(OrderSide.BID, order.getSide());
+        order.setQuantity(1);
+        assertEquals(10, offHeapBook.getOrder(100000).getQuantity());
+        assertEquals(15, offHeapBook.getOffHeapBuyOrders().getTotalQuantity(offHeapBook.getOffHeapBuyOrders().best()));
+
+        assertEquals(OrderStatus.DUPLICATE_ORDER, offHeapBook.tryExecuteOrder(
+                offHeapBook.newOrder(100000, 100, 10, OrderSide.ASK), OrderActionType.ADD));
+        assertEquals(OrderStatus.INVALID_PRICE, offHeapBook.tryExecuteOrder(
+                offHeapBook.newOrder(100002, 1001, 10, OrderSide.ASK), OrderActionType.ADD));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, offHeapBook.tryRemoveOrder(5));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, offHeapBook.tryModifyOrder("A1", 100, 1));
+        assertEquals(OrderStatus.INVALID_QUANTITY, offHeapBook.tryModifyOrder(100000, 100, 0));
+        OrderException e = assertThrows(OrderException.class, () -> offHeapBook.removeOrder(5));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, e.getOrderStatus());
+
+        // a lower quantity keeps the place in the queue, a fill frees the slot of the order
+        offHeapBook.modifyOrder(100000, 100, 4);
+        offHeapBook.executeOrder(offHeapBook.newOrder(100003, 100, 6, OrderSide.ASK), OrderActionType.ADD);
+        assertNull(offHeapBook.getOrder(100000));
+        assertEquals(3, offHeapBook.getOrder(100001).getQuantity());
+        assertEquals(1, offHeapBook.getOffHeapBuyOrders().getOrderStore().size());
+        assertEquals(6, offHeapBook.getLastFilledQuantity());
+        offHeapBook.removeOrder("100001");
+        assertEquals(0, offHeapBook.getOffHeapBuyOrders().getOrderStore().size());
+        assertEquals(0, offHeapBook.getOrderCount());
+    }
+}
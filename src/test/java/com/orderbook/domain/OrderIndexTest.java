@@ -0,0 +1,52 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIndexTest {
+
+    @Test
+    void testPutGetRemove() {
+        OrderIndex orderIndex = new OrderIndex();
+        Order order = new Order("1", 100, 10, OrderSide.BID);
+        orderIndex.put(order);
+
+        assertSame(order, orderIndex.get("1"));
+        assertTrue(orderIndex.containsKey("1"));
+        assertFalse(orderIndex.containsKey("2"));
+        assertNull(orderIndex.get(null));
+        assertSame(order, orderIndex.remove("1"));
+        assertNull(orderIndex.remove("1"));
+        assertTrue(orderIndex.isEmpty());
+    }
+
+    @Test
+    void testIndexShouldAgreeWithHashMapAfterRandomPutsAndRemoves() {
+        // a small table keeps probe sequences long and wrapping around, which exercises the backward shift
+        OrderIndex orderIndex = new OrderIndex(8);
+        Map<String, Order> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            String orderId = String.valueOf(random.nextInt(500));
+            if(random.nextBoolean()) {
+                Order order = new Order(orderId, 100, 10, OrderSide.BID);
+                orderIndex.put(order);
+                expected.put(orderId, order);
+            } else {
+                assertSame(expected.remove(orderId), orderIndex.remove(orderId));
+            }
+        }
+
+        assertEquals(expected.size(), orderIndex.size());
+        for (Map.Entry<String, Order> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), orderIndex.get(entry.getKey()));
+        }
+    }
+}
@@ -3,9 +3,6 @@ package com.orderbook.domain;
 import com.orderbook.constant.OrderSide;
 import org.junit.jupiter.api.*;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -15,7 +12,7 @@ public class OrderTest {
 
     @BeforeAll
     static void setUpAll() {
-        order = new Order("1", new BigDecimal("100"), new BigInteger("10"), OrderSide.ASK);
+        order = new Order("1", 100, 10, OrderSide.ASK);
     }
 
     @Test
@@ -29,23 +26,7 @@ public class OrderTest {
     @org.junit.jupiter.api.Order(2)
     public void testCreateOrderShouldThrowIllegalArgumentExceptionWhenOrderIdIsNull() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new Order(null, new BigDecimal("100"), new BigInteger("10"), OrderSide.ASK);
-        });
-    }
-
-    @Test
-    @org.junit.jupiter.api.Order(3)
-    void testCreateOrderShouldThrowIllegalArgumentExceptionWhenPriceIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", null, new BigInteger("10"), OrderSide.ASK);
-        });
-    }
-
-    @Test
-    @org.junit.jupiter.api.Order(4)
-    void testCreateOrderShouldThrowIllegalArgumentExceptionWhenQuantityIsNull() {
-        assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", new BigDecimal("100"), null, OrderSide.ASK);
+            new Order(null, 100, 10, OrderSide.ASK);
         });
     }
 
@@ -53,7 +34,7 @@ public class OrderTest {
     @org.junit.jupiter.api.Order(5)
     void testCreateOrderShouldThrowIllegalArgumentExceptionWhenOrderSideIsNull() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", new BigDecimal("100"), new BigInteger("10"), null);
+            new Order("1", 100, 10, null);
         });
     }
 
@@ -61,10 +42,10 @@ public class OrderTest {
     @org.junit.jupiter.api.Order(6)
     void testCreateOrderShouldThrowIllegalArgumentExceptionWhenPriceIsLessThanOrEqualToZero() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", new BigDecimal(-1), new BigInteger("10"), OrderSide.ASK);
+            new Order("1", -1, 10, OrderSide.ASK);
         });
         assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", BigDecimal.ZERO, new BigInteger("10"), OrderSide.ASK);
+            new Order("1", 0, 10, OrderSide.ASK);
         });
     }
 
@@ -72,7 +53,7 @@ public class OrderTest {
     @org.junit.jupiter.api.Order(7)
     void testCreateOrderShouldThrowIllegalArgumentExceptionWhenQuantityIsLessThanZero() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new Order("1", new BigDecimal("100"), new BigInteger("-1"), OrderSide.ASK);
+            new Order("1", 100, -1, OrderSide.ASK);
         });
     }
 
@@ -85,15 +66,15 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(9)
     void testGetQuantity() {
-        BigInteger quantity = new BigInteger("10");
-        order = new Order("1", new BigDecimal("100"), new BigInteger("10"), OrderSide.ASK);
+        long quantity = 10;
+        order = new Order("1", 100, 10, OrderSide.ASK);
         assertEquals(quantity, order.getQuantity());
     }
 
     @Test
     @org.junit.jupiter.api.Order(10)
     void testGetPrice() {
-        BigDecimal price = new BigDecimal("100");
+        long price = 100;
         assertEquals(price, order.getPrice());
     }
 
@@ -106,7 +87,7 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(12)
     void testSetQuantity() {
-        BigInteger quantity = new BigInteger("30");
+        long quantity = 30;
         order.setQuantity(quantity);
         assertEquals(quantity, order.getQuantity());
     }
@@ -114,7 +95,7 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(13)
     void testSetQuantityShouldThrowIllegalArgumentExceptionWhenQuantityIsLessThanZero() {
-        BigInteger quantity = new BigInteger("-1");
+        long quantity = -1;
         assertThrows(IllegalArgumentException.class, () -> {
             order.setQuantity(quantity);
         });
@@ -123,9 +104,9 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(14)
     void testSetPrice() {
-        BigDecimal price = new BigDecimal("10.45");
+        long price = 104500;
         order.setPrice(price);
-        assertEquals(0, order.getPrice().compareTo(price));
+        assertEquals(price, order.getPrice());
     }
 
     @Test
@@ -147,23 +128,23 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(17)
     void testIsExecutableOrderShouldNotBeExecutableWhenOrderQuantityIsZero() {
-        order.setQuantity(BigInteger.ZERO);
+        order.setQuantity(0);
         assertFalse(order.isExecutable());
     }
 
     @Test
     @org.junit.jupiter.api.Order(18)
     void testIsExecutableOrderShouldBeExecutableWhenOrderQuantityIsGreaterThanZero() {
-        order.setQuantity(new BigInteger("10"));
+        order.setQuantity(10);
         assertTrue(order.isExecutable());
     }
 
     @Test
     @org.junit.jupiter.api.Order(19)
     void testIsExecutableBuyOrderShouldBeExecutableWhenQuantityIsGreaterThanZeroAndComparingPriceIsLessThanOrderPrice() {
-        BigDecimal comparingPrice = new BigDecimal("80");
-        order.setQuantity(new BigInteger("10"));
-        order.setPrice(new BigDecimal("90"));
+        long comparingPrice = 80;
+        order.setQuantity(10);
+        order.setPrice(90);
         order.setSide(OrderSide.BID);
 
         assertTrue(order.isExecutable(comparingPrice));
@@ -172,9 +153,9 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(20)
     void testIsExecutableBuyOrderShouldNotBeExecutableWhenQuantityIsGreaterThanZeroAndComparingPriceIsGreaterOrderPrice() {
-        BigDecimal comparingPrice = new BigDecimal("80");
-        order.setQuantity(new BigInteger("10"));
-        order.setPrice(new BigDecimal("70"));
+        long comparingPrice = 80;
+        order.setQuantity(10);
+        order.setPrice(70);
         order.setSide(OrderSide.BID);
 
         assertFalse(order.isExecutable(comparingPrice));
@@ -183,9 +164,9 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(21)
     void testIsExecutableSellOrderShouldNotBeExecutableWhenQuantityIsGreaterThanZeroAndComparingPriceIsLessThanOrderPrice() {
-        BigDecimal comparingPrice = new BigDecimal("80");
-        order.setQuantity(new BigInteger("10"));
-        order.setPrice(new BigDecimal("90"));
+        long comparingPrice = 80;
+        order.setQuantity(10);
+        order.setPrice(90);
         order.setSide(OrderSide.ASK);
 
         assertFalse(order.isExecutable(comparingPrice));
@@ -194,9 +175,9 @@ public class OrderTest {
     @Test
     @org.junit.jupiter.api.Order(22)
     void testIsExecutableSellOrderShouldBeExecutableWhenQuantityIsGreaterThanZeroAndComparingPriceIsGreaterOrderPrice() {
-        BigDecimal comparingPrice = new BigDecimal("80");
-        order.setQuantity(new BigInteger("10"));
-        order.setPrice(new BigDecimal("70"));
+        long comparingPrice = 80;
+        order.setQuantity(10);
+        order.setPrice(70);
         order.setSide(OrderSide.ASK);
 
         assertTrue(order.isExecutable(comparingPrice));
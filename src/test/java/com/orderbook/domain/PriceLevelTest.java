@@ -0,0 +1,71 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceLevelTest {
+
+    private PriceLevel priceLevel;
+    private Order order1;
+    private Order order2;
+    private Order order3;
+
+    @BeforeEach
+    void setUp() {
+        priceLevel = new PriceLevel(100);
+        order1 = new Order("1", 100, 10, OrderSide.BID);
+        order2 = new Order("2", 100, 20, OrderSide.BID);
+        order3 = new Order("3", 100, 30, OrderSide.BID);
+        priceLevel.add(order1);
+        priceLevel.add(order2);
+        priceLevel.add(order3);
+    }
+
+    @Test
+    void testAddShouldKeepTimePriorityAndAggregates() {
+        assertSame(order1, priceLevel.peek());
+        assertSame(order3, priceLevel.peekLast());
+        assertSame(order2, order1.getNext());
+        assertSame(priceLevel, order2.getLevel());
+        assertEquals(3, priceLevel.size());
+        assertEquals(60, priceLevel.getTotalQuantity());
+    }
+
+    @Test
+    void testAddShouldThrowIllegalStateExceptionWhenOrderAlreadyInALevel() {
+        assertThrows(IllegalStateException.class, () -> {
+            new PriceLevel(100).add(order2);
+        });
+    }
+
+    @Test
+    void testRemoveFromMiddle() {
+        assertTrue(priceLevel.remove(order2));
+        assertSame(order3, order1.getNext());
+        assertSame(order1, order3.getPrevious());
+        assertNull(order2.getLevel());
+        assertEquals(2, priceLevel.size());
+        assertEquals(40, priceLevel.getTotalQuantity());
+        assertFalse(priceLevel.remove(order2));
+    }
+
+    @Test
+    void testRemoveAll() {
+        priceLevel.remove(order1);
+        priceLevel.remove(order3);
+        priceLevel.remove(order2);
+        assertTrue(priceLevel.isEmpty());
+        assertNull(priceLevel.peek());
+        assertNull(priceLevel.peekLast());
+        assertEquals(0, priceLevel.getTotalQuantity());
+    }
+
+    @Test
+    void testSetQuantityShouldUpdateTotalQuantity() {
+        order2.setQuantity(5);
+        assertEquals(45, priceLevel.getTotalQuantity());
+    }
+}
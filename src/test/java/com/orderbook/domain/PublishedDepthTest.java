@@ -0,0 +1,123 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishedDepthTest {
+
+    @Test
+    void testSnapshotShouldHoldTheBestLevels() throws OrderException {
+        PublishedDepthRegistry registry = new PublishedDepthRegistry(2);
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setPublishedDepthRegistry(registry);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 5, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "3", OrderSide.BID, 10, 99);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "4", OrderSide.BID, 10, 98);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "5", OrderSide.ASK, 12, 100);
+
+        PublishedDepth publishedDepth = registry.get("XYZ");
+        assertSame(publishedDepth, orderProcessor.getOrderBook("XYZ").getPublishedDepth());
+        DepthSnapshot snapshot = new DepthSnapshot(4);
+        // one publish when the book is created, one per accepted order
+        assertEquals(6, publishedDepth.read(snapshot));
+        assertEquals(6, snapshot.getVersion());
+        assertEquals(2, snapshot.getTradeSequenceNumber());
+        assertEquals(2, snapshot.getLevelCount(OrderSide.BID));
+        assertEquals(0, snapshot.getLevelCount(OrderSide.ASK));
+        // order 5 filled order 1 and 2 of order 2
+        assertEquals(100, snapshot.getPrice(OrderSide.BID, 0));
+        assertEquals(3, snapshot.getTotalQuantity(OrderSide.BID, 0));
+        assertEquals(1, snapshot.getOrderCount(OrderSide.BID, 0));
+        assertEquals(99, snapshot.getPrice(OrderSide.BID, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getPrice(OrderSide.BID, 2));
+        assertThrows(IllegalArgumentException.class, () -> publishedDepth.read(new DepthSnapshot(1)));
+    }
+
+    @Test
+    void testDepthShouldBePublishedEveryPublishInterval() throws OrderException {
+        PublishedDepthRegistry registry = new PublishedDepthRegistry(5, 3);
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        // an existing book is published when the registry is set
+        orderProcessor.setPublishedDepthRegistry(registry);
+        PublishedDepth publishedDepth = registry.get("XYZ");
+        DepthSnapshot snapshot = new DepthSnapshot(5);
+        assertEquals(1, publishedDepth.read(snapshot));
+        assertEquals(1, snapshot.getLevelCount(OrderSide.BID));
+
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 99);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "3", OrderSide.BID, 10, 98);
+        publishedDepth.read(snapshot);
+        assertEquals(1, snapshot.getLevelCount(OrderSide.BID));
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "4", OrderSide.BID, 10, 97);
+        assertEquals(2, publishedDepth.read(snapshot));
+        assertEquals(4, snapshot.getLevelCount(OrderSide.BID));
+
+        orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "4", null, 0, 0);
+        orderProcessor.publishPendingDepth();
+        assertEquals(3, publishedDepth.read(snapshot));
+        assertEquals(3, snapshot.getLevelCount(OrderSide.BID));
+        orderProcessor.publishPendingDepth();
+        assertEquals(3, publishedDepth.getVersion());
+    }
+
+    @Test
+    void testReadersShouldOnlySeeConsistentSnapshotsWhileMatching() throws Exception {
+        OrderBook orderBook = new OrderBook(new Instrument("XYZ", 0, 1, 1, 1000));
+        PublishedDepth publishedDepth = new PublishedDepth(8);
+        orderBook.setPublishedDepth(publishedDepth);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            DepthSnapshot snapshot = new DepthSnapshot(8);
+            while (running.get() && failure.get() == null) {
+                publishedDepth.read(snapshot);
+                String error = checkSnapshot(snapshot);
+                if(error != null) {
+                    failure.set(error);
+                }
+            }
+        });
+        reader.start();
+        try {
+            // every order has a quantity of 10 and both sides never cross, so a level holds 10 per order
+            for (int i = 0; i < 200_000 && failure.get() == null; i++) {
+                OrderSide side = i % 2 == 0 ? OrderSide.BID : OrderSide.ASK;
+                long price = side == OrderSide.BID ? 400 - (i * 7) % 50 : 500 + (i * 11) % 50;
+                orderBook.executeOrder(orderBook.newOrder("o" + i, price, 10, side), OrderActionType.ADD);
+                if(i >= 40) {
+                    orderBook.removeOrder("o" + (i - 40));
+                }
+                publishedDepth.onUpdate(orderBook);
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private static String checkSnapshot(DepthSnapshot snapshot) {
+        for (OrderSide side : OrderSide.values()) {
+            for (int i = 0; i < snapshot.getLevelCount(side); i++) {
+                if(snapshot.getTotalQuantity(side, i) != 10L * snapshot.getOrderCount(side, i)) {
+                    return "Torn level, Side:" + side + ", Level:" + i;
+                }
+                if(i > 0 && (side == OrderSide.BID) != (snapshot.getPrice(side, i) < snapshot.getPrice(side, i - 1))) {
+                    return "Levels out of price priority, Side:" + side + ", Level:" + i;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.orderbook.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSymbolsShouldGetDenseIds() {
+        SymbolRegistry symbolRegistry = new SymbolRegistry();
+        assertEquals(SymbolRegistry.NO_SYMBOL_ID, symbolRegistry.getId("XYZ"));
+        for (int i = 1; i <= 100; i++) {
+            assertEquals(i, symbolRegistry.getOrAssign("S" + i));
+        }
+        assertEquals(7, symbolRegistry.getOrAssign("S7"));
+        assertEquals(7, symbolRegistry.getId("S7"));
+        assertEquals("S100", symbolRegistry.getSymbol(100));
+        assertNull(symbolRegistry.getSymbol(0));
+        assertNull(symbolRegistry.getSymbol(101));
+        assertEquals(100, symbolRegistry.size());
+        assertThrows(IllegalArgumentException.class, () -> symbolRegistry.getOrAssign(" "));
+    }
+
+    @Test
+    void testReferenceFileShouldAssignIdsInFileOrder() throws IOException {
+        Path path = tempDir.resolve("symbols.txt");
+        Files.write(path, "# reference symbols\nXYZ\n\n ABC \nDEF\n".getBytes(StandardCharsets.US_ASCII));
+        SymbolRegistry symbolRegistry = SymbolRegistry.load(path.toString());
+        assertEquals(3, symbolRegistry.size());
+        assertEquals(1, symbolRegistry.getId("XYZ"));
+        assertEquals(2, symbolRegistry.getId("ABC"));
+        assertEquals(3, symbolRegistry.getId("DEF"));
+        assertEquals(4, symbolRegistry.getOrAssign("GHI"));
+
+        Files.write(path, "XYZ\nXYZ\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IllegalArgumentException.class, () -> SymbolRegistry.load(path.toString()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.orderbook.domain;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickLadderBookSideTest {
+
+    private static final Instrument instrument = new Instrument("XYZ", 0, 5, 50, 200);
+    private TickLadderBookSide bidSide;
+    private TickLadderBookSide askSide;
+
+    @BeforeEach
+    void setUp() {
+        bidSide = new TickLadderBookSide(OrderSide.BID, instrument);
+        askSide = new TickLadderBookSide(OrderSide.ASK, instrument);
+    }
+
+    @Test
+    void testCreateShouldThrowIllegalArgumentExceptionWhenInstrumentHasNoPriceBand() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new TickLadderBookSide(OrderSide.BID, new Instrument("XYZ"));
+        });
+    }
+
+    @Test
+    void testBestAndWorstShouldBeTrackedOnAddAndRemove() {
+        Order order1 = new Order("1", 100, 10, OrderSide.BID);
+        Order order2 = new Order("2", 110, 10, OrderSide.BID);
+        Order order3 = new Order("3", 90, 10, OrderSide.BID);
+        bidSide.addOrder(order1);
+        bidSide.addOrder(order2);
+        bidSide.addOrder(order3);
+
+        assertEquals(110, bidSide.best().getPrice());
+        assertEquals(90, bidSide.worst().getPrice());
+        assertEquals(100, bidSide.nextWorse(bidSide.best()).getPrice());
+        assertEquals(100, bidSide.nextBetter(bidSide.worst()).getPrice());
+        assertEquals(3, bidSide.size());
+
+        bidSide.removeOrder(order2);
+        assertEquals(100, bidSide.best().getPrice());
+        assertFalse(bidSide.containsKey(110));
+
+        bidSide.removeOrder(order3);
+        assertEquals(100, bidSide.worst().getPrice());
+
+        bidSide.removeOrder(order1);
+        assertTrue(bidSide.isEmpty());
+        assertNull(bidSide.best());
+        assertNull(bidSide.worst());
+    }
+
+    @Test
+    void testAskSideShouldHaveLowestPriceAsBest() {
+        askSide.addOrder(new Order("1", 100, 10, OrderSide.ASK));
+        askSide.addOrder(new Order("2", 110, 10, OrderSide.ASK));
+        askSide.addOrder(new Order("3", 90, 10, OrderSide.ASK));
+
+        assertEquals(90, askSide.best().getPrice());
+        assertEquals(110, askSide.worst().getPrice());
+        assertNull(askSide.nextWorse(askSide.worst()));
+    }
+
+    @Test
+    void testAddOrderShouldThrowIllegalArgumentExceptionWhenPriceIsOutOfBand() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            bidSide.addOrder(new Order("1", 205, 10, OrderSide.BID));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            bidSide.addOrder(new Order("2", 101, 10, OrderSide.BID));
+        });
+        assertNull(bidSide.get(205));
+    }
+
+    @Test
+    void testClearShouldEmptyAllLevels() {
+        bidSide.addOrder(new Order("1", 100, 10, OrderSide.BID));
+        bidSide.addOrder(new Order("2", 60, 10, OrderSide.BID));
+        bidSide.clear();
+
+        assertTrue(bidSide.isEmpty());
+        assertNull(bidSide.get(100));
+        bidSide.addOrder(new Order("3", 80, 10, OrderSide.BID));
+        assertEquals(80, bidSide.best().getPrice());
+        assertEquals(10, bidSide.best().getTotalQuantity());
+    }
+
+    @Test
+    void testOrderBookWithPriceBandShouldMatchLikeTreeBook() throws OrderException {
+        OrderBook ladderBook = new OrderBook(instrument);
+        OrderBook treeBook = new OrderBook(new Instrument("XYZ", 0, 5));
+        String[][] orders = {{"1", "110", "5", "S"}, {"2", "90", "10", "B"}, {"3", "110", "10", "S"},
+                {"4", "105", "3", "S"}, {"5", "105", "7", "S"}, {"6", "90", "2", "B"}, {"7", "90", "3", "B"},
+                {"8", "100", "4", "B"}, {"9", "100", "6", "B"}, {"10", "105", "4", "B"}, {"11", "80", "23", "S"},
+                {"12", "110", "8", "B"}};
+
+        for (String[] order : orders) {
+            OrderSide side = order[3].equals("B") ? OrderSide.BID : OrderSide.ASK;
+            long price = Long.parseLong(order[1]);
+            long quantity = Long.parseLong(order[2]);
+            ladderBook.executeOrder(new Order(order[0], price, quantity, side), OrderActionType.ADD);
+            treeBook.executeOrder(new Order(order[0], price, quantity, side), OrderActionType.ADD);
+            assertEquals(treeBook.toString(), ladderBook.toString());
+        }
+
+        OrderException exception = assertThrows(OrderException.class, () -> {
+            ladderBook.executeOrder(new Order("13", 45, 10, OrderSide.BID), OrderActionType.ADD);
+        });
+        assertTrue(exception.getMessage().contains("Invalid Price, Order:13"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.orderbook.metrics;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookMetricsTest {
+
+    @Test
+    void testProcessedOrdersShouldBeCounted() throws OrderException {
+        BookMetricsRegistry registry = new BookMetricsRegistry();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.registerInstrument(new Instrument("XYZ", 0, 5, 50, 500));
+        orderProcessor.setBookMetricsRegistry(registry);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 95);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "3", OrderSide.ASK, 10, 110);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "4", OrderSide.ASK, 15, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "2", null, 0, 0);
+        assertThrows(OrderException.class,
+                () -> orderProcessor.processOrder("XYZ", OrderActionType.ADD, "3", OrderSide.ASK, 10, 120));
+        assertThrows(OrderException.class,
+                () -> orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "2", null, 0, 0));
+        assertThrows(OrderException.class,
+                () -> orderProcessor.processOrder("XYZ", OrderActionType.ADD, "5", OrderSide.ASK, 10, 103));
+        assertEquals(OrderStatus.INVALID_PRICE, orderProcessor.processRecord("XYZ", "A,6,S,100,1000"));
+        assertEquals(OrderStatus.INVALID_SIDE, orderProcessor.processRecord("XYZ", "A,7,X,1,100"));
+
+        BookMetrics metrics = registry.get("XYZ");
+        assertSame(metrics, orderProcessor.getOrderBook("XYZ").getBookMetrics());
+        assertEquals(10, metrics.getMessageCount());
+        assertEquals(4, metrics.getAddCount());
+        assertEquals(1, metrics.getCancelCount());
+        assertEquals(1, metrics.getFillCount());
+        assertEquals(1, metrics.getRejectedDuplicateCount());
+        assertEquals(1, metrics.getRejectedNotFoundCount());
+        assertEquals(2, metrics.getRejectedInvalidPriceCount());
+        assertEquals(1, metrics.getRejectedInvalidRecordCount());
+        // order 4 filled order 1 and rests at 100
+        assertEquals(0, metrics.getBidLevelCount());
+        assertEquals(2, metrics.getAskLevelCount());
+        assertEquals(0, metrics.getBidOrderCount());
+        assertEquals(2, metrics.getAskOrderCount());
+        assertEquals(2, metrics.getOrderIndexSize());
+        assertTrue(metrics.getOrderIndexCapacity() >= 2);
+    }
+
+    @Test
+    void testBooksWithoutRegistryShouldNotCount() throws OrderException {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        assertNull(orderProcessor.getOrderBook("XYZ").getBookMetrics());
+    }
+
+    @Test
+    void testExistingBooksShouldStartWithTheirGauges() throws OrderException {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 99);
+        BookMetricsRegistry registry = new BookMetricsRegistry();
+        orderProcessor.setBookMetricsRegistry(registry);
+        assertEquals(0, registry.get("XYZ").getMessageCount());
+        assertEquals(2, registry.get("XYZ").getBidLevelCount());
+        assertEquals(2, registry.get("XYZ").getOrderIndexSize());
+    }
+
+    @Test
+    void testMetricsShouldBeReported() throws IOException, OrderException {
+        BookMetricsRegistry registry = new BookMetricsRegistry();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setBookMetricsRegistry(registry);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("ABC", OrderActionType.ADD, "1", OrderSide.ASK, 10, 100);
+
+        StringWriter out = new StringWriter();
+        BookMetricsReporter bookMetricsReporter = new BookMetricsReporter(registry, out);
+        bookMetricsReporter.reportInterval();
+        orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "1", null, 0, 0);
+        bookMetricsReporter.close();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(BookMetricsReporter.HEADER.trim(), lines[0]);
+        assertEquals(1 + 2 + 2, lines.length);
+        int columnCount = BookMetricsReporter.HEADER.split(",").length;
+        for (int i = 1; i < lines.length; i++) {
+            assertEquals(columnCount, lines[i].split(",").length);
+        }
+        String lastXyzLine = lines[3].contains(",XYZ,") ? lines[3] : lines[4];
+        assertTrue(lastXyzLine.contains(",XYZ,2,"));
+    }
+
+    @Test
+    void testMetricsShouldBePublishedWithJmx() throws JMException, OrderException {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        try (BookMetricsRegistry registry = new BookMetricsRegistry(true)) {
+            orderProcessor.setBookMetricsRegistry(registry);
+            orderProcessor.processOrder("JMX", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+            orderProcessor.processOrder("JMX", OrderActionType.ADD, "2", OrderSide.ASK, 10, 101);
+            assertEquals(2L, mBeanServer.getAttribute(BookMetricsRegistry.getObjectName("JMX"), "MessageCount"));
+            assertEquals(1L, mBeanServer.getAttribute(BookMetricsRegistry.getObjectName("JMX"), "AskLevelCount"));
+        }
+        assertFalse(mBeanServer.isRegistered(BookMetricsRegistry.getObjectName("JMX")));
+    }
+}
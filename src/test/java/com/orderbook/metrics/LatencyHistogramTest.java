@@ -0,0 +1,71 @@
+package com.orderbook.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsShouldCoverEveryValueWithinThePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(5, 1L << 40);
+        for (int i = 0; i < histogram.getBucketCount(); i++) {
+            long lowestValue = histogram.lowestValue(i);
+            long highestValue = histogram.highestValue(i);
+            assertEquals(i, histogram.bucketIndex(lowestValue));
+            assertEquals(i, histogram.bucketIndex(highestValue));
+            if(i > 0) {
+                assertEquals(histogram.highestValue(i - 1) + 1, lowestValue);
+            }
+            // bucket width relative to its values
+            assertTrue((highestValue - lowestValue + 1) * 32 <= Math.max(lowestValue, 32));
+        }
+        assertEquals(histogram.getBucketCount() - 1, histogram.bucketIndex(1L << 40));
+    }
+
+    @Test
+    void testPercentilesShouldBeWithinThePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1..100000 ns
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = new HistogramSnapshot(histogram).update();
+        assertEquals(100000, snapshot.getTotalCount());
+        assertWithin(50000, snapshot.getValueAtPercentile(50));
+        assertWithin(99000, snapshot.getValueAtPercentile(99));
+        assertWithin(99900, snapshot.getValueAtPercentile(99.9));
+        assertWithin(100000, snapshot.getMaxValue());
+        assertWithin(50000, (long) snapshot.getMean());
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+    }
+
+    @Test
+    void testIntervalSnapshotShouldOnlyHaveTheLatestValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        HistogramSnapshot current = new HistogramSnapshot(histogram);
+        HistogramSnapshot previous = new HistogramSnapshot(histogram);
+        HistogramSnapshot interval = new HistogramSnapshot(histogram);
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(100);
+        }
+        previous.update();
+        histogram.record(5000000);
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        interval.setInterval(current.update(), previous);
+        assertEquals(3, interval.getTotalCount());
+        assertEquals(0, interval.getValueAtPercentile(1));
+        assertWithin(5000000, interval.getValueAtPercentile(50));
+        assertEquals(histogram.highestValue(histogram.getBucketCount() - 1), interval.getMaxValue());
+        assertEquals(1003, current.getTotalCount());
+        assertEquals(0, new HistogramSnapshot(histogram).getValueAtPercentile(99));
+        assertThrows(IllegalArgumentException.class,
+                () -> interval.setInterval(current, new HistogramSnapshot(new LatencyHistogram())));
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32 + 1, "Expected:" + expected + " Actual:" + actual);
+    }
+}
@@ -0,0 +1,70 @@
+package com.orderbook.metrics;
+
+import com.orderbook.constant.LatencyOperation;
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyReporterTest {
+
+    @Test
+    void testProcessedOrdersShouldBeReported() throws IOException, OrderException {
+        LatencyMetricsRegistry registry = new LatencyMetricsRegistry();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setLatencyMetricsRegistry(registry);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "3", OrderSide.ASK, 5, 100);
+        orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "2", null, 0, 0);
+        assertThrows(OrderException.class,
+                () -> orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "2", null, 0, 0));
+
+        LatencyMetrics metrics = registry.get("XYZ");
+        assertSame(metrics, orderProcessor.getOrderBook("XYZ").getLatencyMetrics());
+        // rejected operations are not recorded
+        assertEquals(4, count(metrics, LatencyOperation.PROCESS_ORDER));
+        assertEquals(3, count(metrics, LatencyOperation.EXECUTE_ORDER));
+        assertEquals(3, count(metrics, LatencyOperation.RUN_EXECUTION));
+        assertEquals(1, count(metrics, LatencyOperation.REMOVE_ORDER));
+
+        StringWriter out = new StringWriter();
+        LatencyReporter latencyReporter = new LatencyReporter(registry, out);
+        latencyReporter.reportInterval();
+        // nothing recorded since the previous report
+        latencyReporter.reportInterval();
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "4", OrderSide.ASK, 5, 100);
+        latencyReporter.close();
+        latencyReporter.reportTotal();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(LatencyReporter.HEADER.trim(), lines[0]);
+        assertEquals(1 + 4 + 3 + 4, lines.length);
+        assertTrue(lines[1].contains(",interval,XYZ,PROCESS_ORDER,4,"));
+        assertTrue(lines[5].contains(",interval,XYZ,PROCESS_ORDER,1,"));
+        assertTrue(lines[8].contains(",total,XYZ,PROCESS_ORDER,5,"));
+        assertEquals(12, lines[8].split(",").length);
+    }
+
+    @Test
+    void testBooksWithoutRegistryShouldNotRecord() throws OrderException {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        assertNull(orderProcessor.getOrderBook("XYZ").getLatencyMetrics());
+
+        LatencyMetricsRegistry registry = new LatencyMetricsRegistry();
+        orderProcessor.setLatencyMetricsRegistry(registry);
+        orderProcessor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 100);
+        assertEquals(1, count(registry.get("XYZ"), LatencyOperation.PROCESS_ORDER));
+    }
+
+    private static long count(LatencyMetrics metrics, LatencyOperation operation) {
+        return new HistogramSnapshot(metrics.getHistogram(operation)).update().getTotalCount();
+    }
+}
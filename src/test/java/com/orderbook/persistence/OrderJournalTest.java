@@ -0,0 +1,168 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReplayShouldRebuildTheBooks() throws IOException, OrderException {
+        String path = tempDir.resolve("orders.journal").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.registerInstrument(new Instrument("XYZ", 2, 5, 100, 100000));
+        try (OrderJournal orderJournal = new OrderJournal(path, 16, FsyncPolicy.COMMIT)) {
+            orderProcessor.setJournal(orderJournal);
+            processOrders(orderProcessor);
+            assertThrows(OrderException.class, () -> orderProcessor.processOrder("XYZ", "X", "missing", "B", "1", "1"));
+        }
+
+        OrderProcessor recoveredProcessor = new OrderProcessor();
+        OrderJournalReader journalReader = new OrderJournalReader(path);
+        // the rejected remove is not journaled
+        assertEquals(2001, journalReader.replay(recoveredProcessor));
+        assertEquals(2003, journalReader.getEntryCount());
+        assertEquals(Files.size(tempDir.resolve("orders.journal")), journalReader.getValidLength());
+
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    recoveredProcessor.getOrderBook(symbol).toString());
+        }
+        Instrument instrument = recoveredProcessor.getOrderBook("XYZ").getInstrument();
+        assertEquals(2, instrument.getPriceScale());
+        assertEquals(5, instrument.getTickSize());
+        assertEquals(100000, instrument.getMaxPrice());
+        assertEquals("\u017D\u00D61", recoveredProcessor.getOrderBook("ABC").getOrder("\u017D\u00D61").getOrderId());
+    }
+
+    @Test
+    void testReplayShouldRebuildModifiedOrders() throws IOException, OrderException {
+        String path = tempDir.resolve("orders.journal").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        try (OrderJournal orderJournal = new OrderJournal(path, 16, FsyncPolicy.COMMIT)) {
+            orderProcessor.setJournal(orderJournal);
+            orderProcessor.processOrder("XYZ", "A", "1", "B", "10", "100");
+            orderProcessor.processOrder("XYZ", "A", "2", "B", "10", "100");
+            orderProcessor.processOrder("XYZ", "M", "1", "B", "12", "100");
+        }
+
+        OrderProcessor recoveredProcessor = new OrderProcessor();
+        assertEquals(3, new OrderJournalReader(path).replay(recoveredProcessor));
+        OrderBook orderBook = recoveredProcessor.getOrderBook("XYZ");
+        assertEquals("2", orderBook.getBuyOrders().best().peek().getOrderId());
+        assertEquals(12, orderBook.getOrder("1").getQuantity());
+    }
+
+    @Test
+    void testReplayShouldRebuildOrdersWithNumericIds() throws IOException, OrderException {
+        String path = tempDir.resolve("orders.journal").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        try (OrderJournal orderJournal = new OrderJournal(path, 16, FsyncPolicy.COMMIT)) {
+            orderProcessor.setJournal(orderJournal);
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, 0L, OrderSide.BID, 10, 100);
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, 900000000000000001L, OrderSide.BID, 10, 99);
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, 1234567L, OrderSide.ASK, 4, 100);
+        }
+
+        OrderProcessor recoveredProcessor = new OrderProcessor();
+        assertEquals(3, new OrderJournalReader(path).replay(recoveredProcessor));
+        OrderBook orderBook = recoveredProcessor.getOrderBook("XYZ");
+        assertEquals(6, orderBook.getOrder("0").getQuantity());
+        assertEquals(10, orderBook.getOrder("900000000000000001").getQuantity());
+        assertNull(orderBook.getOrder("1234567"));
+    }
+
+    @Test
+    void testTornTailShouldBeTruncatedOnReopen() throws IOException, OrderException {
+        String path = tempDir.resolve("orders.journal").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        try (OrderJournal orderJournal = new OrderJournal(path)) {
+            orderProcessor.setJournal(orderJournal);
+            orderProcessor.processOrder("XYZ", "A", "1", "B", "10", "100");
+            orderProcessor.processOrder("XYZ", "A", "2", "S", "10", "101");
+        }
+        long length = Files.size(tempDir.resolve("orders.journal"));
+        // a crash in the middle of the last entry
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(length - 3);
+        }
+        OrderJournalReader journalReader = new OrderJournalReader(path);
+        assertEquals(1, journalReader.replay(null));
+        long validLength = journalReader.getValidLength();
+
+        OrderProcessor recoveredProcessor = new OrderProcessor();
+        try (OrderJournal orderJournal = new OrderJournal(path)) {
+            assertEquals(validLength, Files.size(tempDir.resolve("orders.journal")));
+            new OrderJournalReader(path).replay(recoveredProcessor);
+            recoveredProcessor.setJournal(orderJournal);
+            recoveredProcessor.processOrder("XYZ", "A", "3", "S", "5", "102");
+        }
+
+        OrderProcessor replayedProcessor = new OrderProcessor();
+        assertEquals(2, new OrderJournalReader(path).replay(replayedProcessor));
+        assertNotNull(replayedProcessor.getOrderBook("XYZ").getOrder("1"));
+        assertNull(replayedProcessor.getOrderBook("XYZ").getOrder("2"));
+        assertNotNull(replayedProcessor.getOrderBook("XYZ").getOrder("3"));
+    }
+
+    @Test
+    void testEntriesShouldBeWrittenByGroupCommit() throws IOException {
+        Path journalPath = tempDir.resolve("orders.journal");
+        Instrument instrument = new Instrument("XYZ");
+        try (OrderJournal orderJournal = new OrderJournal(journalPath.toString(), 4, FsyncPolicy.NONE)) {
+            assertEquals(JournalFormat.HEADER_LENGTH, Files.size(journalPath));
+            // symbol entry and two orders
+            orderJournal.append(instrument, OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+            orderJournal.append(instrument, OrderActionType.ADD, "2", OrderSide.BID, 10, 100);
+            assertEquals(JournalFormat.HEADER_LENGTH, Files.size(journalPath));
+            orderJournal.append(instrument, OrderActionType.REMOVE, "1", OrderSide.BID, 0, 0);
+            long committedLength = JournalFormat.HEADER_LENGTH + JournalFormat.SYMBOL_ENTRY_LENGTH + 3
+                    + 3 * (JournalFormat.ORDER_ENTRY_LENGTH + 1);
+            assertEquals(committedLength, Files.size(journalPath));
+            assertEquals(4, orderJournal.getEntryCount());
+
+            orderJournal.append(instrument, OrderActionType.REMOVE, "2", OrderSide.BID, 0, 0);
+            assertEquals(committedLength, Files.size(journalPath));
+            orderJournal.commit();
+            assertEquals(committedLength + JournalFormat.ORDER_ENTRY_LENGTH + 1, Files.size(journalPath));
+        }
+    }
+
+    @Test
+    void testFileWhichIsNotAJournalShouldNotBeOpened() throws IOException {
+        Path path = tempDir.resolve("orders.journal");
+        Files.write(path, "A,1,B,10,100\n".getBytes());
+        assertThrows(IOException.class, () -> new OrderJournal(path.toString()));
+        assertThrows(IOException.class, () -> new OrderJournalReader(path.toString()).replay(null));
+    }
+
+    private static void processOrders(OrderProcessor orderProcessor) throws OrderException {
+        for (int i = 0; i < 1000; i++) {
+            OrderSide side = i % 2 == 0 ? OrderSide.BID : OrderSide.ASK;
+            long price = side == OrderSide.BID ? 1000 - (i % 20) * 5 : 995 + (i % 20) * 5;
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, String.valueOf(i), side, 10 + i % 7, price);
+            if(i % 3 == 0 && orderProcessor.getOrderBook("XYZ").getOrder(String.valueOf(i)) != null) {
+                orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, String.valueOf(i), side, 0, 0);
+            } else {
+                orderProcessor.processOrder("ABC", "A", "a" + i, i % 2 == 0 ? "B" : "S", "3", "50.5");
+            }
+        }
+        orderProcessor.processOrder("ABC", "A", "\u017D\u00D61", "B", "1", "1");
+    }
+}
@@ -0,0 +1,216 @@
+package com.orderbook.persistence;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.exception.OrderException;
+import com.orderbook.service.OrderProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRestoredBooksShouldMatchTheSnapshotBooks() throws IOException, OrderException {
+        String path = tempDir.resolve("books.snapshot").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        // a ladder book and a tree book
+        orderProcessor.registerInstrument(new Instrument("XYZ", 2, 5, 100, 100000));
+        processOrders(orderProcessor, 0, 3000);
+
+        assertEquals(countOrders(orderProcessor), new SnapshotWriter(path).write(orderProcessor, 0));
+        assertFalse(Files.exists(tempDir.resolve("books.snapshot.tmp")));
+
+        OrderProcessor restoredProcessor = new OrderProcessor();
+        SnapshotReader snapshotReader = new SnapshotReader(path);
+        assertEquals(countOrders(orderProcessor), snapshotReader.restore(restoredProcessor));
+        assertEquals(0, snapshotReader.getJournalPosition());
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            OrderBook orderBook = orderProcessor.getOrderBook(symbol);
+            OrderBook restoredBook = restoredProcessor.getOrderBook(symbol);
+            assertEquals(orderBook.toString(), restoredBook.toString());
+            assertEquals(orderBook.getTradeSequenceNumber(), restoredBook.getTradeSequenceNumber());
+            assertEquals(orderBook.getBuyOrders().size(), restoredBook.getBuyOrders().size());
+            assertEquals(orderBook.getSellOrders().size(), restoredBook.getSellOrders().size());
+        }
+        assertEquals(2, restoredProcessor.getOrderBook("XYZ").getInstrument().getPriceScale());
+        assertTrue(restoredProcessor.getOrderBook("XYZ").getInstrument().hasPriceBand());
+
+        // the restored books keep matching like the original books, with the same time priority and order index
+        processOrders(orderProcessor, 3000, 6000);
+        processOrders(restoredProcessor, 3000, 6000);
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    restoredProcessor.getOrderBook(symbol).toString());
+            assertEquals(orderProcessor.getOrderBook(symbol).getTradeSequenceNumber(),
+                    restoredProcessor.getOrderBook(symbol).getTradeSequenceNumber());
+        }
+    }
+
+    @Test
+    void testSnapshotAndJournalTailShouldRecoverTheBooks() throws IOException, OrderException {
+        String snapshotPath = tempDir.resolve("books.snapshot").toString();
+        String journalPath = tempDir.resolve("orders.journal").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        try (OrderJournal orderJournal = new OrderJournal(journalPath)) {
+            orderProcessor.setJournal(orderJournal);
+            processOrders(orderProcessor, 0, 2000);
+            orderJournal.commit();
+            new SnapshotWriter(snapshotPath).write(orderProcessor, orderJournal.getCommittedLength());
+            processOrders(orderProcessor, 2000, 2500);
+        }
+
+        OrderProcessor recoveredProcessor = new OrderProcessor();
+        SnapshotReader snapshotReader = new SnapshotReader(snapshotPath);
+        snapshotReader.restore(recoveredProcessor);
+        long replayedCount = new OrderJournalReader(journalPath).replay(recoveredProcessor,
+                snapshotReader.getJournalPosition());
+        assertTrue(replayedCount > 0 && replayedCount < 2000);
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    recoveredProcessor.getOrderBook(symbol).toString());
+        }
+    }
+
+    @Test
+    void testRestoreShouldRejectOrdersOutOfPricePriority() throws OrderException {
+        OrderBook orderBook = new OrderBook("XYZ");
+        orderBook.beginRestore(3, 0);
+        orderBook.restoreOrder(orderBook.newOrder("1", 100, 10, OrderSide.BID));
+        orderBook.restoreOrder(orderBook.newOrder("2", 100, 10, OrderSide.BID));
+        orderBook.restoreOrder(orderBook.newOrder("3", 90, 10, OrderSide.BID));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderBook.restoreOrder(orderBook.newOrder("4", 95, 10, OrderSide.BID)));
+        assertThrows(OrderException.class,
+                () -> orderBook.restoreOrder(orderBook.newOrder("1", 80, 10, OrderSide.BID)));
+        assertEquals("1", orderBook.getBuyOrders().best().peek().getOrderId());
+        assertEquals(90, orderBook.getBuyOrders().worst().getPrice());
+        assertThrows(IllegalStateException.class, () -> orderBook.beginRestore(0, 0));
+    }
+
+    @Test
+    void testBooksWithOffHeapOrdersShouldRoundTripThroughASnapshot() throws IOException, OrderException {
+        String path = tempDir.resolve("books.snapshot").toString();
+        OrderProcessor orderProcessor = newOffHeapProcessor();
+        processNumericOrders(orderProcessor, 0, 3000);
+        assertTrue(orderProcessor.getOrderBook("XYZ").isOffHeapOrders());
+        assertFalse(orderProcessor.getOrderBook("ABC").isOffHeapOrders());
+
+        long orderCount = orderProcessor.getOrderBook("XYZ").getOrderCount()
+                + orderProcessor.getOrderBook("ABC").getOrderCount();
+        assertEquals(orderCount, new SnapshotWriter(path).write(orderProcessor, 0));
+        OrderProcessor restoredProcessor = newOffHeapProcessor();
+        assertEquals(orderCount, new SnapshotReader(path).restore(restoredProcessor));
+        // the snapshot keeps the mode of the books, a processor with the default modes restores them as they were
+        OrderProcessor defaultProcessor = new OrderProcessor();
+        assertEquals(orderCount, new SnapshotReader(path).restore(defaultProcessor));
+        for (OrderProcessor processor : new OrderProcessor[]{restoredProcessor, defaultProcessor}) {
+            assertTrue(processor.getOrderBook("XYZ").isOffHeapOrders());
+            assertTrue(processor.getOrderBook("XYZ").isNumericOrderIds());
+            assertFalse(processor.getOrderBook("ABC").isOffHeapOrders());
+            assertFalse(processor.getOrderBook("ABC").isNumericOrderIds());
+        }
+
+        processNumericOrders(orderProcessor, 3000, 6000);
+        processNumericOrders(restoredProcessor, 3000, 6000);
+        processNumericOrders(defaultProcessor, 3000, 6000);
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    restoredProcessor.getOrderBook(symbol).toString());
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    defaultProcessor.getOrderBook(symbol).toString());
+            assertEquals(orderProcessor.getOrderBook(symbol).getTradeSequenceNumber(),
+                    restoredProcessor.getOrderBook(symbol).getTradeSequenceNumber());
+        }
+    }
+
+    @Test
+    void testBooksWithNumericOrderIdsShouldKeepThemThroughASnapshot() throws IOException, OrderException {
+        String path = tempDir.resolve("books.snapshot").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        orderProcessor.registerInstrument(new Instrument("XYZ", 2, 5, 100, 100000));
+        processNumericOrders(orderProcessor, 0, 1000);
+        new SnapshotWriter(path).write(orderProcessor, 0);
+
+        OrderProcessor restoredProcessor = new OrderProcessor();
+        new SnapshotReader(path).restore(restoredProcessor);
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertTrue(restoredProcessor.getOrderBook(symbol).isNumericOrderIds());
+            assertFalse(restoredProcessor.getOrderBook(symbol).isOffHeapOrders());
+        }
+        processNumericOrders(orderProcessor, 1000, 2000);
+        processNumericOrders(restoredProcessor, 1000, 2000);
+        for (String symbol : new String[]{"XYZ", "ABC"}) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    restoredProcessor.getOrderBook(symbol).toString());
+        }
+    }
+
+    @Test
+    void testSnapshotWhichIsCutShortShouldNotBeRestored() throws IOException, OrderException {
+        String path = tempDir.resolve("books.snapshot").toString();
+        OrderProcessor orderProcessor = new OrderProcessor();
+        processOrders(orderProcessor, 0, 100);
+        new SnapshotWriter(path).write(orderProcessor, 0);
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() - 5);
+        }
+        assertThrows(IOException.class, () -> new SnapshotReader(path).restore(new OrderProcessor()));
+    }
+
+    private static long countOrders(OrderProcessor orderProcessor) {
+        long orderCount = 0;
+        for (OrderBook orderBook : orderProcessor.getOrderBooks()) {
+            orderCount += orderBook.getOrderPool().getCreatedCount() - orderBook.getOrderPool().size();
+        }
+        return orderCount;
+    }
+
+    private static OrderProcessor newOffHeapProcessor() {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setOffHeapOrders(true);
+        // only the instrument with a price band rests its orders off heap
+        orderProcessor.registerInstrument(new Instrument("XYZ", 2, 5, 100, 100000));
+        return orderProcessor;
+    }
+
+    private static void processNumericOrders(OrderProcessor orderProcessor, int from, int to)
+            throws OrderException {
+        for (int i = from; i < to; i++) {
+            OrderSide side = i % 2 == 0 ? OrderSide.BID : OrderSide.ASK;
+            long price = side == OrderSide.BID ? 1000 - (i % 40) * 5 : 990 + (i % 37) * 5;
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, 1000000L + i, side, 10 + i % 7, price);
+            long abcPrice = side == OrderSide.BID ? 5000 + (i % 11) * 100 : 6000 - (i % 13) * 100;
+            orderProcessor.processOrder("ABC", OrderActionType.ADD, 2000000L + i, side, 3 + i % 5, abcPrice);
+            if(i % 4 == 0) {
+                orderProcessor.tryProcessOrder("XYZ", OrderActionType.REMOVE, 1000000L + i - 8, side, 0, 0);
+            }
+        }
+    }
+
+    private static void processOrders(OrderProcessor orderProcessor, int from, int to) throws OrderException {
+        for (int i = from; i < to; i++) {
+            OrderSide side = i % 2 == 0 ? OrderSide.BID : OrderSide.ASK;
+            long price = side == OrderSide.BID ? 1000 - (i % 40) * 5 : 1005 + (i % 37) * 5;
+            orderProcessor.processOrder("XYZ", OrderActionType.ADD, "x" + i, side, 10 + i % 7, price);
+            // crosses now and then
+            long abcPrice = side == OrderSide.BID ? 5000 + (i % 11) * 100 : 6000 - (i % 13) * 100;
+            orderProcessor.processOrder("ABC", OrderActionType.ADD, "a" + i, side, 3 + i % 5, abcPrice);
+            if(i % 4 == 0 && orderProcessor.getOrderBook("XYZ").getOrder("x" + (i - 8)) != null) {
+                orderProcessor.processOrder("XYZ", OrderActionType.REMOVE, "x" + (i - 8), side, 0, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.BatchingTradeListener;
+import com.orderbook.domain.CoalescingDepthPublisher;
+import com.orderbook.domain.Instrument;
+import com.orderbook.metrics.BookMetricsRegistry;
+import com.orderbook.metrics.LatencyMetricsRegistry;
+import com.orderbook.persistence.FsyncPolicy;
+import com.orderbook.persistence.OrderJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OrderProcessorAllocationTest {
+
+    private static final String symbol = "XYZ";
+    private static final String[] orderIds = new String[63];
+    // warms up the order pool, the order index and the JIT
+    private static final int WARM_UP_CYCLE_COUNT = 20000;
+    private static final int MEASURED_CYCLE_COUNT = 50000;
+    private static final int MEASUREMENT_COUNT = 3;
+    private static final int TOTAL_CYCLE_COUNT = WARM_UP_CYCLE_COUNT + MEASUREMENT_COUNT * MEASURED_CYCLE_COUNT;
+    // only the measurement itself may allocate
+    private static final long MAX_ALLOCATED_BYTES = 1024;
+    private CoalescingDepthPublisher depthPublisher;
+
+    @TempDir
+    Path tempDir;
+
+    static {
+        for (int i = 0; i < orderIds.length; i++) {
+            orderIds[i] = String.valueOf(100000 + i);
+        }
+    }
+
+    /**
+     * Runs a number of cycles of orders.
+     */
+    private interface Cycles {
+        void run(int cycleCount) throws Exception;
+    }
+
+    @Test
+    void testProcessOrderShouldNotAllocateInSteadyState() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        long[] filledQuantity = new long[1];
+        orderProcessor.setTradeListener(new BatchingTradeListener(
+                tradeBatch -> filledQuantity[0] += tradeBatch.getTotalQuantity()));
+        long[] depthUpdateCount = new long[1];
+        depthPublisher = new CoalescingDepthPublisher(
+                (s, side, updateType, price, totalQuantity, orderCount) -> depthUpdateCount[0]++);
+        orderProcessor.setDepthListener(depthPublisher);
+        orderProcessor.setLatencyMetricsRegistry(new LatencyMetricsRegistry());
+        orderProcessor.setBookMetricsRegistry(new BookMetricsRegistry());
+        for (int i = 0; i < 16; i++) {
+            orderProcessor.processOrder(symbol, OrderActionType.ADD, "B" + i, OrderSide.BID, 10, 900 + i);
+            orderProcessor.processOrder(symbol, OrderActionType.ADD, "S" + i, OrderSide.ASK, 10, 1100 + i);
+        }
+
+        long allocatedBytes = allocatedBytes(cycleCount -> runCycles(orderProcessor, cycleCount));
+
+        assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+        // each cycle fills 15
+        assertEquals(TOTAL_CYCLE_COUNT * 15L, filledQuantity[0]);
+        assertTrue(depthUpdateCount[0] > 0);
+        assertEquals(16, orderProcessor.getOrderBook(symbol).getBuyOrders().size());
+        assertEquals(16, orderProcessor.getOrderBook(symbol).getSellOrders().size());
+    }
+
+    @Test
+    void testProcessOrderWithNumericOrderIdsShouldNotAllocateInSteadyState() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        orderProcessor.setBookMetricsRegistry(new BookMetricsRegistry());
+        long[] filledQuantity = new long[1];
+        orderProcessor.setTradeListener(new BatchingTradeListener(
+                tradeBatch -> filledQuantity[0] += tradeBatch.getTotalQuantity()));
+        int symbolId = orderProcessor.getSymbolId(symbol);
+        for (int i = 0; i < 16; i++) {
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, i, OrderSide.BID, 10, 900 + i);
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, 100 + i, OrderSide.ASK, 10, 1100 + i);
+        }
+
+        long allocatedBytes = allocatedBytes(cycleCount -> runNumericCycles(orderProcessor, symbolId, cycleCount));
+
+        assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+        // each cycle fills 15
+        assertEquals(TOTAL_CYCLE_COUNT * 15L, filledQuantity[0]);
+        assertEquals(32, orderProcessor.getOrderBook(symbolId).getOrderCount());
+    }
+
+    @Test
+    void testProcessOrderWithOffHeapOrdersShouldNotAllocateInSteadyState() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setOffHeapOrders(true);
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        orderProcessor.setBookMetricsRegistry(new BookMetricsRegistry());
+        long[] filledQuantity = new long[1];
+        orderProcessor.setTradeListener(new BatchingTradeListener(
+                tradeBatch -> filledQuantity[0] += tradeBatch.getTotalQuantity()));
+        int symbolId = orderProcessor.getSymbolId(symbol);
+        for (int i = 0; i < 16; i++) {
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, i, OrderSide.BID, 10, 900 + i);
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, 100 + i, OrderSide.ASK, 10, 1100 + i);
+        }
+
+        long allocatedBytes = allocatedBytes(cycleCount -> runNumericCycles(orderProcessor, symbolId, cycleCount));
+
+        assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+        assertEquals(TOTAL_CYCLE_COUNT * 15L, filledQuantity[0]);
+        assertTrue(orderProcessor.getOrderBook(symbolId).isOffHeapOrders());
+        assertEquals(32, orderProcessor.getOrderBook(symbolId).getOrderCount());
+        assertEquals(16, orderProcessor.getOrderBook(symbolId).getLevelCount(OrderSide.BID));
+    }
+
+    @Test
+    void testProcessRecordWithNumericOrderIdsShouldNotAllocateInSteadyState() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        String[] recordLines = new String[orderIds.length * 4];
+        for (int i = 0; i < orderIds.length; i++) {
+            recordLines[i * 4] = "A," + orderIds[i] + ",B,10,1000";
+            recordLines[i * 4 + 1] = "A," + orderIds[(i + 1) % orderIds.length] + ",B,10,1001";
+            recordLines[i * 4 + 2] = "A," + orderIds[(i + 2) % orderIds.length] + ",S,15,1000";
+            recordLines[i * 4 + 3] = "X," + orderIds[i] + ",B,0,1000";
+        }
+
+        long allocatedBytes = allocatedBytes(cycleCount -> runRecordCycles(orderProcessor, recordLines, cycleCount));
+
+        assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+    }
+
+    @Test
+    void testJournaledOrdersWithNumericOrderIdsShouldNotAllocateInSteadyState() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        int symbolId = orderProcessor.getSymbolId(symbol);
+        try (OrderJournal orderJournal = new OrderJournal(tempDir.resolve("orders.journal").toString(), 1024,
+                FsyncPolicy.NONE)) {
+            orderProcessor.setJournal(orderJournal);
+
+            long allocatedBytes = allocatedBytes(
+                    cycleCount -> runNumericCycles(orderProcessor, symbolId, cycleCount));
+
+            assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+        }
+    }
+
+    @Test
+    void testTryProcessOrderShouldNotAllocateForRejectedOrders() throws Exception {
+        OrderProcessor orderProcessor = new OrderProcessor();
+        orderProcessor.setNumericOrderIds(true);
+        orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 10000));
+        orderProcessor.setBookMetricsRegistry(new BookMetricsRegistry());
+        int symbolId = orderProcessor.getSymbolId(symbol);
+        orderProcessor.processOrder(symbolId, OrderActionType.ADD, 1L, OrderSide.BID, 10, 900);
+
+        long allocatedBytes = allocatedBytes(cycleCount -> runRejectCycles(orderProcessor, symbolId, cycleCount));
+
+        assertTrue(allocatedBytes < MAX_ALLOCATED_BYTES, "Allocated bytes:" + allocatedBytes);
+        assertEquals(1, orderProcessor.getOrderBook(symbolId).getOrderCount());
+    }
+
+    /**
+     * <p>Returns the bytes allocated by the calling thread while running cycles in steady state. The cycles are
+     * warmed up first and then measured a few times. The fewest bytes of a measurement are returned, since an
+     * allocation per cycle shows in every measurement while a one-off allocation of the JVM only shows in one.
+     * The test is skipped when the JVM does not measure the allocations of a thread.</p>
+     * @param cycles cycles to measure
+     * @return allocated bytes
+     */
+    private static long allocatedBytes(Cycles cycles) throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        cycles.run(WARM_UP_CYCLE_COUNT);
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASUREMENT_COUNT; i++) {
+            long allocatedBefore = allocationBean.getThreadAllocatedBytes(threadId);
+            cycles.run(MEASURED_CYCLE_COUNT);
+            allocatedBytes = Math.min(allocatedBytes,
+                    allocationBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+        return allocatedBytes;
+    }
+
+    /**
+     * <p>Each cycle sends a duplicate, a price outside the band, a remove and a modify of a missing order</p>
+     */
+    private void runRejectCycles(OrderProcessor orderProcessor, int symbolId, int cycleCount) {
+        for (int i = 0; i < cycleCount; i++) {
+            assertEquals(OrderStatus.DUPLICATE_ORDER,
+                    orderProcessor.tryProcessOrder(symbolId, OrderActionType.ADD, 1L, OrderSide.BID, 10, 900));
+            assertEquals(OrderStatus.INVALID_PRICE,
+                    orderProcessor.tryProcessOrder(symbolId, OrderActionType.ADD, 2L, OrderSide.BID, 10, 10001));
+            assertEquals(OrderStatus.ORDER_NOT_FOUND,
+                    orderProcessor.tryProcessOrder(symbolId, OrderActionType.REMOVE, 2L, null, 0, 0));
+            assertEquals(OrderStatus.ORDER_NOT_FOUND,
+                    orderProcessor.tryProcessOrder(symbolId, OrderActionType.MODIFY, 2L, OrderSide.BID, 5, 900));
+        }
+    }
+
+    /**
+     * <p>Each cycle processes the four record lines of an order id, like the cycles of long ids</p>
+     */
+    private void runRecordCycles(OrderProcessor orderProcessor, String[] recordLines, int cycleCount) {
+        for (int i = 0; i < cycleCount; i++) {
+            int first = ((i * 3) % orderIds.length) * 4;
+            for (int j = 0; j < 4; j++) {
+                assertEquals(OrderStatus.ACCEPTED, orderProcessor.processRecord(symbol, recordLines[first + j]));
+            }
+        }
+    }
+
+    /**
+     * <p>Each cycle rests two bids with long ids, partially fills them with a crossing ask and removes the rest</p>
+     */
+    private void runNumericCycles(OrderProcessor orderProcessor, int symbolId, int cycleCount) throws Exception {
+        for (int i = 0; i < cycleCount; i++) {
+            long bidId1 = 100000 + (i * 3) % 63;
+            long bidId2 = 100000 + (i * 3 + 1) % 63;
+            long askId = 100000 + (i * 3 + 2) % 63;
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, bidId1, OrderSide.BID, 10, 1000);
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, bidId2, OrderSide.BID, 10, 1001);
+            orderProcessor.processOrder(symbolId, OrderActionType.ADD, askId, OrderSide.ASK, 15, 1000);
+            orderProcessor.processOrder(symbolId, OrderActionType.REMOVE, bidId1, null, 0, 0);
+        }
+    }
+
+    /**
+     * <p>Each cycle rests two bids, partially fills them with a crossing ask and removes the rest</p>
+     */
+    private void runCycles(OrderProcessor orderProcessor, int cycleCount) throws Exception {
+        for (int i = 0; i < cycleCount; i++) {
+            String bidId1 = orderIds[(i * 3) % orderIds.length];
+            String bidId2 = orderIds[(i * 3 + 1) % orderIds.length];
+            String askId = orderIds[(i * 3 + 2) % orderIds.length];
+            orderProcessor.processOrder(symbol, OrderActionType.ADD, bidId1, OrderSide.BID, 10, 1000);
+            orderProcessor.processOrder(symbol, OrderActionType.ADD, bidId2, OrderSide.BID, 10, 1001);
+            orderProcessor.processOrder(symbol, OrderActionType.ADD, askId, OrderSide.ASK, 15, 1000);
+            orderProcessor.processOrder(symbol, OrderActionType.REMOVE, bidId1, null, 0, 0);
+            depthPublisher.flush();
+        }
+    }
+}
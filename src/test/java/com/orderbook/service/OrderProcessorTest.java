@@ -1,6 +1,15 @@
 package com.orderbook.service;
 
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import com.orderbook.domain.OrderBook;
+import com.orderbook.domain.OrderRecord;
+import com.orderbook.domain.SymbolRegistry;
+import com.orderbook.domain.TickLadderBookSide;
 import com.orderbook.exception.OrderException;
+import com.orderbook.metrics.BookMetricsRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -105,9 +114,8 @@ class OrderProcessorTest {
         String quantity = "10";
         String price = "85";
 
-        BigDecimal priceKey = new BigDecimal(price);
-
         orderProcessor.processOrder(symbol, type, orderId, side, quantity, price);
+        long priceKey = orderProcessor.getOrderBook(symbol).getInstrument().toScaledPrice(new BigDecimal(price));
         assertTrue(orderProcessor.getOrderBook(symbol).getBuyOrders().containsKey(priceKey));
         assertFalse(orderProcessor.getOrderBook(symbol).getSellOrders().containsKey(priceKey));
 
@@ -126,9 +134,8 @@ class OrderProcessorTest {
         String quantity = "10";
         String price = "100";
 
-        BigDecimal priceKey = new BigDecimal(price);
-
         orderProcessor.processOrder(symbol, type, orderId, side, quantity, price);
+        long priceKey = orderProcessor.getOrderBook(symbol).getInstrument().toScaledPrice(new BigDecimal(price));
         assertTrue(orderProcessor.getOrderBook(symbol).getSellOrders().containsKey(priceKey));
         assertFalse(orderProcessor.getOrderBook(symbol).getBuyOrders().containsKey(priceKey));
 
@@ -139,6 +146,228 @@ class OrderProcessorTest {
         assertFalse(orderProcessor.getOrderBook(symbol).getBuyOrders().containsKey(priceKey));
     }
 
+    @Test
+    void testProcessOrderShouldUsePriceScaleAndTickSizeOfRegisteredInstrument() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.registerInstrument(new Instrument("ABC", 2, 5));
+
+        processor.processOrder("ABC", "A", "1", "B", "10", "10.05");
+        assertTrue(processor.getOrderBook("ABC").getBuyOrders().containsKey(1005L));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            processor.processOrder("ABC", "A", "2", "B", "10", "10.07");
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            processor.processOrder("ABC", "A", "3", "B", "10", "10.055");
+        });
+    }
+
+    @Test
+    void testProcessOrderShouldUseTickLadderWhenInstrumentHasPriceBand() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.registerInstrument(new Instrument("ABC", 2, 5, 500, 2000));
+
+        processor.processOrder("ABC", "A", "1", "B", "10", "10.05");
+        assertTrue(processor.getOrderBook("ABC").getBuyOrders() instanceof TickLadderBookSide);
+        assertTrue(processor.getOrderBook("ABC").getBuyOrders().containsKey(1005L));
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            processor.processOrder("ABC", "A", "2", "B", "10", "20.05");
+        });
+    }
+
+    @Test
+    void testRegisterInstrumentShouldThrowIllegalStateExceptionWhenOrderBookAlreadyCreated() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.processOrder("ABC", "A", "1", "B", "10", "10");
+
+        assertThrows(IllegalStateException.class, () -> {
+            processor.registerInstrument(new Instrument("ABC", 2, 5));
+        });
+    }
+
+    @Test
+    void testProcessRecord() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.registerInstrument(new Instrument("ABC", 2, 5));
+
+        assertEquals(OrderStatus.ACCEPTED, processor.processRecord("ABC", "A,1,B,10,10.05"));
+        assertTrue(processor.getOrderBook("ABC").getBuyOrders().containsKey(1005L));
+        assertEquals(OrderStatus.INVALID_PRICE, processor.processRecord("ABC", "A,2,B,10,10.07"));
+        assertEquals(OrderStatus.INVALID_SIDE, processor.processRecord("ABC", "A,2,V,10,10.05"));
+        assertEquals(OrderStatus.ACCEPTED, processor.processRecord("ABC", "X,1,B,10,10.05"));
+        assertTrue(processor.getOrderBook("ABC").getBuyOrders().isEmpty());
+    }
+
+    @Test
+    void testProcessBatchShouldReturnTheResultOfEveryRecord() {
+        OrderProcessor processor = new OrderProcessor();
+        processor.registerInstrument(new Instrument("ABC", 0, 5));
+        OrderRecord[] records = {
+                record("ABC", OrderActionType.ADD, "1", OrderSide.BID, 10, 100),
+                record("XYZ", OrderActionType.ADD, "1", OrderSide.ASK, 10, 101),
+                record("ABC", OrderActionType.ADD, "1", OrderSide.BID, 10, 100),
+                record("ABC", OrderActionType.ADD, "2", OrderSide.ASK, 15, 100),
+                record("ABC", OrderActionType.ADD, "3", OrderSide.ASK, 15, 102),
+                record("ABC", OrderActionType.REMOVE, "1", null, 0, 0),
+                record("ABC", OrderActionType.ADD, "4", null, 10, 100),
+                record(null, OrderActionType.ADD, "5", OrderSide.BID, 10, 100),
+                record(" ", OrderActionType.ADD, "6", OrderSide.BID, 10, 100),
+                record("XYZ", OrderActionType.REMOVE, "1", null, 0, 0)
+        };
+        BatchResult batchResult = new BatchResult(16);
+
+        assertEquals(4, processor.processBatch(records, 0, records.length, batchResult));
+        assertEquals(records.length, batchResult.size());
+        OrderStatus[] expectedStatuses = {OrderStatus.ACCEPTED, OrderStatus.ACCEPTED, OrderStatus.DUPLICATE_ORDER,
+                OrderStatus.ACCEPTED, OrderStatus.INVALID_PRICE, OrderStatus.ORDER_NOT_FOUND,
+                OrderStatus.INVALID_SIDE, OrderStatus.INVALID_RECORD, OrderStatus.INVALID_RECORD,
+                OrderStatus.ACCEPTED};
+        for (int i = 0; i < records.length; i++) {
+            assertEquals(expectedStatuses[i], batchResult.getStatus(i), "Record:" + i);
+        }
+        // order 2 fills order 1 and rests with 5
+        assertEquals(10, batchResult.getFilledQuantity(3));
+        assertEquals(0, batchResult.getFilledQuantity(0));
+        assertEquals(5, processor.getOrderBook("ABC").getOrder("2").getQuantity());
+        assertNull(processor.getOrderBook("XYZ").getOrder("1"));
+        assertThrows(IndexOutOfBoundsException.class, () -> batchResult.getStatus(records.length));
+    }
+
+    @Test
+    void testProcessBatchOfOneSymbolShouldUseTheSymbolOfTheBatch() {
+        OrderProcessor processor = new OrderProcessor();
+        OrderRecord[] records = {
+                record("IGNORED", OrderActionType.ADD, "1", OrderSide.BID, 10, 100),
+                record(null, OrderActionType.ADD, "2", OrderSide.ASK, 4, 99),
+                record(null, OrderActionType.ADD, "3", OrderSide.ASK, 4, 99)
+        };
+        BatchResult batchResult = new BatchResult(2);
+
+        assertEquals(2, processor.processBatch("ABC", records, 1, 2, batchResult));
+        assertNull(processor.getOrderBook("IGNORED"));
+        assertEquals(0, batchResult.getFilledQuantity(0));
+        assertEquals(0, batchResult.getFilledQuantity(1));
+        assertEquals(2, processor.getOrderBook("ABC").getSellOrders().get(99L).size());
+        assertThrows(IllegalArgumentException.class, () -> processor.processBatch("ABC", records, 0, 3, batchResult));
+    }
+
+    @Test
+    void testProcessOrderBySymbolIdShouldUseTheBookOfTheSymbol() throws OrderException {
+        SymbolRegistry symbolRegistry = new SymbolRegistry();
+        symbolRegistry.getOrAssign("ABC");
+        OrderProcessor processor = new OrderProcessor(symbolRegistry);
+        int xyzId = processor.getSymbolId("XYZ");
+        assertEquals(2, xyzId);
+        assertNull(processor.getOrderBook(xyzId));
+
+        processor.processOrder(xyzId, OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        processor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.ASK, 4, 100);
+        processor.processOrder(1, OrderActionType.ADD, "1", OrderSide.ASK, 5, 200);
+        assertSame(processor.getOrderBook("XYZ"), processor.getOrderBook(xyzId));
+        assertEquals(6, processor.getOrderBook(xyzId).getOrder("1").getQuantity());
+        assertEquals("ABC", processor.getOrderBook(1).getSymbol());
+        assertEquals(2, processor.getOrderBooks().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> processor.processOrder(3, OrderActionType.ADD, "1", OrderSide.BID, 10, 100));
+        assertNull(processor.getOrderBook(-1));
+
+        // ids beyond the initial directory
+        for (int i = 0; i < 40; i++) {
+            processor.processOrder("S" + i, OrderActionType.ADD, "1", OrderSide.BID, 1, 100);
+        }
+        assertEquals("S39", processor.getOrderBook(processor.getSymbolId("S39")).getSymbol());
+        assertEquals(42, processor.getOrderBooks().size());
+    }
+
+    @Test
+    void testProcessOrderWithNumericOrderIds() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.setNumericOrderIds(true);
+        assertEquals(OrderStatus.ACCEPTED, processor.processRecord("XYZ", "A,100000,B,10,100"));
+        OrderBook orderBook = processor.getOrderBook("XYZ");
+        assertTrue(orderBook.isNumericOrderIds());
+        long price = orderBook.getOrder(100000).getPrice();
+        processor.processOrder("XYZ", OrderActionType.ADD, 100001L, OrderSide.ASK, 4, price);
+        assertEquals(6, orderBook.getOrder(100000).getQuantity());
+        assertEquals("100000", orderBook.getOrder(100000).getOrderId());
+        assertEquals(OrderStatus.INVALID_ORDER_ID, processor.processRecord("XYZ", "A,Order-1,B,10,100"));
+        assertThrows(OrderException.class,
+                () -> processor.processOrder("XYZ", OrderActionType.ADD, 100000L, OrderSide.BID, 10, price));
+        processor.processOrder(processor.getSymbolId("XYZ"), OrderActionType.REMOVE, 100000L, null, 0, 0);
+        assertEquals(0, orderBook.getOrderCount());
+        assertThrows(IllegalStateException.class, () -> processor.setNumericOrderIds(false));
+    }
+
+    @Test
+    void testProcessModifyRecords() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        BookMetricsRegistry registry = new BookMetricsRegistry();
+        processor.setBookMetricsRegistry(registry);
+        processor.registerInstrument(new Instrument("XYZ", 0, 1, 1, 1000));
+        assertEquals(OrderStatus.ACCEPTED, processor.processRecord("XYZ", "A,1,B,10,100"));
+        assertEquals(OrderStatus.ACCEPTED, processor.processRecord("XYZ", "M,1,B,7,100"));
+        processor.processOrder("XYZ", "M", "1", "B", "9", "101");
+        OrderBook orderBook = processor.getOrderBook("XYZ");
+        assertEquals(9, orderBook.getOrder("1").getQuantity());
+        assertEquals(101, orderBook.getOrder("1").getPrice());
+        assertEquals(OrderStatus.INVALID_PRICE, processor.processRecord("XYZ", "M,1,B,9,1001"));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, processor.processRecord("XYZ", "M,2,B,9,100"));
+
+        BatchResult batchResult = new BatchResult(4);
+        OrderRecord[] records = {
+                record("XYZ", OrderActionType.ADD, "2", OrderSide.ASK, 5, 102),
+                record("XYZ", OrderActionType.MODIFY, "2", OrderSide.ASK, 5, 101),
+                record("XYZ", OrderActionType.MODIFY, "1", OrderSide.BID, 0, 101),
+                record("XYZ", OrderActionType.MODIFY, "3", OrderSide.BID, 1, 101)};
+        assertEquals(2, processor.processBatch(records, 0, 4, batchResult));
+        assertEquals(5, batchResult.getFilledQuantity(1));
+        assertEquals(OrderStatus.INVALID_QUANTITY, batchResult.getStatus(2));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, batchResult.getStatus(3));
+        assertEquals(4, orderBook.getOrder("1").getQuantity());
+        assertEquals(3, registry.get("XYZ").getModifyCount());
+    }
+
+    @Test
+    void testTryProcessOrderShouldReturnTheRejectReasonWithoutThrowing() throws OrderException {
+        OrderProcessor processor = new OrderProcessor();
+        processor.registerInstrument(new Instrument("XYZ", 0, 1, 1, 1000));
+        assertEquals(OrderStatus.ACCEPTED,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100));
+        assertEquals(OrderStatus.DUPLICATE_ORDER,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100));
+        assertEquals(OrderStatus.INVALID_SIDE,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, "2", null, 10, 100));
+        assertEquals(OrderStatus.INVALID_QUANTITY,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, -1, 100));
+        assertEquals(OrderStatus.INVALID_PRICE,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 1001));
+        assertEquals(OrderStatus.INVALID_ORDER_ID,
+                processor.tryProcessOrder("XYZ", OrderActionType.ADD, " ", OrderSide.BID, 10, 100));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND,
+                processor.tryProcessOrder("XYZ", OrderActionType.REMOVE, "2", null, 0, 0));
+        assertEquals(OrderStatus.ACCEPTED,
+                processor.tryProcessOrder("XYZ", OrderActionType.REMOVE, "1", null, 0, 0));
+        assertEquals(0, processor.getOrderBook("XYZ").getOrderCount());
+
+        // the methods which throw keep their exceptions
+        OrderException e = assertThrows(OrderException.class,
+                () -> processor.processOrder("XYZ", OrderActionType.REMOVE, "1", null, 0, 0));
+        assertEquals(OrderStatus.ORDER_NOT_FOUND, e.getOrderStatus());
+        assertThrows(IllegalArgumentException.class,
+                () -> processor.processOrder("XYZ", OrderActionType.ADD, "2", null, 10, 100));
+        e = assertThrows(OrderException.class,
+                () -> processor.processOrder("XYZ", OrderActionType.ADD, "2", OrderSide.BID, 10, 1001));
+        assertEquals(OrderStatus.INVALID_PRICE, e.getOrderStatus());
+    }
+
+    private static OrderRecord record(String symbol, OrderActionType actionType, String orderId, OrderSide side,
+                                      long quantity, long price) {
+        OrderRecord orderRecord = new OrderRecord().set(actionType, orderId, side, quantity, price);
+        orderRecord.setSymbol(symbol);
+        return orderRecord;
+    }
+
     @AfterAll
     @Test
     static void testGetOrderBook() {
@@ -0,0 +1,62 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.domain.OrderRecord;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRecordQueueTest {
+
+    @Test
+    void testCapacityShouldBeRoundedToPowerOfTwo() {
+        assertEquals(8, new OrderRecordQueue(5).capacity());
+        assertEquals(8, new OrderRecordQueue(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new OrderRecordQueue(0));
+    }
+
+    @Test
+    void testQueueShouldKeepOrderAcrossWrap() {
+        OrderRecordQueue queue = new OrderRecordQueue(4);
+        assertNull(queue.peek());
+        for (int i = 0; i < 10; i++) {
+            queue.claim().set(OrderActionType.ADD, String.valueOf(i), OrderSide.BID, i, i);
+            queue.publish();
+            OrderRecord orderRecord = queue.peek();
+            assertEquals(String.valueOf(i), orderRecord.getOrderId());
+            assertEquals(i, orderRecord.getQuantity());
+            queue.release();
+            assertNull(queue.peek());
+        }
+        assertEquals(10, queue.getPublishedCount());
+        assertEquals(10, queue.getReleasedCount());
+    }
+
+    @Test
+    void testQueueShouldPassRecordsBetweenThreads() throws InterruptedException {
+        OrderRecordQueue queue = new OrderRecordQueue(16);
+        int recordCount = 100_000;
+        long[] sum = new long[1];
+        Thread consumer = new Thread(() -> {
+            int received = 0;
+            while (received < recordCount) {
+                OrderRecord orderRecord = queue.peek();
+                if(orderRecord != null) {
+                    // records must arrive in order
+                    assertEquals(received, orderRecord.getQuantity());
+                    sum[0] += orderRecord.getQuantity();
+                    queue.release();
+                    received++;
+                }
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < recordCount; i++) {
+            queue.claim().set(OrderActionType.ADD, "1", OrderSide.ASK, i, 1);
+            queue.publish();
+        }
+        consumer.join();
+        assertEquals((long) recordCount * (recordCount - 1) / 2, sum[0]);
+    }
+}
@@ -0,0 +1,138 @@
+package com.orderbook.service;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.Instrument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedOrderProcessorTest {
+
+    @Test
+    void testShardedBooksShouldMatchSingleThreadedBooks() {
+        String[] symbols = new String[50];
+        for (int i = 0; i < symbols.length; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        OrderProcessor orderProcessor = new OrderProcessor();
+        List<OrderStatus> rejections = Collections.synchronizedList(new ArrayList<>());
+        List<OrderStatus> expectedRejections = new ArrayList<>();
+        ShardedOrderProcessor shardedOrderProcessor = new ShardedOrderProcessor(4, 64,
+                (symbol, orderActionType, orderId, reason) -> rejections.add(reason));
+        for (String symbol : symbols) {
+            orderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 200));
+            shardedOrderProcessor.registerInstrument(new Instrument(symbol, 0, 1, 1, 200));
+        }
+        shardedOrderProcessor.start();
+
+        Random random = new Random(7);
+        long rejectedCount = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String symbol = symbols[random.nextInt(symbols.length)];
+            String orderId = String.valueOf(random.nextInt(2_000));
+            OrderActionType orderActionType = random.nextInt(4) == 0 ? OrderActionType.REMOVE : OrderActionType.ADD;
+            OrderSide side = random.nextBoolean() ? OrderSide.BID : OrderSide.ASK;
+            long quantity = 1 + random.nextInt(50);
+            long price = 90 + random.nextInt(20);
+            OrderStatus orderStatus = orderProcessor.tryProcessOrder(symbol, orderActionType, orderId, side, quantity,
+                    price);
+            if(orderStatus != OrderStatus.ACCEPTED) {
+                rejectedCount++;
+                expectedRejections.add(orderStatus);
+            }
+            shardedOrderProcessor.submit(symbol, orderActionType, orderId, side, quantity, price);
+        }
+        shardedOrderProcessor.flush();
+
+        for (String symbol : symbols) {
+            assertEquals(orderProcessor.getOrderBook(symbol).toString(),
+                    shardedOrderProcessor.getOrderBook(symbol).toString());
+        }
+        assertTrue(rejectedCount > 0);
+        assertEquals(rejectedCount, shardedOrderProcessor.getRejectedCount());
+        assertEquals(rejectedCount, rejections.size());
+        // the symbols are spread over the shards, so only the reasons are compared
+        Collections.sort(rejections);
+        Collections.sort(expectedRejections);
+        assertEquals(expectedRejections, rejections);
+        shardedOrderProcessor.close();
+    }
+
+    @Test
+    void testSubmitRecord() {
+        ShardedOrderProcessor shardedOrderProcessor = new ShardedOrderProcessor(2);
+        shardedOrderProcessor.registerInstrument(new Instrument("ABC", 2, 5));
+        shardedOrderProcessor.start();
+
+        assertEquals(OrderStatus.ACCEPTED, shardedOrderProcessor.submitRecord("ABC", "A,1,B,10,10.05"));
+        assertEquals(OrderStatus.INVALID_PRICE, shardedOrderProcessor.submitRecord("ABC", "A,2,B,10,10.07"));
+        assertEquals(OrderStatus.INVALID_SIDE, shardedOrderProcessor.submitRecord("ABC", "A,3,V,10,10.05"));
+        assertEquals(OrderStatus.ACCEPTED, shardedOrderProcessor.submitRecord("ABC", "A,4,S,4,10.05"));
+        assertEquals(OrderStatus.ACCEPTED, shardedOrderProcessor.submitRecord("DEF", "A,1,S,4,10.05"));
+        shardedOrderProcessor.flush();
+
+        assertEquals(6, shardedOrderProcessor.getOrderBook("ABC").getOrder("1").getQuantity());
+        assertEquals(100500, shardedOrderProcessor.getOrderBook("DEF").getSellOrders().best().getPrice());
+        assertEquals(0, shardedOrderProcessor.getRejectedCount());
+        shardedOrderProcessor.close();
+    }
+
+    @Test
+    void testFailingRecordShouldBeRejectedWithoutStoppingTheShard() {
+        List<String> rejections = Collections.synchronizedList(new ArrayList<>());
+        ShardedOrderProcessor shardedOrderProcessor = new ShardedOrderProcessor(1, 64,
+                (symbol, orderActionType, orderId, reason) -> rejections.add(symbol + " " + orderId + " " + reason));
+        shardedOrderProcessor.setTradeListener((symbol, sequenceNumber, aggressorOrderId, restingOrderId, price,
+                                                quantity, aggressorSide) -> {
+            if(aggressorOrderId.equals("3")) {
+                throw new IllegalStateException("Listener failed");
+            }
+        });
+        shardedOrderProcessor.start();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> shardedOrderProcessor.submit(" ", OrderActionType.ADD, "1", OrderSide.BID, 10, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> shardedOrderProcessor.submit(null, OrderActionType.ADD, "1", OrderSide.BID, 10, 100));
+        assertEquals(OrderStatus.INVALID_RECORD, shardedOrderProcessor.submitRecord("", "A,1,B,10,100"));
+        shardedOrderProcessor.submit("ABC", OrderActionType.ADD, "1", OrderSide.BID, 10, 100);
+        shardedOrderProcessor.submit("ABC", OrderActionType.ADD, "2", OrderSide.ASK, 4, 100);
+        shardedOrderProcessor.submit("ABC", OrderActionType.ADD, "3", OrderSide.ASK, 4, 100);
+        shardedOrderProcessor.submit("ABC", OrderActionType.ADD, "4", OrderSide.BID, 5, 99);
+        shardedOrderProcessor.flush();
+
+        assertEquals(1, rejections.size());
+        assertEquals("ABC 3 INVALID_RECORD", rejections.get(0));
+        assertEquals(1, shardedOrderProcessor.getRejectedCount());
+        assertEquals(5, shardedOrderProcessor.getOrderBook("ABC").getOrder("4").getQuantity());
+        shardedOrderProcessor.close();
+    }
+
+    @Test
+    void testProcessorShouldBeStartedOnlyOnce() {
+        ShardedOrderProcessor shardedOrderProcessor = new ShardedOrderProcessor(1);
+        assertThrows(IllegalStateException.class,
+                () -> shardedOrderProcessor.submit("ABC", OrderActionType.REMOVE, "1", OrderSide.BID, 0, 0));
+        shardedOrderProcessor.start();
+        assertThrows(IllegalStateException.class, shardedOrderProcessor::start);
+        assertThrows(IllegalStateException.class,
+                () -> shardedOrderProcessor.registerInstrument(new Instrument("ABC")));
+        shardedOrderProcessor.close();
+    }
+
+    @Test
+    void testShardIndexShouldBeStable() {
+        ShardedOrderProcessor shardedOrderProcessor = new ShardedOrderProcessor(3);
+        int shardIndex = shardedOrderProcessor.getShardIndex("XYZ");
+        assertTrue(shardIndex >= 0 && shardIndex < 3);
+        assertEquals(shardIndex, shardedOrderProcessor.getShardIndex("XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedOrderProcessor(0));
+    }
+}
@@ -0,0 +1,142 @@
+package com.orderbook.util;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryOrderRecordReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrittenRecordsShouldReadBack() throws IOException {
+        String path = tempDir.resolve("MarketDataFile-XYZ.bin").toString();
+        OrderRecord orderRecord = new OrderRecord();
+        BinaryOrderRecordFormat format = new BinaryOrderRecordFormat(2,
+                BinaryOrderRecordFormat.SYMBOL_ID | BinaryOrderRecordFormat.TIMESTAMP);
+        assertEquals(40, format.getRecordLength());
+        try (BinaryOrderRecordWriter binaryWriter = new BinaryOrderRecordWriter(path, format)) {
+            // more records than fit in the buffer of the writer
+            for (int i = 0; i < 5000; i++) {
+                orderRecord.set(i % 2 == 0 ? OrderActionType.ADD : OrderActionType.REMOVE, String.valueOf(i),
+                        i % 3 == 0 ? OrderSide.BID : OrderSide.ASK, i, 100 + i);
+                orderRecord.setSymbolId(7);
+                orderRecord.setTimestamp(1000L * i);
+                binaryWriter.write(orderRecord);
+            }
+            assertEquals(5000, binaryWriter.getRecordCount());
+        }
+        assertEquals(BinaryOrderRecordFormat.HEADER_LENGTH + 5000L * format.getRecordLength(),
+                Files.size(tempDir.resolve("MarketDataFile-XYZ.bin")));
+
+        BinaryOrderRecordReader binaryReader = new BinaryOrderRecordReader(path);
+        assertEquals(2, binaryReader.getPriceScale());
+        int recordCount = 0;
+        while (binaryReader.hasNext()) {
+            assertEquals(OrderStatus.ACCEPTED, binaryReader.next(orderRecord));
+            int i = recordCount++;
+            assertEquals(i % 2 == 0 ? OrderActionType.ADD : OrderActionType.REMOVE, orderRecord.getActionType());
+            assertEquals(String.valueOf(i), orderRecord.getOrderId());
+            assertEquals(i % 3 == 0 ? OrderSide.BID : OrderSide.ASK, orderRecord.getSide());
+            assertEquals(i, orderRecord.getQuantity());
+            assertEquals(100 + i, orderRecord.getPrice());
+            assertEquals(7, orderRecord.getSymbolId());
+            assertEquals(1000L * i, orderRecord.getTimestamp());
+        }
+        assertEquals(5000, recordCount);
+        assertThrows(IllegalStateException.class, () -> binaryReader.next(new OrderRecord()));
+        binaryReader.close();
+        assertThrows(IllegalStateException.class, binaryReader::hasNext);
+    }
+
+    @Test
+    void testReaderShouldMapLargeFilesInChunksOfWholeRecords() throws IOException {
+        String path = tempDir.resolve("MarketDataFile-XYZ.bin").toString();
+        BinaryOrderRecordFormat format = new BinaryOrderRecordFormat(0, 0);
+        OrderRecord orderRecord = new OrderRecord();
+        try (BinaryOrderRecordWriter binaryWriter = new BinaryOrderRecordWriter(path, format)) {
+            for (int i = 0; i < 1000; i++) {
+                binaryWriter.write(orderRecord.set(OrderActionType.ADD, i, OrderSide.BID, i, 100 + i));
+            }
+        }
+
+        // 100 bytes hold 3 records of 28 bytes, a chunk never splits a record
+        int recordCount = 0;
+        try (BinaryOrderRecordReader binaryReader = new BinaryOrderRecordReader(path, 100)) {
+            while (binaryReader.hasNext()) {
+                assertEquals(OrderStatus.ACCEPTED, binaryReader.next(orderRecord));
+                assertEquals(recordCount, orderRecord.getNumericOrderId());
+                assertEquals(100 + recordCount, orderRecord.getPrice());
+                recordCount++;
+            }
+        }
+        assertEquals(1000, recordCount);
+        assertEquals("999", orderRecord.getOrderId());
+        assertThrows(IllegalArgumentException.class, () -> new BinaryOrderRecordReader(path, 27));
+    }
+
+    @Test
+    void testInvalidRecordsShouldReturnReason() {
+        BinaryOrderRecordFormat format = new BinaryOrderRecordFormat(4, 0);
+        assertEquals(28, format.getRecordLength());
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryOrderRecordFormat.HEADER_LENGTH
+                + 3 * format.getRecordLength()).order(ByteOrder.LITTLE_ENDIAN);
+        format.writeHeader(buffer);
+        OrderRecord orderRecord = new OrderRecord().set(OrderActionType.ADD, "1", OrderSide.BID, 10, 0);
+        format.writeRecord(buffer, orderRecord);
+        orderRecord.setPrice(100);
+        format.writeRecord(buffer, orderRecord);
+        buffer.put(buffer.position() - format.getRecordLength() + 1, (byte) 'V');
+        orderRecord.setTimestamp(5);
+        format.writeRecord(buffer, orderRecord);
+        buffer.flip();
+
+        BinaryOrderRecordReader binaryReader = new BinaryOrderRecordReader(buffer);
+        assertEquals(4, binaryReader.getPriceScale());
+        OrderRecord readRecord = new OrderRecord();
+        assertEquals(OrderStatus.INVALID_PRICE, binaryReader.next(readRecord));
+        assertEquals(OrderStatus.INVALID_SIDE, binaryReader.next(readRecord));
+        assertEquals(OrderStatus.ACCEPTED, binaryReader.next(readRecord));
+        // the format has no timestamp
+        assertEquals(0, readRecord.getTimestamp());
+        assertEquals(100, readRecord.getPrice());
+        assertFalse(binaryReader.hasNext());
+    }
+
+    @Test
+    void testReaderShouldRejectInvalidHeader() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryOrderRecordFormat.HEADER_LENGTH);
+        assertThrows(IllegalArgumentException.class, () -> new BinaryOrderRecordReader(buffer));
+    }
+
+    @Test
+    void testToNumericOrderId() {
+        assertEquals(100000, BinaryOrderRecordFormat.toNumericOrderId("100000"));
+        assertEquals(0, BinaryOrderRecordFormat.toNumericOrderId("0"));
+        assertEquals(-1, BinaryOrderRecordFormat.toNumericOrderId("007"));
+        assertEquals(-1, BinaryOrderRecordFormat.toNumericOrderId("Order-1"));
+        assertEquals(-1, BinaryOrderRecordFormat.toNumericOrderId(""));
+        assertEquals(-1, BinaryOrderRecordFormat.toNumericOrderId("1234567890123456789"));
+    }
+
+    @Test
+    void testWriterShouldRejectNonNumericOrderId() {
+        BinaryOrderRecordFormat format = new BinaryOrderRecordFormat(4, 0);
+        ByteBuffer buffer = ByteBuffer.allocate(format.getRecordLength()).order(ByteOrder.LITTLE_ENDIAN);
+        OrderRecord orderRecord = new OrderRecord().set(OrderActionType.ADD, "A1", OrderSide.BID, 10, 100);
+        assertThrows(IllegalArgumentException.class, () -> format.writeRecord(buffer, orderRecord));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryOrderRecordFormat(4, 4));
+    }
+}
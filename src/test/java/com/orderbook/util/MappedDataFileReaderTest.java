@@ -0,0 +1,116 @@
+package com.orderbook.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedDataFileReaderTest {
+
+    private static final String path = "src/test/resources/MarketDataFile-XYZ.csv";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCreateReaderShouldThrowFileNotFoundExceptionWhenNoFileFound() {
+        assertThrows(FileNotFoundException.class, () -> {
+            new MappedDataFileReader("test/resources/MarketDataFile-XYZ.csv");
+        });
+    }
+
+    @Test
+    void testReaderShouldReadSameLinesAsDataFileReader() throws IOException {
+        List<String> expectedLines = new ArrayList<>();
+        DataFileReader dataFileReader = new DataFileReader(path);
+        while (dataFileReader.hasNext()) {
+            expectedLines.add(dataFileReader.nextLine());
+        }
+        dataFileReader.close();
+
+        assertEquals(expectedLines, readAll(new MappedDataFileReader(path)));
+    }
+
+    @Test
+    void testNextLineShouldReuseLineView() throws IOException {
+        try (MappedDataFileReader reader = new MappedDataFileReader(path)) {
+            LineView line = reader.nextLine();
+            assertSame(line, reader.nextLine());
+        }
+    }
+
+    @Test
+    void testReaderShouldHandleCarriageReturnsBlankLinesAndMissingLastLineBreak() throws IOException {
+        Path file = write("A,1,B,10,100\r\n\r\nX,1,B,10,100\n\nA,2,S,5,101");
+        List<String> lines = readAll(new MappedDataFileReader(file.toString()));
+        assertEquals(3, lines.size());
+        assertEquals("A,1,B,10,100", lines.get(0));
+        assertEquals("X,1,B,10,100", lines.get(1));
+        assertEquals("A,2,S,5,101", lines.get(2));
+    }
+
+    @Test
+    void testReaderShouldReadLinesAcrossChunks() throws IOException {
+        StringBuilder content = new StringBuilder();
+        List<String> expectedLines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String line = "A," + (100000 + i) + ",B," + (i % 50 + 1) + "," + (1000 + i);
+            expectedLines.add(line);
+            content.append(line).append('\n');
+        }
+        Path file = write(content.toString());
+
+        // chunks of 64 bytes split almost every line
+        assertEquals(expectedLines, readAll(new MappedDataFileReader(file.toString(), 64)));
+    }
+
+    @Test
+    void testNextLineShouldThrowIllegalStateExceptionWhenLineIsLongerThanChunk() throws IOException {
+        Path file = write("A,100000,B,10,1000\n");
+        MappedDataFileReader reader = new MappedDataFileReader(file.toString(), 8);
+        assertThrows(IllegalStateException.class, reader::nextLine);
+        reader.close();
+    }
+
+    @Test
+    void testEmptyFile() throws IOException {
+        Path file = write("");
+        MappedDataFileReader reader = new MappedDataFileReader(file.toString());
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    @Test
+    void testClose() throws IOException {
+        MappedDataFileReader reader = new MappedDataFileReader(path);
+        reader.close();
+        assertThrows(IllegalStateException.class, reader::hasNext);
+        assertThrows(IllegalStateException.class, reader::nextLine);
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("MarketDataFile-TST.csv");
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private List<String> readAll(MappedDataFileReader reader) {
+        List<String> lines = new ArrayList<>();
+        try {
+            while (reader.hasNext()) {
+                lines.add(reader.nextLine().toString());
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,119 @@
+package com.orderbook.util;
+
+import com.orderbook.constant.OrderActionType;
+import com.orderbook.constant.OrderSide;
+import com.orderbook.constant.OrderStatus;
+import com.orderbook.domain.OrderRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderRecordParserTest {
+
+    private final OrderRecordParser orderRecordParser = new OrderRecordParser();
+    private final OrderRecord orderRecord = new OrderRecord();
+
+    @Test
+    void testParseAddRecord() {
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse("A,100000,S,1,1075", 2, orderRecord));
+        assertEquals(OrderActionType.ADD, orderRecord.getActionType());
+        assertEquals("100000", orderRecord.getOrderId());
+        assertEquals(OrderSide.ASK, orderRecord.getSide());
+        assertEquals(1, orderRecord.getQuantity());
+        assertEquals(107500, orderRecord.getPrice());
+    }
+
+    @Test
+    void testParseRemoveRecord() {
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse("X,Order-1,B,30,97.5", 2, orderRecord));
+        assertEquals(OrderActionType.REMOVE, orderRecord.getActionType());
+        assertEquals("Order-1", orderRecord.getOrderId());
+        assertEquals(OrderSide.BID, orderRecord.getSide());
+        assertEquals(30, orderRecord.getQuantity());
+        assertEquals(9750, orderRecord.getPrice());
+    }
+
+    @Test
+    void testParseModifyRecord() {
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse("M,100000,S,5,1074", 2, orderRecord));
+        assertEquals(OrderActionType.MODIFY, orderRecord.getActionType());
+        assertEquals("100000", orderRecord.getOrderId());
+        assertEquals(5, orderRecord.getQuantity());
+        assertEquals(107400, orderRecord.getPrice());
+        assertEquals(OrderStatus.INVALID_ACTION_TYPE, orderRecordParser.parse("N,100000,S,5,1074", 2, orderRecord));
+    }
+
+    @Test
+    void testParseNumericOrderIdShouldDecodeTheIdIntoALong() {
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse("A,100000,S,1,1075", 2, true, orderRecord));
+        assertTrue(orderRecord.hasNumericOrderId());
+        assertEquals(100000, orderRecord.getNumericOrderId());
+        assertEquals(107500, orderRecord.getPrice());
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse("X,0,B,30,97.5", 2, true, orderRecord));
+        assertEquals(0, orderRecord.getNumericOrderId());
+        assertEquals(OrderStatus.ACCEPTED,
+                orderRecordParser.parse("M,999999999999999999,S,5,1074", 2, true, orderRecord));
+        assertEquals(999999999999999999L, orderRecord.getNumericOrderId());
+        assertEquals("999999999999999999", orderRecord.getOrderId());
+
+        assertEquals(OrderStatus.INVALID_ORDER_ID, orderRecordParser.parse("A,Order-1,S,1,1075", 2, true, orderRecord));
+        assertEquals(OrderStatus.INVALID_ORDER_ID, orderRecordParser.parse("A,01,S,1,1075", 2, true, orderRecord));
+        assertEquals(OrderStatus.INVALID_ORDER_ID,
+                orderRecordParser.parse("A,1000000000000000000,S,1,1075", 2, true, orderRecord));
+        assertEquals(OrderStatus.INVALID_ORDER_ID, orderRecordParser.parse("A, ,S,1,1075", 2, true, orderRecord));
+        // like the book, the other fields are checked first
+        assertEquals(OrderStatus.INVALID_SIDE, orderRecordParser.parse("A,Order-1,Q,1,1075", 2, true, orderRecord));
+        assertEquals(OrderStatus.INVALID_PRICE, orderRecordParser.parse("A,Order-1,S,1,x", 2, true, orderRecord));
+    }
+
+    @Test
+    void testParseLineView() {
+        byte[] bytes = "xxA,1,B,10,10.25\n".getBytes(StandardCharsets.US_ASCII);
+        LineView line = new LineView().set(ByteBuffer.wrap(bytes), 2, 14);
+        assertEquals(OrderStatus.ACCEPTED, orderRecordParser.parse(line, 4, orderRecord));
+        assertEquals(102500, orderRecord.getPrice());
+    }
+
+    @Test
+    void testParseShouldReturnReasonOfInvalidRecord() {
+        assertEquals(OrderStatus.INVALID_RECORD, orderRecordParser.parse("", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_RECORD, orderRecordParser.parse("A,1,B,10", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_RECORD, orderRecordParser.parse("A,1,B,10,100,5", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_ACTION_TYPE, orderRecordParser.parse("Z,1,B,10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_ACTION_TYPE, orderRecordParser.parse("AX,1,B,10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_ORDER_ID, orderRecordParser.parse("A, ,B,10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_ORDER_ID, orderRecordParser.parse("A,,B,10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_SIDE, orderRecordParser.parse("A,1,V,10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_QUANTITY, orderRecordParser.parse("A,1,B,-10,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_QUANTITY, orderRecordParser.parse("A,1,B,1.5,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_QUANTITY, orderRecordParser.parse("A,1,B,,100", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_PRICE, orderRecordParser.parse("A,1,B,10,100.4.4", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_PRICE, orderRecordParser.parse("A,1,B,10,-1", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_PRICE, orderRecordParser.parse("A,1,B,10,0", 2, orderRecord));
+        assertEquals(OrderStatus.INVALID_PRICE, orderRecordParser.parse("A,1,B,10,", 2, orderRecord));
+    }
+
+    @Test
+    void testParseQuantity() {
+        assertEquals(100, orderRecordParser.parseQuantity("100"));
+        assertEquals(Long.MAX_VALUE, orderRecordParser.parseQuantity(String.valueOf(Long.MAX_VALUE)));
+        assertEquals(-1, orderRecordParser.parseQuantity("9223372036854775808"));
+        assertEquals(-1, orderRecordParser.parseQuantity(""));
+        assertEquals(-1, orderRecordParser.parseQuantity("1a"));
+    }
+
+    @Test
+    void testParsePrice() {
+        assertEquals(1000, orderRecordParser.parsePrice("10", 2));
+        assertEquals(1000, orderRecordParser.parsePrice("10.", 2));
+        assertEquals(1050, orderRecordParser.parsePrice("10.5", 2));
+        assertEquals(1050, orderRecordParser.parsePrice("10.5000", 2));
+        assertEquals(10, orderRecordParser.parsePrice("10", 0));
+        assertEquals(-1, orderRecordParser.parsePrice("10.501", 2));
+        assertEquals(-1, orderRecordParser.parsePrice(".5", 2));
+        assertEquals(-1, orderRecordParser.parsePrice("92233720368547758.08", 2));
+    }
+}